@@ -1,7 +1,8 @@
 package com.solitaire.app;
 
 import com.solitaire.domain.Board;
-import com.solitaire.domain.Cell;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.GameStatus;
 import com.solitaire.domain.Move;
 import java.util.Objects;
 import lombok.extern.log4j.Log4j2;
@@ -20,20 +21,46 @@ public final class ApplyMoveCommand implements Command {
     private boolean isCurrentlyExecuted;
 
     /**
-     * Lightweight snapshot of the three cells affected by this move, used for undo. Storing only
-     * these three cell states instead of the entire board significantly reduces memory consumption
-     * for long games with extensive undo history.
+     * The three cells changed by this move, with their values before and after. Execute and undo
+     * each rebuild the board from it with a single copy, instead of keeping whole boards around for
+     * long games with extensive undo history.
      */
-    private Cell cellAtFrom;
+    private BoardPatch patch;
 
-    private Cell cellAtOver;
-    private Cell cellAtTo;
+    /**
+     * Versions and statuses of the game before and after the first execution. While the game shows
+     * the "before" board again, redo re-applies the patch without validating the move or evaluating
+     * the status; undo likewise restores the "before" status when it starts from the "after" board.
+     */
+    private long versionBefore;
+
+    private long versionAfter;
+    private GameStatus statusBefore;
+    private GameStatus statusAfter;
 
     public ApplyMoveCommand(GameState gameState, Move move) {
         this.gameState = Objects.requireNonNull(gameState, "game");
         this.move = Objects.requireNonNull(move, "move");
     }
 
+    /**
+     * A command rebuilt from a journal, with the patch it had; {@code executed} tells which stack
+     * it belongs on. Its first redo is validated, as the versions it was validated at are gone.
+     */
+    static ApplyMoveCommand replayed(
+            GameState gameState, Move move, BoardPatch patch, boolean executed) {
+        ApplyMoveCommand command = new ApplyMoveCommand(gameState, move);
+        command.patch = patch;
+        command.versionBefore = -1;
+        command.versionAfter = -1;
+        command.isCurrentlyExecuted = executed;
+        return command;
+    }
+
+    Move move() {
+        return move;
+    }
+
     @Override
     public boolean execute() {
         log.debug("Ready to execute move: {}", move);
@@ -44,19 +71,26 @@ public final class ApplyMoveCommand implements Command {
             return false;
         }
 
+        Board currentBoard = gameState.board();
+        if (patch != null && gameState.version() == versionBefore) {
+            log.debug("Board unchanged since validation, re-applying move {}", move);
+            gameState.restoreBoard(currentBoard.apply(patch), versionAfter, statusAfter);
+            isCurrentlyExecuted = true;
+            return true;
+        }
+
         if (!gameState.isLegal(move)) {
             log.debug("Move {} is not legal", move);
             return false;
         }
 
         // Capture minimal state needed for undo (just the three affected cells)
-        Board currentBoard = gameState.board();
-        cellAtFrom = currentBoard.cellAt(move.from());
-        cellAtOver = currentBoard.cellAt(move.over());
-        cellAtTo = currentBoard.cellAt(move.to());
-
-        Board after = currentBoard.applyUnchecked(move);
-        gameState.setBoard(after);
+        versionBefore = gameState.version();
+        statusBefore = gameState.status();
+        patch = BoardPatch.forMove(currentBoard, move);
+        gameState.setBoard(currentBoard.apply(patch));
+        versionAfter = gameState.version();
+        statusAfter = gameState.status();
 
         isCurrentlyExecuted = true;
         return true;
@@ -72,14 +106,12 @@ public final class ApplyMoveCommand implements Command {
         log.debug("Undoing move: {}", move);
 
         // Restore the three affected cells to their previous state
-        Board currentBoard = gameState.board();
-        Board restored =
-                currentBoard
-                        .withCell(move.from(), cellAtFrom)
-                        .withCell(move.over(), cellAtOver)
-                        .withCell(move.to(), cellAtTo);
-
-        gameState.setBoard(restored);
+        Board restored = gameState.board().revert(patch);
+        if (gameState.version() == versionAfter) {
+            gameState.restoreBoard(restored, versionBefore, statusBefore);
+        } else {
+            gameState.setBoard(restored);
+        }
         isCurrentlyExecuted = false;
     }
 }
@@ -0,0 +1,176 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Position;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * One change of a game as published by {@link BoardEventPublisher}, encoded once into a few bytes
+ * that every subscriber shares.
+ *
+ * <p>Events are numbered from 0 in the order the game changed. A delta holds only the cells that
+ * changed since the previous event and applies to the board that event left; a snapshot holds the
+ * whole board and stands on its own. Each starts with its kind, sequence number and the game's
+ * status:
+ *
+ * <pre>
+ * kind:1 sequence:8 status:1
+ * snapshot: rows:1 cols:1 cells, 2 bits each, first cell in the high bits
+ * delta:    count:1 then count times (index &lt;&lt; 2 | cell):2
+ * </pre>
+ *
+ * A jump thus takes 17 bytes and a snapshot of the English board 25.
+ */
+public final class BoardEvent {
+
+    private static final byte SNAPSHOT = 0;
+    private static final byte DELTA = 1;
+    private static final int HEADER_BYTES = 1 + 8 + 1;
+    private static final Cell[] CELLS = Cell.values();
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    private final byte[] bytes;
+
+    private BoardEvent(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /** The whole of {@code board}. */
+    public static BoardEvent snapshot(long sequence, Board board, GameStatus status) {
+        int cells = board.rows() * board.cols();
+        if (board.rows() > 255 || board.cols() > 255) {
+            throw new IllegalArgumentException("board too large to encode");
+        }
+        ByteBuffer out = header(SNAPSHOT, sequence, status, 2 + (cells + 3) / 4);
+        out.put((byte) board.rows()).put((byte) board.cols());
+        int packed = 0;
+        for (int i = 0; i < cells; i++) {
+            Cell cell = board.cellAt(new Position(i / board.cols(), i % board.cols()));
+            packed = packed << 2 | cell.ordinal();
+            if (i % 4 == 3) {
+                out.put((byte) packed);
+                packed = 0;
+            }
+        }
+        if (cells % 4 != 0) out.put((byte) (packed << 2 * (4 - cells % 4)));
+        return new BoardEvent(out.array());
+    }
+
+    /** The cells that differ from {@code from} to {@code to}, two boards of the same size. */
+    public static BoardEvent delta(long sequence, Board from, Board to, GameStatus status) {
+        BoardPatch patch = BoardPatch.between(from, to);
+        if (patch.size() > 255 || from.rows() * from.cols() > 1 << 14) {
+            return snapshot(sequence, to, status);
+        }
+        ByteBuffer out = header(DELTA, sequence, status, 1 + 2 * patch.size());
+        out.put((byte) patch.size());
+        for (int k = 0; k < patch.size(); k++) {
+            Position p = patch.position(k);
+            int index = p.r() * patch.cols() + p.c();
+            out.putShort((short) (index << 2 | patch.after(k).ordinal()));
+        }
+        return new BoardEvent(out.array());
+    }
+
+    /**
+     * Reads an event from the remaining bytes of {@code in}, as {@link #bytes()} wrote them.
+     *
+     * @throws IllegalArgumentException if they do not hold an event
+     */
+    public static BoardEvent decode(ByteBuffer in) {
+        byte[] bytes = new byte[in.remaining()];
+        in.get(bytes);
+        if (bytes.length < HEADER_BYTES
+                || bytes[0] != SNAPSHOT && bytes[0] != DELTA
+                || (bytes[9] & 0xFF) >= STATUSES.length) {
+            throw new IllegalArgumentException("not a board event");
+        }
+        if (bytes.length != HEADER_BYTES + bodyBytes(bytes)) {
+            throw new IllegalArgumentException("board event of the wrong length");
+        }
+        return new BoardEvent(bytes);
+    }
+
+    public long sequence() {
+        return ByteBuffer.wrap(bytes).getLong(1);
+    }
+
+    public boolean isSnapshot() {
+        return bytes[0] == SNAPSHOT;
+    }
+
+    public GameStatus status() {
+        return STATUSES[bytes[9]];
+    }
+
+    /** The encoded event; a read-only view of the bytes every subscriber shares. */
+    public ByteBuffer bytes() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * The board after this event: for a snapshot its board, whatever {@code board} is; for a delta
+     * {@code board}, which must be the board after the previous event, with the changes applied.
+     */
+    public Board applyTo(Board board) {
+        ByteBuffer in = ByteBuffer.wrap(bytes, HEADER_BYTES, bytes.length - HEADER_BYTES);
+        if (isSnapshot()) {
+            int rows = in.get() & 0xFF;
+            int cols = in.get() & 0xFF;
+            Cell[][] cells = new Cell[rows][cols];
+            int packed = 0;
+            for (int i = 0; i < rows * cols; i++) {
+                if (i % 4 == 0) packed = in.get();
+                cells[i / cols][i % cols] = cell(packed >>> 2 * (3 - i % 4) & 3);
+            }
+            return new Board(cells);
+        }
+        Objects.requireNonNull(board, "board");
+        int count = in.get() & 0xFF;
+        Position[] positions = new Position[count];
+        Cell[] cells = new Cell[count];
+        for (int k = 0; k < count; k++) {
+            int packed = in.getShort() & 0xFFFF;
+            int index = packed >>> 2;
+            positions[k] = new Position(index / board.cols(), index % board.cols());
+            cells[k] = cell(packed & 3);
+        }
+        return board.apply(BoardPatch.of(board, positions, cells));
+    }
+
+    /** Encoded size in bytes. */
+    public int size() {
+        return bytes.length;
+    }
+
+    @Override
+    public String toString() {
+        return (isSnapshot() ? "snapshot " : "delta ") + sequence() + " " + status();
+    }
+
+    private static ByteBuffer header(byte kind, long sequence, GameStatus status, int body) {
+        return ByteBuffer.allocate(HEADER_BYTES + body)
+                .put(kind)
+                .putLong(sequence)
+                .put((byte) status.ordinal());
+    }
+
+    /** Length of the event's body as its header says, or -1 if it is too short to say. */
+    private static int bodyBytes(byte[] bytes) {
+        if (bytes[0] == DELTA) {
+            return bytes.length > HEADER_BYTES ? 1 + 2 * (bytes[HEADER_BYTES] & 0xFF) : -1;
+        }
+        if (bytes.length < HEADER_BYTES + 2) return -1;
+        int cells = (bytes[HEADER_BYTES] & 0xFF) * (bytes[HEADER_BYTES + 1] & 0xFF);
+        return 2 + (cells + 3) / 4;
+    }
+
+    private static Cell cell(int ordinal) {
+        if (ordinal >= CELLS.length) throw new IllegalArgumentException("bad cell " + ordinal);
+        return CELLS[ordinal];
+    }
+}
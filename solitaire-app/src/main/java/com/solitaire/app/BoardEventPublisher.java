@@ -0,0 +1,222 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Publishes the changes of a {@link GameState} as {@link BoardEvent}s to any number of {@link
+ * Flow.Subscriber}s, honouring each one's demand, without ever blocking the game.
+ *
+ * <p>Each change is encoded once, as a delta, into a ring of the last {@code capacity} events that
+ * all subscribers read from; the game only writes the ring and wakes subscribers with demand. Every
+ * subscriber gets a snapshot first and then the deltas in order, on the executor, one delivery task
+ * at a time as in {@link CoalescingGameListener}. A subscriber that falls more than {@code
+ * capacity} events behind, or asks for more only after that, skips the events it missed: it gets
+ * one snapshot of the latest board, shared with the others catching up to it, and the deltas from
+ * there on. Memory is thus bounded by the ring, however slow the subscribers.
+ *
+ * <p>The game must be changed by one thread at a time, as {@link GameState} requires anyway.
+ */
+@Log4j2
+public final class BoardEventPublisher
+        implements Flow.Publisher<BoardEvent>, GameListener, AutoCloseable {
+
+    private record Latest(long sequence, Board board, GameStatus status) {}
+
+    private final GameState gameState;
+    private final Executor executor;
+    private final BoardEvent[] ring;
+    private final int mask;
+    private final List<Spectator> spectators = new CopyOnWriteArrayList<>();
+
+    /** Sequence of the last event in the ring; set after the event is stored. */
+    private final AtomicLong published = new AtomicLong();
+
+    private volatile Latest latest;
+    private final AtomicReference<BoardEvent> snapshot = new AtomicReference<>();
+    private volatile boolean closed;
+
+    /** Board of the last event; only the game's thread uses it. */
+    private Board board;
+
+    private BoardEventPublisher(GameState gameState, int capacity, Executor executor) {
+        this.gameState = gameState;
+        this.executor = executor;
+        this.ring = new BoardEvent[capacity];
+        this.mask = capacity - 1;
+        this.board = gameState.board();
+        this.latest = new Latest(0, board, gameState.status());
+    }
+
+    /**
+     * Publishes the changes of {@code gameState} from now on, delivering on {@code executor}.
+     *
+     * @param capacity events kept for subscribers that lag; a power of two
+     */
+    public static BoardEventPublisher attach(GameState gameState, int capacity, Executor executor) {
+        Objects.requireNonNull(gameState, "gameState");
+        Objects.requireNonNull(executor, "executor");
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        BoardEventPublisher publisher = new BoardEventPublisher(gameState, capacity, executor);
+        gameState.addListener(publisher);
+        return publisher;
+    }
+
+    /** Publishes on the common fork-join pool. */
+    public static BoardEventPublisher attach(GameState gameState, int capacity) {
+        return attach(gameState, capacity, ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super BoardEvent> subscriber) {
+        Spectator spectator = new Spectator(Objects.requireNonNull(subscriber, "subscriber"));
+        spectators.add(spectator);
+        subscriber.onSubscribe(spectator);
+        if (closed) spectator.schedule();
+    }
+
+    public int subscriberCount() {
+        return spectators.size();
+    }
+
+    @Override
+    public void onBoardChanged(Board newBoard) {
+        long sequence = published.get() + 1;
+        // GameState updates its status before it notifies, so the event carries the new one.
+        GameStatus status = gameState.status();
+        ring[(int) sequence & mask] = BoardEvent.delta(sequence, board, newBoard, status);
+        board = newBoard;
+        latest = new Latest(sequence, newBoard, status);
+        published.set(sequence);
+        for (Spectator spectator : spectators) {
+            if (spectator.demand.get() > 0) spectator.schedule();
+        }
+    }
+
+    @Override
+    public void onStatusChanged(GameStatus newStatus) {
+        // Already part of the event for the board change that caused it.
+    }
+
+    /** Stops following the game; subscribers get the events so far and then complete. */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        gameState.removeListener(this);
+        for (Spectator spectator : spectators) spectator.schedule();
+        log.debug("Closed board event publisher after {} events", published.get());
+    }
+
+    /** The latest board as a snapshot, encoded once however many subscribers ask. */
+    private BoardEvent latestSnapshot() {
+        Latest now = latest;
+        BoardEvent cached = snapshot.get();
+        if (cached != null && cached.sequence() >= now.sequence()) return cached;
+        BoardEvent fresh = BoardEvent.snapshot(now.sequence(), now.board(), now.status());
+        snapshot.compareAndSet(cached, fresh);
+        return fresh;
+    }
+
+    /** One subscriber's demand and position in the ring. */
+    private final class Spectator implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super BoardEvent> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile IllegalArgumentException badRequest;
+
+        /** Next sequence to deliver, or -1 before the first snapshot; only the drain uses it. */
+        private long next = -1;
+
+        Spectator(Flow.Subscriber<? super BoardEvent> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("non-positive request " + n);
+            } else {
+                demand.getAndAccumulate(n, (a, b) -> a + b < 0 ? Long.MAX_VALUE : a + b);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            spectators.remove(this);
+        }
+
+        void schedule() {
+            if (pending.getAndIncrement() == 0) executor.execute(this);
+        }
+
+        /** Delivers what it can; a wake-up during the run makes it go round once more. */
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                try {
+                    drain();
+                } catch (RuntimeException e) {
+                    log.error("Board event subscriber {} failed; cancelling it", subscriber, e);
+                    cancel();
+                }
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (cancelled) return;
+            if (badRequest != null) {
+                cancel();
+                subscriber.onError(badRequest);
+                return;
+            }
+            long wanted = demand.get();
+            long delivered = 0;
+            while (delivered < wanted && !cancelled) {
+                BoardEvent event = nextEvent();
+                if (event == null) break;
+                subscriber.onNext(event);
+                delivered++;
+            }
+            if (delivered > 0 && wanted != Long.MAX_VALUE) demand.addAndGet(-delivered);
+            if (closed && !cancelled && next > published.get()) {
+                cancel();
+                subscriber.onComplete();
+            }
+        }
+
+        private BoardEvent nextEvent() {
+            long head = published.get();
+            if (next > head) return null;
+            if (next >= 0 && head - next < ring.length) {
+                BoardEvent event = ring[(int) next & mask];
+                // The slot may have been reused since head was read; then this subscriber lags.
+                if (event != null && event.sequence() == next) {
+                    next++;
+                    return event;
+                }
+            }
+            BoardEvent snapshot = latestSnapshot();
+            next = snapshot.sequence() + 1;
+            return snapshot;
+        }
+    }
+}
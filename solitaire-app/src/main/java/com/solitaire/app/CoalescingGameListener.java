@@ -0,0 +1,59 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Forwards game events to a slow consumer on its own executor, keeping only the latest of each.
+ *
+ * <p>Events only overwrite the pending board and status; the first event after a delivery also
+ * submits one delivery task, so at most one task is ever queued on the executor no matter how many
+ * events arrive in between (an undo burst, a replay). When the task runs, the delegate sees the
+ * latest board and then the latest status, each only if one arrived since the previous delivery.
+ *
+ * <p>Events may come from any thread. The delegate is only called from the executor.
+ */
+public final class CoalescingGameListener implements GameListener {
+
+    private final GameListener delegate;
+    private final Executor executor;
+
+    private final AtomicReference<Board> pendingBoard = new AtomicReference<>();
+    private final AtomicReference<GameStatus> pendingStatus = new AtomicReference<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    public CoalescingGameListener(GameListener delegate, Executor executor) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    @Override
+    public void onBoardChanged(Board newBoard) {
+        pendingBoard.set(Objects.requireNonNull(newBoard, "newBoard"));
+        schedule();
+    }
+
+    @Override
+    public void onStatusChanged(GameStatus newStatus) {
+        pendingStatus.set(Objects.requireNonNull(newStatus, "newStatus"));
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) executor.execute(this::deliver);
+    }
+
+    private void deliver() {
+        // Cleared first: an event racing with this delivery either is picked up below or schedules
+        // the next one.
+        scheduled.set(false);
+        Board board = pendingBoard.getAndSet(null);
+        GameStatus status = pendingStatus.getAndSet(null);
+        if (board != null) delegate.onBoardChanged(board);
+        if (status != null) delegate.onStatusChanged(status);
+    }
+}
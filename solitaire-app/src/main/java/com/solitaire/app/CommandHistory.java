@@ -0,0 +1,117 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Move;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+
+/** Keeps the command objects themselves; works for any {@link Command}. */
+@Log4j2
+final class CommandHistory implements History {
+
+    /**
+     * A move command with its patch, move and positions, plus its deque slot; measured, rounded.
+     */
+    private static final int BYTES_PER_COMMAND = 160;
+
+    private final Deque<Command> undoStack = new ArrayDeque<>();
+    private final Deque<Command> redoStack = new ArrayDeque<>();
+
+    /**
+     * Adds a command rebuilt from a journal: executed ones go on the undo stack in the order they
+     * were played, the others on the redo stack in the order they would be redone.
+     */
+    void restore(Command command, boolean executed) {
+        if (executed) {
+            undoStack.push(command);
+        } else {
+            redoStack.addLast(command);
+        }
+    }
+
+    @Override
+    public boolean execute(Command command) {
+        boolean ok = command.execute();
+
+        if (!ok) {
+            log.debug("Execution of {} failed", command);
+            return false;
+        }
+
+        undoStack.push(command);
+        redoStack.clear();
+        return true;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return !undoStack.isEmpty();
+    }
+
+    @Override
+    public boolean canRedo() {
+        return !redoStack.isEmpty();
+    }
+
+    @Override
+    public boolean undo() {
+        if (undoStack.isEmpty()) return false;
+
+        Command cmd = undoStack.pop();
+        log.debug("Ready to undo command: {}", cmd);
+        cmd.undo();
+        redoStack.push(cmd);
+        return true;
+    }
+
+    @Override
+    public boolean redo() {
+        if (redoStack.isEmpty()) return false;
+
+        Command cmd = redoStack.pop();
+        log.debug("Ready to redo command: {}", cmd);
+        boolean ok = cmd.execute();
+
+        if (!ok) {
+            log.debug("Redo of command {} failed.", cmd);
+            return false;
+        }
+
+        undoStack.push(cmd);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        undoStack.clear();
+        redoStack.clear();
+    }
+
+    /** Batches of moves are flattened, so a saved game undoes them one move at a time. */
+    @Override
+    public MoveHistory moves() {
+        List<Move> moves = new ArrayList<>();
+        for (Iterator<Command> it = undoStack.descendingIterator(); it.hasNext(); ) {
+            addMoves(it.next(), moves);
+        }
+        int played = moves.size();
+        for (Command command : redoStack) addMoves(command, moves);
+        return new MoveHistory(moves, played);
+    }
+
+    private static void addMoves(Command command, List<Move> moves) {
+        switch (command) {
+            case ApplyMoveCommand apply -> moves.add(apply.move());
+            case MacroMoveCommand macro -> moves.addAll(macro.moves());
+            default -> throw new IllegalStateException("not a move: " + command);
+        }
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return (long) (undoStack.size() + redoStack.size()) * BYTES_PER_COMMAND;
+    }
+}
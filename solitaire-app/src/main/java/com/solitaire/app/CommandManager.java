@@ -1,68 +1,118 @@
 package com.solitaire.app;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Objects;
 import lombok.extern.log4j.Log4j2;
 
 @Log4j2
 public final class CommandManager {
 
-    private final Deque<Command> undoStack = new ArrayDeque<>();
-    private final Deque<Command> redoStack = new ArrayDeque<>();
+    private final History history;
 
-    public boolean execute(Command command) {
-        Objects.requireNonNull(command, "command");
-        log.debug("Ready to execute command: {}", command);
-        boolean ok = command.execute();
+    public CommandManager() {
+        this(new CommandHistory());
+    }
+
+    private CommandManager(History history) {
+        this.history = history;
+    }
+
+    /**
+     * A manager that only accepts {@link ApplyMoveCommand}s and keeps each of them as one packed
+     * {@code int} instead of the command object, for long sessions and many games per JVM. Once
+     * {@code maxDepth} moves are recorded the oldest ones can no longer be undone.
+     *
+     * @see PackedMoveHistory
+     */
+    public static CommandManager packed(GameState gameState, int maxDepth) {
+        return new CommandManager(new PackedMoveHistory(gameState, maxDepth));
+    }
+
+    /**
+     * A packed manager that starts with {@code saved} as its history; {@code gameState} must
+     * already show the board that history leads to.
+     */
+    public static CommandManager packed(GameState gameState, int maxDepth, PackedHistory saved) {
+        Objects.requireNonNull(saved, "saved");
+        return new CommandManager(PackedMoveHistory.restore(gameState, maxDepth, saved));
+    }
+
+    /**
+     * A manager whose undo history is {@code tree}: playing a new move after undoing keeps the
+     * undone line as a variation, and {@link UndoTree#jumpTo} moves between variations.
+     */
+    public static CommandManager branching(UndoTree tree) {
+        return new CommandManager(Objects.requireNonNull(tree, "tree"));
+    }
 
-        if (!ok) {
-            log.debug("Execution of {} failed", command);
-            return false;
+    /**
+     * A manager that records every move, undo and redo in {@code journal}, which must have been
+     * created for the game's current board with an empty history; after a crash {@link
+     * MoveJournal#recover} rebuilds the game and its manager. Only accepts {@link
+     * ApplyMoveCommand}s.
+     */
+    public static CommandManager journaled(GameState gameState, MoveJournal journal) {
+        Objects.requireNonNull(gameState, "gameState");
+        Objects.requireNonNull(journal, "journal");
+        if (journal.records() > 0 || !journal.start().equals(gameState.board())) {
+            throw new IllegalArgumentException("journal is not for a new game on this board");
         }
+        return journaled(new CommandHistory(), journal);
+    }
 
-        undoStack.push(command);
-        redoStack.clear();
-        return true;
+    static CommandManager journaled(CommandHistory history, MoveJournal journal) {
+        return new CommandManager(new JournaledHistory(history, journal));
+    }
+
+    public boolean execute(Command command) {
+        Objects.requireNonNull(command, "command");
+        log.debug("Ready to execute command: {}", command);
+        return history.execute(command);
     }
 
     public boolean canUndo() {
-        return !undoStack.isEmpty();
+        return history.canUndo();
     }
 
     public boolean canRedo() {
-        return !redoStack.isEmpty();
+        return history.canRedo();
     }
 
     public boolean undo() {
-        if (undoStack.isEmpty()) return false;
-
-        Command cmd = undoStack.pop();
-        log.debug("Ready to undo command: {}", cmd);
-        cmd.undo();
-        redoStack.push(cmd);
-        return true;
+        return history.undo();
     }
 
     public boolean redo() {
-        if (redoStack.isEmpty()) return false;
+        return history.redo();
+    }
 
-        Command cmd = redoStack.pop();
-        log.debug("Ready to redo command: {}", cmd);
-        boolean ok = cmd.execute();
+    /** Approximate heap held by the undo and redo history, in bytes. */
+    public long estimatedHistoryBytes() {
+        return history.estimatedBytes();
+    }
 
-        if (!ok) {
-            log.debug("Redo of command {} failed.", cmd);
-            return false;
+    /**
+     * The history of a {@linkplain #packed packed} manager as plain data.
+     *
+     * @throws IllegalStateException if this manager keeps another kind of history
+     */
+    public PackedHistory packedHistory() {
+        if (!(history instanceof PackedMoveHistory packed)) {
+            throw new IllegalStateException("history is not packed");
         }
+        return packed.export();
+    }
 
-        undoStack.push(cmd);
-        return true;
+    /**
+     * The moves in the undo history, e.g. for saving the game.
+     *
+     * @throws IllegalStateException if the history holds commands other than moves
+     */
+    public MoveHistory moveHistory() {
+        return history.moves();
     }
 
     public void clearHistory() {
         log.debug("Ready to clear caches");
-        undoStack.clear();
-        redoStack.clear();
+        history.clear();
     }
 }
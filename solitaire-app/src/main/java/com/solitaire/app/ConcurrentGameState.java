@@ -0,0 +1,142 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.rules.Rules;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Game state shared by several threads (UI, hint engines, autosave).
+ *
+ * <p>The board, status and version are published together as one immutable {@link GameSnapshot}
+ * through an {@link AtomicReference}, so readers never block and never see a board paired with
+ * another board's status. Writers compute the next snapshot from the one they read and install it
+ * with a compare-and-set.
+ *
+ * <p>Writes that name an expected version ({@link #tryApply}, {@link #trySetBoard}) fail instead of
+ * retrying when the state has moved on, so a background task cannot apply a move it computed
+ * against an outdated board. {@link #apply} re-validates against the latest board instead.
+ *
+ * <p>Listeners run on the writing thread, one at a time, and only ever see newer versions: when
+ * writes race, intermediate boards may be skipped. Wrap slow listeners in a {@link
+ * CoalescingGameListener} to move them off the writers.
+ */
+@Log4j2
+public final class ConcurrentGameState {
+
+    private final Rules rules;
+    private final AtomicReference<GameSnapshot> state;
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock notifyLock = new ReentrantLock();
+    private GameSnapshot notified;
+
+    public ConcurrentGameState(Board initialBoard, Rules rules) {
+        Objects.requireNonNull(initialBoard, "initialBoard");
+        this.rules = Objects.requireNonNull(rules, "rules");
+        this.state =
+                new AtomicReference<>(
+                        new GameSnapshot(initialBoard, rules.status(initialBoard), 0));
+        this.notified = state.get();
+    }
+
+    public GameSnapshot snapshot() {
+        return state.get();
+    }
+
+    public Board board() {
+        return state.get().board();
+    }
+
+    public GameStatus status() {
+        return state.get().status();
+    }
+
+    public long version() {
+        return state.get().version();
+    }
+
+    public Rules rules() {
+        return rules;
+    }
+
+    public void addListener(GameListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Plays the move if the state is still at {@code expectedVersion} and the move is legal there.
+     *
+     * @return false when the move is illegal or the state has changed since that version
+     */
+    public boolean tryApply(Move move, long expectedVersion) {
+        Objects.requireNonNull(move, "move");
+        GameSnapshot current = state.get();
+        if (current.version() != expectedVersion) {
+            log.debug(
+                    "Rejecting move {} computed at version {}, now {}",
+                    move,
+                    expectedVersion,
+                    current.version());
+            return false;
+        }
+        if (!rules.isLegal(current.board(), move)) return false;
+        return install(current, current.board().applyUnchecked(move));
+    }
+
+    /** Plays the move on the latest board, retrying when other writers get there first. */
+    public boolean apply(Move move) {
+        Objects.requireNonNull(move, "move");
+        while (true) {
+            GameSnapshot current = state.get();
+            if (!rules.isLegal(current.board(), move)) return false;
+            if (install(current, current.board().applyUnchecked(move))) return true;
+        }
+    }
+
+    /**
+     * Replaces the board if the state is still at {@code expectedVersion}; for undo, redo and
+     * loading saved games.
+     */
+    public boolean trySetBoard(Board newBoard, long expectedVersion) {
+        Objects.requireNonNull(newBoard, "newBoard");
+        GameSnapshot current = state.get();
+        return current.version() == expectedVersion && install(current, newBoard);
+    }
+
+    private boolean install(GameSnapshot current, Board board) {
+        GameSnapshot next = new GameSnapshot(board, rules.status(board), current.version() + 1);
+        if (!state.compareAndSet(current, next)) {
+            log.debug("Lost the race for version {}", next.version());
+            return false;
+        }
+        notifyListeners();
+        return true;
+    }
+
+    private void notifyListeners() {
+        notifyLock.lock();
+        try {
+            GameSnapshot latest = state.get();
+            if (latest.version() <= notified.version()) return;
+            GameSnapshot previous = notified;
+            notified = latest;
+            for (GameListener l : listeners) l.onBoardChanged(latest.board());
+            if (latest.status() != previous.status()) {
+                for (GameListener l : listeners) l.onStatusChanged(latest.status());
+            }
+        } finally {
+            notifyLock.unlock();
+        }
+    }
+}
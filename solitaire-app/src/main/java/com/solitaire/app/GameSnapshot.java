@@ -0,0 +1,10 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+
+/**
+ * An immutable view of a {@link ConcurrentGameState}: the board, its status and the number of
+ * writes that produced it. The version identifies the board a move was computed against.
+ */
+public record GameSnapshot(Board board, GameStatus status, long version) {}
@@ -4,9 +4,9 @@ import com.solitaire.domain.Board;
 import com.solitaire.domain.GameStatus;
 import com.solitaire.domain.Move;
 import com.solitaire.domain.rules.Rules;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 import lombok.extern.log4j.Log4j2;
 
 @Log4j2
@@ -17,7 +17,18 @@ public final class GameState {
     private Board board;
     private GameStatus status;
 
-    private final List<GameListener> listeners = new ArrayList<>();
+    /** Identifies the current board; see {@link #version()}. */
+    private long version;
+
+    /** Highest version handed out so far. */
+    private long lastVersion;
+
+    /**
+     * Listeners change rarely and are notified on every move, so the list is copied on write
+     * instead of on every notification; a listener may add or remove listeners while being
+     * notified.
+     */
+    private final List<GameListener> listeners = new CopyOnWriteArrayList<>();
 
     public GameState(Board initialBoard, Rules rules) {
         this.board = Objects.requireNonNull(initialBoard, "initialBoard");
@@ -25,6 +36,20 @@ public final class GameState {
         this.status = rules.status(board);
     }
 
+    /**
+     * Resumes a saved game that showed {@code board} as {@code version} after handing out versions
+     * up to {@code lastVersion}, so its boards keep the versions clients have seen and new ones get
+     * new versions.
+     */
+    public GameState(Board board, Rules rules, long version, long lastVersion) {
+        this(board, rules);
+        if (version < 0 || version > lastVersion) {
+            throw new IllegalArgumentException("version " + version + " past " + lastVersion);
+        }
+        this.version = version;
+        this.lastVersion = lastVersion;
+    }
+
     public Board board() {
         return board;
     }
@@ -33,6 +58,20 @@ public final class GameState {
         return status;
     }
 
+    /**
+     * Identifies the board currently shown. Every new board gets a new version; when a command
+     * restores a board it produced or replaced earlier, the version that board had comes back too,
+     * so a command can tell that the game shows exactly the board it validated.
+     */
+    public long version() {
+        return version;
+    }
+
+    /** Highest version handed out so far; the next new board gets the one after it. */
+    public long lastVersion() {
+        return lastVersion;
+    }
+
     public Rules rules() {
         return rules;
     }
@@ -47,10 +86,26 @@ public final class GameState {
 
     /** Mutates the game state. Only intended to be called by Commands. */
     void setBoard(Board newBoard) {
-        this.board = Objects.requireNonNull(newBoard, "newBoard");
+        Objects.requireNonNull(newBoard, "newBoard");
+        publish(newBoard, ++lastVersion, rules.status(newBoard));
+    }
+
+    /**
+     * Shows a board this game showed before as {@code version}, with the status it had then,
+     * without evaluating the rules again. Only for commands restoring a board they recorded.
+     */
+    void restoreBoard(Board oldBoard, long version, GameStatus status) {
+        Objects.requireNonNull(oldBoard, "oldBoard");
+        if (version > lastVersion) throw new IllegalArgumentException("unknown version " + version);
+        publish(oldBoard, version, Objects.requireNonNull(status, "status"));
+    }
+
+    private void publish(Board newBoard, long newVersion, GameStatus newStatus) {
+        this.board = newBoard;
+        this.version = newVersion;
 
         GameStatus old = this.status;
-        this.status = rules.status(board);
+        this.status = newStatus;
 
         notifyBoardChanged();
         if (old != status) {
@@ -64,14 +119,14 @@ public final class GameState {
 
     private void notifyBoardChanged() {
         log.debug("Notifying {} listeners of board change", listeners.size());
-        for (GameListener l : new ArrayList<>(listeners)) {
+        for (GameListener l : listeners) {
             l.onBoardChanged(board);
         }
     }
 
     private void notifyStatusChanged() {
         log.debug("Notifying {} listeners of status change to {}", listeners.size(), status);
-        for (GameListener l : new ArrayList<>(listeners)) {
+        for (GameListener l : listeners) {
             l.onStatusChanged(status);
         }
     }
@@ -0,0 +1,28 @@
+package com.solitaire.app;
+
+/** Undo and redo storage behind {@link CommandManager}. */
+interface History {
+
+    /** Runs the command and, when it succeeds, records it and drops anything redoable. */
+    boolean execute(Command command);
+
+    boolean canUndo();
+
+    boolean canRedo();
+
+    boolean undo();
+
+    boolean redo();
+
+    void clear();
+
+    /**
+     * The recorded moves, for saving a game.
+     *
+     * @throws IllegalStateException if the history holds commands other than moves
+     */
+    MoveHistory moves();
+
+    /** Approximate heap held by the recorded history, in bytes. */
+    long estimatedBytes();
+}
@@ -0,0 +1,76 @@
+package com.solitaire.app;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Command history that appends every change to a {@link MoveJournal}, so that {@link
+ * MoveJournal#recover} can rebuild it. Only records {@link ApplyMoveCommand}s, which fit the
+ * journal's fixed-size records.
+ */
+@Log4j2
+final class JournaledHistory implements History {
+
+    private final CommandHistory history;
+    private final MoveJournal journal;
+
+    JournaledHistory(CommandHistory history, MoveJournal journal) {
+        this.history = history;
+        this.journal = journal;
+    }
+
+    @Override
+    public boolean execute(Command command) {
+        if (!(command instanceof ApplyMoveCommand apply)) {
+            throw new IllegalArgumentException("journal only records moves: " + command);
+        }
+        if (!history.execute(command)) return false;
+        journal.append(MoveJournal.EXECUTE, apply.move());
+        return true;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return history.canUndo();
+    }
+
+    @Override
+    public boolean canRedo() {
+        return history.canRedo();
+    }
+
+    @Override
+    public boolean undo() {
+        if (!history.undo()) return false;
+        journal.append(MoveJournal.UNDO, null);
+        return true;
+    }
+
+    @Override
+    public boolean redo() {
+        if (!history.canRedo()) return false;
+        if (history.redo()) {
+            journal.append(MoveJournal.REDO, null);
+            return true;
+        }
+        // The history has dropped the command it could not redo; so must a replay
+        log.debug("Journaling failed redo");
+        journal.append(MoveJournal.REDO_FAILED, null);
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        history.clear();
+        journal.append(MoveJournal.CLEAR, null);
+    }
+
+    @Override
+    public MoveHistory moves() {
+        return history.moves();
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return history.estimatedBytes();
+    }
+}
@@ -0,0 +1,102 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.rules.Rules;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Applies a sequence of moves as one command, e.g. when importing or replaying a recorded game.
+ *
+ * <p>Every move is validated against the board left by the previous one, and the intermediate
+ * boards are never published: the game state changes once, so listeners are notified and the status
+ * is evaluated once for the whole batch. If any move is illegal nothing changes. Undo and redo
+ * treat the batch as a single unit; a redo onto the board the batch was validated against does not
+ * validate it again.
+ */
+@Log4j2
+public final class MacroMoveCommand implements Command {
+
+    private final GameState gameState;
+    private final List<Move> moves;
+
+    private boolean isCurrentlyExecuted;
+
+    /** Cells that differ between the boards before and after the batch. */
+    private BoardPatch patch;
+
+    /** As in {@link ApplyMoveCommand}: lets redo skip validating the batch again. */
+    private long versionBefore;
+
+    private long versionAfter;
+    private GameStatus statusBefore;
+    private GameStatus statusAfter;
+
+    public MacroMoveCommand(GameState gameState, List<Move> moves) {
+        this.gameState = Objects.requireNonNull(gameState, "game");
+        this.moves = List.copyOf(Objects.requireNonNull(moves, "moves"));
+    }
+
+    public List<Move> moves() {
+        return moves;
+    }
+
+    @Override
+    public boolean execute() {
+        log.debug("Ready to execute {} moves", moves.size());
+
+        if (isCurrentlyExecuted) {
+            log.debug("Command is already in executed state, cannot execute again");
+            return false;
+        }
+
+        Board before = gameState.board();
+        if (patch != null && gameState.version() == versionBefore) {
+            log.debug("Board unchanged since validation, re-applying {} moves", moves.size());
+            gameState.restoreBoard(before.apply(patch), versionAfter, statusAfter);
+            isCurrentlyExecuted = true;
+            return true;
+        }
+
+        Rules rules = gameState.rules();
+        Board board = before;
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            if (!rules.isLegal(board, move)) {
+                log.debug("Move {} ({} of {}) is not legal", move, i + 1, moves.size());
+                return false;
+            }
+            board = board.applyUnchecked(move);
+        }
+
+        versionBefore = gameState.version();
+        statusBefore = gameState.status();
+        patch = BoardPatch.between(before, board);
+        gameState.setBoard(board);
+        versionAfter = gameState.version();
+        statusAfter = gameState.status();
+        isCurrentlyExecuted = true;
+        return true;
+    }
+
+    @Override
+    public void undo() {
+        if (!isCurrentlyExecuted) {
+            log.debug("Cannot undo: command is not in executed state");
+            return;
+        }
+
+        log.debug("Undoing {} moves", moves.size());
+        Board restored = gameState.board().revert(patch);
+        if (gameState.version() == versionAfter) {
+            gameState.restoreBoard(restored, versionBefore, statusBefore);
+        } else {
+            gameState.setBoard(restored);
+        }
+        isCurrentlyExecuted = false;
+    }
+}
@@ -0,0 +1,19 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Move;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The moves an undo history holds, oldest first: the first {@code played} lead to the current board
+ * and can be undone, the rest can be redone in order.
+ */
+public record MoveHistory(List<Move> moves, int played) {
+
+    public MoveHistory {
+        moves = List.copyOf(Objects.requireNonNull(moves, "moves"));
+        if (played < 0 || played > moves.size()) {
+            throw new IllegalArgumentException("played " + played + " outside 0.." + moves.size());
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.rules.Rules;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Append-only, memory-mapped log of everything a {@linkplain CommandManager#journaled journaled}
+ * command manager does, from which a crashed game is rebuilt with {@link #recover}.
+ *
+ * <p>The file starts with a {@value #HEADER_BYTES}-byte header holding the start board, followed by
+ * fixed {@value #RECORD_BYTES}-byte records: a sequence number, the operation (execute, undo, redo,
+ * a redo that failed, clear), the move's from, over and to coordinates, and a CRC32C of the rest.
+ * Records are written into the mapped file, so they survive a crash of the JVM as soon as they are
+ * appended; surviving a crash of the machine needs them forced to disk. That happens in groups: a
+ * background thread forces whatever was appended every {@code syncInterval}, or every append forces
+ * when the interval is zero. {@link #sync} and {@link #close} force immediately.
+ *
+ * <p>Recovery reads records until the first one that is missing, out of sequence, fails its
+ * checksum (a write torn by the crash) or replays a move the rules reject on the board reached so
+ * far, then continues appending from there.
+ */
+@Log4j2
+public final class MoveJournal implements AutoCloseable {
+
+    static final int HEADER_BYTES = 1024;
+    static final int RECORD_BYTES = 16;
+
+    private static final int MAGIC = 0x50534D4A; // "PSMJ"
+    private static final int VERSION = 1;
+    private static final int MAX_CELLS = HEADER_BYTES - 12;
+    private static final int CHUNK_BYTES = 1 << 20;
+    private static final Cell[] CELLS = Cell.values();
+
+    static final byte EXECUTE = 1;
+    static final byte UNDO = 2;
+    static final byte REDO = 3;
+    static final byte REDO_FAILED = 4;
+    static final byte CLEAR = 5;
+
+    /** A rebuilt game: the journal, open for appending, and the state and history it recorded. */
+    public record Recovery(MoveJournal journal, GameState gameState, CommandManager commands) {}
+
+    private final Path file;
+    private final Board start;
+    private final FileChannel channel;
+    private final ScheduledExecutorService syncer;
+    private final boolean syncEachAppend;
+    private final byte[] scratch = new byte[RECORD_BYTES];
+    private final CRC32C crc = new CRC32C();
+
+    private MappedByteBuffer chunk;
+    private long chunkStart;
+    private long records;
+    private boolean dirty;
+
+    private MoveJournal(Path file, Board start, FileChannel channel, long records, Duration sync) {
+        this.file = file;
+        this.start = start;
+        this.channel = channel;
+        this.records = records;
+        this.syncEachAppend = sync.isZero();
+        mapChunkAt(HEADER_BYTES + records * RECORD_BYTES);
+        if (syncEachAppend) {
+            this.syncer = null;
+        } else {
+            this.syncer =
+                    Executors.newSingleThreadScheduledExecutor(
+                            Thread.ofPlatform().daemon().name("move-journal-sync").factory());
+            long nanos = sync.toNanos();
+            syncer.scheduleWithFixedDelay(this::syncQuietly, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Starts a new journal for a game beginning at {@code start}, replacing {@code file}.
+     *
+     * @param syncInterval how often appended records are forced to disk; zero forces every append
+     */
+    public static MoveJournal create(Path file, Board start, Duration syncInterval) {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(start, "start");
+        checkInterval(syncInterval);
+        if (start.rows() > 255 || start.cols() > 255 || start.rows() * start.cols() > MAX_CELLS) {
+            throw new IllegalArgumentException("journal supports boards of at most 1012 cells");
+        }
+        try {
+            FileChannel channel =
+                    FileChannel.open(
+                            file,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.TRUNCATE_EXISTING,
+                            StandardOpenOption.READ,
+                            StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION);
+            header.putShort((short) start.rows()).putShort((short) start.cols());
+            for (int r = 0; r < start.rows(); r++) {
+                for (int c = 0; c < start.cols(); c++) {
+                    header.put((byte) start.cellAt(new Position(r, c)).ordinal());
+                }
+            }
+            header.clear();
+            while (header.hasRemaining()) channel.write(header, header.position());
+            channel.force(true);
+            log.debug("Created move journal {}", file);
+            return new MoveJournal(file, start, channel, 0, syncInterval);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Rebuilds the game recorded in {@code file}: a {@link GameState} showing the last board and a
+     * command manager with the same undo and redo stacks, journaling into the same file.
+     */
+    public static Recovery recover(Path file, Rules rules, Duration syncInterval) {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(rules, "rules");
+        checkInterval(syncInterval);
+        try {
+            FileChannel channel =
+                    FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MoveJournal journal = null;
+            try {
+                Board start = readStart(channel, file);
+                Replay replay = new Replay(start, rules);
+                long valid = replay.read(channel);
+                log.debug("Replayed {} records from {}", valid, file);
+
+                // Anything after the last valid record would be mistaken for new records later on
+                channel.truncate(HEADER_BYTES + valid * RECORD_BYTES);
+                journal = new MoveJournal(file, start, channel, valid, syncInterval);
+                return replay.rebuild(journal);
+            } catch (IOException | RuntimeException e) {
+                if (journal != null) journal.close();
+                else channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** The board the journaled game started from. */
+    public Board start() {
+        return start;
+    }
+
+    /** Number of records appended so far, recovered ones included. */
+    public synchronized long records() {
+        return records;
+    }
+
+    /** Forces every appended record to disk. */
+    public synchronized void sync() {
+        if (!dirty) return;
+        chunk.force();
+        dirty = false;
+    }
+
+    /** Forces outstanding records to disk and closes the file. */
+    @Override
+    public synchronized void close() {
+        if (syncer != null) syncer.shutdownNow();
+        sync();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.debug("Closed move journal {} after {} records", file, records);
+    }
+
+    synchronized void append(byte type, Move move) {
+        if (!channel.isOpen()) throw new IllegalStateException("journal is closed");
+        scratch[4] = type;
+        if (move != null) {
+            scratch[5] = (byte) move.from().r();
+            scratch[6] = (byte) move.from().c();
+            scratch[7] = (byte) move.over().r();
+            scratch[8] = (byte) move.over().c();
+            scratch[9] = (byte) move.to().r();
+            scratch[10] = (byte) move.to().c();
+        } else {
+            for (int i = 5; i < 11; i++) scratch[i] = 0;
+        }
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        record.putInt(0, (int) (records + 1));
+        crc.reset();
+        crc.update(scratch, 0, 12);
+        record.putInt(12, (int) crc.getValue());
+
+        if (!chunk.hasRemaining()) {
+            chunk.force();
+            mapChunkAt(chunkStart + CHUNK_BYTES);
+        }
+        chunk.put(scratch);
+        records++;
+        dirty = true;
+        if (syncEachAppend) sync();
+    }
+
+    private void mapChunkAt(long position) {
+        try {
+            chunkStart = position;
+            chunk = channel.map(FileChannel.MapMode.READ_WRITE, position, CHUNK_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private synchronized void syncQuietly() {
+        try {
+            if (channel.isOpen()) sync();
+        } catch (RuntimeException e) {
+            log.error("Syncing move journal {} failed", file, e);
+        }
+    }
+
+    private static void checkInterval(Duration syncInterval) {
+        Objects.requireNonNull(syncInterval, "syncInterval");
+        if (syncInterval.isNegative()) throw new IllegalArgumentException("negative interval");
+    }
+
+    private static Board readStart(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException(file + " is too short for a move journal");
+            }
+        }
+        header.flip();
+        if (header.getInt() != MAGIC) throw new IOException(file + " is not a move journal");
+        int version = header.getInt();
+        if (version != VERSION) throw new IOException("unsupported journal version " + version);
+        int rows = header.getShort();
+        int cols = header.getShort();
+        Cell[][] cells = new Cell[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) cells[r][c] = CELLS[header.get()];
+        }
+        return new Board(cells);
+    }
+
+    /** The moves held by the history, their patches, the undo cursor and the board shown. */
+    private static final class Replay {
+
+        private final Rules rules;
+        private final List<Move> moves = new ArrayList<>();
+        private final List<BoardPatch> patches = new ArrayList<>();
+        private Board board;
+        private int cursor;
+
+        Replay(Board start, Rules rules) {
+            this.board = start;
+            this.rules = rules;
+        }
+
+        /** Applies the valid records in {@code channel} and returns how many there were. */
+        long read(FileChannel channel) throws IOException {
+            long size = channel.size();
+            byte[] record = new byte[RECORD_BYTES];
+            CRC32C crc = new CRC32C();
+            long count = 0;
+            for (long at = HEADER_BYTES; at + RECORD_BYTES <= size; ) {
+                long length =
+                        Math.min(size - at, Integer.MAX_VALUE / 2) / RECORD_BYTES * RECORD_BYTES;
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, at, length);
+                while (region.hasRemaining()) {
+                    region.get(record);
+                    ByteBuffer view = ByteBuffer.wrap(record);
+                    crc.reset();
+                    crc.update(record, 0, 12);
+                    if (view.getInt(0) != (int) (count + 1)
+                            || view.getInt(12) != (int) crc.getValue()
+                            || !apply(record)) {
+                        return count;
+                    }
+                    count++;
+                }
+                at += length;
+            }
+            return count;
+        }
+
+        private boolean apply(byte[] record) {
+            switch (record[4]) {
+                case EXECUTE -> {
+                    Move move = move(record);
+                    if (!isLegal(move)) return false;
+                    moves.subList(cursor, moves.size()).clear();
+                    patches.subList(cursor, patches.size()).clear();
+                    moves.add(move);
+                    play(move);
+                }
+                case UNDO -> {
+                    if (cursor == 0) return false;
+                    cursor--;
+                    board = board.apply(patches.get(cursor).inverse());
+                }
+                case REDO -> {
+                    if (cursor == moves.size() || !isLegal(moves.get(cursor))) return false;
+                    patches.remove(cursor);
+                    play(moves.get(cursor));
+                }
+                case REDO_FAILED -> {
+                    if (cursor == moves.size()) return false;
+                    moves.remove(cursor);
+                    patches.remove(cursor);
+                }
+                case CLEAR -> {
+                    moves.clear();
+                    patches.clear();
+                    cursor = 0;
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Checked as the game checked it, but without letting an off-board move throw. */
+        private boolean isLegal(Move move) {
+            return board.isInside(move.from())
+                    && board.isInside(move.over())
+                    && board.isInside(move.to())
+                    && rules.isLegal(board, move);
+        }
+
+        private void play(Move move) {
+            BoardPatch patch = BoardPatch.forMove(board, move);
+            patches.add(cursor, patch);
+            board = board.apply(patch);
+            cursor++;
+        }
+
+        private static Move move(byte[] record) {
+            return new Move(
+                    new Position(record[5] & 0xFF, record[6] & 0xFF),
+                    new Position(record[7] & 0xFF, record[8] & 0xFF),
+                    new Position(record[9] & 0xFF, record[10] & 0xFF));
+        }
+
+        Recovery rebuild(MoveJournal journal) {
+            GameState gameState = new GameState(board, rules);
+            CommandHistory history = new CommandHistory();
+            for (int i = 0; i < moves.size(); i++) {
+                history.restore(
+                        ApplyMoveCommand.replayed(
+                                gameState, moves.get(i), patches.get(i), i < cursor),
+                        i < cursor);
+            }
+            CommandManager commands = CommandManager.journaled(history, journal);
+            return new Recovery(journal, gameState, commands);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.solitaire.app;
+
+import java.util.Objects;
+
+/**
+ * The moves of a {@linkplain CommandManager#packed packed} history as plain data, for storing a
+ * game outside the heap: one packed {@code int} per move, oldest first, of which the first {@code
+ * cursor} are played (undoable) and the rest redoable. The codes refer to cells by row-major index,
+ * so they can only be restored onto a board of the same size.
+ */
+public record PackedHistory(int[] moves, int cursor) {
+
+    public PackedHistory {
+        Objects.requireNonNull(moves, "moves");
+        if (cursor < 0 || cursor > moves.length) {
+            throw new IllegalArgumentException("cursor " + cursor + " outside 0.." + moves.length);
+        }
+    }
+}
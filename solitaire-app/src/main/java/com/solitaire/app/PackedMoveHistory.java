@@ -0,0 +1,236 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Move history packed into one {@code int} per move.
+ *
+ * <p>An {@link ApplyMoveCommand} on the undo stack costs the command, its {@link Move}, three
+ * {@link Position}s and a deque slot, well over a hundred bytes. Here each move is the row-major
+ * cell index of from, over and to (9 bits each, so boards of up to 512 cells) and the three cells
+ * it overwrote, as one base-3 digit each (5 bits). Undo and redo entries share one ring: entries
+ * before the cursor are undoable and entries after it redoable. The ring grows on demand up to
+ * {@code maxDepth}; past that the oldest move is forgotten.
+ */
+@Log4j2
+final class PackedMoveHistory implements History {
+
+    static final int MAX_CELLS = 1 << 9;
+
+    private static final int CELL_MASK = MAX_CELLS - 1;
+    private static final Cell[] CELLS = Cell.values();
+
+    private final GameState gameState;
+    private final int cols;
+    private final int maxDepth;
+
+    private int[] ring;
+    private int head;
+    private int size;
+    private int cursor;
+
+    /**
+     * Game version right after the last undo or redo. While the game still shows that board, the
+     * next redoable move was validated on it before and is replayed without checking it again.
+     */
+    private long redoVersion = -1;
+
+    PackedMoveHistory(GameState gameState, int maxDepth) {
+        this.gameState = Objects.requireNonNull(gameState, "gameState");
+        if (maxDepth < 1) throw new IllegalArgumentException("maxDepth must be positive");
+        Board board = gameState.board();
+        if (board.rows() * board.cols() > MAX_CELLS) {
+            throw new IllegalArgumentException("packed history supports at most 512 cells");
+        }
+        this.cols = board.cols();
+        this.maxDepth = maxDepth;
+        this.ring = new int[Math.min(16, maxDepth)];
+    }
+
+    /** A history holding {@code saved}, on a game that shows the board it leads to. */
+    static PackedMoveHistory restore(GameState gameState, int maxDepth, PackedHistory saved) {
+        PackedMoveHistory history = new PackedMoveHistory(gameState, maxDepth);
+        int[] moves = saved.moves();
+        if (moves.length > maxDepth) {
+            throw new IllegalArgumentException(
+                    moves.length + " saved moves exceed maxDepth " + maxDepth);
+        }
+        if (moves.length > history.ring.length) history.ring = new int[moves.length];
+        System.arraycopy(moves, 0, history.ring, 0, moves.length);
+        history.size = moves.length;
+        history.cursor = saved.cursor();
+        return history;
+    }
+
+    /** The recorded moves, oldest first. */
+    PackedHistory export() {
+        int[] moves = new int[size];
+        for (int i = 0; i < size; i++) moves[i] = ring[(head + i) % ring.length];
+        return new PackedHistory(moves, cursor);
+    }
+
+    @Override
+    public boolean execute(Command command) {
+        if (!(command instanceof ApplyMoveCommand apply)) {
+            throw new IllegalArgumentException("packed history only records moves: " + command);
+        }
+        Move move = apply.move();
+        Board before = gameState.board();
+        if (!before.isInside(move.from())
+                || !before.isInside(move.over())
+                || !before.isInside(move.to())) {
+            log.debug("Move {} is off the board", move);
+            return false;
+        }
+        int code =
+                pack(
+                        move,
+                        before.cellAt(move.from()),
+                        before.cellAt(move.over()),
+                        before.cellAt(move.to()));
+        if (!command.execute()) {
+            log.debug("Execution of {} failed", command);
+            return false;
+        }
+        push(code);
+        return true;
+    }
+
+    @Override
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    @Override
+    public boolean undo() {
+        if (cursor == 0) return false;
+
+        int code = ring[(head + cursor - 1) % ring.length];
+        Move move = unpack(code);
+        log.debug("Ready to undo move: {}", move);
+        int cells = code >>> 27;
+        Board current = gameState.board();
+        Board restored =
+                current.apply(
+                        BoardPatch.of(
+                                current,
+                                new Position[] {move.from(), move.over(), move.to()},
+                                new Cell[] {
+                                    CELLS[cells / 9], CELLS[cells / 3 % 3], CELLS[cells % 3]
+                                }));
+        gameState.setBoard(restored);
+        cursor--;
+        redoVersion = gameState.version();
+        return true;
+    }
+
+    @Override
+    public boolean redo() {
+        if (cursor == size) return false;
+
+        Move move = unpack(ring[(head + cursor) % ring.length]);
+        log.debug("Ready to redo move: {}", move);
+        if (gameState.version() != redoVersion && !gameState.isLegal(move)) {
+            log.debug("Redo of move {} failed.", move);
+            dropAtCursor();
+            return false;
+        }
+        gameState.setBoard(gameState.board().applyUnchecked(move));
+        cursor++;
+        redoVersion = gameState.version();
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        head = 0;
+        size = 0;
+        cursor = 0;
+    }
+
+    /** Moves currently held (undoable plus redoable). */
+    int size() {
+        return size;
+    }
+
+    /** Length of the backing ring, for memory accounting. */
+    int capacity() {
+        return ring.length;
+    }
+
+    @Override
+    public MoveHistory moves() {
+        List<Move> moves = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) moves.add(unpack(ring[(head + i) % ring.length]));
+        return new MoveHistory(moves, cursor);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return 16 + 4L * ring.length;
+    }
+
+    private void push(int code) {
+        size = cursor;
+        if (size == maxDepth) {
+            head = (head + 1) % ring.length;
+            size--;
+            cursor--;
+        } else if (size == ring.length) {
+            grow();
+        }
+        ring[(head + size) % ring.length] = code;
+        size++;
+        cursor++;
+    }
+
+    /**
+     * Forgets the next redoable move, as {@link CommandHistory} does, keeping the ones after it.
+     */
+    private void dropAtCursor() {
+        for (int i = cursor; i < size - 1; i++) {
+            ring[(head + i) % ring.length] = ring[(head + i + 1) % ring.length];
+        }
+        size--;
+    }
+
+    private void grow() {
+        int[] bigger = new int[(int) Math.min((long) ring.length * 2, maxDepth)];
+        for (int i = 0; i < size; i++) bigger[i] = ring[(head + i) % ring.length];
+        ring = bigger;
+        head = 0;
+    }
+
+    private int pack(Move move, Cell from, Cell over, Cell to) {
+        int cells = from.ordinal() * 9 + over.ordinal() * 3 + to.ordinal();
+        return index(move.from()) | index(move.over()) << 9 | index(move.to()) << 18 | cells << 27;
+    }
+
+    private Move unpack(int code) {
+        return new Move(
+                position(code & CELL_MASK),
+                position(code >>> 9 & CELL_MASK),
+                position(code >>> 18 & CELL_MASK));
+    }
+
+    private int index(Position p) {
+        return p.r() * cols + p.c();
+    }
+
+    private Position position(int index) {
+        return new Position(index / cols, index % cols);
+    }
+}
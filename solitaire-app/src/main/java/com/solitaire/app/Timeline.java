@@ -0,0 +1,115 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * A game's move log with a board checkpoint every {@code interval} moves, for replays.
+ *
+ * <p>Seeking to move {@code n} starts from the nearest checkpoint at or before it (or from the
+ * current position, when that is closer) and applies at most {@code interval - 1} moves off to the
+ * side, then hands the final board to the {@link GameState} once. Listeners therefore see a single
+ * board change and a single status evaluation per seek, however far it jumps.
+ *
+ * <p>Playing a move anywhere but at the end of the log truncates the moves after it, as with a
+ * linear undo history.
+ */
+@Log4j2
+public final class Timeline {
+
+    private final GameState gameState;
+    private final int interval;
+    private final List<Move> moves = new ArrayList<>();
+    private final List<Board> checkpoints = new ArrayList<>();
+    private int position;
+
+    /** A timeline starting at the game's current board. */
+    public Timeline(GameState gameState, int interval) {
+        this.gameState = Objects.requireNonNull(gameState, "gameState");
+        if (interval < 1) throw new IllegalArgumentException("interval must be positive");
+        this.interval = interval;
+        checkpoints.add(gameState.board());
+    }
+
+    /**
+     * Loads a recorded game from the game's current board, which stays on screen: nothing is
+     * published until the first {@link #seek}.
+     */
+    public static Timeline replay(GameState gameState, List<Move> moves, int interval) {
+        Timeline timeline = new Timeline(gameState, interval);
+        Board board = gameState.board();
+        for (Move move : moves) {
+            if (!gameState.rules().isLegal(board, move)) {
+                throw new IllegalArgumentException(
+                        "move " + (timeline.moves.size() + 1) + " is illegal: " + move);
+            }
+            board = board.applyUnchecked(move);
+            timeline.append(move, board);
+        }
+        return timeline;
+    }
+
+    /** Number of moves in the log. */
+    public int length() {
+        return moves.size();
+    }
+
+    /** Moves played to reach the current board. */
+    public int position() {
+        return position;
+    }
+
+    /** The {@code i}-th move (zero-based). */
+    public Move move(int i) {
+        return moves.get(i);
+    }
+
+    /** Plays a legal move at the current position, dropping any later moves. */
+    public boolean play(Move move) {
+        Objects.requireNonNull(move, "move");
+        if (!gameState.isLegal(move)) {
+            log.debug("Move {} is not legal", move);
+            return false;
+        }
+        truncate();
+        Board board = gameState.board().applyUnchecked(move);
+        append(move, board);
+        position++;
+        gameState.setBoard(board);
+        return true;
+    }
+
+    /** Shows the board after {@code n} moves. */
+    public void seek(int n) {
+        if (n < 0 || n > moves.size()) {
+            throw new IndexOutOfBoundsException("move " + n + " outside 0.." + moves.size());
+        }
+        if (n == position) return;
+
+        int from = n / interval * interval;
+        Board board = checkpoints.get(n / interval);
+        if (position > from && position < n) {
+            from = position;
+            board = gameState.board();
+        }
+        for (int i = from; i < n; i++) board = board.applyUnchecked(moves.get(i));
+        log.debug("Seek from move {} to {} applied {} moves", position, n, n - from);
+        position = n;
+        gameState.setBoard(board);
+    }
+
+    private void append(Move move, Board board) {
+        moves.add(move);
+        if (moves.size() % interval == 0) checkpoints.add(board);
+    }
+
+    private void truncate() {
+        if (position == moves.size()) return;
+        moves.subList(position, moves.size()).clear();
+        checkpoints.subList(position / interval + 1, checkpoints.size()).clear();
+    }
+}
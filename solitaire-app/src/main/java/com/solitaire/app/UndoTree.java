@@ -0,0 +1,216 @@
+package com.solitaire.app;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.Move;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Undo history that keeps every explored variation.
+ *
+ * <p>Playing a move from a position that already has moves after it adds a sibling line instead of
+ * discarding them, and any node can be jumped to. Nodes store only the {@link BoardPatch} from
+ * their parent, so memory grows with the number of moves played. A jump reverts patches up to the
+ * lowest common ancestor and applies them down to the target, which costs time proportional to the
+ * tree distance, and publishes the resulting board to the {@link GameState} once.
+ *
+ * <p>As a {@link CommandManager} history ({@link CommandManager#branching}) it only records {@link
+ * ApplyMoveCommand}s; redo follows the child that was most recently visited.
+ */
+@Log4j2
+public final class UndoTree implements History {
+
+    /** A node with its children list and a three-cell patch; measured, rounded. */
+    private static final int BYTES_PER_NODE = 200;
+
+    /** One position in the tree; the root has no move and no parent. */
+    public static final class Node {
+
+        private final Node parent;
+        private final Move move;
+        private final BoardPatch patch;
+        private final int depth;
+        private final List<Node> children = new ArrayList<>(1);
+        private Node lastVisited;
+
+        private Node(Node parent, Move move, BoardPatch patch) {
+            this.parent = parent;
+            this.move = move;
+            this.patch = patch;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        public Node parent() {
+            return parent;
+        }
+
+        /** The move from the parent, or null for the root. */
+        public Move move() {
+            return move;
+        }
+
+        /** Moves from the root. */
+        public int depth() {
+            return depth;
+        }
+
+        public List<Node> children() {
+            return Collections.unmodifiableList(children);
+        }
+
+        private Node child(Move move) {
+            for (Node child : children) {
+                if (child.move.equals(move)) return child;
+            }
+            return null;
+        }
+    }
+
+    private final GameState gameState;
+    private Node root = new Node(null, null, null);
+    private Node current = root;
+    private int size = 1;
+
+    public UndoTree(GameState gameState) {
+        this.gameState = Objects.requireNonNull(gameState, "gameState");
+    }
+
+    public Node root() {
+        return root;
+    }
+
+    public Node current() {
+        return current;
+    }
+
+    /** Number of nodes, root included. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Plays a legal move from the current node. A move that was already explored from here moves to
+     * the existing child instead of duplicating it.
+     */
+    public boolean play(Move move) {
+        Objects.requireNonNull(move, "move");
+        if (!gameState.isLegal(move)) {
+            log.debug("Move {} is not legal", move);
+            return false;
+        }
+        Node child = current.child(move);
+        Board board = gameState.board();
+        if (child == null) {
+            child = new Node(current, move, BoardPatch.forMove(board, move));
+            current.children.add(child);
+            size++;
+        }
+        current.lastVisited = child;
+        current = child;
+        gameState.setBoard(board.apply(child.patch));
+        return true;
+    }
+
+    /** Moves to {@code target}, wherever it is in this tree. */
+    public void jumpTo(Node target) {
+        Objects.requireNonNull(target, "target");
+        if (target == current) return;
+
+        Node up = current;
+        Node down = target;
+        List<Node> path = new ArrayList<>();
+        Board board = gameState.board();
+        while (up.depth > down.depth) {
+            board = board.revert(up.patch);
+            up = up.parent;
+        }
+        while (down.depth > up.depth) {
+            path.add(down);
+            down = down.parent;
+        }
+        while (up != down) {
+            if (up.parent == null)
+                throw new IllegalArgumentException("node belongs to another tree");
+            board = board.revert(up.patch);
+            up = up.parent;
+            path.add(down);
+            down = down.parent;
+        }
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node step = path.get(i);
+            board = board.apply(step.patch);
+            step.parent.lastVisited = step;
+        }
+        log.debug("Jumped from depth {} to depth {}", current.depth, target.depth);
+        current = target;
+        gameState.setBoard(board);
+    }
+
+    @Override
+    public boolean execute(Command command) {
+        if (!(command instanceof ApplyMoveCommand apply)) {
+            throw new IllegalArgumentException("undo tree only records moves: " + command);
+        }
+        return play(apply.move());
+    }
+
+    @Override
+    public boolean canUndo() {
+        return current != root;
+    }
+
+    @Override
+    public boolean canRedo() {
+        return current.lastVisited != null;
+    }
+
+    @Override
+    public boolean undo() {
+        if (current == root) return false;
+        Node node = current;
+        current = node.parent;
+        gameState.setBoard(gameState.board().revert(node.patch));
+        return true;
+    }
+
+    @Override
+    public boolean redo() {
+        Node next = current.lastVisited;
+        if (next == null) return false;
+        current = next;
+        gameState.setBoard(gameState.board().apply(next.patch));
+        return true;
+    }
+
+    /** Drops every variation; the current position becomes the new root. */
+    @Override
+    public void clear() {
+        log.debug("Clearing undo tree of {} nodes", size);
+        root = new Node(null, null, null);
+        current = root;
+        size = 1;
+    }
+
+    /** The line from the root to the current node, then the line redo would follow. */
+    @Override
+    public MoveHistory moves() {
+        List<Move> moves = new ArrayList<>();
+        for (Node node = current; node != root; node = node.parent) moves.add(node.move);
+        Collections.reverse(moves);
+        int played = moves.size();
+        for (Node node = current.lastVisited; node != null; node = node.lastVisited) {
+            moves.add(node.move);
+        }
+        return new MoveHistory(moves, played);
+    }
+
+    @Override
+    public long estimatedBytes() {
+        return (long) size * BYTES_PER_NODE;
+    }
+}
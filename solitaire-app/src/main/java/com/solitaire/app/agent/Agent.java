@@ -0,0 +1,27 @@
+package com.solitaire.app.agent;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.rules.Rules;
+
+/**
+ * A computer player. An {@link AgentRunner} calls it once per move, on a virtual thread of its own,
+ * so one agent may be choosing for several games at once and must keep no state between calls.
+ *
+ * @see StandardAgent
+ */
+@FunctionalInterface
+public interface Agent {
+
+    /**
+     * Chooses a move on a board that has at least one legal move. Long-running agents should poll
+     * {@code deadline} and answer soon after it expires: a runner that has to stop waiting plays a
+     * move of its own choosing instead. Interruption means the answer is no longer wanted.
+     */
+    Move choose(Board board, Rules rules, Deadline deadline);
+
+    /** Name for reports. */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,44 @@
+package com.solitaire.app.agent;
+
+import com.solitaire.domain.GameStatus;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * One game an {@link AgentRunner} played for an agent.
+ *
+ * @param decisionNanos how long each move took to arrive, from asking the agent to accepting its
+ *     answer or giving up on it
+ * @param timeouts moves the runner stopped waiting for and chose itself
+ * @param rejected moves the agent got wrong, by being illegal or failing, replaced likewise
+ */
+public record AgentGame(
+        String agent,
+        GameStatus status,
+        int pegsLeft,
+        long[] decisionNanos,
+        int timeouts,
+        int rejected) {
+
+    public AgentGame {
+        decisionNanos = decisionNanos.clone();
+    }
+
+    @Override
+    public long[] decisionNanos() {
+        return decisionNanos.clone();
+    }
+
+    public int moves() {
+        return decisionNanos.length;
+    }
+
+    public boolean won() {
+        return status == GameStatus.WON;
+    }
+
+    /** The longest decision; zero for a game without moves. */
+    public Duration slowestDecision() {
+        return Duration.ofNanos(Arrays.stream(decisionNanos).max().orElse(0));
+    }
+}
@@ -0,0 +1,114 @@
+package com.solitaire.app.agent;
+
+import com.solitaire.app.ApplyMoveCommand;
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.rules.Rules;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Plays games for {@link Agent}s, each decision on a virtual thread of its own.
+ *
+ * <p>Every move gets a fresh {@link Deadline} of the per-move budget. The runner waits for the
+ * answer until the deadline plus a grace period; if none has come by then it cancels the deadline
+ * and interrupts the agent, which should stop cooperatively, and plays the first legal move
+ * instead. Illegal or missing answers and agents that throw are replaced the same way. Moves go
+ * through the game's {@link CommandManager}, so they can be undone and are recorded like a
+ * player's.
+ */
+@Log4j2
+public final class AgentRunner implements AutoCloseable {
+
+    private final Duration grace;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param grace how long after the deadline the runner still waits for an answer
+     */
+    public AgentRunner(Duration grace) {
+        if (Objects.requireNonNull(grace, "grace").isNegative()) {
+            throw new IllegalArgumentException("negative grace " + grace);
+        }
+        this.grace = grace;
+    }
+
+    /** Plays {@code gameState} to its end with {@code agent}, {@code budget} per move. */
+    public AgentGame play(Agent agent, GameState gameState, CommandManager manager, Duration budget)
+            throws InterruptedException {
+        Objects.requireNonNull(agent, "agent");
+        Objects.requireNonNull(gameState, "gameState");
+        Objects.requireNonNull(manager, "manager");
+        Objects.requireNonNull(budget, "budget");
+        Rules rules = gameState.rules();
+        long[] decisions = new long[16];
+        int moves = 0;
+        int timeouts = 0;
+        int rejected = 0;
+        while (gameState.status() == GameStatus.RUNNING) {
+            Board board = gameState.board();
+            List<Move> legal = rules.legalMoves(board);
+            if (legal.isEmpty()) break;
+            Deadline deadline = Deadline.in(budget);
+            long start = System.nanoTime();
+            Future<Move> answer = executor.submit(() -> agent.choose(board, rules, deadline));
+            Move move;
+            boolean answered = false;
+            try {
+                move = answer.get(budget.plus(grace).toNanos(), TimeUnit.NANOSECONDS);
+                answered = true;
+            } catch (TimeoutException e) {
+                deadline.cancel();
+                answer.cancel(true);
+                log.debug("{} ran out of time on move {}", agent.name(), moves + 1);
+                timeouts++;
+                move = null;
+            } catch (ExecutionException e) {
+                log.debug("{} failed on move {}", agent.name(), moves + 1, e.getCause());
+                rejected++;
+                move = null;
+            } catch (InterruptedException e) {
+                deadline.cancel();
+                answer.cancel(true);
+                throw e;
+            }
+            long nanos = System.nanoTime() - start;
+            if (answered && (move == null || !legal.contains(move))) {
+                log.debug("{} chose illegal move {}", agent.name(), move);
+                rejected++;
+                move = null;
+            }
+            if (move == null) move = legal.getFirst();
+            if (!manager.execute(new ApplyMoveCommand(gameState, move))) {
+                throw new IllegalStateException("legal move " + move + " was refused");
+            }
+            if (moves == decisions.length) decisions = Arrays.copyOf(decisions, 2 * moves);
+            decisions[moves++] = nanos;
+        }
+        return new AgentGame(
+                agent.name(),
+                gameState.status(),
+                gameState.board().pegCount(),
+                Arrays.copyOf(decisions, moves),
+                timeouts,
+                rejected);
+    }
+
+    /** Interrupts decisions still running, without waiting for agents that ignore it. */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
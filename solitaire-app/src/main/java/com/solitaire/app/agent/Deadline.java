@@ -0,0 +1,52 @@
+package com.solitaire.app.agent;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * When an {@link Agent} has to answer. Agents poll {@link #expired()} and return their best move so
+ * far once it is true; the {@link AgentRunner} also expires the deadline early, through {@link
+ * #cancel()}, when it stops waiting for an answer.
+ */
+public final class Deadline {
+
+    private static final Duration FOREVER = Duration.ofNanos(Long.MAX_VALUE);
+
+    private final long expiresAt;
+    private final boolean unlimited;
+    private volatile boolean cancelled;
+
+    private Deadline(long expiresAt, boolean unlimited) {
+        this.expiresAt = expiresAt;
+        this.unlimited = unlimited;
+    }
+
+    /** A deadline {@code budget} from now. */
+    public static Deadline in(Duration budget) {
+        if (Objects.requireNonNull(budget, "budget").isNegative()) {
+            throw new IllegalArgumentException("negative budget " + budget);
+        }
+        return new Deadline(System.nanoTime() + budget.toNanos(), false);
+    }
+
+    /** A deadline that only expires when cancelled. */
+    public static Deadline none() {
+        return new Deadline(0, true);
+    }
+
+    public boolean expired() {
+        return cancelled || !unlimited && System.nanoTime() - expiresAt >= 0;
+    }
+
+    /** Time left: zero once expired, practically forever for {@link #none()}. */
+    public Duration remaining() {
+        if (cancelled) return Duration.ZERO;
+        if (unlimited) return FOREVER;
+        return Duration.ofNanos(Math.max(0, expiresAt - System.nanoTime()));
+    }
+
+    /** Expires the deadline now. */
+    public void cancel() {
+        cancelled = true;
+    }
+}
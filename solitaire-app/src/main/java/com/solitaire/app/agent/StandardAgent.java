@@ -0,0 +1,62 @@
+package com.solitaire.app.agent;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.rules.Rules;
+import com.solitaire.solver.DepthFirstSearch;
+import com.solitaire.solver.SearchResult;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** The built-in agents, from weakest to strongest given time. */
+public enum StandardAgent implements Agent {
+
+    /** Any legal move, uniformly at random. */
+    RANDOM {
+        @Override
+        public Move choose(Board board, Rules rules, Deadline deadline) {
+            List<Move> legal = rules.legalMoves(board);
+            return legal.get(ThreadLocalRandom.current().nextInt(legal.size()));
+        }
+    },
+
+    /** The move leaving the most legal moves behind it; the first of equals. */
+    GREEDY {
+        @Override
+        public Move choose(Board board, Rules rules, Deadline deadline) {
+            Move best = null;
+            int mobility = -1;
+            for (Move move : rules.legalMoves(board)) {
+                int next = rules.legalMoves(board.applyUnchecked(move)).size();
+                if (next > mobility) {
+                    best = move;
+                    mobility = next;
+                }
+            }
+            return best;
+        }
+    },
+
+    /**
+     * Searches for a winning line with {@link DepthFirstSearch}, in slices of {@value
+     * #SEARCH_SLICE} nodes between deadline checks, and plays its first move. When the deadline
+     * comes first, or the position cannot be won, it plays like {@link #GREEDY}.
+     */
+    SEARCH {
+        @Override
+        public Move choose(Board board, Rules rules, Deadline deadline) {
+            try (DepthFirstSearch search = DepthFirstSearch.solve(board)) {
+                while (!deadline.expired() && !Thread.currentThread().isInterrupted()) {
+                    SearchResult result = search.run(SEARCH_SLICE);
+                    if (result.solution().isPresent() && !result.solution().get().isEmpty()) {
+                        return result.solution().get().getFirst();
+                    }
+                    if (result.complete()) break;
+                }
+            }
+            return GREEDY.choose(board, rules, deadline);
+        }
+    };
+
+    static final int SEARCH_SLICE = 1 << 14;
+}
@@ -0,0 +1,148 @@
+package com.solitaire.app.agent;
+
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.rules.Rules;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pits agents against each other: every agent plays every board once per per-move budget, and the
+ * results are compared per agent and budget, showing how strength grows with time.
+ *
+ * <p>Games run in parallel, each on a virtual thread, but at most {@code parallelism} at once:
+ * budgets are wall-clock time, so more games than cores would let them eat into each other's.
+ */
+@Log4j2
+public final class Tournament {
+
+    private static final Duration GRACE = Duration.ofMillis(50);
+
+    private final Rules rules;
+    private final int parallelism;
+
+    public Tournament(Rules rules, int parallelism) {
+        this.rules = Objects.requireNonNull(rules, "rules");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be positive");
+        this.parallelism = parallelism;
+    }
+
+    /** One result per agent and budget, in the order given, agents first. */
+    public List<TournamentResult> run(
+            List<? extends Agent> agents, List<Board> boards, List<Duration> budgets)
+            throws InterruptedException {
+        Semaphore running = new Semaphore(parallelism);
+        List<List<Future<AgentGame>>> games = new ArrayList<>();
+        try (AgentRunner runner = new AgentRunner(GRACE);
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Agent agent : agents) {
+                for (Duration budget : budgets) {
+                    List<Future<AgentGame>> played = new ArrayList<>(boards.size());
+                    for (Board board : boards) {
+                        played.add(
+                                executor.submit(
+                                        () -> {
+                                            running.acquire();
+                                            try {
+                                                GameState game = new GameState(board, rules);
+                                                return runner.play(
+                                                        agent, game, new CommandManager(), budget);
+                                            } finally {
+                                                running.release();
+                                            }
+                                        }));
+                    }
+                    games.add(played);
+                }
+            }
+
+            List<TournamentResult> results = new ArrayList<>(games.size());
+            int row = 0;
+            for (Agent agent : agents) {
+                for (Duration budget : budgets) {
+                    results.add(summarise(agent.name(), budget, games.get(row++)));
+                }
+            }
+            log.debug("Tournament of {} agents on {} boards done", agents.size(), boards.size());
+            return results;
+        }
+    }
+
+    private static TournamentResult summarise(
+            String agent, Duration budget, List<Future<AgentGame>> played)
+            throws InterruptedException {
+        int wins = 0;
+        int timeouts = 0;
+        long pegs = 0;
+        long[] decisions = new long[0];
+        for (Future<AgentGame> future : played) {
+            AgentGame game;
+            try {
+                game = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("game of " + agent + " failed", e.getCause());
+            }
+            if (game.won()) wins++;
+            timeouts += game.timeouts();
+            pegs += game.pegsLeft();
+            int from = decisions.length;
+            decisions = Arrays.copyOf(decisions, from + game.moves());
+            System.arraycopy(game.decisionNanos(), 0, decisions, from, game.moves());
+        }
+        Arrays.sort(decisions);
+        return new TournamentResult(
+                agent,
+                budget,
+                played.size(),
+                wins,
+                played.isEmpty() ? 0 : (double) pegs / played.size(),
+                timeouts,
+                percentile(decisions, 0.5),
+                percentile(decisions, 0.99));
+    }
+
+    private static Duration percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return Duration.ZERO;
+        return Duration.ofNanos(sorted[Math.max(0, (int) Math.ceil(fraction * sorted.length) - 1)]);
+    }
+
+    /** A table of the results, one line each. */
+    public static String format(List<TournamentResult> results) {
+        StringBuilder out =
+                new StringBuilder(
+                        String.format(
+                                "%-8s %8s %6s %6s %6s %8s %10s %10s%n",
+                                "agent",
+                                "budget",
+                                "games",
+                                "won",
+                                "pegs",
+                                "timeouts",
+                                "p50",
+                                "p99"));
+        for (TournamentResult r : results) {
+            out.append(
+                    String.format(
+                            "%-8s %6d ms %6d %5.1f%% %6.2f %8d %7.2f ms %7.2f ms%n",
+                            r.agent(),
+                            r.budget().toMillis(),
+                            r.games(),
+                            100 * r.winRate(),
+                            r.averagePegsLeft(),
+                            r.timeouts(),
+                            r.medianDecision().toNanos() / 1e6,
+                            r.p99Decision().toNanos() / 1e6));
+        }
+        return out.toString();
+    }
+}
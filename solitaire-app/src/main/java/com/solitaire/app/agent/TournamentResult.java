@@ -0,0 +1,24 @@
+package com.solitaire.app.agent;
+
+import java.time.Duration;
+
+/**
+ * How one agent did with one per-move budget over all the boards of a {@link Tournament}.
+ *
+ * @param medianDecision median over every move of every game
+ * @param p99Decision 99th percentile over every move of every game
+ */
+public record TournamentResult(
+        String agent,
+        Duration budget,
+        int games,
+        int wins,
+        double averagePegsLeft,
+        int timeouts,
+        Duration medianDecision,
+        Duration p99Decision) {
+
+    public double winRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+}
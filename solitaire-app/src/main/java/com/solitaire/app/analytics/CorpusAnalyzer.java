@@ -0,0 +1,310 @@
+package com.solitaire.app.analytics;
+
+import com.solitaire.app.archive.SavedGame;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import com.solitaire.domain.rules.Rules;
+import com.solitaire.solver.BatchSolver;
+import com.solitaire.solver.OpeningBook;
+import com.solitaire.solver.SolutionDag;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongPredicate;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Replays a corpus of games through {@link Rules} and reports, per game and in total, how long it
+ * was, how many pegs were left and which move, if any, turned a winnable position into a lost one.
+ *
+ * <p>Positions only get less winnable as a game goes on, so the fatal move is found by binary
+ * search over the game's positions: a lost game costs a handful of winnability queries, not one per
+ * move. Queries are answered by a {@code LongPredicate} over peg masks in the {@link Topology} of
+ * the start board. Given a {@link SolutionDag} of the start, {@link #create(Board, Rules, int,
+ * SolutionDag)} answers each one with a hash probe; otherwise {@link #create(Board, Rules, int)}
+ * answers from the standard {@link OpeningBook} where it applies and from a {@link BatchSolver}
+ * whose shared cache every worker fills.
+ *
+ * <p>The calling thread reads the corpus and hands batches of {@value #BATCH_SIZE} games to worker
+ * threads through a bounded queue, so memory stays bounded however large the corpus is. Each worker
+ * owns a {@link CorpusSummary} and writes the CSV rows of a batch as soon as it is done; the
+ * summaries are merged at the end. Rows therefore come out in batch completion order, keyed by the
+ * game's index in the corpus.
+ */
+@Log4j2
+public final class CorpusAnalyzer implements AutoCloseable {
+
+    static final int BATCH_SIZE = 1024;
+
+    /** Positions cached by the solver of {@link #create}; 32 MB. */
+    static final int SOLVER_CACHE = 1 << 22;
+
+    public static final String CSV_HEADER =
+            "game,length,final_pegs,status,fatal_move,from_row,from_col,to_row,to_col";
+
+    private static final Batch END = new Batch(-1, List.of());
+
+    private record Batch(long first, List<SavedGame> games) {}
+
+    private final Board start;
+    private final Rules rules;
+    private final Topology topology;
+    private final long startPegs;
+    private final int threads;
+    private final LongPredicate winnable;
+    private final BatchSolver solver;
+
+    /**
+     * @param threads worker threads
+     * @param winnable whether a peg mask in the topology of {@code start} can still be won; called
+     *     from every worker at once
+     */
+    public CorpusAnalyzer(Board start, Rules rules, int threads, LongPredicate winnable) {
+        this(start, rules, threads, winnable, null);
+    }
+
+    private CorpusAnalyzer(
+            Board start, Rules rules, int threads, LongPredicate winnable, BatchSolver solver) {
+        this.start = Objects.requireNonNull(start, "start");
+        this.rules = Objects.requireNonNull(rules, "rules");
+        this.winnable = Objects.requireNonNull(winnable, "winnable");
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        this.threads = threads;
+        this.topology = Topology.of(start);
+        if (topology.size() >= Long.SIZE) {
+            throw new IllegalArgumentException("analytics supports at most 63 holes");
+        }
+        this.startPegs = topology.encode(start);
+        this.solver = solver;
+    }
+
+    /**
+     * An analyzer that answers from a {@link SolutionDag} written from {@code start}: every
+     * position of a game from there is reachable, so it is winnable exactly when it is a node. One
+     * hash probe per query, which is what makes very large corpora practical.
+     */
+    public static CorpusAnalyzer create(Board start, Rules rules, int threads, SolutionDag dag) {
+        Topology topology = dag.topology();
+        if (!topology.equals(Topology.of(start))) {
+            throw new IllegalArgumentException("solution DAG is for another board");
+        }
+        return new CorpusAnalyzer(
+                start, rules, threads, pegs -> dag.nodeOf(topology.canonical(pegs)) >= 0);
+    }
+
+    /**
+     * An analyzer for any start that owns a solver; close it to stop the solver. Lost positions
+     * outside the opening book are proven by search, which costs milliseconds each until the cache
+     * is warm.
+     */
+    public static CorpusAnalyzer create(Board start, Rules rules, int threads) {
+        Topology topology = Topology.of(start);
+        OpeningBook book = OpeningBook.standard();
+        BatchSolver solver = new BatchSolver(1, SOLVER_CACHE);
+        LongPredicate solve = pegs -> solver.isSolvable(topology, pegs);
+        LongPredicate winnable =
+                book.topology().equals(topology)
+                        ? pegs -> book.isSolvable(pegs).orElseGet(() -> solve.test(pegs))
+                        : solve;
+        return new CorpusAnalyzer(start, rules, threads, winnable, solver);
+    }
+
+    /**
+     * Analyses one game on the calling thread.
+     *
+     * @throws IllegalArgumentException if the game does not start from this analyzer's start or
+     *     plays an illegal move
+     */
+    public GameReport analyze(SavedGame game) {
+        return analyze(Objects.requireNonNull(game, "game"), new long[topology.size() + 1]);
+    }
+
+    /**
+     * Analyses every game of the corpus and returns the totals. Games that {@link
+     * #analyze(SavedGame)} rejects are counted and skipped.
+     *
+     * @param rows receives {@link #CSV_HEADER} and one row per game as batches finish, or null
+     */
+    public CorpusSummary analyze(Iterator<SavedGame> games, Writer rows)
+            throws IOException, InterruptedException {
+        Objects.requireNonNull(games, "games");
+        if (rows != null) rows.write(CSV_HEADER + "\n");
+
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(2 * threads);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Thread> running = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(queue, failure, rows);
+            workers.add(worker);
+            running.add(Thread.ofPlatform().name("corpus-analyzer-" + i).start(worker));
+        }
+
+        boolean fed = false;
+        try {
+            long index = 0;
+            List<SavedGame> batch = new ArrayList<>(BATCH_SIZE);
+            while (failure.get() == null && games.hasNext()) {
+                batch.add(games.next());
+                if (batch.size() == BATCH_SIZE) {
+                    queue.put(new Batch(index, batch));
+                    index += BATCH_SIZE;
+                    batch = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) queue.put(new Batch(index, batch));
+            for (int i = 0; i < threads; i++) queue.put(END);
+            fed = true;
+        } finally {
+            if (!fed) running.forEach(Thread::interrupt);
+            for (Thread thread : running) thread.join();
+        }
+
+        Exception failed = failure.get();
+        if (failed instanceof IOException e) throw e;
+        if (failed != null) throw (RuntimeException) failed;
+
+        CorpusSummary total = new CorpusSummary(topology);
+        for (Worker worker : workers) total.merge(worker.summary);
+        log.debug("Analysed {}", total);
+        return total;
+    }
+
+    @Override
+    public void close() {
+        if (solver != null) solver.close();
+    }
+
+    private GameReport analyze(SavedGame game, long[] positions) {
+        if (game.start() != start && !game.start().equals(start)) {
+            throw new IllegalArgumentException("game does not start from the analysed board");
+        }
+        List<Move> moves = game.moves();
+        int length = game.played();
+        Board board = start;
+        positions[0] = startPegs;
+        for (int i = 0; i < length; i++) {
+            Move move = moves.get(i);
+            if (!rules.isLegal(board, move)) {
+                throw new IllegalArgumentException("illegal move " + i + ": " + move);
+            }
+            board = board.applyUnchecked(move);
+            positions[i + 1] = topology.jump(positions[i], topology.jumpIndex(move));
+        }
+        GameStatus status = rules.status(board);
+        int fatal = status == GameStatus.WON ? -1 : fatalMove(positions, length);
+        return new GameReport(
+                length,
+                Long.bitCount(positions[length]),
+                status,
+                fatal,
+                fatal < 0 ? null : moves.get(fatal));
+    }
+
+    /** The last move from a winnable position into a lost one, or -1. */
+    private int fatalMove(long[] positions, int length) {
+        if (winnable.test(positions[length]) || !winnable.test(positions[0])) return -1;
+        int lo = 0;
+        int hi = length;
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (winnable.test(positions[mid])) lo = mid;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Takes batches until {@link #END}; after a failure it keeps taking them so the reader never
+     * blocks.
+     */
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<Batch> queue;
+        private final AtomicReference<Exception> failure;
+        private final Writer rows;
+        private final CorpusSummary summary = new CorpusSummary(topology);
+        private final long[] positions = new long[topology.size() + 1];
+        private final StringBuilder out = new StringBuilder();
+
+        Worker(BlockingQueue<Batch> queue, AtomicReference<Exception> failure, Writer rows) {
+            this.queue = queue;
+            this.failure = failure;
+            this.rows = rows;
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (Batch batch = queue.take(); batch != END; batch = queue.take()) {
+                    if (failure.get() != null) continue;
+                    try {
+                        process(batch);
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void process(Batch batch) throws IOException {
+            out.setLength(0);
+            long index = batch.first();
+            for (SavedGame game : batch.games()) {
+                GameReport report;
+                try {
+                    report = analyze(game, positions);
+                } catch (IllegalArgumentException e) {
+                    log.debug("Rejecting game {}: {}", index, e.getMessage());
+                    summary.reject();
+                    index++;
+                    continue;
+                }
+                summary.add(report);
+                if (rows != null) row(index, report);
+                index++;
+            }
+            if (rows != null) {
+                synchronized (rows) {
+                    rows.append(out);
+                }
+            }
+        }
+
+        private void row(long index, GameReport report) {
+            out.append(index)
+                    .append(',')
+                    .append(report.length())
+                    .append(',')
+                    .append(report.finalPegs())
+                    .append(',')
+                    .append(report.status())
+                    .append(',')
+                    .append(report.fatalMove());
+            Move fatal = report.fatal();
+            if (fatal == null) {
+                out.append(",,,,\n");
+            } else {
+                out.append(',')
+                        .append(fatal.from().r())
+                        .append(',')
+                        .append(fatal.from().c())
+                        .append(',')
+                        .append(fatal.to().r())
+                        .append(',')
+                        .append(fatal.to().c())
+                        .append('\n');
+            }
+        }
+    }
+}
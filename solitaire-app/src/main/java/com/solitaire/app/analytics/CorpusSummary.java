@@ -0,0 +1,148 @@
+package com.solitaire.app.analytics;
+
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Totals over a corpus of games. Every {@link CorpusAnalyzer} worker fills its own summary without
+ * synchronisation; they are merged once the corpus is done. Counts indexed by length, peg count or
+ * move number are plain arrays, fatal moves are counted per {@link Topology} jump.
+ */
+public final class CorpusSummary {
+
+    /** A move and how many games it lost. */
+    public record FatalMove(Move move, long count) {}
+
+    private final Topology topology;
+    private final long[] lengths;
+    private final long[] finalPegs;
+    private final long[] fatalAt;
+    private final long[] fatalJumps;
+    private long games;
+    private long rejected;
+    private long moves;
+    private long won;
+    private long stuck;
+    private long lostWinnable;
+
+    CorpusSummary(Topology topology) {
+        this.topology = topology;
+        this.lengths = new long[topology.size() + 1];
+        this.finalPegs = new long[topology.size() + 1];
+        this.fatalAt = new long[topology.size() + 1];
+        this.fatalJumps = new long[topology.jumpCount()];
+    }
+
+    void add(GameReport report) {
+        games++;
+        moves += report.length();
+        lengths[report.length()]++;
+        finalPegs[report.finalPegs()]++;
+        switch (report.status()) {
+            case WON -> won++;
+            case STUCK -> stuck++;
+            case RUNNING -> {}
+        }
+        if (report.lostWinnable()) {
+            lostWinnable++;
+            fatalAt[report.fatalMove()]++;
+            fatalJumps[topology.jumpIndex(report.fatal())]++;
+        }
+    }
+
+    void reject() {
+        rejected++;
+    }
+
+    void merge(CorpusSummary other) {
+        games += other.games;
+        rejected += other.rejected;
+        moves += other.moves;
+        won += other.won;
+        stuck += other.stuck;
+        lostWinnable += other.lostWinnable;
+        addAll(lengths, other.lengths);
+        addAll(finalPegs, other.finalPegs);
+        addAll(fatalAt, other.fatalAt);
+        addAll(fatalJumps, other.fatalJumps);
+    }
+
+    private static void addAll(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) into[i] += from[i];
+    }
+
+    /** Games analysed. */
+    public long games() {
+        return games;
+    }
+
+    /** Games skipped because they do not start from the analysed start or play an illegal move. */
+    public long rejectedGames() {
+        return rejected;
+    }
+
+    public long moves() {
+        return moves;
+    }
+
+    public long wonGames() {
+        return won;
+    }
+
+    /** Games ending with no legal move and more than one peg. */
+    public long stuckGames() {
+        return stuck;
+    }
+
+    /** Games in which a winnable position was lost, see {@link GameReport#fatalMove()}. */
+    public long lostWinnableGames() {
+        return lostWinnable;
+    }
+
+    public double averageLength() {
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /** Games per number of moves played. */
+    public long[] lengthCounts() {
+        return lengths.clone();
+    }
+
+    /** Games per number of pegs left. */
+    public long[] finalPegCounts() {
+        return finalPegs.clone();
+    }
+
+    /** Lost-winnable games per index of their fatal move. */
+    public long[] fatalMoveIndexCounts() {
+        return fatalAt.clone();
+    }
+
+    /** The {@code limit} moves that lost the most winnable positions, most frequent first. */
+    public List<FatalMove> mostCommonFatalMoves(int limit) {
+        List<FatalMove> fatal = new ArrayList<>();
+        for (int j = 0; j < fatalJumps.length; j++) {
+            if (fatalJumps[j] > 0) fatal.add(new FatalMove(topology.move(j), fatalJumps[j]));
+        }
+        fatal.sort(Comparator.comparingLong(FatalMove::count).reversed());
+        return List.copyOf(fatal.subList(0, Math.min(limit, fatal.size())));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d games (%d rejected), %.2f moves on average, %d won, %d stuck, %d lost a winnable"
+                        + " position; final pegs %s",
+                games,
+                rejected,
+                averageLength(),
+                won,
+                stuck,
+                lostWinnable,
+                Arrays.toString(finalPegs));
+    }
+}
@@ -0,0 +1,22 @@
+package com.solitaire.app.analytics;
+
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+
+/**
+ * What {@link CorpusAnalyzer} found in one game.
+ *
+ * @param length moves played
+ * @param finalPegs pegs left on the final board
+ * @param status the final board's status
+ * @param fatalMove index of the move that turned a winnable position into a lost one, or -1 when
+ *     the game was won, never winnable, or abandoned while still winnable
+ * @param fatal that move, or null
+ */
+public record GameReport(int length, int finalPegs, GameStatus status, int fatalMove, Move fatal) {
+
+    /** Whether the player threw away a win. */
+    public boolean lostWinnable() {
+        return fatalMove >= 0;
+    }
+}
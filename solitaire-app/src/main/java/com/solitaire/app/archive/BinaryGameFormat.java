@@ -0,0 +1,216 @@
+package com.solitaire.app.archive;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.Topology;
+import com.solitaire.domain.factory.DomainFactory;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact binary archive of {@link SavedGame}s.
+ *
+ * <p>A file is the magic {@code "PSGF"}, a version byte and the games back to back. Each game is:
+ *
+ * <ul>
+ *   <li>a topology id: {@value #ENGLISH} for the English cross, {@value #CUSTOM} for any other
+ *       shape, followed by its rows, its columns (one byte each) and one bit per grid cell;
+ *   <li>the pegs of the start board, one bit per hole in {@link Topology} order, in {@code
+ *       ceil(holes / 8)} bytes;
+ *   <li>the number of moves and the number played, one byte each (a game removes a peg per move, so
+ *       there are fewer than 64);
+ *   <li>one byte per move: its index in the topology's jump table.
+ * </ul>
+ *
+ * <p>A finished English game takes 44 bytes. Games are encoded straight into and decoded straight
+ * out of a {@link ByteBuffer}; moves of the English board are shared instances.
+ */
+public final class BinaryGameFormat {
+
+    static final int MAGIC = 0x50534746; // "PSGF"
+    static final byte VERSION = 1;
+
+    static final byte CUSTOM = 0;
+    static final byte ENGLISH = 1;
+
+    /** Largest encoded game: a 255x255 shape, 64 holes and 63 moves. */
+    static final int MAX_GAME_BYTES = 3 + (255 * 255 + 7) / 8 + 8 + 2 + 63;
+
+    private static final Topology ENGLISH_TOPOLOGY =
+            Topology.of(DomainFactory.buildDomain().board());
+    private static final Move[] ENGLISH_MOVES = movesOf(ENGLISH_TOPOLOGY);
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private BinaryGameFormat() {}
+
+    /** Writes the file header. */
+    public static void writeHeader(ByteBuffer out) {
+        out.putInt(MAGIC).put(VERSION);
+    }
+
+    /** Checks and skips the file header. */
+    public static void readHeader(ByteBuffer in) throws IOException {
+        if (in.remaining() < 5 || in.getInt() != MAGIC) throw new IOException("not a game archive");
+        byte version = in.get();
+        if (version != VERSION) throw new IOException("unsupported archive version " + version);
+    }
+
+    /** Encodes one game at the buffer's position. */
+    public static void write(ByteBuffer out, SavedGame game) {
+        Board start = game.start();
+        Topology topology;
+        if (hasEnglishShape(start)) {
+            topology = ENGLISH_TOPOLOGY;
+            out.put(ENGLISH);
+        } else {
+            if (start.rows() > 255 || start.cols() > 255) {
+                throw new IllegalArgumentException("board larger than 255x255");
+            }
+            topology = Topology.of(start);
+            out.put(CUSTOM).put((byte) start.rows()).put((byte) start.cols());
+            writeShape(out, topology);
+        }
+
+        long pegs = topology.encode(start);
+        for (int i = 0; i < maskBytes(topology); i++) out.put((byte) (pegs >>> 8 * i));
+
+        List<Move> moves = game.moves();
+        if (moves.size() >= Long.SIZE) throw new IllegalArgumentException("too many moves");
+        out.put((byte) moves.size()).put((byte) game.played());
+        for (Move move : moves) {
+            int jump = topology.jumpIndex(move);
+            if (jump < 0) throw new IllegalArgumentException("not a jump on this board: " + move);
+            out.put((byte) jump);
+        }
+    }
+
+    /** Decodes one game from the buffer's position. */
+    public static SavedGame read(ByteBuffer in) throws IOException {
+        Topology topology;
+        Move[] jumps;
+        byte id = in.get();
+        switch (id) {
+            case ENGLISH -> {
+                topology = ENGLISH_TOPOLOGY;
+                jumps = ENGLISH_MOVES;
+            }
+            case CUSTOM -> {
+                topology = readShape(in);
+                jumps = movesOf(topology);
+            }
+            default -> throw new IOException("unknown topology id " + id);
+        }
+
+        long pegs = 0;
+        for (int i = 0; i < maskBytes(topology); i++) pegs |= (in.get() & 0xFFL) << 8 * i;
+        int count = in.get() & 0xFF;
+        int played = in.get() & 0xFF;
+        if (played > count) throw new IOException(played + " of " + count + " moves played");
+        Move[] moves = new Move[count];
+        for (int i = 0; i < count; i++) {
+            int jump = in.get() & 0xFF;
+            if (jump >= jumps.length) throw new IOException("jump " + jump + " out of range");
+            moves[i] = jumps[jump];
+        }
+        return new SavedGame(topology.decode(pegs), Arrays.asList(moves), played);
+    }
+
+    /** Writes the games to {@code file}, replacing it. */
+    public static void save(Path file, Iterable<SavedGame> games) throws IOException {
+        Objects.requireNonNull(games, "games");
+        try (FileChannel channel =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            writeHeader(buffer);
+            for (SavedGame game : games) {
+                if (buffer.remaining() < MAX_GAME_BYTES) drain(buffer, channel);
+                write(buffer, game);
+            }
+            drain(buffer, channel);
+        }
+    }
+
+    /** Reads every game in {@code file}. */
+    public static List<SavedGame> load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            readHeader(in);
+            List<SavedGame> games = new ArrayList<>();
+            while (in.hasRemaining()) games.add(read(in));
+            return games;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("truncated game archive " + file, e);
+        }
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    private static boolean hasEnglishShape(Board board) {
+        if (board.rows() != ENGLISH_TOPOLOGY.rows() || board.cols() != ENGLISH_TOPOLOGY.cols()) {
+            return false;
+        }
+        for (int r = 0; r < board.rows(); r++) {
+            for (int c = 0; c < board.cols(); c++) {
+                boolean hole = board.cellAt(new Position(r, c)) != Cell.INVALID;
+                if (hole != ENGLISH_TOPOLOGY.indexOf(r, c) >= 0) return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeShape(ByteBuffer out, Topology topology) {
+        int cells = topology.rows() * topology.cols();
+        for (int from = 0; from < cells; from += 8) {
+            int bits = 0;
+            for (int k = 0; k < 8 && from + k < cells; k++) {
+                int cell = from + k;
+                if (topology.indexOf(cell / topology.cols(), cell % topology.cols()) >= 0) {
+                    bits |= 1 << k;
+                }
+            }
+            out.put((byte) bits);
+        }
+    }
+
+    private static Topology readShape(ByteBuffer in) {
+        int rows = in.get() & 0xFF;
+        int cols = in.get() & 0xFF;
+        Cell[][] cells = new Cell[rows][cols];
+        int bits = 0;
+        for (int cell = 0; cell < rows * cols; cell++) {
+            if ((cell & 7) == 0) bits = in.get();
+            cells[cell / cols][cell % cols] =
+                    (bits >> (cell & 7) & 1) != 0 ? Cell.EMPTY : Cell.INVALID;
+        }
+        return Topology.of(new Board(cells));
+    }
+
+    private static int maskBytes(Topology topology) {
+        return (topology.size() + 7) / 8;
+    }
+
+    private static Move[] movesOf(Topology topology) {
+        Move[] moves = new Move[topology.jumpCount()];
+        for (int j = 0; j < moves.length; j++) moves[j] = topology.move(j);
+        return moves;
+    }
+}
@@ -0,0 +1,75 @@
+package com.solitaire.app.archive;
+
+import com.solitaire.app.ApplyMoveCommand;
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameState;
+import com.solitaire.app.MoveHistory;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.rules.Rules;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A game as stored in an archive: the start board and the moves of its undo history, of which the
+ * first {@code played} lead to the board on screen and the rest can be redone.
+ */
+public record SavedGame(Board start, List<Move> moves, int played) {
+
+    private static final Cell[] BEFORE_JUMP = {Cell.PEG, Cell.PEG, Cell.EMPTY};
+
+    /** A restored game, ready for undo and redo. */
+    public record Restored(GameState gameState, CommandManager commands) {}
+
+    public SavedGame {
+        Objects.requireNonNull(start, "start");
+        moves = List.copyOf(Objects.requireNonNull(moves, "moves"));
+        if (played < 0 || played > moves.size()) {
+            throw new IllegalArgumentException("played " + played + " outside 0.." + moves.size());
+        }
+    }
+
+    /**
+     * Captures a game in progress. The start board is found by taking the played moves back from
+     * the current board.
+     *
+     * @throws IllegalStateException if the history holds commands other than moves
+     */
+    public static SavedGame of(GameState gameState, CommandManager commands) {
+        MoveHistory history = commands.moveHistory();
+        Board board = gameState.board();
+        for (int i = history.played() - 1; i >= 0; i--) {
+            Move move = history.moves().get(i);
+            board =
+                    board.apply(
+                            BoardPatch.of(
+                                    board,
+                                    new Position[] {move.from(), move.over(), move.to()},
+                                    BEFORE_JUMP));
+        }
+        return new SavedGame(board, history.moves(), history.played());
+    }
+
+    /**
+     * Replays the game under {@code rules} into a new game state with a default command manager:
+     * every move is validated, the played ones stay on the undo stack and the others on the redo
+     * stack.
+     *
+     * @throws IllegalArgumentException if a move is illegal where it is played
+     */
+    public Restored restore(Rules rules) {
+        GameState gameState = new GameState(start, rules);
+        CommandManager commands = new CommandManager();
+        for (int i = 0; i < moves.size(); i++) {
+            if (!commands.execute(new ApplyMoveCommand(gameState, moves.get(i)))) {
+                throw new IllegalArgumentException(
+                        "move " + (i + 1) + " is illegal: " + moves.get(i));
+            }
+        }
+        for (int i = moves.size(); i > played; i--) commands.undo();
+        return new Restored(gameState, commands);
+    }
+}
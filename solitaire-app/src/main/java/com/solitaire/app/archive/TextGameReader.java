@@ -0,0 +1,226 @@
+package com.solitaire.app.archive;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.rules.Rules;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pulls games out of a text archive in the notation the CLI accepts: one move per line as {@code
+ * "fromR fromC toR toC"}, games separated by blank lines, {@code #} starting a comment line.
+ *
+ * <p>The file is memory-mapped in windows that end on a line break and parsed byte by byte, so no
+ * {@code String} is built per line; moves are interned per board cell pair. Every game is replayed
+ * from {@code start} under the given {@link Rules}. A game with a malformed line or an illegal move
+ * is skipped and counted in {@link #rejectedGames()}.
+ */
+@Log4j2
+public final class TextGameReader implements Iterator<SavedGame>, AutoCloseable {
+
+    static final long WINDOW_BYTES = 1L << 28;
+
+    /** Boards up to this many cells intern every from/to pair. */
+    private static final int MAX_INTERNED_CELLS = 256;
+
+    private static final int END = -1;
+    private static final int BLANK = 0;
+    private static final int MOVE = 1;
+    private static final int MALFORMED = 2;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private final Board start;
+    private final Rules rules;
+    private final Move[] interned;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int pos;
+    private int limit;
+    private long lineNumber;
+
+    private final int[] fields = new int[4];
+    private final List<Move> moves = new ArrayList<>();
+    private SavedGame next;
+    private long games;
+    private long rejected;
+
+    private TextGameReader(Path file, FileChannel channel, Board start, Rules rules)
+            throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.size = channel.size();
+        this.start = start;
+        this.rules = rules;
+        int cells = start.rows() * start.cols();
+        this.interned = cells <= MAX_INTERNED_CELLS ? new Move[cells * cells] : null;
+    }
+
+    /** Opens an archive whose games all start from {@code start}. */
+    public static TextGameReader open(Path file, Board start, Rules rules) throws IOException {
+        Objects.requireNonNull(start, "start");
+        Objects.requireNonNull(rules, "rules");
+        return new TextGameReader(
+                file, FileChannel.open(file, StandardOpenOption.READ), start, rules);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = readGame();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public SavedGame next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        SavedGame game = next;
+        next = null;
+        return game;
+    }
+
+    /** Games returned so far. */
+    public long games() {
+        return games;
+    }
+
+    /** Games skipped so far because of a malformed line or an illegal move. */
+    public long rejectedGames() {
+        return rejected;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private SavedGame readGame() throws IOException {
+        Board board = start;
+        moves.clear();
+        boolean broken = false;
+        while (true) {
+            int line = readLine();
+            if (line == END || line == BLANK) {
+                if (broken) {
+                    rejected++;
+                    broken = false;
+                } else if (!moves.isEmpty()) {
+                    games++;
+                    return new SavedGame(start, moves, moves.size());
+                }
+                if (line == END) return null;
+                board = start;
+                moves.clear();
+            } else if (!broken) {
+                Move move = line == MOVE ? move() : null;
+                if (move == null || !rules.isLegal(board, move)) {
+                    log.debug("Rejecting game at line {} of {}", lineNumber, file);
+                    broken = true;
+                } else {
+                    board = board.applyUnchecked(move);
+                    moves.add(move);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the next line into {@link #fields}; comment lines are skipped, never ending a game.
+     */
+    private int readLine() throws IOException {
+        while (true) {
+            if (pos == limit && !nextWindow()) return END;
+            lineNumber++;
+            int field = 0;
+            int result = BLANK;
+            boolean comment = false;
+            while (pos < limit) {
+                byte b = window.get(pos++);
+                if (b == '\n') break;
+                if (comment || result == MALFORMED) continue;
+                if (b == ' ' || b == '\t' || b == '\r') continue;
+                if (b == '#' && field == 0 && result == BLANK) {
+                    comment = true;
+                    continue;
+                }
+                if (b < '0' || b > '9' || field == 4) {
+                    result = MALFORMED;
+                    continue;
+                }
+                int value = b - '0';
+                while (pos < limit) {
+                    byte d = window.get(pos);
+                    if (d < '0' || d > '9') break;
+                    value = value * 10 + d - '0';
+                    if (value > 0xFFFF) result = MALFORMED;
+                    pos++;
+                }
+                if (result != MALFORMED) {
+                    fields[field++] = value;
+                    result = MOVE;
+                }
+            }
+            if (comment) continue;
+            if (result == MOVE && field != 4) return MALFORMED;
+            return result;
+        }
+    }
+
+    /** The move in {@link #fields}, or null when it leaves the board. */
+    private Move move() {
+        int rows = start.rows();
+        int cols = start.cols();
+        int fr = fields[0];
+        int fc = fields[1];
+        int tr = fields[2];
+        int tc = fields[3];
+        if (fr >= rows || fc >= cols || tr >= rows || tc >= cols) return null;
+        if (interned == null) return create(fr, fc, tr, tc);
+        int key = (fr * cols + fc) * rows * cols + tr * cols + tc;
+        Move move = interned[key];
+        if (move == null) interned[key] = move = create(fr, fc, tr, tc);
+        return move;
+    }
+
+    /** As {@code MoveParser}: the jumped-over hole is the midpoint. */
+    private static Move create(int fr, int fc, int tr, int tc) {
+        return new Move(
+                new Position(fr, fc),
+                new Position((fr + tr) / 2, (fc + tc) / 2),
+                new Position(tr, tc));
+    }
+
+    /** Maps the next window, ending it after its last line break unless it reaches the end. */
+    private boolean nextWindow() throws IOException {
+        long from = windowStart + limit;
+        if (from >= size) return false;
+        long length = Math.min(size - from, WINDOW_BYTES);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, from, length);
+        windowStart = from;
+        pos = 0;
+        limit = (int) length;
+        if (from + length < size) {
+            while (limit > 0 && window.get(limit - 1) != '\n') limit--;
+            if (limit == 0) throw new IOException("line longer than a window at " + from);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.solitaire.app.archive;
+
+import com.solitaire.domain.Move;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes games in the text notation {@link TextGameReader} reads: the played moves of each game,
+ * one {@code "fromR fromC toR toC"} line per move, and a blank line after each game. Digits go
+ * straight into a direct buffer that is drained to the file as it fills.
+ */
+public final class TextGameWriter implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    /** Four numbers of at most ten digits, their separators and the line break. */
+    private static final int MAX_LINE_BYTES = 4 * 11;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    private TextGameWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /** Creates {@code file}, replacing it. */
+    public static TextGameWriter create(Path file) throws IOException {
+        return new TextGameWriter(
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE));
+    }
+
+    /** Appends the moves played in {@code game}; redoable moves have no text notation. */
+    public void write(SavedGame game) throws IOException {
+        List<Move> moves = game.moves();
+        for (int i = 0; i < game.played(); i++) {
+            if (buffer.remaining() < MAX_LINE_BYTES) drain();
+            Move move = moves.get(i);
+            putNumber(move.from().r());
+            buffer.put((byte) ' ');
+            putNumber(move.from().c());
+            buffer.put((byte) ' ');
+            putNumber(move.to().r());
+            buffer.put((byte) ' ');
+            putNumber(move.to().c());
+            buffer.put((byte) '\n');
+        }
+        if (!buffer.hasRemaining()) drain();
+        buffer.put((byte) '\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            drain();
+        }
+    }
+
+    private void putNumber(int value) {
+        if (value < 0) throw new IllegalArgumentException("negative coordinate " + value);
+        if (value >= 10) putNumber(value / 10);
+        buffer.put((byte) ('0' + value % 10));
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,187 @@
+package com.solitaire.app.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One immutable, memory-mapped file of a {@link PositionIndex}.
+ *
+ * <p>Layout (big-endian): magic and version; records of a canonical key, a posting count and the
+ * packed {@link Posting}s, sorted by key and then by posting; a sparse index of the key and offset
+ * of every {@value #INDEX_INTERVAL}th record; and a footer. The footer holds the range of segment
+ * generations the file replaces, the range of game ids it covers, the record and posting counts,
+ * and where the sparse index starts. A lookup binary-searches the sparse index and scans at most
+ * {@value #INDEX_INTERVAL} records, touching a few pages.
+ */
+final class IndexSegment {
+
+    static final int MAGIC = 0x50534958; // "PSIX"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int FOOTER_BYTES = 8 * Long.BYTES + Integer.BYTES;
+    static final int INDEX_INTERVAL = 64;
+
+    /** Segments are mapped whole, so they stay well below 2 GB. */
+    static final long MAX_BYTES = 1L << 30;
+
+    private static final long[] NONE = {};
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final long minGeneration;
+    private final long maxGeneration;
+    private final long firstGame;
+    private final long endGame;
+    private final long keyCount;
+    private final long postingCount;
+    private final int indexAt;
+    private final int indexEntries;
+
+    private IndexSegment(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        int size = buffer.capacity();
+        if (size < HEADER_BYTES + FOOTER_BYTES
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(size - Integer.BYTES) != MAGIC) {
+            throw new IOException("not an index segment: " + file);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported index segment version " + buffer.getInt(4));
+        }
+        int footer = size - FOOTER_BYTES;
+        this.minGeneration = buffer.getLong(footer);
+        this.maxGeneration = buffer.getLong(footer + 8);
+        this.firstGame = buffer.getLong(footer + 16);
+        this.endGame = buffer.getLong(footer + 24);
+        this.keyCount = buffer.getLong(footer + 32);
+        this.postingCount = buffer.getLong(footer + 40);
+        this.indexAt = (int) buffer.getLong(footer + 48);
+        this.indexEntries = (int) buffer.getLong(footer + 56);
+        if (indexAt < HEADER_BYTES || indexAt + 16L * indexEntries != footer) {
+            throw new IOException("corrupt index segment footer: " + file);
+        }
+    }
+
+    static IndexSegment open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("segment too large: " + file);
+            return new IndexSegment(file, ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long bytes() {
+        return buffer.capacity();
+    }
+
+    /** Oldest generation this segment replaces; its own when it was written from games. */
+    long minGeneration() {
+        return minGeneration;
+    }
+
+    long maxGeneration() {
+        return maxGeneration;
+    }
+
+    long firstGame() {
+        return firstGame;
+    }
+
+    /** One past the last game id this segment covers. */
+    long endGame() {
+        return endGame;
+    }
+
+    long keyCount() {
+        return keyCount;
+    }
+
+    long postingCount() {
+        return postingCount;
+    }
+
+    /** Whether {@code other} replaces this segment: it was merged from a range including it. */
+    boolean coveredBy(IndexSegment other) {
+        return other != this
+                && other.minGeneration <= minGeneration
+                && maxGeneration <= other.maxGeneration
+                && other.maxGeneration - other.minGeneration > maxGeneration - minGeneration;
+    }
+
+    /** The packed postings of {@code key}, in order. */
+    long[] find(long key) {
+        int lo = 0;
+        int hi = indexEntries - 1;
+        int block = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getLong(indexAt + 16 * mid) <= key) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (block < 0) return NONE;
+
+        int pos = (int) buffer.getLong(indexAt + 16 * block + 8);
+        for (int i = 0; i < INDEX_INTERVAL && pos < indexAt; i++) {
+            long probe = buffer.getLong(pos);
+            int count = buffer.getInt(pos + 8);
+            if (probe == key) {
+                long[] postings = new long[count];
+                for (int p = 0; p < count; p++) postings[p] = buffer.getLong(pos + 12 + 8 * p);
+                return postings;
+            }
+            if (probe > key) break;
+            pos += 12 + 8 * count;
+        }
+        return NONE;
+    }
+
+    Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Walks the records in key order. */
+    final class Cursor {
+
+        private int next = HEADER_BYTES;
+        private int at;
+        private long key;
+        private int count;
+
+        boolean next() {
+            if (next >= indexAt) return false;
+            at = next;
+            key = buffer.getLong(at);
+            count = buffer.getInt(at + 8);
+            next = at + 12 + 8 * count;
+            return true;
+        }
+
+        long key() {
+            return key;
+        }
+
+        int count() {
+            return count;
+        }
+
+        long posting(int i) {
+            return buffer.getLong(at + 12 + 8 * i);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file.getFileName() + "[" + minGeneration + ".." + maxGeneration + "]";
+    }
+}
@@ -0,0 +1,72 @@
+package com.solitaire.app.index;
+
+import java.util.Arrays;
+
+/** Growable parallel arrays of keys and values, sorted by key with a stable radix sort. */
+final class Pairs {
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    Pairs(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+    }
+
+    void add(long key, long value) {
+        if (size == keys.length) {
+            int capacity = Math.max(16, 2 * size);
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Drops the pairs added since the size was {@code size}. */
+    void truncate(int size) {
+        this.size = size;
+    }
+
+    long key(int i) {
+        return keys[i];
+    }
+
+    long[] values() {
+        return values;
+    }
+
+    /**
+     * Sorts by key, one byte per pass and only over the bytes keys use; values added in order stay
+     * in order under each key. Keys must not be negative.
+     */
+    void sort() {
+        long used = 0;
+        for (int i = 0; i < size; i++) used |= keys[i];
+        long[] keysOut = new long[size];
+        long[] valuesOut = new long[size];
+        int[] starts = new int[257];
+        for (int shift = 0; shift < Long.SIZE && used >>> shift != 0; shift += 8) {
+            Arrays.fill(starts, 0);
+            for (int i = 0; i < size; i++) starts[(int) (keys[i] >>> shift & 0xFF) + 1]++;
+            for (int b = 0; b < 256; b++) starts[b + 1] += starts[b];
+            for (int i = 0; i < size; i++) {
+                int to = starts[(int) (keys[i] >>> shift & 0xFF)]++;
+                keysOut[to] = keys[i];
+                valuesOut[to] = values[i];
+            }
+            long[] swap = keys;
+            keys = keysOut;
+            keysOut = swap;
+            swap = values;
+            values = valuesOut;
+            valuesOut = swap;
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.solitaire.app.index;
+
+import com.solitaire.app.archive.SavedGame;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * On-disk inverted index from positions to the archived games that passed through them.
+ *
+ * <p>Positions are keyed by their canonical peg mask ({@link Topology#canonical}), so a query
+ * matches every symmetric variant. Each key maps to a posting list of game ids and move numbers.
+ * {@link #add} cuts the games into batches of {@value #SEGMENT_GAMES} and indexes them in parallel:
+ * every worker replays its batch, sorts the key and posting pairs, and writes one immutable
+ * memory-mapped {@link IndexSegment}. A query probes every segment, so segments are merged in the
+ * background, {@value #MERGE_FACTOR} neighbours at a time, into larger ones.
+ *
+ * <p>Every segment written from games gets the next generation; a merged segment records the range
+ * of generations it replaces. Merges take neighbours in generation order, skipping over generations
+ * that never got a segment but never over one still being written, which would land inside the
+ * merged range. A merged segment is moved into place before its inputs are deleted, so after a
+ * crash {@link #open} finds the inputs covered by its range and deletes them.
+ *
+ * <p>Queries never block: they read an immutable list of segments that adds and merges replace.
+ */
+@Log4j2
+public final class PositionIndex implements AutoCloseable {
+
+    static final int SEGMENT_GAMES = 1 << 16;
+    static final int MERGE_FACTOR = 8;
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".idx";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path dir;
+    private final Topology topology;
+    private final int threads;
+    private final ScheduledExecutorService merger;
+    private final ReentrantLock addLock = new ReentrantLock();
+    private final ReentrantLock mergeLock = new ReentrantLock();
+
+    /** Sorted by generation; replaced, never changed. */
+    private volatile List<IndexSegment> segments;
+
+    /** Generations handed to batches whose segments are not published yet; guarded by this. */
+    private final Set<Long> writing = new HashSet<>();
+
+    private long nextGeneration;
+    private long nextGame;
+
+    private PositionIndex(
+            Path dir,
+            Topology topology,
+            int threads,
+            Duration mergeInterval,
+            List<IndexSegment> segments) {
+        this.dir = dir;
+        this.topology = topology;
+        this.threads = threads;
+        this.segments = segments;
+        for (IndexSegment segment : segments) {
+            nextGeneration = Math.max(nextGeneration, segment.maxGeneration() + 1);
+            nextGame = Math.max(nextGame, segment.endGame());
+        }
+        if (mergeInterval == null) {
+            merger = null;
+        } else {
+            merger =
+                    Executors.newSingleThreadScheduledExecutor(
+                            Thread.ofPlatform().daemon().name("position-index-merger").factory());
+            long nanos = mergeInterval.toNanos();
+            merger.scheduleWithFixedDelay(this::mergeQuietly, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Opens the index in {@code dir}, creating it when missing, for games played on boards shaped
+     * like {@code board}.
+     *
+     * @param threads workers indexing the batches of one {@link #add}
+     * @param mergeInterval how often the background merger looks for segments to merge; null to
+     *     merge only through {@link #merge}
+     */
+    public static PositionIndex open(Path dir, Board board, int threads, Duration mergeInterval)
+            throws IOException {
+        Objects.requireNonNull(dir, "dir");
+        Topology topology = Topology.of(Objects.requireNonNull(board, "board"));
+        if (topology.size() >= Long.SIZE) {
+            throw new IllegalArgumentException("position index supports at most 63 holes");
+        }
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        Files.createDirectories(dir);
+
+        List<IndexSegment> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    log.debug("Deleting unfinished segment {}", file);
+                    Files.delete(file);
+                } else if (name.endsWith(SUFFIX)) {
+                    found.add(IndexSegment.open(file));
+                }
+            }
+        }
+        List<IndexSegment> live = new ArrayList<>();
+        for (IndexSegment segment : found) {
+            if (found.stream().anyMatch(segment::coveredBy)) {
+                log.debug("Deleting merged segment {}", segment);
+                Files.delete(segment.file());
+            } else {
+                live.add(segment);
+            }
+        }
+        live.sort(Comparator.comparingLong(IndexSegment::minGeneration));
+        log.debug("Opened position index {} with {} segments", dir, live.size());
+        return new PositionIndex(dir, topology, threads, mergeInterval, List.copyOf(live));
+    }
+
+    /**
+     * Indexes the games under consecutive ids, in iteration order, and returns the first id. Each
+     * game's position after each of its played moves is indexed; a game that does not fit the board
+     * or plays an illegal move keeps its id but is not indexed.
+     */
+    public long add(Iterator<SavedGame> games) throws IOException, InterruptedException {
+        Objects.requireNonNull(games, "games");
+        addLock.lock();
+        try {
+            long first = nextGame;
+            Semaphore inFlight = new Semaphore(2 * threads);
+            List<Future<?>> written = new ArrayList<>();
+            try (ExecutorService pool =
+                    Executors.newFixedThreadPool(
+                            threads, Thread.ofPlatform().name("position-indexer-", 0).factory())) {
+                while (games.hasNext()) {
+                    inFlight.acquire();
+                    List<SavedGame> batch = new ArrayList<>(SEGMENT_GAMES);
+                    while (batch.size() < SEGMENT_GAMES && games.hasNext()) batch.add(games.next());
+                    long firstGame = nextGame;
+                    long generation = nextGeneration++;
+                    nextGame += batch.size();
+                    startWriting(generation);
+                    written.add(
+                            pool.submit(
+                                    () -> {
+                                        try {
+                                            publish(List.of(), write(batch, firstGame, generation));
+                                            return null;
+                                        } finally {
+                                            doneWriting(generation);
+                                            inFlight.release();
+                                        }
+                                    }));
+                }
+                for (Future<?> future : written) future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new IllegalStateException(e.getCause());
+            }
+            log.debug("Indexed games {} to {}", first, nextGame - 1);
+            return first;
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    /** Every pass of an indexed game through the board or a symmetric variant, by game and move. */
+    public List<Posting> find(Board board) {
+        long key = topology.canonical(topology.encode(Objects.requireNonNull(board, "board")));
+        List<IndexSegment> snapshot = segments;
+        long[] found = {};
+        for (IndexSegment segment : snapshot) {
+            long[] postings = segment.find(key);
+            if (postings.length == 0) continue;
+            int at = found.length;
+            found = Arrays.copyOf(found, at + postings.length);
+            System.arraycopy(postings, 0, found, at, postings.length);
+        }
+        Arrays.sort(found);
+        List<Posting> result = new ArrayList<>(found.length);
+        for (long posting : found) result.add(Posting.unpack(posting));
+        return result;
+    }
+
+    /** Ids handed out so far; the next game added gets this id. */
+    public long games() {
+        addLock.lock();
+        try {
+            return nextGame;
+        } finally {
+            addLock.unlock();
+        }
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long postingCount() {
+        return segments.stream().mapToLong(IndexSegment::postingCount).sum();
+    }
+
+    /**
+     * Merges the {@value #MERGE_FACTOR} neighbouring segments with the fewest bytes into one, when
+     * there are that many with no batch still being written between them and the result stays below
+     * the segment size limit.
+     *
+     * @return whether a merge happened
+     */
+    public boolean merge() throws IOException {
+        mergeLock.lock();
+        try {
+            List<IndexSegment> window = pickMerge();
+            if (window == null) return false;
+            IndexSegment first = window.getFirst();
+            IndexSegment last = window.getLast();
+            Path target = file(first.minGeneration(), last.maxGeneration());
+            try (SegmentWriter writer = new SegmentWriter(temp(target))) {
+                mergeInto(window, writer);
+                writer.finish(
+                        target,
+                        first.minGeneration(),
+                        last.maxGeneration(),
+                        window.stream().mapToLong(IndexSegment::firstGame).min().orElseThrow(),
+                        window.stream().mapToLong(IndexSegment::endGame).max().orElseThrow());
+            }
+            IndexSegment merged = IndexSegment.open(target);
+            publish(window, merged);
+            for (IndexSegment segment : window) Files.delete(segment.file());
+            log.debug("Merged {} segments into {}", window.size(), merged);
+            return true;
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+    /** Stops the background merger, waiting for a merge in progress. */
+    @Override
+    public void close() {
+        if (merger == null) return;
+        merger.shutdown();
+        try {
+            merger.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void mergeQuietly() {
+        try {
+            while (merge()) {
+                if (Thread.currentThread().isInterrupted()) return;
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Merging position index {} failed", dir, e);
+        }
+    }
+
+    private synchronized void publish(List<IndexSegment> removed, IndexSegment added) {
+        List<IndexSegment> next = new ArrayList<>(segments);
+        next.removeAll(removed);
+        next.add(added);
+        next.sort(Comparator.comparingLong(IndexSegment::minGeneration));
+        segments = List.copyOf(next);
+    }
+
+    private synchronized void startWriting(long generation) {
+        writing.add(generation);
+    }
+
+    private synchronized void doneWriting(long generation) {
+        writing.remove(generation);
+    }
+
+    /** Under the same lock as {@link #publish}, so a batch is always either written or writing. */
+    private synchronized List<IndexSegment> pickMerge() {
+        List<IndexSegment> best = null;
+        long bestBytes = Long.MAX_VALUE;
+        for (int i = 0; i + MERGE_FACTOR <= segments.size(); i++) {
+            List<IndexSegment> window = segments.subList(i, i + MERGE_FACTOR);
+            long bytes = window.stream().mapToLong(IndexSegment::bytes).sum();
+            long min = window.getFirst().minGeneration();
+            long max = window.getLast().maxGeneration();
+            boolean spansWrite = writing.stream().anyMatch(g -> min <= g && g <= max);
+            if (!spansWrite && bytes < IndexSegment.MAX_BYTES && bytes < bestBytes) {
+                best = window;
+                bestBytes = bytes;
+            }
+        }
+        return best == null ? null : List.copyOf(best);
+    }
+
+    /** K-way merge of the segments' records; postings of a key are concatenated and sorted. */
+    private static void mergeInto(List<IndexSegment> inputs, SegmentWriter writer)
+            throws IOException {
+        List<IndexSegment.Cursor> cursors = new ArrayList<>();
+        for (IndexSegment segment : inputs) {
+            IndexSegment.Cursor cursor = segment.cursor();
+            if (cursor.next()) cursors.add(cursor);
+        }
+        long[] postings = new long[64];
+        while (!cursors.isEmpty()) {
+            long key = Long.MAX_VALUE;
+            for (IndexSegment.Cursor cursor : cursors) key = Math.min(key, cursor.key());
+            int count = 0;
+            for (Iterator<IndexSegment.Cursor> it = cursors.iterator(); it.hasNext(); ) {
+                IndexSegment.Cursor cursor = it.next();
+                if (cursor.key() != key) continue;
+                if (count + cursor.count() > postings.length) {
+                    postings = Arrays.copyOf(postings, 2 * (count + cursor.count()));
+                }
+                for (int i = 0; i < cursor.count(); i++) postings[count++] = cursor.posting(i);
+                if (!cursor.next()) it.remove();
+            }
+            Arrays.sort(postings, 0, count);
+            writer.add(key, postings, 0, count);
+        }
+    }
+
+    /** Replays a batch into sorted key and posting pairs and writes them as one segment. */
+    private IndexSegment write(List<SavedGame> batch, long firstGame, long generation)
+            throws IOException {
+        Pairs pairs = new Pairs(batch.size() * 32);
+        Board knownStart = null;
+        for (int g = 0; g < batch.size(); g++) {
+            SavedGame game = batch.get(g);
+            long id = firstGame + g;
+            int mark = pairs.size();
+            try {
+                if (game.start() != knownStart && !game.start().equals(knownStart)) {
+                    if (!Topology.of(game.start()).equals(topology)) {
+                        throw new IllegalArgumentException("game is played on another board");
+                    }
+                    knownStart = game.start();
+                }
+                long pegs = topology.encode(game.start());
+                pairs.add(topology.canonical(pegs), Posting.pack(id, 0));
+                List<Move> moves = game.moves();
+                for (int m = 0; m < game.played(); m++) {
+                    int jump = topology.jumpIndex(moves.get(m));
+                    if (jump < 0 || !topology.canJump(pegs, jump)) {
+                        throw new IllegalArgumentException("illegal move " + m);
+                    }
+                    pegs = topology.jump(pegs, jump);
+                    pairs.add(topology.canonical(pegs), Posting.pack(id, m + 1));
+                }
+            } catch (IllegalArgumentException e) {
+                log.debug("Not indexing game {}: {}", id, e.getMessage());
+                pairs.truncate(mark);
+            }
+        }
+        pairs.sort();
+
+        Path target = file(generation, generation);
+        try (SegmentWriter writer = new SegmentWriter(temp(target))) {
+            long[] values = pairs.values();
+            int i = 0;
+            while (i < pairs.size()) {
+                int end = i + 1;
+                while (end < pairs.size() && pairs.key(end) == pairs.key(i)) end++;
+                writer.add(pairs.key(i), values, i, end - i);
+                i = end;
+            }
+            writer.finish(target, generation, generation, firstGame, firstGame + batch.size());
+        }
+        return IndexSegment.open(target);
+    }
+
+    private Path file(long minGeneration, long maxGeneration) {
+        return dir.resolve(
+                String.format("%s%016x-%016x%s", PREFIX, minGeneration, maxGeneration, SUFFIX));
+    }
+
+    private static Path temp(Path file) {
+        return file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    }
+}
@@ -0,0 +1,21 @@
+package com.solitaire.app.index;
+
+/**
+ * One pass of a game through a position.
+ *
+ * @param game the game's id in the {@link PositionIndex}
+ * @param move moves played before the position was reached; 0 for the start
+ */
+public record Posting(long game, int move) {
+
+    /** Moves fit in six bits: a board of at most 63 holes has at most 62 moves. */
+    static final int MOVE_BITS = 6;
+
+    static long pack(long game, int move) {
+        return game << MOVE_BITS | move;
+    }
+
+    static Posting unpack(long packed) {
+        return new Posting(packed >>> MOVE_BITS, (int) (packed & (1 << MOVE_BITS) - 1));
+    }
+}
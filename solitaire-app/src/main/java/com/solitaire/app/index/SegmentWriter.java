@@ -0,0 +1,97 @@
+package com.solitaire.app.index;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streams records in key order into a temporary file and, on {@link #finish}, moves it into place
+ * under its final name, so a reader never sees a partial segment. See {@link IndexSegment} for the
+ * layout.
+ */
+final class SegmentWriter implements AutoCloseable {
+
+    private final Path temp;
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private long[] index = new long[2 * 64];
+    private int indexEntries;
+    private long offset = IndexSegment.HEADER_BYTES;
+    private long lastKey = Long.MIN_VALUE;
+    private long keys;
+    private long postings;
+    private boolean finished;
+
+    SegmentWriter(Path temp) throws IOException {
+        this.temp = temp;
+        this.channel =
+                FileChannel.open(
+                        temp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE);
+        this.out =
+                new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+        out.writeInt(IndexSegment.MAGIC);
+        out.writeInt(IndexSegment.VERSION);
+    }
+
+    /** Bytes written so far. */
+    long bytes() {
+        return offset;
+    }
+
+    /** Appends a record; keys must increase from one call to the next. */
+    void add(long key, long[] from, int start, int count) throws IOException {
+        if (key <= lastKey) throw new IllegalArgumentException("keys out of order at " + key);
+        if (keys % IndexSegment.INDEX_INTERVAL == 0) {
+            if (2 * indexEntries == index.length) index = Arrays.copyOf(index, 2 * index.length);
+            index[2 * indexEntries] = key;
+            index[2 * indexEntries + 1] = offset;
+            indexEntries++;
+        }
+        out.writeLong(key);
+        out.writeInt(count);
+        for (int i = start; i < start + count; i++) out.writeLong(from[i]);
+        lastKey = key;
+        keys++;
+        postings += count;
+        offset += 12 + 8L * count;
+    }
+
+    /** Writes the sparse index and footer, syncs, and renames the file to {@code target}. */
+    void finish(Path target, long minGeneration, long maxGeneration, long firstGame, long endGame)
+            throws IOException {
+        long indexAt = offset;
+        for (int i = 0; i < 2 * indexEntries; i++) out.writeLong(index[i]);
+        out.writeLong(minGeneration);
+        out.writeLong(maxGeneration);
+        out.writeLong(firstGame);
+        out.writeLong(endGame);
+        out.writeLong(keys);
+        out.writeLong(postings);
+        out.writeLong(indexAt);
+        out.writeLong(indexEntries);
+        out.writeInt(IndexSegment.MAGIC);
+        out.flush();
+        channel.force(true);
+        out.close();
+        finished = true;
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Drops the temporary file unless {@link #finish} moved it into place. */
+    @Override
+    public void close() throws IOException {
+        if (finished) return;
+        out.close();
+        Files.deleteIfExists(temp);
+    }
+}
@@ -0,0 +1,60 @@
+package com.solitaire.app.leaderboard;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Position;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A finished game as ranked by the {@link Leaderboard}: fewer pegs first, then a last peg standing
+ * in a hole that was empty at the start, then the shorter time.
+ *
+ * @param onStartHole whether a single remaining peg stands where the start board had a hole
+ */
+public record GameResult(
+        String player, GameStatus status, int pegs, boolean onStartHole, Duration elapsed) {
+
+    /** Longest player name, in UTF-8 bytes. */
+    public static final int MAX_PLAYER_BYTES = 255;
+
+    static final Comparator<GameResult> BEST_FIRST =
+            Comparator.comparingInt(GameResult::pegs)
+                    .thenComparing(GameResult::onStartHole, Comparator.reverseOrder())
+                    .thenComparing(GameResult::elapsed);
+
+    public GameResult {
+        Objects.requireNonNull(player, "player");
+        Objects.requireNonNull(status, "status");
+        Objects.requireNonNull(elapsed, "elapsed");
+        if (status == GameStatus.RUNNING) {
+            throw new IllegalArgumentException("game is still running");
+        }
+        if (pegs < 1 || pegs > 0xFF) throw new IllegalArgumentException("pegs " + pegs);
+        if (elapsed.isNegative()) throw new IllegalArgumentException("negative time " + elapsed);
+        if (player.getBytes(StandardCharsets.UTF_8).length > MAX_PLAYER_BYTES) {
+            throw new IllegalArgumentException("player name longer than " + MAX_PLAYER_BYTES);
+        }
+    }
+
+    /** The result of a game that started on {@code start} and ended on {@code end}. */
+    public static GameResult of(
+            String player, Board start, Board end, GameStatus status, Duration elapsed) {
+        return new GameResult(
+                player, status, end.pegCount(), lastPegOnStartHole(start, end), elapsed);
+    }
+
+    private static boolean lastPegOnStartHole(Board start, Board end) {
+        if (end.pegCount() != 1) return false;
+        for (int r = 0; r < end.rows(); r++) {
+            for (int c = 0; c < end.cols(); c++) {
+                Position p = new Position(r, c);
+                if (end.cellAt(p) == Cell.PEG) return start.cellAt(p) == Cell.EMPTY;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,347 @@
+package com.solitaire.app.leaderboard;
+
+import com.solitaire.app.GameListener;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Ranks finished games, best first (see {@link GameResult}), and keeps them in an append-only file.
+ *
+ * <p>Results live in a {@link RankedSkipList}, so recording one, the top K, and the rank of a
+ * result all cost O(log n) plus the size of the answer. Queries share a read lock and only wait for
+ * the skip-list insert of a concurrent {@link #record}, not for its file write.
+ *
+ * <p>The file holds a header and one record per result: its id, the time in nanoseconds, status,
+ * pegs, the start-hole flag, the player's name and a CRC32C. Ids are the record's position in the
+ * file. Records reach the operating system on every append and are forced to disk in groups every
+ * {@code syncInterval}, or on every append when it is zero, as in {@code MoveJournal}. Opening
+ * replays the file and cuts it after the last intact record.
+ */
+@Log4j2
+public final class Leaderboard implements AutoCloseable {
+
+    private static final int MAGIC = 0x50534C42; // "PSLB"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_BYTES = 8 + 8 + 1 + 1 + 1 + 1;
+    private static final GameStatus[] STATUSES = GameStatus.values();
+
+    private record Entry(long id, GameResult result) {}
+
+    private static final Comparator<Entry> ORDER =
+            Comparator.comparing(Entry::result, GameResult.BEST_FIRST).thenComparingLong(Entry::id);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ScheduledExecutorService syncer;
+    private final boolean syncEachAppend;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RankedSkipList<Entry> ranking = new RankedSkipList<>(ORDER);
+    private final List<Entry> byId = new ArrayList<>();
+
+    /** Guards the file position and the encoding buffers. */
+    private final Object appendLock = new Object();
+
+    private final ByteBuffer record =
+            ByteBuffer.allocate(FIXED_BYTES + GameResult.MAX_PLAYER_BYTES + Integer.BYTES);
+    private final CRC32C crc = new CRC32C();
+    private long end;
+    private boolean dirty;
+
+    private Leaderboard(Path file, FileChannel channel, Duration syncInterval) {
+        this.file = file;
+        this.channel = channel;
+        this.syncEachAppend = syncInterval.isZero();
+        if (syncEachAppend) {
+            this.syncer = null;
+        } else {
+            this.syncer =
+                    Executors.newSingleThreadScheduledExecutor(
+                            Thread.ofPlatform().daemon().name("leaderboard-sync").factory());
+            long nanos = syncInterval.toNanos();
+            syncer.scheduleWithFixedDelay(this::syncQuietly, nanos, nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Opens the leaderboard kept in {@code file}, creating it when missing.
+     *
+     * @param syncInterval how often recorded results are forced to disk; zero forces every one
+     */
+    public static Leaderboard open(Path file, Duration syncInterval) throws IOException {
+        Objects.requireNonNull(file, "file");
+        if (Objects.requireNonNull(syncInterval, "syncInterval").isNegative()) {
+            throw new IllegalArgumentException("negative sync interval");
+        }
+        FileChannel channel =
+                FileChannel.open(
+                        file,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+        try {
+            Leaderboard board = new Leaderboard(file, channel, syncInterval);
+            board.load();
+            return board;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Adds a result and returns its id. */
+    public long record(GameResult result) {
+        Objects.requireNonNull(result, "result");
+        synchronized (appendLock) {
+            long id = byId.size();
+            append(id, result);
+            insert(new Entry(id, result));
+            return id;
+        }
+    }
+
+    /**
+     * Records the game's result when its status first changes to {@link GameStatus#WON} or {@link
+     * GameStatus#STUCK}, timed from now. The returned listener removes itself once it has recorded.
+     */
+    public GameListener track(GameState gameState, String player) {
+        Objects.requireNonNull(player, "player");
+        Tracker tracker = new Tracker(gameState, player);
+        gameState.addListener(tracker);
+        return tracker;
+    }
+
+    /** The {@code k} best results. */
+    public List<Standing> top(int k) {
+        if (k < 0) throw new IllegalArgumentException("negative k " + k);
+        lock.readLock().lock();
+        try {
+            List<Entry> entries = ranking.range(1, k);
+            List<Standing> standings = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                standings.add(new Standing(i + 1, entry.id(), entry.result()));
+            }
+            return standings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Where the result with this id stands now, or empty for an unknown id. */
+    public Optional<Standing> standing(long id) {
+        lock.readLock().lock();
+        try {
+            if (id < 0 || id >= byId.size()) return Optional.empty();
+            Entry entry = byId.get((int) id);
+            return Optional.of(new Standing(ranking.rank(entry), id, entry.result()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Forces recorded results to disk. */
+    public void sync() {
+        synchronized (appendLock) {
+            if (!dirty) return;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void close() {
+        // waits for a running sync: interrupting it would close the channel under it
+        if (syncer != null) syncer.close();
+        synchronized (appendLock) {
+            sync();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void insert(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            ranking.add(entry);
+            byId.add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(long id, GameResult result) {
+        byte[] player = result.player().getBytes(StandardCharsets.UTF_8);
+        record.clear();
+        record.putLong(id)
+                .putLong(result.elapsed().toNanos())
+                .put((byte) result.status().ordinal())
+                .put((byte) result.pegs())
+                .put((byte) (result.onStartHole() ? 1 : 0))
+                .put((byte) player.length)
+                .put(player);
+        crc.reset();
+        crc.update(record.array(), 0, record.position());
+        record.putInt((int) crc.getValue());
+        record.flip();
+        long start = end;
+        try {
+            while (record.hasRemaining()) end += channel.write(record, end);
+            if (syncEachAppend) channel.force(false);
+            else dirty = true;
+        } catch (IOException e) {
+            // cut off the torn record, or the next append would land behind it and be lost on load
+            end = start;
+            try {
+                channel.truncate(start);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            if (channel.isOpen()) sync();
+        } catch (RuntimeException e) {
+            log.error("Syncing leaderboard {} failed", file, e);
+        }
+    }
+
+    /** Replays the file into memory, writing the header of a new one. */
+    private void load() throws IOException {
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+            channel.write(header.flip(), 0);
+            channel.force(false);
+            end = HEADER_BYTES;
+            return;
+        }
+        DataInputStream in =
+                new DataInputStream(
+                        new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        if (channel.size() < HEADER_BYTES || in.readInt() != MAGIC) {
+            throw new IOException("not a leaderboard: " + file);
+        }
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("unsupported leaderboard version " + version);
+
+        end = HEADER_BYTES;
+        byte[] bytes = new byte[record.capacity()];
+        while (true) {
+            int length;
+            try {
+                in.readFully(bytes, 0, FIXED_BYTES);
+                length = FIXED_BYTES + (bytes[FIXED_BYTES - 1] & 0xFF);
+                in.readFully(bytes, FIXED_BYTES, length - FIXED_BYTES + Integer.BYTES);
+            } catch (EOFException e) {
+                break;
+            }
+            ByteBuffer read = ByteBuffer.wrap(bytes, 0, length + Integer.BYTES);
+            crc.reset();
+            crc.update(bytes, 0, length);
+            if (read.getInt(length) != (int) crc.getValue()) break;
+            long id = read.getLong();
+            if (id != byId.size()) break;
+            long nanos = read.getLong();
+            int status = read.get();
+            if (status < 0 || status >= STATUSES.length) break;
+            int pegs = read.get() & 0xFF;
+            boolean onStartHole = read.get() != 0;
+            int nameLength = read.get() & 0xFF;
+            String player = new String(bytes, FIXED_BYTES, nameLength, StandardCharsets.UTF_8);
+            GameResult result;
+            try {
+                result =
+                        new GameResult(
+                                player,
+                                STATUSES[status],
+                                pegs,
+                                onStartHole,
+                                Duration.ofNanos(nanos));
+            } catch (IllegalArgumentException e) {
+                break;
+            }
+            insert(new Entry(id, result));
+            end += length + Integer.BYTES;
+        }
+        if (end < channel.size()) {
+            log.debug("Cutting leaderboard {} after {} intact records", file, byId.size());
+            channel.truncate(end);
+        }
+        log.debug("Loaded {} results from {}", byId.size(), file);
+    }
+
+    /** Follows one game and records it when it ends. */
+    private final class Tracker implements GameListener {
+
+        private final GameState gameState;
+        private final String player;
+        private final Board start;
+        private final long began = System.nanoTime();
+        private Board board;
+        private boolean recorded;
+
+        Tracker(GameState gameState, String player) {
+            this.gameState = gameState;
+            this.player = player;
+            this.start = gameState.board();
+            this.board = start;
+        }
+
+        @Override
+        public void onBoardChanged(Board newBoard) {
+            board = newBoard;
+        }
+
+        @Override
+        public void onStatusChanged(GameStatus newStatus) {
+            if (recorded || newStatus == GameStatus.RUNNING) return;
+            recorded = true;
+            gameState.removeListener(this);
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - began);
+            record(GameResult.of(player, start, board, newStatus, elapsed));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.solitaire.app.leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Indexable skip list: sorted inserts, rank of an element and element at a rank, all in expected
+ * O(log n). Each link stores how many elements it skips, so a search adds widths on its way down.
+ * Elements must be distinct under the order. Not thread safe.
+ */
+final class RankedSkipList<E> {
+
+    private static final int MAX_LEVEL = 32;
+
+    private static final class Node<E> {
+
+        final E value;
+        final Node<E>[] next;
+        final int[] width;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node(E value, int levels) {
+            this.value = value;
+            this.next = new Node[levels];
+            this.width = new int[levels];
+        }
+    }
+
+    private final Comparator<? super E> order;
+    private final Node<E> head = new Node<>(null, MAX_LEVEL);
+    private final SplittableRandom random = new SplittableRandom(0x5EED);
+    private int levels = 1;
+    private int size;
+
+    RankedSkipList(Comparator<? super E> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(E value) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Node<E>[] before = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node<E> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            rank[i] = i == levels - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && order.compare(x.next[i].value, value) < 0) {
+                rank[i] += x.width[i];
+                x = x.next[i];
+            }
+            before[i] = x;
+        }
+
+        int height =
+                Math.min(MAX_LEVEL, Long.numberOfTrailingZeros(random.nextLong() | 1L << 31) + 1);
+        for (int i = levels; i < height; i++) {
+            rank[i] = 0;
+            before[i] = head;
+            head.width[i] = size;
+        }
+        levels = Math.max(levels, height);
+
+        Node<E> node = new Node<>(value, height);
+        for (int i = 0; i < height; i++) {
+            node.next[i] = before[i].next[i];
+            before[i].next[i] = node;
+            node.width[i] = before[i].width[i] - (rank[0] - rank[i]);
+            before[i].width[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = height; i < levels; i++) before[i].width[i]++;
+        size++;
+    }
+
+    /** One-based position of {@code value}, or 0 when it is not in the list. */
+    int rank(E value) {
+        int rank = 0;
+        Node<E> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && order.compare(x.next[i].value, value) <= 0) {
+                rank += x.width[i];
+                x = x.next[i];
+            }
+            if (x != head && order.compare(x.value, value) == 0) return rank;
+        }
+        return 0;
+    }
+
+    /** The element at one-based {@code rank}. */
+    E get(int rank) {
+        if (rank < 1 || rank > size) throw new IndexOutOfBoundsException(rank);
+        int passed = 0;
+        Node<E> x = head;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && passed + x.width[i] <= rank) {
+                passed += x.width[i];
+                x = x.next[i];
+            }
+            if (passed == rank) return x.value;
+        }
+        throw new IllegalStateException("widths out of step at rank " + rank);
+    }
+
+    /** Up to {@code limit} elements from one-based {@code rank} on, in order. */
+    List<E> range(int rank, int limit) {
+        List<E> out = new ArrayList<>(Math.max(0, Math.min(limit, size - rank + 1)));
+        if (rank > size || limit <= 0) return out;
+        Node<E> x = head;
+        int passed = 0;
+        for (int i = levels - 1; i >= 0; i--) {
+            while (x.next[i] != null && passed + x.width[i] < rank) {
+                passed += x.width[i];
+                x = x.next[i];
+            }
+        }
+        for (x = x.next[0]; x != null && out.size() < limit; x = x.next[0]) out.add(x.value);
+        return out;
+    }
+}
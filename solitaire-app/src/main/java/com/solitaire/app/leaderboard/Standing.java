@@ -0,0 +1,9 @@
+package com.solitaire.app.leaderboard;
+
+/**
+ * A result's place on the {@link Leaderboard}.
+ *
+ * @param rank one-based; results that tie on everything are ranked by id
+ * @param id what {@link Leaderboard#record} returned for the result
+ */
+public record Standing(int rank, long id, GameResult result) {}
@@ -0,0 +1,25 @@
+package com.solitaire.app.session;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * When a {@link SessionManager} moves sessions out of the heap.
+ *
+ * @param store file the hibernated sessions are appended to; recreated when the manager starts
+ * @param idleAfter sessions untouched for this long are hibernated by {@link
+ *     SessionManager#hibernateIdle}
+ * @param heapBudgetBytes estimated heap the live sessions may use before the least recently used
+ *     ones are hibernated, whether idle or not
+ */
+public record HibernationPolicy(Path store, Duration idleAfter, long heapBudgetBytes) {
+
+    public HibernationPolicy {
+        Objects.requireNonNull(store, "store");
+        Objects.requireNonNull(idleAfter, "idleAfter");
+        if (idleAfter.isNegative()) throw new IllegalArgumentException("idleAfter is negative");
+        if (heapBudgetBytes < 1)
+            throw new IllegalArgumentException("heapBudgetBytes must be positive");
+    }
+}
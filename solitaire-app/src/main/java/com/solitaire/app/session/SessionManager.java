@@ -0,0 +1,324 @@
+package com.solitaire.app.session;
+
+import com.solitaire.app.ApplyMoveCommand;
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameSnapshot;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.domain.rules.Rules;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Hosts many independent games in one JVM, keyed by session id.
+ *
+ * <p>Every session starts from the same immutable initial {@link Board} and shares one {@link
+ * Rules} instance; boards are copied only when a session moves. Histories are {@linkplain
+ * CommandManager#packed packed} to one {@code int} per move, bounded by {@code maxHistory}.
+ *
+ * <p>Sessions are not thread-safe on their own, so each operation runs under one of a fixed set of
+ * striped locks chosen by session id: operations on different stripes never contend, and the lock
+ * count does not grow with the number of sessions. Any thread may call any method.
+ *
+ * <p>With a {@link HibernationPolicy}, sessions can be moved out of the heap: their board and
+ * packed history are appended to a file and only a small placeholder stays in memory. {@link
+ * #hibernateIdle} does this for sessions idle past the policy's threshold, and whenever the
+ * estimated heap of the live sessions exceeds the budget the least recently used ones follow. The
+ * next operation on a hibernated session reads it back transparently.
+ */
+@Log4j2
+public final class SessionManager implements AutoCloseable {
+
+    /** Game state, listener list, command manager and map entry; measured, rounded. */
+    static final long SESSION_OVERHEAD_BYTES = 240;
+
+    /** Map entry and placeholder of a hibernated session, plus its store index entry. */
+    static final long HIBERNATED_BYTES = 120;
+
+    private final Board initialBoard;
+    private final Rules rules;
+    private final int maxHistory;
+    private final ReentrantLock[] stripes;
+    private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    private final SessionStore store;
+    private final long idleNanos;
+    private final long heapBudget;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /** A game; state and commands are null while it is hibernated. Guarded by its stripe. */
+    private static final class Session {
+        private GameState state;
+        private CommandManager commands;
+        private long bytes;
+        private volatile long lastAccess = System.nanoTime();
+    }
+
+    /**
+     * @param stripes number of locks; a few times the number of cores keeps contention low
+     * @param maxHistory moves each session can undo
+     */
+    public SessionManager(Board initialBoard, Rules rules, int stripes, int maxHistory) {
+        this(initialBoard, rules, stripes, maxHistory, null);
+    }
+
+    /**
+     * A manager that hibernates sessions according to {@code policy}, or never when it is null.
+     *
+     * @param stripes number of locks; a few times the number of cores keeps contention low
+     * @param maxHistory moves each session can undo
+     */
+    public SessionManager(
+            Board initialBoard,
+            Rules rules,
+            int stripes,
+            int maxHistory,
+            HibernationPolicy policy) {
+        this.initialBoard = Objects.requireNonNull(initialBoard, "initialBoard");
+        this.rules = Objects.requireNonNull(rules, "rules");
+        if (stripes < 1) throw new IllegalArgumentException("stripes must be positive");
+        if (maxHistory < 1) throw new IllegalArgumentException("maxHistory must be positive");
+        this.maxHistory = maxHistory;
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) this.stripes[i] = new ReentrantLock();
+        this.store = policy == null ? null : new SessionStore(policy.store());
+        this.idleNanos = policy == null ? Long.MAX_VALUE : policy.idleAfter().toNanos();
+        this.heapBudget = policy == null ? Long.MAX_VALUE : policy.heapBudgetBytes();
+    }
+
+    /** Sessions of English Peg Solitaire from the standard start. */
+    public static SessionManager english(int stripes, int maxHistory) {
+        DomainObjects domain = DomainFactory.buildDomain();
+        return new SessionManager(domain.board(), domain.rules(), stripes, maxHistory);
+    }
+
+    /** Starts a new game and returns its id. */
+    public long create() {
+        long id = ids.incrementAndGet();
+        Session session = new Session();
+        session.state = new GameState(initialBoard, rules);
+        session.commands = CommandManager.packed(session.state, maxHistory);
+        account(session);
+        sessions.put(id, session);
+        log.debug("Created session {}", id);
+        evictOverBudget();
+        return id;
+    }
+
+    /** Ends a game; returns false when there was no such session. */
+    public boolean close(long id) {
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            Session session = sessions.remove(id);
+            if (session == null) return false;
+            if (session.state == null) store.remove(id);
+            liveBytes.addAndGet(-session.bytes);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean exists(long id) {
+        return sessions.containsKey(id);
+    }
+
+    /** Number of open sessions, hibernated ones included. */
+    public int size() {
+        return sessions.size();
+    }
+
+    /** Number of sessions currently hibernated. */
+    public int hibernatedCount() {
+        return store == null ? 0 : store.size();
+    }
+
+    /** Whether the session is out of the heap; asking does not restore it. */
+    public boolean isHibernated(long id) {
+        return locked(id, s -> s.state == null);
+    }
+
+    public Board board(long id) {
+        return withSession(id, s -> s.state.board());
+    }
+
+    public GameStatus status(long id) {
+        return withSession(id, s -> s.state.status());
+    }
+
+    /** The session's board, status and version, read together. */
+    public GameSnapshot snapshot(long id) {
+        return withSession(
+                id, s -> new GameSnapshot(s.state.board(), s.state.status(), s.state.version()));
+    }
+
+    public List<Move> legalMoves(long id) {
+        return withSession(id, s -> rules.legalMoves(s.state.board()));
+    }
+
+    /** Plays a move; false when it is illegal in that session's current position. */
+    public boolean move(long id, Move move) {
+        Objects.requireNonNull(move, "move");
+        return withSession(id, s -> s.commands.execute(new ApplyMoveCommand(s.state, move)));
+    }
+
+    public boolean undo(long id) {
+        return withSession(id, s -> s.commands.undo());
+    }
+
+    public boolean redo(long id) {
+        return withSession(id, s -> s.commands.redo());
+    }
+
+    /**
+     * Approximate heap owned by one session: its own objects, its board unless it is still the
+     * shared initial board, and its history; or only a placeholder while it is hibernated.
+     */
+    public long estimatedBytes(long id) {
+        return locked(id, s -> s.state == null ? HIBERNATED_BYTES : s.bytes);
+    }
+
+    /** {@link #estimatedBytes(long)} summed over all sessions. */
+    public long totalEstimatedBytes() {
+        return liveBytes.get() + hibernatedCount() * HIBERNATED_BYTES;
+    }
+
+    /**
+     * Hibernates every live session that has not been used for the policy's idle time; meant to be
+     * called periodically. Returns the number of sessions hibernated.
+     */
+    public int hibernateIdle() {
+        if (store == null) return 0;
+        long cutoff = System.nanoTime() - idleNanos;
+        int count = 0;
+        for (var entry : sessions.entrySet()) {
+            if (entry.getValue().lastAccess - cutoff <= 0 && hibernate(entry.getKey(), cutoff)) {
+                count++;
+            }
+        }
+        log.debug("Hibernated {} idle sessions", count);
+        return count;
+    }
+
+    /** Closes the hibernation store and deletes its file. */
+    @Override
+    public void close() {
+        if (store != null) store.close();
+    }
+
+    /**
+     * Evicts the least recently used live sessions until the live estimate is a tenth below the
+     * budget, so that eviction runs in batches rather than on every operation.
+     */
+    private void evictOverBudget() {
+        if (liveBytes.get() <= heapBudget || !evicting.compareAndSet(false, true)) return;
+        try {
+            List<Map.Entry<Long, Long>> live = new ArrayList<>();
+            for (var entry : sessions.entrySet()) {
+                Session session = entry.getValue();
+                if (session.bytes > 0) live.add(Map.entry(entry.getKey(), session.lastAccess));
+            }
+            live.sort(Comparator.comparingLong(Map.Entry::getValue));
+            long target = heapBudget - heapBudget / 10;
+            int count = 0;
+            for (var entry : live) {
+                if (liveBytes.get() <= target) break;
+                if (hibernate(entry.getKey(), entry.getValue())) count++;
+            }
+            log.debug("Evicted {} sessions over the heap budget", count);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /** Hibernates the session unless it is gone, already out, or was used after {@code seen}. */
+    private boolean hibernate(long id, long seen) {
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            Session session = sessions.get(id);
+            if (session == null || session.state == null || session.lastAccess - seen > 0) {
+                return false;
+            }
+            GameState state = session.state;
+            store.put(
+                    id,
+                    state.board(),
+                    state.version(),
+                    state.lastVersion(),
+                    session.commands.packedHistory());
+            liveBytes.addAndGet(-session.bytes);
+            session.state = null;
+            session.commands = null;
+            session.bytes = 0;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void restore(long id, Session session) {
+        SessionStore.Entry entry = store.take(id);
+        Board board = entry.board().equals(initialBoard) ? initialBoard : entry.board();
+        session.state = new GameState(board, rules, entry.version(), entry.lastVersion());
+        session.commands = CommandManager.packed(session.state, maxHistory, entry.history());
+        log.debug("Restored session {}", id);
+    }
+
+    /** Recomputes the session's estimate and adjusts the live total. */
+    private void account(Session session) {
+        Board board = session.state.board();
+        long boardBytes = board == initialBoard ? 0 : 32 + 16 + 4L * board.rows() * board.cols();
+        long bytes = SESSION_OVERHEAD_BYTES + boardBytes + session.commands.estimatedHistoryBytes();
+        liveBytes.addAndGet(bytes - session.bytes);
+        session.bytes = bytes;
+    }
+
+    /** Runs {@code action} on the live session, restoring it first if it is hibernated. */
+    private <T> T withSession(long id, Function<Session, T> action) {
+        T result =
+                locked(
+                        id,
+                        s -> {
+                            if (s.state == null) restore(id, s);
+                            s.lastAccess = System.nanoTime();
+                            T value = action.apply(s);
+                            account(s);
+                            return value;
+                        });
+        evictOverBudget();
+        return result;
+    }
+
+    private <T> T locked(long id, Function<Session, T> action) {
+        ReentrantLock lock = stripe(id);
+        lock.lock();
+        try {
+            Session session = sessions.get(id);
+            if (session == null) throw new IllegalArgumentException("unknown session " + id);
+            return action.apply(session);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock stripe(long id) {
+        return stripes[Math.floorMod(Long.hashCode(id * 0x9E3779B97F4A7C15L), stripes.length)];
+    }
+}
@@ -0,0 +1,200 @@
+package com.solitaire.app.session;
+
+import com.solitaire.app.GameState;
+import com.solitaire.app.PackedHistory;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Position;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Append-only file of hibernated sessions.
+ *
+ * <p>A record is the session id, the payload length, the board (rows, cols, one byte per cell), its
+ * version and the last version handed out (see {@link GameState#version()}) and the {@link
+ * PackedHistory}. Only the offset and length of each session's record are kept in memory; taking a
+ * session out, or removing it, marks its record dead. Once dead records fill more than half of a
+ * file of at least {@link #COMPACT_THRESHOLD} bytes, the live ones are copied to a fresh file.
+ */
+@Log4j2
+final class SessionStore implements AutoCloseable {
+
+    static final long COMPACT_THRESHOLD = 1 << 20;
+
+    private static final int HEADER_BYTES = Long.BYTES + Integer.BYTES;
+    private static final Cell[] CELLS = Cell.values();
+
+    private final Path file;
+    private final Map<Long, Slot> slots = new HashMap<>();
+    private FileChannel channel;
+    private long liveBytes;
+
+    /** A saved session. */
+    record Entry(Board board, long version, long lastVersion, PackedHistory history) {}
+
+    private record Slot(long offset, int length) {}
+
+    /** Opens an empty store, replacing whatever {@code file} held. */
+    SessionStore(Path file) {
+        this.file = file;
+        try {
+            this.channel = open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Appends the session, replacing any earlier record of it. */
+    synchronized void put(
+            long id, Board board, long version, long lastVersion, PackedHistory history) {
+        ByteBuffer record = encode(id, board, version, lastVersion, history);
+        try {
+            long offset = channel.size();
+            while (record.hasRemaining()) channel.write(record, offset + record.position());
+            release(slots.put(id, new Slot(offset, record.limit())));
+            liveBytes += record.limit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Removes and returns the session, or null when it is not stored. */
+    synchronized Entry take(long id) {
+        Slot slot = slots.remove(id);
+        if (slot == null) return null;
+        try {
+            ByteBuffer record = read(slot);
+            release(slot);
+            record.position(HEADER_BYTES);
+            Entry entry = decode(record);
+            compactIfSparse();
+            return entry;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Drops the session's record, if any. */
+    synchronized void remove(long id) {
+        release(slots.remove(id));
+        try {
+            compactIfSparse();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized int size() {
+        return slots.size();
+    }
+
+    synchronized long fileBytes() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void release(Slot slot) {
+        if (slot != null) liveBytes -= slot.length();
+    }
+
+    private ByteBuffer read(Slot slot) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(slot.length());
+        while (record.hasRemaining()) {
+            if (channel.read(record, slot.offset() + record.position()) < 0) {
+                throw new IOException("truncated record at " + slot.offset() + " in " + file);
+            }
+        }
+        return record.flip();
+    }
+
+    private void compactIfSparse() throws IOException {
+        long size = channel.size();
+        if (size < COMPACT_THRESHOLD || liveBytes * 2 > size) return;
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = open(tmp)) {
+            long position = 0;
+            for (Map.Entry<Long, Slot> e : slots.entrySet()) {
+                ByteBuffer record = read(e.getValue());
+                e.setValue(new Slot(position, record.limit()));
+                while (record.hasRemaining()) position += out.write(record, position);
+            }
+        }
+        channel.close();
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        log.debug("Compacted session store from {} to {} bytes", size, liveBytes);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static ByteBuffer encode(
+            long id, Board board, long version, long lastVersion, PackedHistory history) {
+        int rows = board.rows();
+        int cols = board.cols();
+        int[] moves = history.moves();
+        int payload =
+                2 * Short.BYTES
+                        + rows * cols
+                        + 2 * Long.BYTES
+                        + 2 * Integer.BYTES
+                        + moves.length * Integer.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload);
+        buffer.putLong(id).putInt(payload);
+        buffer.putShort((short) rows).putShort((short) cols);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                buffer.put((byte) board.cellAt(new Position(r, c)).ordinal());
+            }
+        }
+        buffer.putLong(version).putLong(lastVersion);
+        buffer.putInt(history.cursor()).putInt(moves.length);
+        for (int move : moves) buffer.putInt(move);
+        return buffer.flip();
+    }
+
+    private static Entry decode(ByteBuffer buffer) {
+        int rows = buffer.getShort();
+        int cols = buffer.getShort();
+        Cell[][] cells = new Cell[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) cells[r][c] = CELLS[buffer.get()];
+        }
+        long version = buffer.getLong();
+        long lastVersion = buffer.getLong();
+        int cursor = buffer.getInt();
+        int[] moves = new int[buffer.getInt()];
+        for (int i = 0; i < moves.length; i++) moves[i] = buffer.getInt();
+        return new Entry(new Board(cells), version, lastVersion, new PackedHistory(moves, cursor));
+    }
+}
@@ -14,6 +14,8 @@ final class ApplyMoveCommandTest {
     private Board initialBoard;
     private Move validMove;
     private Move invalidMove;
+    private int legalityChecks;
+    private int statusChecks;
 
     @BeforeEach
     void setUp() {
@@ -27,6 +29,7 @@ final class ApplyMoveCommandTest {
                 new Rules() {
                     @Override
                     public boolean isLegal(Board board, Move move) {
+                        legalityChecks++;
                         return move.equals(validMove);
                     }
 
@@ -37,6 +40,7 @@ final class ApplyMoveCommandTest {
 
                     @Override
                     public GameStatus status(Board board) {
+                        statusChecks++;
                         return GameStatus.RUNNING;
                     }
                 };
@@ -156,4 +160,40 @@ final class ApplyMoveCommandTest {
         assertTrue(secondExecute);
         assertNotEquals(initialBoard, gameState.board());
     }
+
+    @Test
+    @DisplayName("should redo onto the validated board without consulting the rules")
+    void shouldRedoWithoutRevalidation() {
+        ApplyMoveCommand command = new ApplyMoveCommand(gameState, validMove);
+        command.execute();
+        Board after = gameState.board();
+        long versionAfter = gameState.version();
+        int legality = legalityChecks;
+        int status = statusChecks;
+
+        command.undo();
+        assertEquals(initialBoard, gameState.board());
+        command.execute();
+
+        assertEquals(after, gameState.board());
+        assertEquals(versionAfter, gameState.version());
+        assertEquals(legality, legalityChecks);
+        assertEquals(status, statusChecks);
+    }
+
+    @Test
+    @DisplayName("should validate again when the board changed since the last execution")
+    void shouldRevalidateAfterForeignChange() {
+        ApplyMoveCommand command = new ApplyMoveCommand(gameState, validMove);
+        command.execute();
+        command.undo();
+        long versionBefore = gameState.version();
+        gameState.setBoard(initialBoard);
+        int legality = legalityChecks;
+
+        assertTrue(command.execute());
+
+        assertNotEquals(versionBefore, gameState.version());
+        assertEquals(legality + 1, legalityChecks);
+    }
 }
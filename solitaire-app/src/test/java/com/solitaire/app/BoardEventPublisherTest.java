@@ -0,0 +1,206 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class BoardEventPublisherTest {
+
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private DomainObjects domain;
+    private GameState gameState;
+    private CommandManager manager;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+        gameState = new GameState(domain.board(), domain.rules());
+        manager = new CommandManager();
+    }
+
+    @Test
+    @DisplayName("should deliver a snapshot and then every change in order")
+    void shouldDeliverInOrder() {
+        BoardEventPublisher publisher = BoardEventPublisher.attach(gameState, 64, Runnable::run);
+        Recorder recorder = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(recorder);
+
+        List<Board> expected = new ArrayList<>(List.of(gameState.board()));
+        for (int i = 0; i < 10; i++) {
+            play();
+            expected.add(gameState.board());
+        }
+        manager.undo();
+        expected.add(gameState.board());
+
+        assertEquals(12, recorder.events.size());
+        assertTrue(recorder.events.getFirst().isSnapshot());
+        Board board = null;
+        for (int i = 0; i < recorder.events.size(); i++) {
+            BoardEvent event = recorder.events.get(i);
+            assertEquals(i, event.sequence());
+            assertEquals(i > 0, !event.isSnapshot());
+            board = event.applyTo(board);
+            assertEquals(expected.get(i), board);
+        }
+        assertEquals(17, recorder.events.get(1).size());
+        assertEquals(25, recorder.events.getFirst().size());
+    }
+
+    @Test
+    @DisplayName("should fast-forward a subscriber that falls behind to the latest snapshot")
+    void shouldFastForwardLaggingSubscriber() {
+        BoardEventPublisher publisher = BoardEventPublisher.attach(gameState, 4, queue::add);
+        Recorder recorder = new Recorder(1);
+        publisher.subscribe(recorder);
+        runQueue();
+        assertEquals(1, recorder.events.size());
+
+        for (int i = 0; i < 10; i++) play();
+        assertTrue(queue.isEmpty(), "no demand, nothing scheduled");
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        runQueue();
+        BoardEvent caughtUp = recorder.events.get(1);
+        assertTrue(caughtUp.isSnapshot());
+        assertEquals(10, caughtUp.sequence());
+        assertEquals(gameState.board(), caughtUp.applyTo(null));
+
+        play();
+        play();
+        runQueue();
+        assertEquals(4, recorder.events.size());
+        assertEquals(12, recorder.events.getLast().sequence());
+        assertFalse(recorder.events.getLast().isSnapshot());
+    }
+
+    @Test
+    @DisplayName("should share each encoded event between many concurrent subscribers")
+    void shouldFanOut() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            BoardEventPublisher publisher = BoardEventPublisher.attach(gameState, 64, executor);
+            List<Recorder> recorders = new ArrayList<>();
+            for (int i = 0; i < 2000; i++) {
+                Recorder recorder = new Recorder(Long.MAX_VALUE);
+                publisher.subscribe(recorder);
+                recorders.add(recorder);
+            }
+            for (int i = 0; i < 20; i++) play();
+            publisher.close();
+
+            for (Recorder recorder : recorders) {
+                assertTrue(recorder.completed.await(10, TimeUnit.SECONDS));
+                Board board = null;
+                long sequence = -1;
+                for (BoardEvent event : recorder.events) {
+                    assertTrue(event.sequence() > sequence);
+                    sequence = event.sequence();
+                    board = event.applyTo(board);
+                }
+                assertEquals(gameState.board(), board);
+            }
+            assertSame(recorders.get(0).events.getLast(), recorders.get(1999).events.getLast());
+            assertEquals(0, publisher.subscriberCount());
+        }
+    }
+
+    @Test
+    @DisplayName("should signal an error for a non-positive request and cancel on request")
+    void shouldFollowFlowRules() {
+        BoardEventPublisher publisher = BoardEventPublisher.attach(gameState, 8, Runnable::run);
+        Recorder bad = new Recorder(0);
+        publisher.subscribe(bad);
+        bad.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, bad.error);
+        assertEquals(0, publisher.subscriberCount());
+
+        Recorder cancelling = new Recorder(Long.MAX_VALUE);
+        publisher.subscribe(cancelling);
+        cancelling.subscription.cancel();
+        play();
+        assertEquals(1, cancelling.events.size());
+    }
+
+    @Test
+    @DisplayName("should decode the bytes it encodes and reject others")
+    void shouldRoundTripEncoding() {
+        Board before = gameState.board();
+        play();
+        BoardEvent delta = BoardEvent.delta(7, before, gameState.board(), GameStatus.RUNNING);
+        BoardEvent decoded = BoardEvent.decode(delta.bytes());
+        assertEquals(7, decoded.sequence());
+        assertEquals(GameStatus.RUNNING, decoded.status());
+        assertEquals(gameState.board(), decoded.applyTo(before));
+
+        BoardEvent snapshot = BoardEvent.snapshot(9, gameState.board(), GameStatus.STUCK);
+        assertEquals(gameState.board(), BoardEvent.decode(snapshot.bytes()).applyTo(null));
+        assertEquals(GameStatus.STUCK, BoardEvent.decode(snapshot.bytes()).status());
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> BoardEvent.decode(ByteBuffer.wrap(new byte[] {1, 0, 0})));
+        ByteBuffer truncated = delta.bytes();
+        truncated.limit(truncated.limit() - 1);
+        assertThrows(IllegalArgumentException.class, () -> BoardEvent.decode(truncated));
+    }
+
+    private void play() {
+        Move move = domain.rules().legalMoves(gameState.board()).getFirst();
+        assertTrue(manager.execute(new ApplyMoveCommand(gameState, move)));
+    }
+
+    private void runQueue() {
+        while (!queue.isEmpty()) queue.poll().run();
+    }
+
+    private static final class Recorder implements Flow.Subscriber<BoardEvent> {
+
+        final List<BoardEvent> events = new ArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        final long initialDemand;
+        Flow.Subscription subscription;
+        Throwable error;
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialDemand > 0) subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(BoardEvent item) {
+            events.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class CoalescingGameListenerTest {
+
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private final List<Board> boards = new ArrayList<>();
+    private final List<GameStatus> statuses = new ArrayList<>();
+    private CoalescingGameListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener =
+                new CoalescingGameListener(
+                        new GameListener() {
+                            @Override
+                            public void onBoardChanged(Board newBoard) {
+                                boards.add(newBoard);
+                            }
+
+                            @Override
+                            public void onStatusChanged(GameStatus newStatus) {
+                                statuses.add(newStatus);
+                            }
+                        },
+                        queue::add);
+    }
+
+    @Test
+    @DisplayName("should queue one delivery for a burst and deliver only the latest values")
+    void shouldCoalesceBurst() {
+        DomainObjects domain = DomainFactory.buildDomain();
+        GameState gameState = new GameState(domain.board(), domain.rules());
+        gameState.addListener(listener);
+        CommandManager manager = new CommandManager();
+
+        for (int i = 0; i < 20; i++) {
+            Move move = domain.rules().legalMoves(gameState.board()).getFirst();
+            manager.execute(new ApplyMoveCommand(gameState, move));
+        }
+        while (manager.undo()) {}
+
+        assertEquals(1, queue.size());
+        queue.poll().run();
+        assertEquals(List.of(domain.board()), boards);
+        assertTrue(statuses.isEmpty());
+    }
+
+    @Test
+    @DisplayName("should deliver the board before the status")
+    void shouldDeliverBoardThenStatus() {
+        Board board = DomainFactory.buildDomain().board();
+        listener.onStatusChanged(GameStatus.STUCK);
+        listener.onBoardChanged(board);
+        listener.onStatusChanged(GameStatus.WON);
+
+        queue.poll().run();
+
+        assertEquals(List.of(board), boards);
+        assertEquals(List.of(GameStatus.WON), statuses);
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    @DisplayName("should schedule again for events after a delivery")
+    void shouldScheduleAgainAfterDelivery() {
+        Board board = DomainFactory.buildDomain().board();
+        listener.onBoardChanged(board);
+        queue.poll().run();
+        listener.onStatusChanged(GameStatus.RUNNING);
+
+        assertEquals(1, queue.size());
+        queue.poll().run();
+        assertEquals(1, boards.size());
+        assertEquals(List.of(GameStatus.RUNNING), statuses);
+    }
+}
@@ -0,0 +1,117 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class ConcurrentGameStateTest {
+
+    private DomainObjects domain;
+    private ConcurrentGameState state;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+        state = new ConcurrentGameState(domain.board(), domain.rules());
+    }
+
+    @Test
+    @DisplayName("should reject a move computed against an outdated version")
+    void shouldRejectStaleMoves() {
+        GameSnapshot seen = state.snapshot();
+        List<Move> legal = domain.rules().legalMoves(seen.board());
+
+        assertTrue(state.tryApply(legal.get(0), seen.version()));
+        assertFalse(state.tryApply(legal.get(1), seen.version()));
+        assertFalse(state.trySetBoard(seen.board(), seen.version()));
+
+        assertEquals(1, state.version());
+        assertEquals(seen.board().applyUnchecked(legal.get(0)), state.board());
+    }
+
+    @Test
+    @DisplayName("should reject illegal moves without changing the version")
+    void shouldRejectIllegalMoves() {
+        Move legal = domain.rules().legalMoves(state.board()).getFirst();
+        Move backwards = new Move(legal.to(), legal.over(), legal.from());
+
+        assertFalse(state.tryApply(backwards, 0));
+        assertFalse(state.apply(backwards));
+        assertEquals(0, state.version());
+    }
+
+    @Test
+    @DisplayName("should apply each version at most once under concurrent writers")
+    void shouldSerializeConcurrentWriters() throws Exception {
+        List<Board> notified = new CopyOnWriteArrayList<>();
+        state.addListener(
+                new GameListener() {
+                    @Override
+                    public void onBoardChanged(Board newBoard) {
+                        notified.add(newBoard);
+                    }
+
+                    @Override
+                    public void onStatusChanged(GameStatus newStatus) {}
+                });
+
+        AtomicInteger applied = new AtomicInteger();
+        AtomicBoolean torn = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random random = new Random(t);
+            threads.add(
+                    Thread.ofPlatform()
+                            .start(
+                                    () -> {
+                                        await(start);
+                                        while (true) {
+                                            GameSnapshot s = state.snapshot();
+                                            if (s.status() != domain.rules().status(s.board())) {
+                                                torn.set(true);
+                                            }
+                                            List<Move> legal = domain.rules().legalMoves(s.board());
+                                            if (legal.isEmpty()) return;
+                                            Move move = legal.get(random.nextInt(legal.size()));
+                                            if (state.tryApply(move, s.version())) {
+                                                applied.incrementAndGet();
+                                            }
+                                        }
+                                    }));
+        }
+        start.countDown();
+        for (Thread thread : threads) thread.join();
+
+        assertFalse(torn.get(), "a reader saw a status that does not match its board");
+        assertEquals(applied.get(), state.version());
+        assertEquals(domain.board().pegCount() - applied.get(), state.board().pegCount());
+        assertNotEquals(GameStatus.RUNNING, state.status());
+        for (int i = 1; i < notified.size(); i++) {
+            assertTrue(notified.get(i).pegCount() < notified.get(i - 1).pegCount());
+        }
+        assertEquals(state.board(), notified.getLast());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -309,4 +309,28 @@ final class GameStateTest {
 
         assertDoesNotThrow(() -> gameState.removeListener(listener));
     }
+
+    @Test
+    @DisplayName("should let a listener remove itself while being notified")
+    void shouldLetListenerRemoveItselfDuringNotification() {
+        final int[] callCount = {0};
+        GameListener listener =
+                new GameListener() {
+                    @Override
+                    public void onBoardChanged(Board newBoard) {
+                        callCount[0]++;
+                        gameState.removeListener(this);
+                    }
+
+                    @Override
+                    public void onStatusChanged(GameStatus newStatus) {}
+                };
+        gameState.addListener(listener);
+
+        Board newBoard = new Board(new Cell[][] {{Cell.EMPTY, Cell.EMPTY, Cell.PEG}});
+        gameState.setBoard(newBoard);
+        gameState.setBoard(initialBoard);
+
+        assertEquals(1, callCount[0]);
+    }
 }
@@ -0,0 +1,106 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class MacroMoveCommandTest {
+
+    private GameState gameState;
+    private Board start;
+    private final List<Move> game = new ArrayList<>();
+    private Board end;
+    private int boardChanges;
+    private int statusChanges;
+
+    @BeforeEach
+    void setUp() {
+        DomainObjects domain = DomainFactory.buildDomain();
+        gameState = new GameState(domain.board(), domain.rules());
+        start = domain.board();
+
+        Board board = start;
+        List<Move> legal = domain.rules().legalMoves(board);
+        while (!legal.isEmpty()) {
+            game.add(legal.getFirst());
+            board = board.applyUnchecked(legal.getFirst());
+            legal = domain.rules().legalMoves(board);
+        }
+        end = board;
+
+        gameState.addListener(
+                new GameListener() {
+                    @Override
+                    public void onBoardChanged(Board newBoard) {
+                        boardChanges++;
+                    }
+
+                    @Override
+                    public void onStatusChanged(GameStatus newStatus) {
+                        statusChanges++;
+                    }
+                });
+    }
+
+    @Test
+    @DisplayName("should apply the whole batch with a single notification")
+    void shouldNotifyOnce() {
+        CommandManager manager = new CommandManager();
+
+        assertTrue(manager.execute(new MacroMoveCommand(gameState, game)));
+
+        assertEquals(end, gameState.board());
+        assertEquals(1, boardChanges);
+        assertEquals(1, statusChanges);
+        assertNotEquals(GameStatus.RUNNING, gameState.status());
+    }
+
+    @Test
+    @DisplayName("should undo and redo the batch as one unit")
+    void shouldUndoAndRedoAsUnit() {
+        CommandManager manager = new CommandManager();
+        manager.execute(new MacroMoveCommand(gameState, game));
+
+        assertTrue(manager.undo());
+        assertEquals(start, gameState.board());
+        assertFalse(manager.canUndo());
+
+        assertTrue(manager.redo());
+        assertEquals(end, gameState.board());
+        assertEquals(3, boardChanges);
+    }
+
+    @Test
+    @DisplayName("should change nothing when any move in the batch is illegal")
+    void shouldBeAtomic() {
+        List<Move> broken = new ArrayList<>(game);
+        broken.add(3, broken.get(2));
+        MacroMoveCommand command = new MacroMoveCommand(gameState, broken);
+
+        assertFalse(command.execute());
+        assertEquals(start, gameState.board());
+        assertEquals(0, boardChanges);
+    }
+
+    @Test
+    @DisplayName("should not execute twice without an undo")
+    void shouldNotExecuteTwice() {
+        MacroMoveCommand command = new MacroMoveCommand(gameState, game.subList(0, 3));
+
+        assertTrue(command.execute());
+        assertFalse(command.execute());
+        command.undo();
+        assertEquals(start, gameState.board());
+        command.undo();
+        assertEquals(start, gameState.board());
+    }
+}
@@ -0,0 +1,172 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class MoveJournalTest {
+
+    @TempDir Path dir;
+
+    private DomainObjects domain;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+        file = dir.resolve("game.journal");
+    }
+
+    @Test
+    @DisplayName("should rebuild the board and both stacks after a crash")
+    void shouldRecoverBoardAndStacks() {
+        GameState gameState = new GameState(domain.board(), domain.rules());
+        MoveJournal journal = MoveJournal.create(file, domain.board(), Duration.ofMillis(50));
+        CommandManager commands = CommandManager.journaled(gameState, journal);
+        play(gameState, commands, 6);
+        commands.undo();
+        commands.undo();
+        commands.undo();
+        commands.redo();
+        Board expected = gameState.board();
+
+        // The journal is deliberately left open, as after a crash
+        MoveJournal.Recovery recovery =
+                MoveJournal.recover(file, domain.rules(), Duration.ofMillis(50));
+        try (MoveJournal recovered = recovery.journal()) {
+            GameState restored = recovery.gameState();
+            CommandManager restoredCommands = recovery.commands();
+            assertEquals(expected, restored.board());
+            assertEquals(10, recovered.records());
+
+            assertTrue(restoredCommands.redo());
+            assertTrue(restoredCommands.redo());
+            assertFalse(restoredCommands.canRedo());
+            for (int i = 0; i < 6; i++) assertTrue(restoredCommands.undo());
+            assertFalse(restoredCommands.canUndo());
+            assertEquals(domain.board(), restored.board());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    @DisplayName("should ignore a torn last record and keep appending after it")
+    void shouldStopAtTornRecord() throws IOException {
+        GameState gameState = new GameState(domain.board(), domain.rules());
+        try (MoveJournal journal = MoveJournal.create(file, domain.board(), Duration.ZERO)) {
+            CommandManager commands = CommandManager.journaled(gameState, journal);
+            play(gameState, commands, 3);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long lastRecord = MoveJournal.HEADER_BYTES + 2L * MoveJournal.RECORD_BYTES;
+            channel.write(ByteBuffer.wrap(new byte[] {42}), lastRecord + 6);
+        }
+
+        MoveJournal.Recovery recovery = MoveJournal.recover(file, domain.rules(), Duration.ZERO);
+        try (MoveJournal journal = recovery.journal()) {
+            assertEquals(2, journal.records());
+            assertEquals(30, recovery.gameState().board().pegCount());
+            play(recovery.gameState(), recovery.commands(), 1);
+        }
+
+        MoveJournal.Recovery again = MoveJournal.recover(file, domain.rules(), Duration.ZERO);
+        try (MoveJournal journal = again.journal()) {
+            assertEquals(3, journal.records());
+            assertEquals(29, again.gameState().board().pegCount());
+        }
+    }
+
+    @Test
+    @DisplayName("should end the replay at the first move that is off the board or illegal")
+    void shouldStopAtUnplayableMove() {
+        for (boolean onBoard : new boolean[] {false, true}) {
+            GameState gameState = new GameState(domain.board(), domain.rules());
+            try (MoveJournal journal = MoveJournal.create(file, domain.board(), Duration.ZERO)) {
+                CommandManager commands = CommandManager.journaled(gameState, journal);
+                play(gameState, commands, 2);
+                commands.undo();
+                Move legal = domain.rules().legalMoves(gameState.board()).getFirst();
+                Move unplayable =
+                        onBoard
+                                ? new Move(legal.to(), legal.over(), legal.from())
+                                : new Move(new Position(20, 3), legal.over(), legal.to());
+                journal.append(MoveJournal.EXECUTE, unplayable);
+                journal.append(MoveJournal.REDO, null);
+            }
+
+            MoveJournal.Recovery recovery =
+                    MoveJournal.recover(file, domain.rules(), Duration.ZERO);
+            try (MoveJournal journal = recovery.journal()) {
+                assertEquals(3, journal.records());
+                assertEquals(gameState.board(), recovery.gameState().board());
+                assertTrue(recovery.commands().redo());
+            }
+
+            MoveJournal.Recovery again = MoveJournal.recover(file, domain.rules(), Duration.ZERO);
+            try (MoveJournal journal = again.journal()) {
+                assertEquals(4, journal.records());
+                assertEquals(30, again.gameState().board().pegCount());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should replay a cleared history from the board it was cleared at")
+    void shouldRecoverAfterClear() {
+        GameState gameState = new GameState(domain.board(), domain.rules());
+        try (MoveJournal journal = MoveJournal.create(file, domain.board(), Duration.ZERO)) {
+            CommandManager commands = CommandManager.journaled(gameState, journal);
+            play(gameState, commands, 4);
+            commands.clearHistory();
+            play(gameState, commands, 2);
+            commands.undo();
+        }
+
+        MoveJournal.Recovery recovery = MoveJournal.recover(file, domain.rules(), Duration.ZERO);
+        try (MoveJournal journal = recovery.journal()) {
+            assertEquals(gameState.board(), recovery.gameState().board());
+            assertTrue(recovery.commands().undo());
+            assertFalse(recovery.commands().canUndo());
+            assertEquals(28, recovery.gameState().board().pegCount());
+        }
+    }
+
+    @Test
+    @DisplayName("should only journal moves, for a new game on the journal's board")
+    void shouldRejectMismatchedUse() {
+        GameState gameState = new GameState(domain.board(), domain.rules());
+        try (MoveJournal journal = MoveJournal.create(file, domain.board(), Duration.ZERO)) {
+            CommandManager commands = CommandManager.journaled(gameState, journal);
+            Command macro = new MacroMoveCommand(gameState, List.of());
+            assertThrows(IllegalArgumentException.class, () -> commands.execute(macro));
+
+            play(gameState, commands, 1);
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> CommandManager.journaled(gameState, journal));
+        }
+    }
+
+    private static void play(GameState gameState, CommandManager commands, int count) {
+        for (int i = 0; i < count; i++) {
+            Move move = gameState.rules().legalMoves(gameState.board()).getFirst();
+            assertTrue(commands.execute(new ApplyMoveCommand(gameState, move)));
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.domain.rules.Rules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class PackedMoveHistoryTest {
+
+    private GameState gameState;
+
+    @BeforeEach
+    void setUp() {
+        DomainObjects domain = DomainFactory.buildDomain();
+        gameState = new GameState(domain.board(), domain.rules());
+    }
+
+    @Test
+    @DisplayName("should undo and redo a whole game back to the same boards")
+    void shouldUndoAndRedoWholeGame() {
+        CommandManager manager = CommandManager.packed(gameState, 64);
+        List<Board> boards = playFirstLegalMoves(manager, 12);
+
+        for (int i = boards.size() - 1; i > 0; i--) {
+            assertTrue(manager.undo());
+            assertEquals(boards.get(i - 1), gameState.board());
+        }
+        assertFalse(manager.canUndo());
+        assertFalse(manager.undo());
+
+        for (int i = 1; i < boards.size(); i++) {
+            assertTrue(manager.redo());
+            assertEquals(boards.get(i), gameState.board());
+        }
+        assertFalse(manager.canRedo());
+    }
+
+    @Test
+    @DisplayName("should drop redoable moves when a new move is played")
+    void shouldDropRedoOnNewMove() {
+        CommandManager manager = CommandManager.packed(gameState, 64);
+        playFirstLegalMoves(manager, 3);
+        manager.undo();
+        manager.undo();
+        assertTrue(manager.canRedo());
+
+        Move other = gameState.rules().legalMoves(gameState.board()).getLast();
+        assertTrue(manager.execute(new ApplyMoveCommand(gameState, other)));
+        assertFalse(manager.canRedo());
+    }
+
+    @Test
+    @DisplayName("should forget the oldest moves beyond the maximum depth")
+    void shouldForgetOldestMoves() {
+        CommandManager manager = CommandManager.packed(gameState, 3);
+        List<Board> boards = playFirstLegalMoves(manager, 20);
+
+        for (int i = 0; i < 3; i++) assertTrue(manager.undo());
+        assertFalse(manager.undo());
+        assertEquals(boards.get(boards.size() - 4), gameState.board());
+        for (int i = 0; i < 3; i++) assertTrue(manager.redo());
+        assertEquals(boards.getLast(), gameState.board());
+    }
+
+    @Test
+    @DisplayName("should grow the ring on demand and never past the maximum depth")
+    void shouldBoundRing() {
+        PackedMoveHistory history = new PackedMoveHistory(gameState, 20);
+        for (int i = 0; i < 25; i++) {
+            List<Move> legal = gameState.rules().legalMoves(gameState.board());
+            if (legal.isEmpty()) break;
+            history.execute(new ApplyMoveCommand(gameState, legal.getFirst()));
+        }
+        assertTrue(history.size() <= 20);
+        assertTrue(history.capacity() <= 20);
+    }
+
+    @Test
+    @DisplayName("should not record illegal moves")
+    void shouldNotRecordIllegalMoves() {
+        CommandManager manager = CommandManager.packed(gameState, 8);
+        Move illegal = new Move(new Position(3, 3), new Position(3, 4), new Position(3, 5));
+        Move offBoard = new Move(new Position(0, 5), new Position(0, 6), new Position(0, 7));
+
+        assertFalse(manager.execute(new ApplyMoveCommand(gameState, illegal)));
+        assertFalse(manager.execute(new ApplyMoveCommand(gameState, offBoard)));
+        assertFalse(manager.canUndo());
+    }
+
+    @Test
+    @DisplayName("should reject commands other than moves")
+    void shouldRejectOtherCommands() {
+        CommandManager manager = CommandManager.packed(gameState, 8);
+        Command other =
+                new Command() {
+                    @Override
+                    public boolean execute() {
+                        return true;
+                    }
+
+                    @Override
+                    public void undo() {}
+                };
+
+        assertThrows(IllegalArgumentException.class, () -> manager.execute(other));
+    }
+
+    @Test
+    @DisplayName("should reject boards too large to pack")
+    void shouldRejectLargeBoards() {
+        Cell[][] cells = new Cell[23][23];
+        for (Cell[] row : cells) Arrays.fill(row, Cell.PEG);
+        GameState large = new GameState(new Board(cells), gameState.rules());
+
+        assertThrows(IllegalArgumentException.class, () -> CommandManager.packed(large, 8));
+    }
+
+    @Test
+    @DisplayName("should restore an exported history onto a new game")
+    void shouldRestoreExportedHistory() {
+        CommandManager manager = CommandManager.packed(gameState, 8);
+        List<Board> boards = playFirstLegalMoves(manager, 10);
+        manager.undo();
+        PackedHistory saved = manager.packedHistory();
+        assertEquals(8, saved.moves().length);
+        assertEquals(7, saved.cursor());
+
+        GameState restored = new GameState(gameState.board(), gameState.rules());
+        CommandManager copy = CommandManager.packed(restored, 8, saved);
+        assertTrue(copy.redo());
+        assertEquals(boards.getLast(), restored.board());
+        for (int i = 0; i < 8; i++) assertTrue(copy.undo());
+        assertEquals(boards.get(2), restored.board());
+        assertFalse(copy.canUndo());
+
+        assertThrows(IllegalStateException.class, () -> new CommandManager().packedHistory());
+        assertThrows(
+                IllegalArgumentException.class, () -> CommandManager.packed(restored, 4, saved));
+    }
+
+    @Test
+    @DisplayName("should redo moves without checking their legality again")
+    void shouldRedoWithoutRevalidation() {
+        Rules english = gameState.rules();
+        int[] legalityChecks = {0};
+        Rules counting =
+                new Rules() {
+                    @Override
+                    public boolean isLegal(Board board, Move move) {
+                        legalityChecks[0]++;
+                        return english.isLegal(board, move);
+                    }
+
+                    @Override
+                    public List<Move> legalMoves(Board board) {
+                        return english.legalMoves(board);
+                    }
+
+                    @Override
+                    public GameStatus status(Board board) {
+                        return english.status(board);
+                    }
+                };
+        gameState = new GameState(gameState.board(), counting);
+        CommandManager manager = CommandManager.packed(gameState, 16);
+        List<Board> boards = playFirstLegalMoves(manager, 4);
+        manager.undo();
+        manager.undo();
+        int checks = legalityChecks[0];
+
+        assertTrue(manager.redo());
+        assertTrue(manager.redo());
+        assertEquals(boards.getLast(), gameState.board());
+        assertEquals(checks, legalityChecks[0]);
+
+        manager.undo();
+        gameState.setBoard(gameState.board());
+        assertTrue(manager.redo());
+        assertEquals(checks + 1, legalityChecks[0]);
+    }
+
+    @Test
+    @DisplayName("should drop only the failed move when a redo fails on a changed board")
+    void shouldDropOnlyFailedRedo() {
+        CommandManager manager = CommandManager.packed(gameState, 16);
+        List<Board> boards = playFirstLegalMoves(manager, 3);
+        List<Move> played = manager.moveHistory().moves();
+        manager.undo();
+        manager.undo();
+        manager.undo();
+
+        gameState.setBoard(boards.get(1));
+        assertFalse(manager.redo());
+
+        assertEquals(List.of(played.get(1), played.get(2)), manager.moveHistory().moves());
+        assertEquals(0, manager.moveHistory().played());
+        assertTrue(manager.redo());
+        assertTrue(manager.redo());
+        assertEquals(boards.get(3), gameState.board());
+        assertFalse(manager.canRedo());
+    }
+
+    private List<Board> playFirstLegalMoves(CommandManager manager, int count) {
+        List<Board> boards = new ArrayList<>();
+        boards.add(gameState.board());
+        for (int i = 0; i < count; i++) {
+            List<Move> legal = gameState.rules().legalMoves(gameState.board());
+            if (legal.isEmpty()) break;
+            assertTrue(manager.execute(new ApplyMoveCommand(gameState, legal.getFirst())));
+            boards.add(gameState.board());
+        }
+        return boards;
+    }
+}
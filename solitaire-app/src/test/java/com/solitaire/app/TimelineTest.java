@@ -0,0 +1,101 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class TimelineTest {
+
+    private GameState gameState;
+    private final List<Move> game = new ArrayList<>();
+    private final List<Board> boards = new ArrayList<>();
+    private final int[] notifications = {0};
+
+    @BeforeEach
+    void setUp() {
+        DomainObjects domain = DomainFactory.buildDomain();
+        gameState = new GameState(domain.board(), domain.rules());
+
+        Random random = new Random(5);
+        Board board = domain.board();
+        boards.add(board);
+        List<Move> legal = domain.rules().legalMoves(board);
+        while (!legal.isEmpty()) {
+            Move move = legal.get(random.nextInt(legal.size()));
+            game.add(move);
+            board = board.applyUnchecked(move);
+            boards.add(board);
+            legal = domain.rules().legalMoves(board);
+        }
+
+        gameState.addListener(
+                new GameListener() {
+                    @Override
+                    public void onBoardChanged(Board newBoard) {
+                        notifications[0]++;
+                    }
+
+                    @Override
+                    public void onStatusChanged(GameStatus newStatus) {}
+                });
+    }
+
+    @Test
+    @DisplayName("should show the right board after seeking anywhere")
+    void shouldSeekAnywhere() {
+        Timeline timeline = Timeline.replay(gameState, game, 4);
+        assertEquals(game.size(), timeline.length());
+        assertEquals(0, notifications[0]);
+
+        int[] targets = {game.size(), 5, 0, 7, 8, 3, game.size() - 1, 1};
+        for (int n : targets) {
+            timeline.seek(n);
+            assertEquals(n, timeline.position());
+            assertEquals(boards.get(n), gameState.board(), "move " + n);
+        }
+        assertEquals(targets.length, notifications[0]);
+    }
+
+    @Test
+    @DisplayName("should truncate later moves when playing from the middle")
+    void shouldTruncateOnPlay() {
+        Timeline timeline = new Timeline(gameState, 3);
+        for (Move move : game) assertTrue(timeline.play(move));
+        assertEquals(boards.getLast(), gameState.board());
+
+        timeline.seek(7);
+        List<Move> legal = gameState.rules().legalMoves(gameState.board());
+        Move other = legal.stream().filter(m -> !m.equals(game.get(7))).findFirst().orElseThrow();
+        assertTrue(timeline.play(other));
+
+        assertEquals(8, timeline.length());
+        assertEquals(8, timeline.position());
+        timeline.seek(6);
+        assertEquals(boards.get(6), gameState.board());
+        timeline.seek(8);
+        assertEquals(boards.get(7).applyUnchecked(other), gameState.board());
+    }
+
+    @Test
+    @DisplayName("should reject illegal moves and out-of-range seeks")
+    void shouldRejectBadInput() {
+        Timeline timeline = new Timeline(gameState, 2);
+        Move first = game.getFirst();
+        assertFalse(timeline.play(new Move(first.to(), first.over(), first.from())));
+        assertThrows(IndexOutOfBoundsException.class, () -> timeline.seek(1));
+        assertThrows(IllegalArgumentException.class, () -> new Timeline(gameState, 0));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> Timeline.replay(gameState, List.of(game.get(1)), 2));
+    }
+}
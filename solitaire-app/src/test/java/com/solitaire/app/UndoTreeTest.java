@@ -0,0 +1,166 @@
+package com.solitaire.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class UndoTreeTest {
+
+    private GameState gameState;
+    private UndoTree tree;
+    private Board start;
+
+    @BeforeEach
+    void setUp() {
+        DomainObjects domain = DomainFactory.buildDomain();
+        gameState = new GameState(domain.board(), domain.rules());
+        tree = new UndoTree(gameState);
+        start = domain.board();
+    }
+
+    @Test
+    @DisplayName("should keep the undone line when a different move is played")
+    void shouldKeepVariations() {
+        CommandManager manager = CommandManager.branching(tree);
+        List<Move> openings = legal();
+        manager.execute(new ApplyMoveCommand(gameState, openings.get(0)));
+        manager.execute(new ApplyMoveCommand(gameState, legal().get(0)));
+        UndoTree.Node firstLine = tree.current();
+
+        manager.undo();
+        manager.undo();
+        manager.execute(new ApplyMoveCommand(gameState, openings.get(1)));
+
+        assertEquals(2, tree.root().children().size());
+        assertEquals(4, tree.size());
+        tree.jumpTo(firstLine);
+        assertEquals(replay(openings.get(0), firstLine.move()), gameState.board());
+    }
+
+    @Test
+    @DisplayName("should jump between sibling variations through their common ancestor")
+    void shouldJumpBetweenSiblings() {
+        playFirst(5);
+        UndoTree.Node branchPoint = tree.current();
+        playFirst(6);
+        UndoTree.Node left = tree.current();
+        Board leftBoard = gameState.board();
+
+        tree.jumpTo(branchPoint);
+        tree.play(legal().getLast());
+        playFirst(4);
+        UndoTree.Node right = tree.current();
+        Board rightBoard = gameState.board();
+
+        int[] notifications = {0};
+        gameState.addListener(
+                new GameListener() {
+                    @Override
+                    public void onBoardChanged(Board newBoard) {
+                        notifications[0]++;
+                    }
+
+                    @Override
+                    public void onStatusChanged(GameStatus newStatus) {}
+                });
+
+        tree.jumpTo(left);
+        assertEquals(leftBoard, gameState.board());
+        assertSame(left, tree.current());
+        tree.jumpTo(right);
+        assertEquals(rightBoard, gameState.board());
+        tree.jumpTo(tree.root());
+        assertEquals(start, gameState.board());
+        assertEquals(3, notifications[0]);
+    }
+
+    @Test
+    @DisplayName("should redo the most recently visited variation")
+    void shouldRedoLastVisited() {
+        List<Move> openings = legal();
+        tree.play(openings.get(0));
+        tree.undo();
+        tree.play(openings.get(1));
+        tree.undo();
+
+        assertTrue(tree.redo());
+        assertEquals(openings.get(1), tree.current().move());
+
+        tree.jumpTo(tree.root().children().get(0));
+        tree.undo();
+        assertTrue(tree.redo());
+        assertEquals(openings.get(0), tree.current().move());
+    }
+
+    @Test
+    @DisplayName("should reuse the existing node when a move is replayed")
+    void shouldReuseExistingChild() {
+        Move move = legal().get(0);
+        tree.play(move);
+        UndoTree.Node node = tree.current();
+        tree.undo();
+        tree.play(move);
+
+        assertSame(node, tree.current());
+        assertEquals(2, tree.size());
+    }
+
+    @Test
+    @DisplayName("should start over from the current position when cleared")
+    void shouldClear() {
+        playFirst(3);
+        UndoTree.Node old = tree.current();
+        Board board = gameState.board();
+
+        tree.clear();
+
+        assertEquals(1, tree.size());
+        assertFalse(tree.canUndo());
+        assertEquals(board, gameState.board());
+        assertThrows(IllegalArgumentException.class, () -> tree.jumpTo(old));
+    }
+
+    @Test
+    @DisplayName("should reject illegal moves and other commands")
+    void shouldRejectIllegalInput() {
+        Move illegal = legal().get(0);
+        tree.play(illegal);
+        tree.undo();
+        tree.play(legal().get(1));
+
+        assertFalse(tree.play(new Move(illegal.to(), illegal.over(), illegal.from())));
+        Command other =
+                new Command() {
+                    @Override
+                    public boolean execute() {
+                        return true;
+                    }
+
+                    @Override
+                    public void undo() {}
+                };
+        assertThrows(IllegalArgumentException.class, () -> tree.execute(other));
+    }
+
+    private void playFirst(int moves) {
+        for (int i = 0; i < moves; i++) assertTrue(tree.play(legal().getFirst()));
+    }
+
+    private List<Move> legal() {
+        return gameState.rules().legalMoves(gameState.board());
+    }
+
+    private Board replay(Move... moves) {
+        Board board = start;
+        for (Move move : moves) board = board.applyUnchecked(move);
+        return board;
+    }
+}
@@ -0,0 +1,156 @@
+package com.solitaire.app.agent;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.solver.sim.RandomPlayouts;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class AgentRunnerTest {
+
+    private DomainObjects domain;
+    private GameState gameState;
+    private CommandManager manager;
+    private AgentRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+        gameState = new GameState(domain.board(), domain.rules());
+        manager = new CommandManager();
+        runner = new AgentRunner(Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.close();
+    }
+
+    @Test
+    @DisplayName("should play a game to its end through the command manager")
+    void shouldPlayToTheEnd() throws InterruptedException {
+        AgentGame game =
+                runner.play(StandardAgent.RANDOM, gameState, manager, Duration.ofMillis(100));
+
+        assertNotEquals(GameStatus.RUNNING, game.status());
+        assertTrue(domain.rules().legalMoves(gameState.board()).isEmpty());
+        assertEquals(32 - game.moves(), game.pegsLeft());
+        assertEquals(game.moves(), game.decisionNanos().length);
+        assertEquals(0, game.timeouts());
+        assertEquals(0, game.rejected());
+        assertTrue(manager.canUndo());
+    }
+
+    @Test
+    @DisplayName("should accept the answer of an agent that stops at its deadline")
+    void shouldAcceptCooperativeAgent() throws InterruptedException {
+        Agent patient =
+                (board, rules, deadline) -> {
+                    while (!deadline.expired()) Thread.onSpinWait();
+                    return rules.legalMoves(board).getLast();
+                };
+
+        AgentGame game = runner.play(patient, gameState, manager, Duration.ofMillis(2));
+
+        assertEquals(0, game.timeouts());
+        assertTrue(game.slowestDecision().compareTo(Duration.ofMillis(2)) >= 0);
+    }
+
+    @Test
+    @DisplayName("should stop waiting for an agent that overruns and play a legal move instead")
+    void shouldTimeOutStubbornAgent() throws InterruptedException {
+        Board start = gameState.board();
+        Agent stubborn =
+                (board, rules, deadline) -> {
+                    try {
+                        Thread.sleep(Duration.ofSeconds(10));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return rules.legalMoves(board).getLast();
+                };
+
+        AgentGame game = runner.play(stubborn, gameState, manager, Duration.ofMillis(1));
+
+        assertEquals(game.moves(), game.timeouts());
+        assertTrue(game.slowestDecision().compareTo(Duration.ofSeconds(1)) < 0);
+        assertNotEquals(start, gameState.board());
+    }
+
+    @Test
+    @DisplayName("should reject illegal answers and play a legal move instead")
+    void shouldRejectIllegalAnswers() throws InterruptedException {
+        Agent cheat =
+                (board, rules, deadline) -> {
+                    Move legal = rules.legalMoves(board).getFirst();
+                    return new Move(legal.to(), legal.over(), legal.from());
+                };
+
+        AgentGame game = runner.play(cheat, gameState, manager, Duration.ofMillis(10));
+
+        assertTrue(game.moves() > 0);
+        assertEquals(game.moves(), game.rejected());
+        assertNotEquals(GameStatus.RUNNING, game.status());
+    }
+
+    @Test
+    @DisplayName("should reject an agent that answers nothing")
+    void shouldRejectMissingAnswers() throws InterruptedException {
+        Agent silent = (board, rules, deadline) -> null;
+
+        AgentGame game = runner.play(silent, gameState, manager, Duration.ofMillis(10));
+
+        assertTrue(game.moves() > 0);
+        assertEquals(game.moves(), game.rejected());
+        assertEquals(0, game.timeouts());
+    }
+
+    @Test
+    @DisplayName("should expire deadlines on time or when cancelled")
+    void shouldExpireDeadlines() {
+        assertTrue(Deadline.in(Duration.ZERO).expired());
+        assertEquals(Duration.ZERO, Deadline.in(Duration.ZERO).remaining());
+        assertFalse(Deadline.in(Duration.ofHours(1)).expired());
+
+        Deadline none = Deadline.none();
+        assertFalse(none.expired());
+        none.cancel();
+        assertTrue(none.expired());
+        assertEquals(Duration.ZERO, none.remaining());
+
+        assertThrows(IllegalArgumentException.class, () -> Deadline.in(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    @DisplayName("should report every agent at every budget in a tournament")
+    void shouldRunTournament() throws InterruptedException {
+        List<Board> boards = RandomPlayouts.positions(domain.board(), domain.rules(), 6, 16, 20, 7);
+        List<Duration> budgets = List.of(Duration.ofMillis(5), Duration.ofMillis(50));
+
+        List<TournamentResult> results =
+                new Tournament(domain.rules(), 2)
+                        .run(List.of(StandardAgent.RANDOM, StandardAgent.SEARCH), boards, budgets);
+
+        assertEquals(4, results.size());
+        assertEquals("RANDOM", results.get(0).agent());
+        assertEquals(Duration.ofMillis(50), results.get(3).budget());
+        for (TournamentResult result : results) {
+            assertEquals(boards.size(), result.games());
+            assertTrue(result.averagePegsLeft() >= 1);
+            assertTrue(result.p99Decision().compareTo(result.medianDecision()) >= 0);
+        }
+        assertTrue(results.get(3).wins() >= results.get(1).wins());
+        assertFalse(Tournament.format(results).isBlank());
+    }
+}
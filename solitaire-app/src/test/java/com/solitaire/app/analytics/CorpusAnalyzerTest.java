@@ -0,0 +1,172 @@
+package com.solitaire.app.analytics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.app.archive.RandomGames;
+import com.solitaire.app.archive.SavedGame;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.domain.rules.Rules;
+import com.solitaire.solver.BatchSolver;
+import com.solitaire.solver.SolutionDag;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class CorpusAnalyzerTest {
+
+    @TempDir Path dir;
+
+    private DomainObjects domain;
+    private Rules rules;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+        rules = domain.rules();
+    }
+
+    @Test
+    @DisplayName("should merge per-thread totals into what single games add up to")
+    void shouldMatchSequentialAnalysis() throws Exception {
+        List<SavedGame> games = new ArrayList<>(RandomGames.games(domain.board(), rules, 0, 2500));
+        Move illegal = domain.rules().legalMoves(domain.board()).getFirst();
+        games.add(7, new SavedGame(domain.board(), List.of(illegal, illegal), 2));
+
+        StringWriter rows = new StringWriter();
+        long[] finalPegs = new long[34];
+        long moves = 0;
+        long lost = 0;
+        CorpusAnalyzer analyzer =
+                new CorpusAnalyzer(
+                        domain.board(), domain.rules(), 3, pegs -> Long.bitCount(pegs) > 12);
+        CorpusSummary summary = analyzer.analyze(games.iterator(), rows);
+        for (SavedGame game : games) {
+            if (game.moves().size() == 2) continue;
+            GameReport report = analyzer.analyze(game);
+            finalPegs[report.finalPegs()]++;
+            moves += report.length();
+            if (report.lostWinnable()) lost++;
+        }
+
+        assertEquals(2500, summary.games());
+        assertEquals(1, summary.rejectedGames());
+        assertEquals(moves, summary.moves());
+        assertEquals(lost, summary.lostWinnableGames());
+        assertArrayEquals(finalPegs, summary.finalPegCounts());
+        assertEquals(lost, Arrays.stream(summary.fatalMoveIndexCounts()).sum());
+        assertEquals(
+                lost,
+                summary.mostCommonFatalMoves(100).stream()
+                        .mapToLong(CorpusSummary.FatalMove::count)
+                        .sum());
+
+        String[] lines = rows.toString().split("\n");
+        assertEquals(CorpusAnalyzer.CSV_HEADER, lines[0]);
+        assertEquals(2501, lines.length);
+        long[] indices =
+                Arrays.stream(lines, 1, lines.length)
+                        .mapToLong(line -> Long.parseLong(line.substring(0, line.indexOf(','))))
+                        .sorted()
+                        .toArray();
+        assertEquals(6, indices[6]);
+        assertEquals(8, indices[7]);
+        assertEquals(2500, indices[2499]);
+    }
+
+    @Test
+    @DisplayName("should name the move after which the game could no longer be won")
+    void shouldFindFatalMove() {
+        Topology topology = Topology.of(domain.board());
+        try (BatchSolver solver = new BatchSolver(1, 1 << 20);
+                CorpusAnalyzer analyzer =
+                        CorpusAnalyzer.create(domain.board(), domain.rules(), 1)) {
+            for (int seed = 0; seed < 8; seed++) {
+                SavedGame game = RandomGames.game(domain.board(), rules, seed);
+                GameReport report = analyzer.analyze(game);
+                assertEquals(GameStatus.STUCK, report.status());
+                if (!report.lostWinnable()) continue;
+
+                Board board = domain.board();
+                for (int i = 0; i < report.fatalMove(); i++) {
+                    board = board.applyUnchecked(game.moves().get(i));
+                }
+                assertTrue(solver.isSolvable(board));
+                assertFalse(solver.isSolvable(board.applyUnchecked(report.fatal())));
+                assertEquals(game.moves().get(report.fatalMove()), report.fatal());
+                assertTrue(topology.jumpIndex(report.fatal()) >= 0);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should look winnability up in a solution DAG as the solver decides it")
+    void shouldAgreeWithSolverThroughDag() throws Exception {
+        Cell[][] cells = new Cell[5][5];
+        for (Cell[] row : cells) Arrays.fill(row, Cell.PEG);
+        cells[1][2] = Cell.EMPTY;
+        Board start = new Board(cells);
+        Path file = dir.resolve("square.dag");
+        SolutionDag.write(start, file);
+        SolutionDag dag = SolutionDag.open(file);
+
+        try (CorpusAnalyzer solved = CorpusAnalyzer.create(start, rules, 1)) {
+            CorpusAnalyzer lookedUp = CorpusAnalyzer.create(start, rules, 1, dag);
+            int lost = 0;
+            for (int seed = 0; seed < 200; seed++) {
+                SavedGame game = RandomGames.game(start, rules, seed);
+                GameReport report = lookedUp.analyze(game);
+                assertEquals(solved.analyze(game), report);
+                if (report.lostWinnable()) lost++;
+            }
+            assertTrue(lost > 0);
+        }
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> CorpusAnalyzer.create(domain.board(), rules, 1, dag));
+    }
+
+    @Test
+    @DisplayName("should binary-search the first position the oracle calls lost")
+    void shouldSearchWithOracle() {
+        CorpusAnalyzer analyzer =
+                new CorpusAnalyzer(
+                        domain.board(), domain.rules(), 1, pegs -> Long.bitCount(pegs) > 20);
+
+        GameReport report = analyzer.analyze(RandomGames.game(domain.board(), rules, 3));
+
+        assertEquals(32 - 21, report.fatalMove());
+        assertEquals(32 - report.length(), report.finalPegs());
+    }
+
+    @Test
+    @DisplayName("should surface a worker failure and stop reading")
+    void shouldPropagateFailure() {
+        CorpusAnalyzer analyzer =
+                new CorpusAnalyzer(
+                        domain.board(),
+                        domain.rules(),
+                        2,
+                        pegs -> {
+                            throw new IllegalStateException("oracle down");
+                        });
+        List<SavedGame> games = new ArrayList<>(RandomGames.games(domain.board(), rules, 0, 100));
+
+        IllegalStateException e =
+                assertThrows(
+                        IllegalStateException.class,
+                        () -> analyzer.analyze(games.iterator(), null));
+        assertEquals("oracle down", e.getMessage());
+    }
+}
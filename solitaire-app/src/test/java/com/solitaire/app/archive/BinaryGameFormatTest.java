@@ -0,0 +1,127 @@
+package com.solitaire.app.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.app.ApplyMoveCommand;
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class BinaryGameFormatTest {
+
+    private DomainObjects domain;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+    }
+
+    @Test
+    @DisplayName("should save a game in progress and restore it ready for undo and redo")
+    void shouldRoundTripGameInProgress(@TempDir Path dir) throws IOException {
+        GameState gameState = new GameState(domain.board(), domain.rules());
+        CommandManager commands = new CommandManager();
+        List<Move> moves = play(gameState, commands, 31);
+        commands.undo();
+        commands.undo();
+        SavedGame saved = SavedGame.of(gameState, commands);
+        assertEquals(domain.board(), saved.start());
+        assertEquals(moves, saved.moves());
+        assertEquals(moves.size() - 2, saved.played());
+
+        Path file = dir.resolve("games.bin");
+        BinaryGameFormat.save(file, List.of(saved));
+        SavedGame.Restored restored =
+                BinaryGameFormat.load(file).getFirst().restore(domain.rules());
+
+        assertEquals(gameState.board(), restored.gameState().board());
+        assertTrue(restored.commands().redo());
+        assertTrue(restored.commands().redo());
+        assertFalse(restored.commands().canRedo());
+        while (restored.commands().undo()) {}
+        assertEquals(domain.board(), restored.gameState().board());
+    }
+
+    @Test
+    @DisplayName("should encode an English game in one byte per move")
+    void shouldEncodeCompactly() throws IOException {
+        SavedGame game = new SavedGame(domain.board(), firstLegalLine(domain.board(), 31), 20);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryGameFormat.MAX_GAME_BYTES);
+
+        BinaryGameFormat.write(buffer, game);
+
+        assertEquals(1 + 5 + 2 + game.moves().size(), buffer.position());
+        assertEquals(game, BinaryGameFormat.read(buffer.flip()));
+    }
+
+    @Test
+    @DisplayName("should store custom shapes inline")
+    void shouldRoundTripCustomShape() throws IOException {
+        Cell[][] cells = {
+            {Cell.INVALID, Cell.PEG, Cell.PEG, Cell.EMPTY, Cell.INVALID},
+            {Cell.PEG, Cell.PEG, Cell.EMPTY, Cell.PEG, Cell.PEG},
+            {Cell.INVALID, Cell.EMPTY, Cell.PEG, Cell.PEG, Cell.INVALID},
+        };
+        Board start = new Board(cells);
+        SavedGame game = new SavedGame(start, firstLegalLine(start, 3), 1);
+        ByteBuffer buffer = ByteBuffer.allocate(BinaryGameFormat.MAX_GAME_BYTES);
+
+        BinaryGameFormat.write(buffer, game);
+
+        assertEquals(BinaryGameFormat.CUSTOM, buffer.get(0));
+        assertEquals(game, BinaryGameFormat.read(buffer.flip()));
+    }
+
+    @Test
+    @DisplayName("should reject foreign and truncated files")
+    void shouldRejectBadFiles(@TempDir Path dir) throws IOException {
+        Path foreign = dir.resolve("foreign.bin");
+        Files.write(foreign, new byte[] {1, 2, 3, 4, 5, 6});
+        assertThrows(IOException.class, () -> BinaryGameFormat.load(foreign));
+
+        Path truncated = dir.resolve("truncated.bin");
+        BinaryGameFormat.save(truncated, List.of(new SavedGame(domain.board(), List.of(), 0)));
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> BinaryGameFormat.load(truncated));
+    }
+
+    private List<Move> play(GameState gameState, CommandManager commands, int count) {
+        List<Move> moves = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            List<Move> legal = domain.rules().legalMoves(gameState.board());
+            if (legal.isEmpty()) break;
+            Move move = legal.get(i % legal.size());
+            assertTrue(commands.execute(new ApplyMoveCommand(gameState, move)));
+            moves.add(move);
+        }
+        return moves;
+    }
+
+    private List<Move> firstLegalLine(Board start, int count) {
+        List<Move> moves = new ArrayList<>();
+        Board board = start;
+        for (int i = 0; i < count; i++) {
+            List<Move> legal = domain.rules().legalMoves(board);
+            if (legal.isEmpty()) break;
+            moves.add(legal.getFirst());
+            board = board.applyUnchecked(legal.getFirst());
+        }
+        return moves;
+    }
+}
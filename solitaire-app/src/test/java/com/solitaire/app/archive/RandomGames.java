@@ -0,0 +1,29 @@
+package com.solitaire.app.archive;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.rules.Rules;
+import com.solitaire.solver.sim.RandomPlayouts;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Reproducible random games to fill archives, indexes and corpora in tests. */
+public final class RandomGames {
+
+    private RandomGames() {}
+
+    /** The whole random game from {@code start} for {@code seed}. */
+    public static SavedGame game(Board start, Rules rules, long seed) {
+        List<Move> moves = RandomPlayouts.game(start, rules, seed);
+        return new SavedGame(start, moves, moves.size());
+    }
+
+    /** {@code count} games, seeded {@code firstSeed} onwards. */
+    public static List<SavedGame> games(Board start, Rules rules, long firstSeed, int count) {
+        List<SavedGame> games = new ArrayList<>(count);
+        for (long seed = firstSeed; seed < firstSeed + count; seed++) {
+            games.add(game(start, rules, seed));
+        }
+        return games;
+    }
+}
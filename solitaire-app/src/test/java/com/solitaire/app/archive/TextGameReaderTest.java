@@ -0,0 +1,81 @@
+package com.solitaire.app.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class TextGameReaderTest {
+
+    @TempDir Path dir;
+
+    private DomainObjects domain;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+    }
+
+    @Test
+    @DisplayName("should read back what the writer wrote")
+    void shouldRoundTrip() throws IOException {
+        List<SavedGame> games = RandomGames.games(domain.board(), domain.rules(), 0, 50);
+        Path file = dir.resolve("games.txt");
+        try (TextGameWriter writer = TextGameWriter.create(file)) {
+            for (SavedGame game : games) writer.write(game);
+        }
+
+        assertEquals(games, readAll(file));
+    }
+
+    @Test
+    @DisplayName("should parse the CLI notation with comments, tabs and CRLF line ends")
+    void shouldParseLooseNotation() throws IOException {
+        Path file = dir.resolve("games.txt");
+        Files.writeString(
+                file,
+                "# first game\r\n1 3 3 3\r\n  4\t3   2 3\r\n\r\n\n# second\n5 3 3 3\n# no split\n");
+
+        List<SavedGame> games = readAll(file);
+
+        assertEquals(2, games.size());
+        assertEquals(2, games.get(0).moves().size());
+        Move first = new Move(new Position(1, 3), new Position(2, 3), new Position(3, 3));
+        assertEquals(first, games.get(0).moves().getFirst());
+        assertEquals(1, games.get(1).moves().size());
+    }
+
+    @Test
+    @DisplayName("should skip games with malformed lines or illegal moves")
+    void shouldRejectBadGames() throws IOException {
+        Path file = dir.resolve("games.txt");
+        Files.writeString(file, "1 3 3 3\n1 3 3 3\n\n1 3 x 3\n\n1 3 3\n\n5 3 3 3\n");
+
+        try (TextGameReader reader = TextGameReader.open(file, domain.board(), domain.rules())) {
+            assertTrue(reader.hasNext());
+            assertEquals(1, reader.next().moves().size());
+            assertFalse(reader.hasNext());
+            assertEquals(1, reader.games());
+            assertEquals(3, reader.rejectedGames());
+        }
+    }
+
+    private List<SavedGame> readAll(Path file) throws IOException {
+        List<SavedGame> games = new ArrayList<>();
+        try (TextGameReader reader = TextGameReader.open(file, domain.board(), domain.rules())) {
+            reader.forEachRemaining(games::add);
+        }
+        return games;
+    }
+}
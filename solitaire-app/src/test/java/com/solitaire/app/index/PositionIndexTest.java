@@ -0,0 +1,197 @@
+package com.solitaire.app.index;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.app.archive.RandomGames;
+import com.solitaire.app.archive.SavedGame;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.Topology;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class PositionIndexTest {
+
+    @TempDir Path dir;
+
+    private DomainObjects domain;
+    private Topology topology;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+        topology = Topology.of(domain.board());
+    }
+
+    @Test
+    @DisplayName("should find every game through a position or one of its mirror images")
+    void shouldFindGamesUpToSymmetry() throws Exception {
+        List<SavedGame> games = RandomGames.games(domain.board(), domain.rules(), 0, 300);
+        try (PositionIndex index = PositionIndex.open(dir, domain.board(), 2, null)) {
+            assertEquals(0, index.add(games.subList(0, 100).iterator()));
+            assertEquals(100, index.add(games.subList(100, 300).iterator()));
+            assertEquals(2, index.segmentCount());
+
+            for (int g = 0; g < 300; g += 7) {
+                Board board = position(games.get(g), 6);
+                assertEquals(scan(games, board), index.find(board));
+                assertTrue(index.find(board).contains(new Posting(g, 6)));
+            }
+
+            Board board = position(games.get(3), 5);
+            Board mirrored = topology.decode(topology.transform(topology.encode(board), 1));
+            assertEquals(index.find(board), index.find(mirrored));
+            assertEquals(300, index.find(domain.board()).size());
+        }
+    }
+
+    @Test
+    @DisplayName("should keep ids and postings across reopening, also for games it skipped")
+    void shouldReopen() throws Exception {
+        List<SavedGame> games =
+                new ArrayList<>(RandomGames.games(domain.board(), domain.rules(), 0, 20));
+        Move illegal = new Move(new Position(0, 2), new Position(0, 3), new Position(0, 4));
+        games.set(5, new SavedGame(domain.board(), List.of(illegal), 1));
+        try (PositionIndex index = PositionIndex.open(dir, domain.board(), 1, null)) {
+            index.add(games.iterator());
+        }
+
+        try (PositionIndex index = PositionIndex.open(dir, domain.board(), 1, null)) {
+            assertEquals(20, index.games());
+            assertEquals(19, index.find(domain.board()).size());
+            assertFalse(index.find(domain.board()).contains(new Posting(5, 0)));
+
+            List<SavedGame> more = RandomGames.games(domain.board(), domain.rules(), 20, 10);
+            assertEquals(20, index.add(more.iterator()));
+            Board board = position(more.get(4), 3);
+            assertTrue(index.find(board).contains(new Posting(24, 3)));
+        }
+    }
+
+    @Test
+    @DisplayName("should merge neighbouring segments without changing answers")
+    void shouldMerge() throws Exception {
+        List<SavedGame> games = RandomGames.games(domain.board(), domain.rules(), 0, 90);
+        try (PositionIndex index = PositionIndex.open(dir, domain.board(), 1, null)) {
+            for (int i = 0; i < 9; i++) index.add(games.subList(10 * i, 10 * i + 10).iterator());
+            assertEquals(9, index.segmentCount());
+            long postings = index.postingCount();
+
+            assertTrue(index.merge());
+            assertFalse(index.merge());
+
+            assertEquals(2, index.segmentCount());
+            assertEquals(postings, index.postingCount());
+            for (int g = 0; g < 90; g += 9) {
+                Board board = position(games.get(g), 4);
+                assertEquals(scan(games, board), index.find(board));
+            }
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("should merge over a generation that never got a segment")
+    void shouldMergeOverGap() throws Exception {
+        List<SavedGame> games = RandomGames.games(domain.board(), domain.rules(), 0, 90);
+        try (PositionIndex index = PositionIndex.open(dir, domain.board(), 1, null)) {
+            for (int i = 0; i < 9; i++) index.add(games.subList(10 * i, 10 * i + 10).iterator());
+        }
+        // As if the batch of generation 3 had failed to write
+        Files.delete(dir.resolve("segment-0000000000000003-0000000000000003.idx"));
+
+        try (PositionIndex index = PositionIndex.open(dir, domain.board(), 1, null)) {
+            assertEquals(8, index.segmentCount());
+            assertTrue(index.merge());
+            assertEquals(1, index.segmentCount());
+            assertEquals(80, index.find(domain.board()).size());
+        }
+    }
+
+    @Test
+    @DisplayName("should drop merged inputs and unfinished files left by a crash")
+    void shouldRecoverFromInterruptedMerge() throws Exception {
+        List<SavedGame> games = RandomGames.games(domain.board(), domain.rules(), 0, 80);
+        Path saved = Files.createDirectories(dir.resolve("saved"));
+        Path indexDir = dir.resolve("index");
+        try (PositionIndex index = PositionIndex.open(indexDir, domain.board(), 1, null)) {
+            for (int i = 0; i < 8; i++) index.add(games.subList(10 * i, 10 * i + 10).iterator());
+            copyAll(indexDir, saved);
+            assertTrue(index.merge());
+        }
+        copyAll(saved, indexDir);
+        Files.writeString(
+                indexDir.resolve("segment-0000000000000009-0000000000000009.idx.tmp"), "x");
+
+        try (PositionIndex index = PositionIndex.open(indexDir, domain.board(), 1, null)) {
+            assertEquals(1, index.segmentCount());
+            assertEquals(80, index.games());
+            Board board = position(games.get(17), 5);
+            assertEquals(scan(games, board), index.find(board));
+        }
+        try (Stream<Path> files = Files.list(indexDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("should merge in the background")
+    void shouldMergeInBackground() throws Exception {
+        List<SavedGame> games = RandomGames.games(domain.board(), domain.rules(), 0, 80);
+        try (PositionIndex index =
+                PositionIndex.open(dir, domain.board(), 1, Duration.ofMillis(10))) {
+            for (int i = 0; i < 8; i++) index.add(games.subList(10 * i, 10 * i + 10).iterator());
+
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (index.segmentCount() > 1 && System.nanoTime() < deadline) Thread.sleep(10);
+
+            assertEquals(1, index.segmentCount());
+            assertEquals(80, index.find(domain.board()).size());
+        }
+    }
+
+    private static void copyAll(Path from, Path to) throws IOException {
+        try (Stream<Path> files = Files.list(from)) {
+            for (Path file : files.toList()) {
+                Files.copy(
+                        file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /** What the index should answer, by replaying every game. */
+    private List<Posting> scan(List<SavedGame> games, Board board) {
+        long key = topology.canonical(topology.encode(board));
+        List<Posting> expected = new ArrayList<>();
+        for (int g = 0; g < games.size(); g++) {
+            SavedGame game = games.get(g);
+            for (int m = 0; m <= game.played(); m++) {
+                if (topology.canonical(topology.encode(position(game, m))) == key) {
+                    expected.add(new Posting(g, m));
+                }
+            }
+        }
+        return expected;
+    }
+
+    private static Board position(SavedGame game, int moves) {
+        Board board = game.start();
+        for (int i = 0; i < moves; i++) board = board.applyUnchecked(game.moves().get(i));
+        return board;
+    }
+}
@@ -0,0 +1,164 @@
+package com.solitaire.app.leaderboard;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.app.ApplyMoveCommand;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.rules.EnglishRules;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class LeaderboardTest {
+
+    @TempDir Path dir;
+
+    @Test
+    @DisplayName("should rank like sorting every result, best first and ties by id")
+    void shouldRankLikeSorting() throws Exception {
+        SplittableRandom random = new SplittableRandom(5);
+        List<GameResult> results = new ArrayList<>();
+        try (Leaderboard board =
+                Leaderboard.open(dir.resolve("board.bin"), Duration.ofSeconds(1))) {
+            for (int i = 0; i < 3000; i++) {
+                GameResult result = randomResult(random);
+                results.add(result);
+                assertEquals(i, board.record(result));
+            }
+
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < results.size(); i++) expected.add(i);
+            expected.sort(
+                    Comparator.comparing((Integer i) -> results.get(i), GameResult.BEST_FIRST)
+                            .thenComparing(Comparator.naturalOrder()));
+
+            List<Standing> top = board.top(50);
+            assertEquals(50, top.size());
+            for (int r = 0; r < 50; r++) {
+                assertEquals(
+                        new Standing(r + 1, expected.get(r), results.get(expected.get(r))),
+                        top.get(r));
+            }
+            for (int r = 0; r < expected.size(); r += 37) {
+                assertEquals(r + 1, board.standing(expected.get(r)).orElseThrow().rank());
+            }
+            assertEquals(3000, board.top(5000).size());
+            assertTrue(board.standing(3000).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("should reload its results and cut a torn last record")
+    void shouldReload() throws Exception {
+        Path file = dir.resolve("board.bin");
+        SplittableRandom random = new SplittableRandom(9);
+        List<Standing> before;
+        try (Leaderboard board = Leaderboard.open(file, Duration.ZERO)) {
+            for (int i = 0; i < 100; i++) board.record(randomResult(random));
+            before = board.top(100);
+        }
+        long intact = Files.size(file);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.APPEND)) {
+            ch.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 0, 0, 0, 0, 100, 1, 2}));
+        }
+
+        try (Leaderboard board = Leaderboard.open(file, Duration.ZERO)) {
+            assertEquals(intact, Files.size(file));
+            assertEquals(before, board.top(100));
+            assertEquals(
+                    100,
+                    board.record(new GameResult("late", GameStatus.WON, 1, true, Duration.ZERO)));
+        }
+        try (Leaderboard board = Leaderboard.open(file, Duration.ZERO)) {
+            assertEquals(1, board.standing(100).orElseThrow().rank());
+            assertEquals("late", board.top(1).getFirst().result().player());
+        }
+    }
+
+    @Test
+    @DisplayName("should record a tracked game once, when it ends")
+    void shouldTrackGame() throws Exception {
+        Board start = new Board(new Cell[][] {{Cell.PEG, Cell.PEG, Cell.EMPTY}});
+        GameState gameState = new GameState(start, new EnglishRules());
+        try (Leaderboard board = Leaderboard.open(dir.resolve("board.bin"), Duration.ZERO)) {
+            board.track(gameState, "ada");
+
+            Move move = new Move(new Position(0, 0), new Position(0, 1), new Position(0, 2));
+            assertTrue(new ApplyMoveCommand(gameState, move).execute());
+
+            assertEquals(GameStatus.WON, gameState.status());
+            GameResult result = board.top(1).getFirst().result();
+            assertEquals("ada", result.player());
+            assertEquals(GameStatus.WON, result.status());
+            assertEquals(1, result.pegs());
+            assertTrue(result.onStartHole());
+            assertEquals(1, board.size());
+        }
+    }
+
+    @Test
+    @DisplayName("should answer rank queries while results are recorded")
+    void shouldQueryWhileRecording() throws Exception {
+        try (Leaderboard board = Leaderboard.open(dir.resolve("board.bin"), Duration.ofMillis(5));
+                ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            AtomicBoolean writing = new AtomicBoolean(true);
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < 2; t++) {
+                readers.add(
+                        executor.submit(
+                                () -> {
+                                    while (writing.get()) {
+                                        List<Standing> top = board.top(10);
+                                        for (int i = 1; i < top.size(); i++) {
+                                            assertTrue(
+                                                    GameResult.BEST_FIRST.compare(
+                                                                    top.get(i - 1).result(),
+                                                                    top.get(i).result())
+                                                            <= 0);
+                                        }
+                                        int size = board.size();
+                                        if (size > 0) {
+                                            int rank =
+                                                    board.standing(size - 1).orElseThrow().rank();
+                                            assertTrue(rank >= 1 && rank <= board.size());
+                                        }
+                                    }
+                                }));
+            }
+            SplittableRandom random = new SplittableRandom(1);
+            for (int i = 0; i < 20_000; i++) board.record(randomResult(random));
+            writing.set(false);
+            for (Future<?> reader : readers) reader.get();
+            assertEquals(20_000, board.size());
+        }
+    }
+
+    private static GameResult randomResult(SplittableRandom random) {
+        int pegs = 1 + random.nextInt(8);
+        return new GameResult(
+                "p" + random.nextInt(100),
+                pegs == 1 ? GameStatus.WON : GameStatus.STUCK,
+                pegs,
+                pegs == 1 && random.nextBoolean(),
+                Duration.ofSeconds(random.nextInt(60)));
+    }
+}
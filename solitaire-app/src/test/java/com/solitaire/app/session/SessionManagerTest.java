@@ -0,0 +1,195 @@
+package com.solitaire.app.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class SessionManagerTest {
+
+    private DomainObjects domain;
+    private SessionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        domain = DomainFactory.buildDomain();
+        manager = new SessionManager(domain.board(), domain.rules(), 8, 64);
+    }
+
+    @Test
+    @DisplayName("should keep sessions independent of each other")
+    void shouldIsolateSessions() {
+        long a = manager.create();
+        long b = manager.create();
+        Move move = domain.rules().legalMoves(domain.board()).getFirst();
+
+        assertTrue(manager.move(a, move));
+
+        assertEquals(domain.board().applyUnchecked(move), manager.board(a));
+        assertEquals(domain.board(), manager.board(b));
+        assertEquals(GameStatus.RUNNING, manager.status(b));
+        assertEquals(2, manager.size());
+    }
+
+    @Test
+    @DisplayName("should undo and redo within a session")
+    void shouldUndoAndRedo() {
+        long id = manager.create();
+        Move move = manager.legalMoves(id).getFirst();
+        manager.move(id, move);
+
+        assertTrue(manager.undo(id));
+        assertEquals(domain.board(), manager.board(id));
+        assertTrue(manager.redo(id));
+        assertEquals(domain.board().applyUnchecked(move), manager.board(id));
+        assertEquals(manager.board(id), manager.snapshot(id).board());
+        assertEquals(manager.status(id), manager.snapshot(id).status());
+    }
+
+    @Test
+    @DisplayName("should reject illegal moves and unknown or closed sessions")
+    void shouldRejectBadRequests() {
+        long id = manager.create();
+        Move illegal = new Move(new Position(3, 3), new Position(3, 4), new Position(3, 5));
+
+        assertFalse(manager.move(id, illegal));
+        assertTrue(manager.close(id));
+        assertFalse(manager.close(id));
+        assertFalse(manager.exists(id));
+        assertThrows(IllegalArgumentException.class, () -> manager.board(id));
+        assertThrows(IllegalArgumentException.class, () -> manager.undo(42));
+    }
+
+    @Test
+    @DisplayName("should share the initial board until a session moves")
+    void shouldTrackMemoryPerSession() {
+        long id = manager.create();
+        long fresh = manager.estimatedBytes(id);
+
+        manager.move(id, manager.legalMoves(id).getFirst());
+
+        assertEquals(SessionManager.SESSION_OVERHEAD_BYTES + 16 + 4L * 16, fresh);
+        long moved = manager.estimatedBytes(id);
+        assertTrue(moved > fresh, "a moved session owns its board");
+        manager.create();
+        assertEquals(moved + fresh, manager.totalEstimatedBytes());
+    }
+
+    @Test
+    @DisplayName("should serve many sessions from concurrent threads")
+    void shouldServeConcurrentSessions() throws Exception {
+        int sessions = 200;
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < sessions; i++) ids.add(manager.create());
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id : ids) {
+                results.add(
+                        executor.submit(
+                                () -> {
+                                    int played = 0;
+                                    List<Move> legal;
+                                    while (!(legal = manager.legalMoves(id)).isEmpty()) {
+                                        assertTrue(manager.move(id, legal.getFirst()));
+                                        played++;
+                                    }
+                                    return played;
+                                }));
+            }
+        }
+
+        for (int i = 0; i < sessions; i++) {
+            Board board = manager.board(ids.get(i));
+            assertEquals(32 - results.get(i).get(), board.pegCount());
+            assertNotEquals(GameStatus.RUNNING, manager.status(ids.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("should hibernate idle sessions and restore them on next use")
+    void shouldHibernateIdleSessions(@TempDir Path dir) {
+        Path file = dir.resolve("sessions.bin");
+        try (SessionManager hibernating =
+                new SessionManager(
+                        domain.board(),
+                        domain.rules(),
+                        8,
+                        64,
+                        new HibernationPolicy(file, Duration.ZERO, Long.MAX_VALUE))) {
+            long id = hibernating.create();
+            Move first = hibernating.legalMoves(id).getFirst();
+            hibernating.move(id, first);
+            Board moved = hibernating.board(id);
+            long movedVersion = hibernating.snapshot(id).version();
+            hibernating.undo(id);
+            long undoneVersion = hibernating.snapshot(id).version();
+
+            assertEquals(1, hibernating.hibernateIdle());
+            assertTrue(hibernating.isHibernated(id));
+            assertEquals(SessionManager.HIBERNATED_BYTES, hibernating.estimatedBytes(id));
+            assertEquals(SessionManager.HIBERNATED_BYTES, hibernating.totalEstimatedBytes());
+
+            assertEquals(domain.board(), hibernating.board(id));
+            assertFalse(hibernating.isHibernated(id));
+            assertEquals(undoneVersion, hibernating.snapshot(id).version());
+            assertTrue(hibernating.redo(id));
+            assertEquals(moved, hibernating.board(id));
+            long redoneVersion = hibernating.snapshot(id).version();
+            assertTrue(redoneVersion > movedVersion);
+
+            assertEquals(1, hibernating.hibernateIdle());
+            assertEquals(redoneVersion, hibernating.snapshot(id).version());
+            assertTrue(Files.exists(file));
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    @DisplayName("should hibernate the least recently used sessions beyond the heap budget")
+    void shouldEvictLeastRecentlyUsed(@TempDir Path dir) {
+        long perSession = manager.estimatedBytes(manager.create());
+        try (SessionManager bounded =
+                new SessionManager(
+                        domain.board(),
+                        domain.rules(),
+                        8,
+                        64,
+                        new HibernationPolicy(
+                                dir.resolve("sessions.bin"),
+                                Duration.ofHours(1),
+                                10 * perSession))) {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 30; i++) ids.add(bounded.create());
+
+            assertTrue(
+                    bounded.totalEstimatedBytes()
+                            <= 10 * perSession + 30 * SessionManager.HIBERNATED_BYTES);
+            assertTrue(bounded.hibernatedCount() >= 20);
+            assertTrue(bounded.isHibernated(ids.getFirst()));
+            assertFalse(bounded.isHibernated(ids.getLast()));
+
+            assertEquals(GameStatus.RUNNING, bounded.status(ids.getFirst()));
+            assertFalse(bounded.isHibernated(ids.getFirst()));
+            assertTrue(bounded.close(ids.get(1)));
+            assertEquals(30 - 1, bounded.size());
+            assertEquals(0, bounded.hibernateIdle());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.solitaire.app.session;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.app.PackedHistory;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.factory.DomainFactory;
+import java.nio.file.Path;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class SessionStoreTest {
+
+    private final Board board = DomainFactory.buildDomain().board();
+
+    @Test
+    @DisplayName("should return a stored session once")
+    void shouldTakeStoredSession(@TempDir Path dir) {
+        try (SessionStore store = new SessionStore(dir.resolve("store.bin"))) {
+            store.put(7, board, 4, 9, new PackedHistory(new int[] {1, 2, 3}, 2));
+
+            SessionStore.Entry entry = store.take(7);
+            assertEquals(board, entry.board());
+            assertEquals(4, entry.version());
+            assertEquals(9, entry.lastVersion());
+            assertArrayEquals(new int[] {1, 2, 3}, entry.history().moves());
+            assertEquals(2, entry.history().cursor());
+            assertNull(store.take(7));
+            assertEquals(0, store.size());
+        }
+    }
+
+    @Test
+    @DisplayName("should compact the file once most records are dead")
+    void shouldCompact(@TempDir Path dir) {
+        try (SessionStore store = new SessionStore(dir.resolve("store.bin"))) {
+            int[] moves = new int[64];
+            int sessions = (int) (SessionStore.COMPACT_THRESHOLD / (64 * Integer.BYTES)) + 1;
+            for (int id = 0; id < sessions; id++) {
+                moves[0] = id;
+                store.put(id, board, 0, 0, new PackedHistory(moves, 64));
+            }
+            long full = store.fileBytes();
+
+            for (int id = 1; id < sessions; id++) store.remove(id);
+
+            assertTrue(store.fileBytes() < full / 2);
+            assertEquals(0, store.take(0).history().moves()[0]);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.solitaire.bench;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.solver.BatchSolver;
+import com.solitaire.solver.DepthFirstSearch;
+import com.solitaire.solver.sim.RandomPlayouts;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Solving a set of positions from real-looking games with {@link BatchSolver} versus one
+ * independent {@link DepthFirstSearch} per position. Each operation answers the whole set, with a
+ * fresh (empty) batch cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BatchSolveBenchmark {
+
+    @Param({"60"})
+    int positions;
+
+    @Param({"1", "4"})
+    int threads;
+
+    private List<Board> boards;
+    private BatchSolver solver;
+
+    @Setup(Level.Trial)
+    public void sample() {
+        DomainObjects domain = DomainFactory.buildDomain();
+        boards = RandomPlayouts.positions(domain.board(), domain.rules(), positions, 4, 24, 42);
+    }
+
+    @Setup(Level.Iteration)
+    public void freshSolver() {
+        solver = new BatchSolver(threads, 1 << 24);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeSolver() {
+        solver.close();
+    }
+
+    @Benchmark
+    public void batch(Blackhole bh) {
+        Iterator<?> results = solver.solveAll(boards);
+        while (results.hasNext()) bh.consume(results.next());
+    }
+
+    @Benchmark
+    public void oneByOne(Blackhole bh) {
+        for (Board board : boards) {
+            bh.consume(DepthFirstSearch.solve(board).run());
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.solitaire.bench;
+
+import com.solitaire.app.analytics.CorpusAnalyzer;
+import com.solitaire.app.analytics.CorpusSummary;
+import com.solitaire.app.archive.SavedGame;
+import com.solitaire.app.archive.TextGameReader;
+import com.solitaire.app.archive.TextGameWriter;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.domain.rules.Rules;
+import com.solitaire.solver.SolutionDag;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The corpus analytics job end to end on {@value #GAMES} random games: reading the text archive,
+ * replaying every game, finding its fatal move in a solution DAG of the standard start and writing
+ * the CSV report. Writing the DAG takes about a minute of setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class CorpusAnalyticsBenchmark {
+
+    static final int GAMES = 100_000;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Path archive;
+    private Path report;
+    private Path dagFile;
+    private SolutionDag dag;
+    private Board start;
+    private Rules rules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DomainObjects domain = DomainFactory.buildDomain();
+        start = domain.board();
+        rules = domain.rules();
+        archive = Files.createTempFile("games", ".txt");
+        report = Files.createTempFile("report", ".csv");
+        SplittableRandom random = new SplittableRandom(42);
+        try (TextGameWriter writer = TextGameWriter.create(archive)) {
+            for (int i = 0; i < GAMES; i++) {
+                Board board = start;
+                List<Move> moves = new ArrayList<>();
+                List<Move> legal;
+                while (!(legal = rules.legalMoves(board)).isEmpty()) {
+                    Move move = legal.get(random.nextInt(legal.size()));
+                    moves.add(move);
+                    board = board.applyUnchecked(move);
+                }
+                writer.write(new SavedGame(start, moves, moves.size()));
+            }
+        }
+        dagFile = Files.createTempFile("english", ".dag");
+        SolutionDag.write(start, dagFile);
+        dag = SolutionDag.open(dagFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(archive);
+        Files.deleteIfExists(report);
+        Files.deleteIfExists(dagFile);
+    }
+
+    @Benchmark
+    public CorpusSummary analyzeArchive() throws IOException, InterruptedException {
+        try (TextGameReader reader = TextGameReader.open(archive, start, rules);
+                Writer rows = Files.newBufferedWriter(report);
+                CorpusAnalyzer analyzer = CorpusAnalyzer.create(start, rules, threads, dag)) {
+            return analyzer.analyze(reader, rows);
+        }
+    }
+}
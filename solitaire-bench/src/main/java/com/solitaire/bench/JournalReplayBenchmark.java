@@ -0,0 +1,84 @@
+package com.solitaire.bench;
+
+import com.solitaire.app.ApplyMoveCommand;
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameState;
+import com.solitaire.app.MoveJournal;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.domain.rules.Rules;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recovering a game from a {@link MoveJournal} of {@value #RECORDS} records: a random game of up to
+ * 31 moves, walked back and forth with undo and redo, with a new game started whenever it ends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalReplayBenchmark {
+
+    static final int RECORDS = 1_000_000;
+
+    private Path file;
+    private Rules rules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DomainObjects domain = DomainFactory.buildDomain();
+        rules = domain.rules();
+        file = Files.createTempFile("replay", ".journal");
+        GameState gameState = new GameState(domain.board(), rules);
+        try (MoveJournal journal =
+                MoveJournal.create(file, domain.board(), Duration.ofSeconds(1))) {
+            CommandManager commands = CommandManager.journaled(gameState, journal);
+            while (journal.records() < RECORDS) {
+                var legal = rules.legalMoves(gameState.board());
+                if (legal.isEmpty()) {
+                    while (commands.undo()) {
+                        if (journal.records() == RECORDS) break;
+                    }
+                    continue;
+                }
+                Move move = legal.get((int) (journal.records() % legal.size()));
+                commands.execute(new ApplyMoveCommand(gameState, move));
+                if (journal.records() % 3 == 0 && journal.records() < RECORDS - 1) {
+                    commands.undo();
+                    commands.redo();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public MoveJournal.Recovery recover() {
+        MoveJournal.Recovery recovery = MoveJournal.recover(file, rules, Duration.ofSeconds(1));
+        recovery.journal().close();
+        return recovery;
+    }
+}
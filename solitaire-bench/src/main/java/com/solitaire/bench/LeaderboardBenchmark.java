@@ -0,0 +1,97 @@
+package com.solitaire.bench;
+
+import com.solitaire.app.leaderboard.GameResult;
+import com.solitaire.app.leaderboard.Leaderboard;
+import com.solitaire.app.leaderboard.Standing;
+import com.solitaire.domain.GameStatus;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One thread recording results into a {@link Leaderboard} of {@value #PRELOADED} results, synced
+ * every 10 ms, while two threads ask for the top ten and for the rank of a random result.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    static final int PRELOADED = 1_000_000;
+
+    private Path file;
+    private Leaderboard leaderboard;
+    private final SplittableRandom writes = new SplittableRandom(1);
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("leaderboard", ".bin");
+        leaderboard = Leaderboard.open(file, Duration.ofMillis(10));
+        SplittableRandom random = new SplittableRandom(0);
+        for (int i = 0; i < PRELOADED; i++) leaderboard.record(result(random));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        leaderboard.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public long record() {
+        return leaderboard.record(result(writes));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public List<Standing> top10() {
+        return leaderboard.top(10);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public Optional<Standing> rank(Reader reader) {
+        return leaderboard.standing(reader.random.nextInt(PRELOADED));
+    }
+
+    private static GameResult result(SplittableRandom random) {
+        int pegs = 1 + random.nextInt(10);
+        return new GameResult(
+                "player" + random.nextInt(10_000),
+                pegs == 1 ? GameStatus.WON : GameStatus.STUCK,
+                pegs,
+                pegs == 1 && random.nextBoolean(),
+                Duration.ofMillis(random.nextInt(600_000)));
+    }
+}
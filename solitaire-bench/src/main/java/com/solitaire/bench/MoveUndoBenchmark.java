@@ -0,0 +1,103 @@
+package com.solitaire.bench;
+
+import com.solitaire.app.ApplyMoveCommand;
+import com.solitaire.app.CommandManager;
+import com.solitaire.app.GameState;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.BoardPatch;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Applying and undoing one move on the standard board: undo as three {@link Board#withCell} calls
+ * versus one {@link Board#revert} of the move's {@link BoardPatch}, and the full {@link
+ * ApplyMoveCommand} round trip (which also re-evaluates the game status), and an undo/redo pair
+ * through a {@link CommandManager} with either kind of history.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveUndoBenchmark {
+
+    private GameState gameState;
+    private Board board;
+    private Board after;
+    private Move move;
+    private BoardPatch patch;
+    private GameState playing;
+    private CommandManager commands;
+    private GameState packedState;
+    private CommandManager packedCommands;
+
+    @Setup
+    public void setUp() {
+        DomainObjects domain = DomainFactory.buildDomain();
+        gameState = new GameState(domain.board(), domain.rules());
+        board = domain.board();
+        move = domain.rules().legalMoves(board).getFirst();
+        patch = BoardPatch.forMove(board, move);
+        after = board.apply(patch);
+
+        playing = new GameState(board, domain.rules());
+        commands = new CommandManager();
+        commands.execute(new ApplyMoveCommand(playing, move));
+        packedState = new GameState(board, domain.rules());
+        packedCommands = CommandManager.packed(packedState, 16);
+        packedCommands.execute(new ApplyMoveCommand(packedState, move));
+    }
+
+    @Benchmark
+    public Board applyMove() {
+        return board.applyUnchecked(move);
+    }
+
+    @Benchmark
+    public Board undoWithCells() {
+        return after.withCell(move.from(), Cell.PEG)
+                .withCell(move.over(), Cell.PEG)
+                .withCell(move.to(), Cell.EMPTY);
+    }
+
+    @Benchmark
+    public Board undoWithPatch() {
+        return after.revert(patch);
+    }
+
+    @Benchmark
+    public Board executeAndUndo() {
+        ApplyMoveCommand command = new ApplyMoveCommand(gameState, move);
+        command.execute();
+        command.undo();
+        return gameState.board();
+    }
+
+    @Benchmark
+    public Board undoAndRedo() {
+        commands.undo();
+        commands.redo();
+        return playing.board();
+    }
+
+    @Benchmark
+    public Board undoAndRedoPacked() {
+        packedCommands.undo();
+        packedCommands.redo();
+        return packedState.board();
+    }
+}
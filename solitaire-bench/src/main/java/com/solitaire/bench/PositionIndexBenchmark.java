@@ -0,0 +1,105 @@
+package com.solitaire.bench;
+
+import com.solitaire.app.archive.SavedGame;
+import com.solitaire.app.index.PositionIndex;
+import com.solitaire.app.index.Posting;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Queries against a {@link PositionIndex} of {@value #GAMES} random games added in batches and
+ * merged: one deep position that few games reach, and one early position that many reach. The
+ * indexing rate is printed once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PositionIndexBenchmark {
+
+    static final int GAMES = 1_000_000;
+    static final int ADDS = 16;
+
+    private Path dir;
+    private PositionIndex index;
+    private Board[] deep;
+    private Board early;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        DomainObjects domain = DomainFactory.buildDomain();
+        dir = Files.createTempDirectory("position-index");
+        index = PositionIndex.open(dir, domain.board(), 1, null);
+        SplittableRandom random = new SplittableRandom(42);
+        deep = new Board[1024];
+        long began = System.nanoTime();
+        for (int add = 0; add < ADDS; add++) {
+            List<SavedGame> games = new ArrayList<>(GAMES / ADDS);
+            for (int i = 0; i < GAMES / ADDS; i++) {
+                Board board = domain.board();
+                List<Move> moves = new ArrayList<>();
+                List<Move> legal;
+                while (!(legal = domain.rules().legalMoves(board)).isEmpty()) {
+                    Move move = legal.get(random.nextInt(legal.size()));
+                    moves.add(move);
+                    board = board.applyUnchecked(move);
+                    if (moves.size() == 3) early = board;
+                    if (moves.size() == 12 && i < deep.length) deep[i] = board;
+                }
+                games.add(new SavedGame(domain.board(), moves, moves.size()));
+            }
+            index.add(games.iterator());
+        }
+        while (index.merge()) {}
+        System.out.printf(
+                "%n%,d games, %,d postings, %d segments in %d ms%n",
+                GAMES,
+                index.postingCount(),
+                index.segmentCount(),
+                (System.nanoTime() - began) / 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+        }
+    }
+
+    @Benchmark
+    public List<Posting> findDeep() {
+        return index.find(deep[next++ & deep.length - 1]);
+    }
+
+    @Benchmark
+    public List<Posting> findEarly() {
+        return index.find(early);
+    }
+}
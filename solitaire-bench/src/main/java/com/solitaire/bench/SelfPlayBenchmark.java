@@ -0,0 +1,57 @@
+package com.solitaire.bench;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.domain.rules.Rules;
+import com.solitaire.solver.sim.PlayStats;
+import com.solitaire.solver.sim.SelfPlaySimulator;
+import com.solitaire.solver.sim.StandardPolicy;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Complete games per second from the English start with {@link SelfPlaySimulator} on the common
+ * pool, per standard policy. Each operation is one game; an invocation plays {@value #GAMES}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelfPlayBenchmark {
+
+    static final int GAMES = 16_384;
+
+    @Param({"UNIFORM_RANDOM", "GREEDY_MOBILITY", "CENTER_FIRST"})
+    StandardPolicy policy;
+
+    /** Whether moves go through the rules engine rather than peg masks. */
+    @Param({"false", "true"})
+    boolean throughRules;
+
+    private final DomainObjects domain = DomainFactory.buildDomain();
+    private final Board start = domain.board();
+    private final Rules rules = domain.rules();
+    private final SelfPlaySimulator simulator = SelfPlaySimulator.onCommonPool();
+    private long seed;
+
+    @Benchmark
+    @OperationsPerInvocation(GAMES)
+    public PlayStats play() {
+        return throughRules
+                ? simulator.play(start, rules, policy, GAMES, seed++)
+                : simulator.play(start, policy, GAMES, seed++);
+    }
+}
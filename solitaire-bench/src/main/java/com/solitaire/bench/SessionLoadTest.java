@@ -0,0 +1,122 @@
+package com.solitaire.bench;
+
+import com.solitaire.app.session.HibernationPolicy;
+import com.solitaire.app.session.SessionManager;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+/**
+ * Load test for {@link SessionManager}: one virtual-thread client per session plays random legal
+ * moves, yielding between moves so every session gets its turn, and starts a new game whenever its
+ * current one ends. Reports sustained moves per second, move latency percentiles and heap use.
+ *
+ * <p>Run with {@code java -cp target/benchmarks.jar com.solitaire.bench.SessionLoadTest [sessions]
+ * [seconds] [stripes] [heapBudget]}; defaults are 10000 sessions for 20 seconds on 64 stripes,
+ * without hibernation. A heap budget in bytes hibernates the least recently used sessions to a
+ * temporary file beyond it.
+ */
+public final class SessionLoadTest {
+
+    private SessionLoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int stripes = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        long heapBudget = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        DomainObjects domain = DomainFactory.buildDomain();
+        HibernationPolicy policy =
+                heapBudget == 0
+                        ? null
+                        : new HibernationPolicy(
+                                Files.createTempFile("sessions", ".bin"),
+                                Duration.ofHours(1),
+                                heapBudget);
+        SessionManager manager =
+                new SessionManager(domain.board(), domain.rules(), stripes, 64, policy);
+        long[] ids = new long[sessions];
+        for (int i = 0; i < sessions; i++) ids[i] = manager.create();
+
+        long warmupEnd = System.nanoTime() + 5_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+        List<Future<long[]>> clients = new ArrayList<>(sessions);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                long id = ids[i];
+                long seed = i;
+                clients.add(executor.submit(() -> play(manager, id, seed, warmupEnd, end)));
+            }
+        }
+
+        long[] latencies =
+                clients.stream()
+                        .flatMapToLong(
+                                f -> {
+                                    try {
+                                        return LongStream.of(f.get());
+                                    } catch (Exception e) {
+                                        throw new IllegalStateException(e);
+                                    }
+                                })
+                        .toArray();
+        Arrays.sort(latencies);
+
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        long heap = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf(
+                "%d sessions, %d stripes, %d s: %,d moves/s%n",
+                sessions, stripes, seconds, latencies.length / seconds);
+        System.out.printf(
+                "move latency: p50 %,d ns, p99 %,d ns, p99.9 %,d ns, max %,d ns%n",
+                percentile(latencies, 0.50),
+                percentile(latencies, 0.99),
+                percentile(latencies, 0.999),
+                latencies[latencies.length - 1]);
+        System.out.printf(
+                "memory: estimated %,d B (%,d B/session), %,d hibernated, heap in use %,d B%n",
+                manager.totalEstimatedBytes(),
+                manager.totalEstimatedBytes() / manager.size(),
+                manager.hibernatedCount(),
+                heap);
+        manager.close();
+    }
+
+    /** One client; returns the latency of every move made after warm-up, in nanoseconds. */
+    private static long[] play(
+            SessionManager manager, long id, long seed, long warmupEnd, long end) {
+        SplittableRandom random = new SplittableRandom(seed);
+        LongStream.Builder latencies = LongStream.builder();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            List<Move> legal = manager.legalMoves(id);
+            if (legal.isEmpty()) {
+                manager.close(id);
+                id = manager.create();
+                continue;
+            }
+            Move move = legal.get(random.nextInt(legal.size()));
+            long start = System.nanoTime();
+            manager.move(id, move);
+            if (now >= warmupEnd) latencies.add(System.nanoTime() - start);
+            Thread.yield();
+        }
+        return latencies.build().toArray();
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+}
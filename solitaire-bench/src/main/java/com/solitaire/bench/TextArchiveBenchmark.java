@@ -0,0 +1,108 @@
+package com.solitaire.bench;
+
+import com.solitaire.app.archive.SavedGame;
+import com.solitaire.app.archive.TextGameReader;
+import com.solitaire.app.archive.TextGameWriter;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.domain.rules.Rules;
+import com.solitaire.solver.sim.RandomPlayouts;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Importing a text archive of {@value #GAMES} random games: {@link TextGameReader} against reading
+ * lines as strings and parsing them the way {@code MoveParser} does, both validating every move.
+ * The file size is printed once, to turn times into MB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextArchiveBenchmark {
+
+    static final int GAMES = 100_000;
+
+    private Path file;
+    private Board start;
+    private Rules rules;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        DomainObjects domain = DomainFactory.buildDomain();
+        start = domain.board();
+        rules = domain.rules();
+        file = Files.createTempFile("games", ".txt");
+        try (TextGameWriter writer = TextGameWriter.create(file)) {
+            for (int seed = 0; seed < GAMES; seed++) {
+                List<Move> moves = RandomPlayouts.game(start, rules, seed);
+                writer.write(new SavedGame(start, moves, moves.size()));
+            }
+        }
+        System.out.printf("%n%,d bytes%n", Files.size(file));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long mappedReader() throws IOException {
+        long moves = 0;
+        try (TextGameReader reader = TextGameReader.open(file, start, rules)) {
+            while (reader.hasNext()) moves += reader.next().moves().size();
+        }
+        return moves;
+    }
+
+    @Benchmark
+    public long splitLines() throws IOException {
+        long moves = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            Board board = start;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    board = start;
+                    continue;
+                }
+                String[] parts = line.trim().split("\\s+");
+                int fr = Integer.parseInt(parts[0]);
+                int fc = Integer.parseInt(parts[1]);
+                int tr = Integer.parseInt(parts[2]);
+                int tc = Integer.parseInt(parts[3]);
+                Move move =
+                        new Move(
+                                new Position(fr, fc),
+                                new Position((fr + tr) / 2, (fc + tc) / 2),
+                                new Position(tr, tc));
+                if (!rules.isLegal(board, move)) throw new IllegalStateException("illegal " + move);
+                board = board.applyUnchecked(move);
+                moves++;
+            }
+        }
+        return moves;
+    }
+}
@@ -0,0 +1,64 @@
+package com.solitaire.cli;
+
+import com.solitaire.app.analytics.CorpusAnalyzer;
+import com.solitaire.app.analytics.CorpusSummary;
+import com.solitaire.app.archive.TextGameReader;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.solver.SolutionDag;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Analyses a text archive of games from the standard start: {@code AnalyzeCorpus <archive>
+ * <report.csv> [threads] [dag]}. With a solution DAG file, winnability is looked up in it, writing
+ * it first when it does not exist; without, it is solved. Logs the totals and the most common fatal
+ * moves.
+ */
+@Log4j2
+public final class AnalyzeCorpus {
+
+    private AnalyzeCorpus() {}
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.err.println("usage: AnalyzeCorpus <archive> <report.csv> [threads] [dag]");
+            System.exit(2);
+        }
+        int threads =
+                args.length > 2
+                        ? Integer.parseInt(args[2])
+                        : Runtime.getRuntime().availableProcessors();
+        DomainObjects domain = DomainFactory.buildDomain();
+        Board start = domain.board();
+        SolutionDag dag = null;
+        if (args.length > 3) {
+            Path file = Path.of(args[3]);
+            if (!Files.exists(file)) {
+                log.info("Writing solution DAG {}", file);
+                SolutionDag.write(start, file);
+            }
+            dag = SolutionDag.open(file);
+        }
+        long began = System.nanoTime();
+        try (TextGameReader reader = TextGameReader.open(Path.of(args[0]), start, domain.rules());
+                Writer rows = Files.newBufferedWriter(Path.of(args[1]));
+                CorpusAnalyzer analyzer =
+                        dag == null
+                                ? CorpusAnalyzer.create(start, domain.rules(), threads)
+                                : CorpusAnalyzer.create(start, domain.rules(), threads, dag)) {
+            CorpusSummary summary = analyzer.analyze(reader, rows);
+            log.info(
+                    "{} in {} ms, {} unreadable games skipped",
+                    summary,
+                    (System.nanoTime() - began) / 1_000_000,
+                    reader.rejectedGames());
+            summary.mostCommonFatalMoves(10)
+                    .forEach(m -> log.info("Fatal {} in {} games", m.move(), m.count()));
+        }
+    }
+}
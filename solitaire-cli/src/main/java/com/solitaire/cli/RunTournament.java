@@ -0,0 +1,40 @@
+package com.solitaire.cli;
+
+import com.solitaire.app.agent.StandardAgent;
+import com.solitaire.app.agent.Tournament;
+import com.solitaire.app.agent.TournamentResult;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.factory.DomainObjects;
+import com.solitaire.solver.sim.RandomPlayouts;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the standard agents on English positions 4 to 12 moves in and prints the table: {@code
+ * RunTournament [boards] [budget ms...]}, by default 40 boards at 1, 10 and 100 ms.
+ */
+public final class RunTournament {
+
+    private RunTournament() {}
+
+    public static void main(String[] args) throws InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        List<Duration> budgets = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            budgets.add(Duration.ofMillis(Long.parseLong(args[i])));
+        }
+        if (budgets.isEmpty()) {
+            budgets = List.of(Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofMillis(100));
+        }
+        DomainObjects domain = DomainFactory.buildDomain();
+        List<Board> boards =
+                RandomPlayouts.positions(domain.board(), domain.rules(), count, 4, 12, 1);
+        Tournament tournament =
+                new Tournament(domain.rules(), Runtime.getRuntime().availableProcessors());
+        List<TournamentResult> results =
+                tournament.run(List.of(StandardAgent.values()), boards, budgets);
+        System.out.print(Tournament.format(results));
+    }
+}
@@ -0,0 +1,29 @@
+package com.solitaire.cli;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.solver.sim.PlayStats;
+import com.solitaire.solver.sim.SelfPlaySimulator;
+import com.solitaire.solver.sim.StandardPolicy;
+
+/**
+ * Compares the standard self-play policies on the English board and prints their throughput and
+ * stats: {@code SelfPlay [games] [seed]}, by default a million games from seed 1.
+ */
+public final class SelfPlay {
+
+    private SelfPlay() {}
+
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        Board start = DomainFactory.buildDomain().board();
+        SelfPlaySimulator simulator = SelfPlaySimulator.onCommonPool();
+        for (StandardPolicy policy : StandardPolicy.values()) {
+            long began = System.nanoTime();
+            PlayStats stats = simulator.play(start, policy, games, seed);
+            double seconds = (System.nanoTime() - began) / 1e9;
+            System.out.printf("%-15s %.0f games/s: %s%n", policy, stats.games() / seconds, stats);
+        }
+    }
+}
@@ -9,7 +9,11 @@ public final class Board {
 
     private final int rows;
     private final int cols;
-    private final Cell[][] cells;
+
+    /** Row-major cells; never shared with callers, so a board can be built around its array. */
+    private final Cell[] cells;
+
+    private final int pegCount;
 
     public Board(Cell[][] cells) {
         Objects.requireNonNull(cells, "cells");
@@ -18,14 +22,23 @@ public final class Board {
         this.rows = cells.length;
         this.cols = cells[0].length;
 
-        this.cells = new Cell[rows][cols];
+        this.cells = new Cell[rows * cols];
         for (int r = 0; r < rows; r++) {
             if (cells[r].length != cols) {
                 throw new IllegalArgumentException("non-rectangular board");
             }
-            System.arraycopy(cells[r], 0, this.cells[r], 0, cols);
+            System.arraycopy(cells[r], 0, this.cells, r * cols, cols);
         }
-        log.debug("Board created: {}x{}, {} pegs", rows, cols, pegCount());
+        this.pegCount = countPegs(this.cells);
+        log.debug("Board created: {}x{}, {} pegs", rows, cols, pegCount);
+    }
+
+    /** Takes ownership of {@code cells} without copying. */
+    private Board(int rows, int cols, Cell[] cells, int pegCount) {
+        this.rows = rows;
+        this.cols = cols;
+        this.cells = cells;
+        this.pegCount = pegCount;
     }
 
     public int rows() {
@@ -42,68 +55,106 @@ public final class Board {
 
     public Cell cellAt(Position p) {
         if (!isInside(p)) return Cell.INVALID;
-        return cells[p.r()][p.c()];
+        return cells[p.r() * cols + p.c()];
     }
 
     /** Returns a new board with a single cell changed. (Used by rules/apply-move logic) */
     public Board withCell(Position p, Cell newCell) {
-        if (!isInside(p)) throw new IllegalArgumentException("position out of bounds: " + p);
+        int i = indexOf(p);
         log.debug("Creating new board with cell at {} changed to {}", p, newCell);
-        Cell[][] copy = deepCopyCells();
-        copy[p.r()][p.c()] = newCell;
-        return new Board(copy);
+        Cell[] copy = cells.clone();
+        int pegs = pegCount - peg(copy[i]) + peg(newCell);
+        copy[i] = newCell;
+        return new Board(rows, cols, copy, pegs);
     }
 
-    /** Apply the move without validating legality. Validation is delegated to Rules. */
+    /**
+     * Apply the move without validating legality. Validation is delegated to Rules. Same result as
+     * applying {@link BoardPatch#forMove}, without building the patch.
+     */
     public Board applyUnchecked(Move move) {
         log.debug("Applying move (unchecked): {}", move);
-        Cell[][] copy = deepCopyCells();
+        int from = indexOf(move.from());
+        int over = indexOf(move.over());
+        int to = indexOf(move.to());
+        Cell[] copy = cells.clone();
+        int pegs = pegCount - peg(copy[from]);
+        copy[from] = Cell.EMPTY;
+        pegs -= peg(copy[over]);
+        copy[over] = Cell.EMPTY;
+        pegs += 1 - peg(copy[to]);
+        copy[to] = Cell.PEG;
+        return new Board(rows, cols, copy, pegs);
+    }
 
-        Position from = move.from();
-        Position over = move.over();
-        Position to = move.to();
+    /** Returns a new board with every change of the patch applied, in one copy. */
+    public Board apply(BoardPatch patch) {
+        return patched(patch, true);
+    }
 
-        copy[from.r()][from.c()] = Cell.EMPTY;
-        copy[over.r()][over.c()] = Cell.EMPTY;
-        copy[to.r()][to.c()] = Cell.PEG;
+    /** Returns a new board with every change of the patch undone, in one copy. */
+    public Board revert(BoardPatch patch) {
+        return patched(patch, false);
+    }
 
-        Board result = new Board(copy);
-        log.debug("Move applied. Peg count: {} -> {}", pegCount(), result.pegCount());
+    private Board patched(BoardPatch patch, boolean forward) {
+        Objects.requireNonNull(patch, "patch");
+        if (patch.rows() != rows || patch.cols() != cols) {
+            throw new IllegalArgumentException(
+                    "patch is for a " + patch.rows() + "x" + patch.cols() + " board");
+        }
+        Cell[] copy = cells.clone();
+        int pegs = pegCount;
+        for (int k = 0; k < patch.size(); k++) {
+            int i = patch.index(k);
+            Cell value = forward ? patch.after(k) : patch.before(k);
+            pegs += peg(value) - peg(copy[i]);
+            copy[i] = value;
+        }
+        Board result = new Board(rows, cols, copy, pegs);
+        log.debug("Patch applied. Peg count: {} -> {}", pegCount, pegs);
         return result;
     }
 
     public int pegCount() {
+        return pegCount;
+    }
+
+    /** Row-major index of an on-board position. */
+    int indexOf(Position p) {
+        if (!isInside(p)) throw new IllegalArgumentException("position out of bounds: " + p);
+        return p.r() * cols + p.c();
+    }
+
+    /** Cell at a row-major index; for patches, which validate indices themselves. */
+    Cell cellAt(int index) {
+        return cells[index];
+    }
+
+    private static int countPegs(Cell[] cells) {
         int count = 0;
-        for (int r = 0; r < rows; r++) {
-            for (int c = 0; c < cols; c++) {
-                if (cells[r][c] == Cell.PEG) count++;
-            }
-        }
+        for (Cell cell : cells) count += peg(cell);
         return count;
     }
 
-    private Cell[][] deepCopyCells() {
-        Cell[][] copy = new Cell[rows][cols];
-        for (int r = 0; r < rows; r++) {
-            System.arraycopy(this.cells[r], 0, copy[r], 0, cols);
-        }
-        return copy;
+    private static int peg(Cell cell) {
+        return cell == Cell.PEG ? 1 : 0;
     }
 
     @Override
     public String toString() {
-        return "Board{" + "rows=" + rows + ", cols=" + cols + ", pegs=" + pegCount() + '}';
+        return "Board{" + "rows=" + rows + ", cols=" + cols + ", pegs=" + pegCount + '}';
     }
 
     @Override
     public boolean equals(Object o) {
         if (!(o instanceof Board other)) return false;
         if (rows != other.rows || cols != other.cols) return false;
-        return Arrays.deepEquals(cells, other.cells);
+        return pegCount == other.pegCount && Arrays.equals(cells, other.cells);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(cells);
+        return 31 * cols + Arrays.hashCode(cells);
     }
 }
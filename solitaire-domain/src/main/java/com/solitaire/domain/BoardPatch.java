@@ -0,0 +1,146 @@
+package com.solitaire.domain;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A reversible set of cell changes for boards of one size.
+ *
+ * <p>Each change records the cell's value before and after, so {@link Board#apply} and {@link
+ * Board#revert} each rebuild the board with a single copy of its cells, however many cells change.
+ * Patches are immutable.
+ */
+public final class BoardPatch {
+
+    private static final Cell[] JUMP = {Cell.EMPTY, Cell.EMPTY, Cell.PEG};
+
+    private final int rows;
+    private final int cols;
+    private final int[] indices;
+    private final Cell[] before;
+    private final Cell[] after;
+
+    private BoardPatch(int rows, int cols, int[] indices, Cell[] before, Cell[] after) {
+        this.rows = rows;
+        this.cols = cols;
+        this.indices = indices;
+        this.before = before;
+        this.after = after;
+    }
+
+    /** The jump of {@code move} on {@code board}: from and over emptied, to filled. */
+    public static BoardPatch forMove(Board board, Move move) {
+        Objects.requireNonNull(board, "board");
+        Objects.requireNonNull(move, "move");
+        int[] indices = {
+            board.indexOf(move.from()), board.indexOf(move.over()), board.indexOf(move.to())
+        };
+        Cell[] before = {
+            board.cellAt(indices[0]), board.cellAt(indices[1]), board.cellAt(indices[2])
+        };
+        return new BoardPatch(board.rows(), board.cols(), indices, before, JUMP);
+    }
+
+    /**
+     * Sets each position to the matching cell; the current cells of {@code board} become "before".
+     */
+    public static BoardPatch of(Board board, Position[] positions, Cell[] cells) {
+        Objects.requireNonNull(board, "board");
+        if (positions.length != cells.length) {
+            throw new IllegalArgumentException("positions and cells differ in length");
+        }
+        int[] indices = new int[positions.length];
+        Cell[] before = new Cell[positions.length];
+        for (int k = 0; k < positions.length; k++) {
+            indices[k] = board.indexOf(positions[k]);
+            before[k] = board.cellAt(indices[k]);
+        }
+        return new BoardPatch(board.rows(), board.cols(), indices, before, cells.clone());
+    }
+
+    /**
+     * The cells that differ between two boards of the same size, from {@code from} to {@code to}.
+     */
+    public static BoardPatch between(Board from, Board to) {
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+        if (from.rows() != to.rows() || from.cols() != to.cols()) {
+            throw new IllegalArgumentException("boards differ in size");
+        }
+        int cells = from.rows() * from.cols();
+        int[] indices = new int[cells];
+        int n = 0;
+        for (int i = 0; i < cells; i++) {
+            if (from.cellAt(i) != to.cellAt(i)) indices[n++] = i;
+        }
+        indices = Arrays.copyOf(indices, n);
+        Cell[] before = new Cell[n];
+        Cell[] after = new Cell[n];
+        for (int k = 0; k < n; k++) {
+            before[k] = from.cellAt(indices[k]);
+            after[k] = to.cellAt(indices[k]);
+        }
+        return new BoardPatch(from.rows(), from.cols(), indices, before, after);
+    }
+
+    /** The patch that undoes this one. */
+    public BoardPatch inverse() {
+        return new BoardPatch(rows, cols, indices, after, before);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /** Number of changed cells. */
+    public int size() {
+        return indices.length;
+    }
+
+    public Position position(int k) {
+        return new Position(indices[k] / cols, indices[k] % cols);
+    }
+
+    public Cell before(int k) {
+        return before[k];
+    }
+
+    public Cell after(int k) {
+        return after[k];
+    }
+
+    int index(int k) {
+        return indices[k];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof BoardPatch other)) return false;
+        return rows == other.rows
+                && cols == other.cols
+                && Arrays.equals(indices, other.indices)
+                && Arrays.equals(before, other.before)
+                && Arrays.equals(after, other.after);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(rows, cols, Arrays.hashCode(indices), Arrays.hashCode(after));
+    }
+
+    @Override
+    public String toString() {
+        return "BoardPatch{"
+                + "rows="
+                + rows
+                + ", cols="
+                + cols
+                + ", cells="
+                + indices.length
+                + '}';
+    }
+}
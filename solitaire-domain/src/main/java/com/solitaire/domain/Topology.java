@@ -0,0 +1,286 @@
+package com.solitaire.domain;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact description of a board's shape: the playable holes, the orthogonal jumps between them and
+ * the grid symmetries that map the shape onto itself.
+ *
+ * <p>Holes are numbered in row-major order, which lets a whole position be stored as a single
+ * {@code long} peg mask (bit {@code i} set when hole {@code i} holds a peg). Jumps are numbered in
+ * the same order {@link com.solitaire.domain.rules.EnglishRules#legalMoves(Board)} reports moves,
+ * so searches over masks visit moves in the same order as the rules do. Shapes with more than 64
+ * holes are not supported.
+ */
+public final class Topology {
+
+    private static final int[][] DIRECTIONS = {{-2, 0}, {+2, 0}, {0, -2}, {0, +2}};
+
+    private final int rows;
+    private final int cols;
+    private final int[] holeIndex;
+    private final Position[] holes;
+
+    private final int[] jumpFrom;
+    private final int[] jumpOver;
+    private final int[] jumpTo;
+
+    /** Hole permutations, one per symmetry of the shape. Index 0 is always the identity. */
+    private final int[][] symmetries;
+
+    private Topology(int rows, int cols, boolean[] valid) {
+        this.rows = rows;
+        this.cols = cols;
+        this.holeIndex = new int[rows * cols];
+
+        List<Position> positions = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (valid[r * cols + c]) {
+                    holeIndex[r * cols + c] = positions.size();
+                    positions.add(new Position(r, c));
+                } else {
+                    holeIndex[r * cols + c] = -1;
+                }
+            }
+        }
+        if (positions.size() > Long.SIZE) {
+            throw new IllegalArgumentException(
+                    "too many holes for a 64-bit topology: " + positions.size());
+        }
+        this.holes = positions.toArray(new Position[0]);
+
+        List<int[]> jumps = new ArrayList<>();
+        for (Position from : holes) {
+            for (int[] d : DIRECTIONS) {
+                int over = indexOf(from.r() + d[0] / 2, from.c() + d[1] / 2);
+                int to = indexOf(from.r() + d[0], from.c() + d[1]);
+                if (over >= 0 && to >= 0) {
+                    jumps.add(new int[] {indexOf(from.r(), from.c()), over, to});
+                }
+            }
+        }
+        this.jumpFrom = jumps.stream().mapToInt(j -> j[0]).toArray();
+        this.jumpOver = jumps.stream().mapToInt(j -> j[1]).toArray();
+        this.jumpTo = jumps.stream().mapToInt(j -> j[2]).toArray();
+
+        this.symmetries = findSymmetries();
+    }
+
+    /** Builds the topology of the given board: every cell that is not {@link Cell#INVALID}. */
+    public static Topology of(Board board) {
+        Objects.requireNonNull(board, "board");
+        boolean[] valid = new boolean[board.rows() * board.cols()];
+        for (int r = 0; r < board.rows(); r++) {
+            for (int c = 0; c < board.cols(); c++) {
+                valid[r * board.cols() + c] = board.cellAt(new Position(r, c)) != Cell.INVALID;
+            }
+        }
+        return new Topology(board.rows(), board.cols(), valid);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    /** Number of playable holes. */
+    public int size() {
+        return holes.length;
+    }
+
+    /** Returns the hole index at the given grid coordinates, or -1 when there is no hole. */
+    public int indexOf(int r, int c) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols) return -1;
+        return holeIndex[r * cols + c];
+    }
+
+    public int indexOf(Position p) {
+        return indexOf(p.r(), p.c());
+    }
+
+    public Position position(int hole) {
+        return holes[hole];
+    }
+
+    public int jumpCount() {
+        return jumpFrom.length;
+    }
+
+    public int jumpFrom(int jump) {
+        return jumpFrom[jump];
+    }
+
+    public int jumpOver(int jump) {
+        return jumpOver[jump];
+    }
+
+    public int jumpTo(int jump) {
+        return jumpTo[jump];
+    }
+
+    public Move move(int jump) {
+        return new Move(holes[jumpFrom[jump]], holes[jumpOver[jump]], holes[jumpTo[jump]]);
+    }
+
+    /** Returns the index of the jump matching the move, or -1 when it is not a jump here. */
+    public int jumpIndex(Move move) {
+        int from = indexOf(move.from());
+        int over = indexOf(move.over());
+        int to = indexOf(move.to());
+        if (from < 0 || over < 0 || to < 0) return -1;
+        for (int j = 0; j < jumpFrom.length; j++) {
+            if (jumpFrom[j] == from && jumpOver[j] == over && jumpTo[j] == to) return j;
+        }
+        return -1;
+    }
+
+    /** True when the jump is legal on the given peg mask. */
+    public boolean canJump(long pegs, int jump) {
+        return (pegs >>> jumpFrom[jump] & 1L) != 0
+                && (pegs >>> jumpOver[jump] & 1L) != 0
+                && (pegs >>> jumpTo[jump] & 1L) == 0;
+    }
+
+    /** Applies the jump to the peg mask without checking legality. */
+    public long jump(long pegs, int jump) {
+        return pegs ^ (1L << jumpFrom[jump]) ^ (1L << jumpOver[jump]) ^ (1L << jumpTo[jump]);
+    }
+
+    /** Encodes the pegs of a board with this shape into a mask. */
+    public long encode(Board board) {
+        if (board.rows() != rows || board.cols() != cols) {
+            throw new IllegalArgumentException(
+                    "board is " + board.rows() + "x" + board.cols() + ", expected " + this);
+        }
+        long pegs = 0;
+        for (int i = 0; i < holes.length; i++) {
+            Cell cell = board.cellAt(holes[i]);
+            if (cell == Cell.INVALID) {
+                throw new IllegalArgumentException("board has no hole at " + holes[i]);
+            }
+            if (cell == Cell.PEG) pegs |= 1L << i;
+        }
+        return pegs;
+    }
+
+    /** Rebuilds the board described by a peg mask. */
+    public Board decode(long pegs) {
+        Cell[][] cells = new Cell[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int i = holeIndex[r * cols + c];
+                cells[r][c] = i < 0 ? Cell.INVALID : (pegs >>> i & 1L) != 0 ? Cell.PEG : Cell.EMPTY;
+            }
+        }
+        return new Board(cells);
+    }
+
+    public int symmetryCount() {
+        return symmetries.length;
+    }
+
+    /** Maps the peg mask through symmetry {@code s} (0 is the identity). */
+    public long transform(long pegs, int s) {
+        int[] perm = symmetries[s];
+        long out = 0;
+        for (long rest = pegs; rest != 0; rest &= rest - 1) {
+            out |= 1L << perm[Long.numberOfTrailingZeros(rest)];
+        }
+        return out;
+    }
+
+    /** Maps a jump through symmetry {@code s}. */
+    public int transformJump(int jump, int s) {
+        int[] perm = symmetries[s];
+        int from = perm[jumpFrom[jump]];
+        int over = perm[jumpOver[jump]];
+        int to = perm[jumpTo[jump]];
+        for (int j = 0; j < jumpFrom.length; j++) {
+            if (jumpFrom[j] == from && jumpOver[j] == over && jumpTo[j] == to) return j;
+        }
+        throw new IllegalStateException("symmetry " + s + " does not preserve jump " + jump);
+    }
+
+    /** Smallest mask among all symmetric images: the same key for every equivalent position. */
+    public long canonical(long pegs) {
+        long best = pegs;
+        for (int s = 1; s < symmetries.length; s++) {
+            long candidate = transform(pegs, s);
+            if (Long.compareUnsigned(candidate, best) < 0) best = candidate;
+        }
+        return best;
+    }
+
+    /** Index of a symmetry mapping {@code pegs} onto its canonical key. */
+    public int canonicalSymmetry(long pegs) {
+        long best = pegs;
+        int bestSymmetry = 0;
+        for (int s = 1; s < symmetries.length; s++) {
+            long candidate = transform(pegs, s);
+            if (Long.compareUnsigned(candidate, best) < 0) {
+                best = candidate;
+                bestSymmetry = s;
+            }
+        }
+        return bestSymmetry;
+    }
+
+    private int[][] findSymmetries() {
+        List<int[]> found = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            boolean swaps = t >= 4;
+            if (swaps && rows != cols) continue;
+
+            int[] perm = new int[holes.length];
+            boolean preserved = true;
+            for (int i = 0; i < holes.length && preserved; i++) {
+                int[] rc = transformCoordinates(t, holes[i].r(), holes[i].c());
+                perm[i] = indexOf(rc[0], rc[1]);
+                preserved = perm[i] >= 0;
+            }
+            if (preserved) found.add(perm);
+        }
+        return found.toArray(new int[0][]);
+    }
+
+    /** The eight transformations of the dihedral group, the last four only for square grids. */
+    private int[] transformCoordinates(int t, int r, int c) {
+        int lastRow = rows - 1;
+        int lastCol = cols - 1;
+        return switch (t) {
+            case 0 -> new int[] {r, c};
+            case 1 -> new int[] {r, lastCol - c};
+            case 2 -> new int[] {lastRow - r, c};
+            case 3 -> new int[] {lastRow - r, lastCol - c};
+            case 4 -> new int[] {c, r};
+            case 5 -> new int[] {c, lastRow - r};
+            case 6 -> new int[] {lastCol - c, r};
+            default -> new int[] {lastCol - c, lastRow - r};
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Topology other)) return false;
+        return rows == other.rows
+                && cols == other.cols
+                && Arrays.equals(holeIndex, other.holeIndex);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * rows + cols) + Arrays.hashCode(holeIndex);
+    }
+
+    @Override
+    public String toString() {
+        return "Topology{" + "rows=" + rows + ", cols=" + cols + ", holes=" + holes.length + '}';
+    }
+}
@@ -0,0 +1,75 @@
+package com.solitaire.domain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.factory.DomainFactory;
+import org.junit.jupiter.api.Test;
+
+final class BoardPatchTest {
+
+    private final Board board = DomainFactory.buildDomain().board();
+    private final Move move = new Move(new Position(1, 3), new Position(2, 3), new Position(3, 3));
+
+    @Test
+    void testApplyMatchesApplyUnchecked() {
+        BoardPatch patch = BoardPatch.forMove(board, move);
+
+        Board after = board.apply(patch);
+
+        assertEquals(board.applyUnchecked(move), after);
+        assertEquals(board.pegCount() - 1, after.pegCount());
+        assertEquals(3, patch.size());
+    }
+
+    @Test
+    void testRevertRestoresBoard() {
+        BoardPatch patch = BoardPatch.forMove(board, move);
+
+        Board restored = board.apply(patch).revert(patch);
+
+        assertEquals(board, restored);
+        assertEquals(board.pegCount(), restored.pegCount());
+        assertEquals(board.hashCode(), restored.hashCode());
+    }
+
+    @Test
+    void testOfSetsCellsAndRecordsPrevious() {
+        Position a = new Position(0, 2);
+        Position b = new Position(3, 3);
+        BoardPatch patch =
+                BoardPatch.of(board, new Position[] {a, b}, new Cell[] {Cell.EMPTY, Cell.PEG});
+
+        Board after = board.apply(patch);
+
+        assertEquals(Cell.EMPTY, after.cellAt(a));
+        assertEquals(Cell.PEG, after.cellAt(b));
+        assertEquals(Cell.PEG, patch.before(0));
+        assertEquals(Cell.EMPTY, patch.before(1));
+        assertEquals(board.pegCount(), after.pegCount());
+    }
+
+    @Test
+    void testBetweenAndInverse() {
+        Board after = board.applyUnchecked(move);
+
+        BoardPatch patch = BoardPatch.between(board, after);
+
+        assertEquals(3, patch.size());
+        assertEquals(after, board.apply(patch));
+        assertEquals(board, after.apply(patch.inverse()));
+        assertEquals(0, BoardPatch.between(board, board).size());
+    }
+
+    @Test
+    void testRejectsOutOfBoundsAndOtherSizes() {
+        Move off = new Move(new Position(0, 5), new Position(0, 6), new Position(0, 7));
+        assertThrows(IllegalArgumentException.class, () -> BoardPatch.forMove(board, off));
+
+        Board small = new Board(new Cell[][] {{Cell.PEG, Cell.PEG, Cell.EMPTY}});
+        BoardPatch patch =
+                BoardPatch.forMove(
+                        small,
+                        new Move(new Position(0, 0), new Position(0, 1), new Position(0, 2)));
+        assertThrows(IllegalArgumentException.class, () -> board.apply(patch));
+    }
+}
@@ -0,0 +1,77 @@
+package com.solitaire.domain;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.rules.EnglishRules;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+final class TopologyTest {
+
+    private final Board english = DomainFactory.buildDomain().board();
+    private final Topology topology = Topology.of(english);
+
+    @Test
+    void testEnglishShape() {
+        assertEquals(33, topology.size());
+        assertEquals(76, topology.jumpCount());
+        assertEquals(8, topology.symmetryCount());
+    }
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        long pegs = topology.encode(english);
+
+        assertEquals(32, Long.bitCount(pegs));
+        assertEquals(english, topology.decode(pegs));
+    }
+
+    @Test
+    void testJumpOrderMatchesRules() {
+        long pegs = topology.encode(english);
+        List<Move> fromMask = new ArrayList<>();
+        for (int j = 0; j < topology.jumpCount(); j++) {
+            if (topology.canJump(pegs, j)) fromMask.add(topology.move(j));
+        }
+
+        assertEquals(new EnglishRules().legalMoves(english), fromMask);
+    }
+
+    @Test
+    void testJumpMatchesApplyUnchecked() {
+        long pegs = topology.encode(english);
+        Move move = new Move(new Position(1, 3), new Position(2, 3), new Position(3, 3));
+        int jump = topology.jumpIndex(move);
+
+        assertTrue(jump >= 0);
+        assertEquals(english.applyUnchecked(move), topology.decode(topology.jump(pegs, jump)));
+    }
+
+    @Test
+    void testCanonicalIsSymmetryInvariant() {
+        long pegs = topology.encode(english);
+        long after =
+                topology.jump(
+                        pegs,
+                        topology.jumpIndex(
+                                new Move(
+                                        new Position(1, 3),
+                                        new Position(2, 3),
+                                        new Position(3, 3))));
+
+        for (int s = 0; s < topology.symmetryCount(); s++) {
+            assertEquals(
+                    topology.canonical(after), topology.canonical(topology.transform(after, s)));
+        }
+    }
+
+    @Test
+    void testRectangularBoardHasFourSymmetries() {
+        Board b = new Board(new Cell[][] {{Cell.PEG, Cell.PEG, Cell.EMPTY}});
+
+        assertEquals(4, Topology.of(b).symmetryCount());
+        assertEquals(2, Topology.of(b).jumpCount());
+    }
+}
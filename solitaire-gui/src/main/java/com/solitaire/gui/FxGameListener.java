@@ -1,5 +1,6 @@
 package com.solitaire.gui;
 
+import com.solitaire.app.CoalescingGameListener;
 import com.solitaire.app.GameListener;
 import com.solitaire.domain.Board;
 import com.solitaire.domain.GameStatus;
@@ -9,24 +10,41 @@ import javafx.application.Platform;
 
 /**
  * Small adapter that ensures GameState events update the JavaFX UI on the FX Application Thread.
+ *
+ * <p>Events are coalesced: at most one runnable is queued with {@link Platform#runLater} at a time,
+ * and it renders only the latest board and status, so an undo burst or a replay costs one render
+ * per frame instead of one per move.
  */
 final class FxGameListener implements GameListener {
 
-    private final Consumer<Board> onBoardChanged;
-    private final Consumer<GameStatus> onStatusChanged;
+    private final CoalescingGameListener coalescing;
 
     FxGameListener(Consumer<Board> onBoardChanged, Consumer<GameStatus> onStatusChanged) {
-        this.onBoardChanged = Objects.requireNonNull(onBoardChanged, "onBoardChanged");
-        this.onStatusChanged = Objects.requireNonNull(onStatusChanged, "onStatusChanged");
+        Objects.requireNonNull(onBoardChanged, "onBoardChanged");
+        Objects.requireNonNull(onStatusChanged, "onStatusChanged");
+        this.coalescing =
+                new CoalescingGameListener(
+                        new GameListener() {
+                            @Override
+                            public void onBoardChanged(Board board) {
+                                onBoardChanged.accept(board);
+                            }
+
+                            @Override
+                            public void onStatusChanged(GameStatus status) {
+                                onStatusChanged.accept(status);
+                            }
+                        },
+                        Platform::runLater);
     }
 
     @Override
     public void onBoardChanged(Board board) {
-        Platform.runLater(() -> onBoardChanged.accept(board));
+        coalescing.onBoardChanged(board);
     }
 
     @Override
     public void onStatusChanged(GameStatus status) {
-        Platform.runLater(() -> onStatusChanged.accept(status));
+        coalescing.onStatusChanged(status);
     }
 }
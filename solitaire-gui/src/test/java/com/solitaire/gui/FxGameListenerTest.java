@@ -1,10 +1,13 @@
 package com.solitaire.gui;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.solitaire.domain.Board;
 import com.solitaire.domain.GameStatus;
 import com.solitaire.domain.factory.DomainFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -50,4 +53,38 @@ class FxGameListenerTest {
         assertTrue(boardOnFx.get(), "Board callback did not run on FX thread");
         assertTrue(statusOnFx.get(), "Status callback did not run on FX thread");
     }
+
+    @Test
+    void burstsRenderOnlyTheLatestBoard() throws Exception {
+        var domain = DomainFactory.buildDomain();
+        Board first = domain.board();
+        Board last = first.applyUnchecked(domain.rules().legalMoves(first).getFirst());
+
+        CountDownLatch blockFx = new CountDownLatch(1);
+        Platform.runLater(
+                () -> {
+                    try {
+                        blockFx.await(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+
+        List<Board> rendered = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+        FxGameListener listener =
+                new FxGameListener(
+                        b -> {
+                            rendered.add(b);
+                            done.countDown();
+                        },
+                        s -> {});
+
+        for (int i = 0; i < 50; i++) listener.onBoardChanged(first);
+        listener.onBoardChanged(last);
+        blockFx.countDown();
+
+        assertTrue(done.await(2, TimeUnit.SECONDS), "FX callback did not run in time");
+        assertEquals(List.of(last), rendered);
+    }
 }
@@ -0,0 +1,243 @@
+package com.solitaire.server;
+
+import com.solitaire.app.session.SessionManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Serves the games of a {@link SessionManager} over HTTP, one virtual thread per request.
+ *
+ * <pre>
+ * POST   /games             new game, 201 and the game
+ * GET    /games/{id}        the game
+ * DELETE /games/{id}        ends the game, 204
+ * GET    /games/{id}/moves  legal moves
+ * POST   /games/{id}/moves  plays the move in the body, the game or 409 if illegal
+ * POST   /games/{id}/undo   the game, or 409 if there is nothing to undo
+ * POST   /games/{id}/redo   the game, or 409 if there is nothing to redo
+ * </pre>
+ *
+ * Bodies are JSON as described in {@link Json}. Unknown games are 404 and malformed moves 400.
+ * Requests block only their own virtual thread, and the session manager's striped locks keep
+ * requests for different games apart.
+ */
+@Log4j2
+public final class GameServer implements AutoCloseable {
+
+    private static final int BACKLOG = 1024;
+    private static final int MAX_BODY_BYTES = 256;
+    private static final String PREFIX = "/games";
+
+    /**
+     * Without this the JDK server leaves Nagle's algorithm on, and a response whose headers and
+     * body go out in two writes waits for the client's delayed ACK: about 40 ms per request. The
+     * server reads the property once, so it has to be set before the first one starts.
+     */
+    static {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SessionManager sessions;
+
+    private GameServer(HttpServer server, ExecutorService executor, SessionManager sessions) {
+        this.server = server;
+        this.executor = executor;
+        this.sessions = sessions;
+    }
+
+    /** Starts serving {@code sessions} on {@code address}; port 0 picks a free port. */
+    public static GameServer start(InetSocketAddress address, SessionManager sessions)
+            throws IOException {
+        Objects.requireNonNull(address, "address");
+        Objects.requireNonNull(sessions, "sessions");
+        HttpServer http = HttpServer.create(address, BACKLOG);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        GameServer server = new GameServer(http, executor, sessions);
+        http.createContext(PREFIX, server::handle);
+        http.setExecutor(executor);
+        http.start();
+        log.info("Serving games on {}", http.getAddress());
+        return server;
+    }
+
+    public InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /** Stops accepting requests and waits for the ones in flight. */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+        log.info("Stopped serving games");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = route(exchange);
+            } catch (UnknownGame e) {
+                response = Response.error(404, "unknown game " + e.getMessage());
+            } catch (IllegalArgumentException e) {
+                response = Response.error(400, e.getMessage());
+            } catch (RuntimeException e) {
+                log.error(
+                        "Request {} {} failed",
+                        exchange.getRequestMethod(),
+                        exchange.getRequestURI(),
+                        e);
+                response = Response.error(500, "internal error");
+            }
+            send(exchange, response);
+        }
+    }
+
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().substring(PREFIX.length()).split("/");
+        // "" -> [""], "/7" -> ["", "7"], "/7/undo" -> ["", "7", "undo"]
+        if (path.length == 0 || path.length == 1 && path[0].isEmpty()) {
+            if (!method.equals("POST")) return Response.notAllowed("POST");
+            long id = sessions.create();
+            return Response.json(201, Json.game(id, sessions.snapshot(id)));
+        }
+        if (!path[0].isEmpty() || path.length > 3) return Response.error(404, "no such resource");
+        long id = gameId(path[1]);
+        if (path.length == 2) {
+            return switch (method) {
+                case "GET" -> game(id);
+                case "DELETE" -> {
+                    if (!sessions.close(id)) throw new UnknownGame(id);
+                    yield new Response(204, null);
+                }
+                default -> Response.notAllowed("GET, DELETE");
+            };
+        }
+        return switch (path[2]) {
+            case "moves" ->
+                    switch (method) {
+                        case "GET" ->
+                                Response.json(200, Json.moves(call(id, sessions::legalMoves)));
+                        case "POST" -> {
+                            var move = Json.move(body(exchange));
+                            yield played(id, call(id, i -> sessions.move(i, move)), "illegal move");
+                        }
+                        default -> Response.notAllowed("GET, POST");
+                    };
+            case "undo" ->
+                    method.equals("POST")
+                            ? played(id, call(id, sessions::undo), "nothing to undo")
+                            : Response.notAllowed("POST");
+            case "redo" ->
+                    method.equals("POST")
+                            ? played(id, call(id, sessions::redo), "nothing to redo")
+                            : Response.notAllowed("POST");
+            default -> Response.error(404, "no such resource");
+        };
+    }
+
+    private Response game(long id) {
+        return Response.json(200, Json.game(id, call(id, sessions::snapshot)));
+    }
+
+    private Response played(long id, boolean applied, String refusal) {
+        return applied ? game(id) : Response.error(409, refusal);
+    }
+
+    /** Runs a session manager call, telling an unknown game apart from other bad arguments. */
+    private <T> T call(long id, LongFunction<T> action) {
+        if (!sessions.exists(id)) throw new UnknownGame(id);
+        try {
+            return action.apply(id);
+        } catch (IllegalArgumentException e) {
+            if (!sessions.exists(id)) throw new UnknownGame(id);
+            throw e;
+        }
+    }
+
+    private static long gameId(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new UnknownGame(text);
+        }
+    }
+
+    private static String body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) throw new IllegalArgumentException("body too long");
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        if (response.allow() != null) exchange.getResponseHeaders().set("Allow", response.allow());
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private record Response(int status, String body, String allow) {
+
+        Response(int status, String body) {
+            this(status, body, null);
+        }
+
+        static Response json(int status, String body) {
+            return new Response(status, body);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Json.error(message));
+        }
+
+        static Response notAllowed(String allow) {
+            return new Response(405, Json.error("method not allowed"), allow);
+        }
+    }
+
+    private static final class UnknownGame extends RuntimeException {
+
+        UnknownGame(Object id) {
+            super(String.valueOf(id), null, false, false);
+        }
+    }
+
+    /** Serves English games on the port given as the only argument, 8080 by default. */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int cores = Runtime.getRuntime().availableProcessors();
+        SessionManager sessions = SessionManager.english(4 * cores, 64);
+        GameServer server = GameServer.start(new InetSocketAddress(port), sessions);
+        Runtime.getRuntime()
+                .addShutdownHook(
+                        new Thread(
+                                () -> {
+                                    server.close();
+                                    sessions.close();
+                                }));
+    }
+}
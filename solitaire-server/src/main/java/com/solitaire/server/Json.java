@@ -0,0 +1,173 @@
+package com.solitaire.server;
+
+import com.solitaire.app.GameSnapshot;
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Position;
+import java.util.List;
+
+/**
+ * The server's wire format, written and read by hand since it has only a handful of shapes.
+ *
+ * <p>A game is {@code {"id":1,"status":"RUNNING","pegs":32,"version":0,"board":[...]}} with one
+ * string per board row, {@code o} for a peg, {@code .} for a hole and a space off the board. A move
+ * is {@code {"from":[3,5],"to":[3,3]}}; a list of moves is {@code [[3,5,3,3],...]}, from and to of
+ * each. Errors are {@code {"error":"..."}}.
+ */
+final class Json {
+
+    private Json() {}
+
+    static String game(long id, GameSnapshot snapshot) {
+        Board board = snapshot.board();
+        StringBuilder out = new StringBuilder(64 + board.rows() * (board.cols() + 3));
+        out.append("{\"id\":")
+                .append(id)
+                .append(",\"status\":\"")
+                .append(snapshot.status())
+                .append("\",\"pegs\":")
+                .append(board.pegCount())
+                .append(",\"version\":")
+                .append(snapshot.version())
+                .append(",\"board\":[");
+        for (int r = 0; r < board.rows(); r++) {
+            if (r > 0) out.append(',');
+            out.append('"');
+            for (int c = 0; c < board.cols(); c++) {
+                Cell cell = board.cellAt(new Position(r, c));
+                out.append(
+                        switch (cell) {
+                            case INVALID -> ' ';
+                            case EMPTY -> '.';
+                            case PEG -> 'o';
+                        });
+            }
+            out.append('"');
+        }
+        return out.append("]}").toString();
+    }
+
+    static String moves(List<Move> moves) {
+        StringBuilder out = new StringBuilder(2 + moves.size() * 12).append('[');
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            if (i > 0) out.append(',');
+            out.append('[')
+                    .append(move.from().r())
+                    .append(',')
+                    .append(move.from().c())
+                    .append(',')
+                    .append(move.to().r())
+                    .append(',')
+                    .append(move.to().c())
+                    .append(']');
+        }
+        return out.append(']').toString();
+    }
+
+    static String error(String message) {
+        StringBuilder out = new StringBuilder("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char ch = message.charAt(i);
+            if (ch == '"' || ch == '\\') out.append('\\').append(ch);
+            else if (ch < 0x20) out.append(String.format("\\u%04x", (int) ch));
+            else out.append(ch);
+        }
+        return out.append("\"}").toString();
+    }
+
+    /**
+     * Reads a move, in any key order and spacing; the jumped-over hole is implied.
+     *
+     * @throws IllegalArgumentException if {@code text} is not a move
+     */
+    static Move move(String text) {
+        Reader in = new Reader(text);
+        int[] from = null;
+        int[] to = null;
+        in.expect('{');
+        do {
+            String key = in.string();
+            in.expect(':');
+            int[] cell = in.pair();
+            switch (key) {
+                case "from" -> from = cell;
+                case "to" -> to = cell;
+                default -> throw new IllegalArgumentException("unknown key " + key);
+            }
+        } while (in.next(','));
+        in.expect('}');
+        in.end();
+        if (from == null || to == null) throw new IllegalArgumentException("need from and to");
+        return new Move(
+                new Position(from[0], from[1]),
+                new Position((from[0] + to[0]) / 2, (from[1] + to[1]) / 2),
+                new Position(to[0], to[1]));
+    }
+
+    /** Just enough of a JSON tokenizer for {@link #move}. */
+    private static final class Reader {
+
+        private final String text;
+        private int at;
+
+        Reader(String text) {
+            this.text = text;
+        }
+
+        void expect(char ch) {
+            if (!next(ch)) throw new IllegalArgumentException("expected '" + ch + "' at " + at);
+        }
+
+        boolean next(char ch) {
+            skipSpace();
+            if (at < text.length() && text.charAt(at) == ch) {
+                at++;
+                return true;
+            }
+            return false;
+        }
+
+        String string() {
+            expect('"');
+            int end = text.indexOf('"', at);
+            if (end < 0) throw new IllegalArgumentException("unterminated string");
+            String value = text.substring(at, end);
+            at = end + 1;
+            return value;
+        }
+
+        int[] pair() {
+            expect('[');
+            int first = integer();
+            expect(',');
+            int second = integer();
+            expect(']');
+            return new int[] {first, second};
+        }
+
+        int integer() {
+            skipSpace();
+            int start = at;
+            if (at < text.length() && text.charAt(at) == '-') at++;
+            while (at < text.length() && Character.isDigit(text.charAt(at)) && at - start < 10) {
+                at++;
+            }
+            try {
+                return Integer.parseInt(text, start, at, 10);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("expected a number at " + start);
+            }
+        }
+
+        void end() {
+            skipSpace();
+            if (at != text.length()) throw new IllegalArgumentException("trailing input at " + at);
+        }
+
+        private void skipSpace() {
+            while (at < text.length() && Character.isWhitespace(text.charAt(at))) at++;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.solitaire.server;
+
+import com.solitaire.app.session.SessionManager;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Plays random games against a {@link GameServer} from many clients at once and measures the
+ * requests. Each client is a virtual thread: it creates a game, asks for the legal moves, plays a
+ * random one, now and then undoes and redoes, and starts over when the game ends.
+ */
+@Log4j2
+public final class LoadGenerator {
+
+    private static final Pattern MOVE = Pattern.compile("\\[(\\d+),(\\d+),(\\d+),(\\d+)]");
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final URI games;
+    private final int clients;
+    private final HttpClient http;
+
+    /**
+     * @param server base address of the server, e.g. {@code http://localhost:8080}
+     * @param clients number of concurrent clients, each with one request in flight
+     */
+    public LoadGenerator(URI server, int clients) {
+        Objects.requireNonNull(server, "server");
+        if (clients < 1) throw new IllegalArgumentException("clients must be positive");
+        this.games = server.resolve("/games");
+        this.clients = clients;
+        this.http =
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build();
+    }
+
+    /** Runs all clients for {@code duration} and reports on every request they made. */
+    public LoadReport run(Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        List<Future<Client>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                Client client = new Client(new SplittableRandom(i));
+                futures.add(executor.submit(() -> client.run(deadline)));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Client> future : futures) {
+            Client client;
+            try {
+                client = future.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("client failed", e.getCause());
+            }
+            int from = latencies.length;
+            latencies = Arrays.copyOf(latencies, from + client.count);
+            System.arraycopy(client.latencies, 0, latencies, from, client.count);
+            errors += client.errors;
+        }
+        return LoadReport.of(latencies, errors, elapsed);
+    }
+
+    /** One player; only its own thread touches it until it is returned. */
+    private final class Client {
+
+        private final SplittableRandom random;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        Client(SplittableRandom random) {
+            this.random = random;
+        }
+
+        Client run(long deadline) throws InterruptedException {
+            String game = null;
+            while (System.nanoTime() - deadline < 0) {
+                if (game == null) {
+                    String created = send(post(games.toString()), 201);
+                    Matcher id = created == null ? null : ID.matcher(created);
+                    if (id != null && id.find()) game = games + "/" + id.group(1);
+                    continue;
+                }
+                String moves = send(HttpRequest.newBuilder(URI.create(game + "/moves")), 200);
+                List<String> legal = new ArrayList<>();
+                if (moves != null) {
+                    for (Matcher m = MOVE.matcher(moves); m.find(); ) {
+                        legal.add(
+                                "{\"from\":["
+                                        + m.group(1)
+                                        + ","
+                                        + m.group(2)
+                                        + "],\"to\":["
+                                        + m.group(3)
+                                        + ","
+                                        + m.group(4)
+                                        + "]}");
+                    }
+                }
+                if (legal.isEmpty()) {
+                    send(HttpRequest.newBuilder(URI.create(game)).DELETE(), 204);
+                    game = null;
+                    continue;
+                }
+                String move = legal.get(random.nextInt(legal.size()));
+                send(post(game + "/moves", move), 200);
+                if (random.nextInt(8) == 0) {
+                    send(post(game + "/undo"), 200);
+                    send(post(game + "/redo"), 200);
+                }
+            }
+            return this;
+        }
+
+        private HttpRequest.Builder post(String uri, String body) {
+            return HttpRequest.newBuilder(URI.create(uri))
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+
+        private HttpRequest.Builder post(String uri) {
+            return HttpRequest.newBuilder(URI.create(uri))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        }
+
+        /** Sends the request and returns its body, or null counting an error. */
+        private String send(HttpRequest.Builder request, int expected) throws InterruptedException {
+            long start = System.nanoTime();
+            HttpResponse<String> response;
+            try {
+                response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            } catch (IOException e) {
+                log.debug("Request failed", e);
+                record(System.nanoTime() - start);
+                errors++;
+                return null;
+            }
+            record(System.nanoTime() - start);
+            if (response.statusCode() != expected) {
+                errors++;
+                return null;
+            }
+            return response.body();
+        }
+
+        private void record(long nanos) {
+            if (count == latencies.length) latencies = Arrays.copyOf(latencies, 2 * count);
+            latencies[count++] = nanos;
+        }
+    }
+
+    /**
+     * Runs the load generator and prints its report. Arguments: {@code [url] [clients] [seconds]};
+     * without a url it starts a server of English games on a free local port and measures that.
+     */
+    public static void main(String[] args) throws Exception {
+        int argument = 0;
+        URI url = null;
+        if (args.length > 0 && args[0].contains("://")) url = URI.create(args[argument++]);
+        int clients = args.length > argument ? Integer.parseInt(args[argument++]) : 64;
+        int seconds = args.length > argument ? Integer.parseInt(args[argument]) : 10;
+
+        SessionManager sessions = null;
+        GameServer server = null;
+        if (url == null) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            sessions = SessionManager.english(4 * cores, 64);
+            server = GameServer.start(new InetSocketAddress("localhost", 0), sessions);
+            url = URI.create("http://localhost:" + server.address().getPort());
+        }
+        try {
+            LoadReport report = new LoadGenerator(url, clients).run(Duration.ofSeconds(seconds));
+            System.out.println(report);
+        } finally {
+            if (server != null) server.close();
+            if (sessions != null) sessions.close();
+        }
+    }
+}
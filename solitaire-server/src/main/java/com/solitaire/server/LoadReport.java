@@ -0,0 +1,66 @@
+package com.solitaire.server;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * What a {@link LoadGenerator} run measured. Latencies are per request, from sending it to reading
+ * the whole response.
+ *
+ * @param requests requests answered, whatever their status
+ * @param errors requests that failed or got an unexpected status
+ */
+public record LoadReport(
+        long requests,
+        long errors,
+        Duration elapsed,
+        Duration p50,
+        Duration p90,
+        Duration p99,
+        Duration p999,
+        Duration max) {
+
+    /** A report over the latencies in nanoseconds, which are sorted in place. */
+    static LoadReport of(long[] nanos, long errors, Duration elapsed) {
+        Arrays.sort(nanos);
+        return new LoadReport(
+                nanos.length,
+                errors,
+                elapsed,
+                percentile(nanos, 0.50),
+                percentile(nanos, 0.90),
+                percentile(nanos, 0.99),
+                percentile(nanos, 0.999),
+                percentile(nanos, 1.0));
+    }
+
+    public double requestsPerSecond() {
+        return requests * 1e9 / Math.max(1, elapsed.toNanos());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d requests (%d errors) in %.1f s: %.0f req/s, latency p50 %s p90 %s p99 %s"
+                        + " p99.9 %s max %s",
+                requests,
+                errors,
+                elapsed.toMillis() / 1000.0,
+                requestsPerSecond(),
+                millis(p50),
+                millis(p90),
+                millis(p99),
+                millis(p999),
+                millis(max));
+    }
+
+    private static Duration percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) return Duration.ZERO;
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, index)]);
+    }
+
+    private static String millis(Duration duration) {
+        return String.format("%.2f ms", duration.toNanos() / 1e6);
+    }
+}
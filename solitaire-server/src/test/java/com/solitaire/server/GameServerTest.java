@@ -0,0 +1,115 @@
+package com.solitaire.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.app.session.SessionManager;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class GameServerTest {
+
+    private static final String START =
+            "{\"id\":1,\"status\":\"RUNNING\",\"pegs\":32,\"version\":0,\"board\":["
+                    + "\"  ooo  \",\"  ooo  \",\"ooooooo\",\"ooo.ooo\","
+                    + "\"ooooooo\",\"  ooo  \",\"  ooo  \"]}";
+
+    private SessionManager sessions;
+    private GameServer server;
+    private URI base;
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sessions = SessionManager.english(4, 64);
+        server = GameServer.start(new InetSocketAddress("localhost", 0), sessions);
+        base = URI.create("http://localhost:" + server.address().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+        sessions.close();
+    }
+
+    @Test
+    @DisplayName("should create a game and list its legal moves")
+    void shouldCreateGame() throws Exception {
+        HttpResponse<String> created = post("/games", "");
+        assertEquals(201, created.statusCode());
+        assertEquals("application/json", created.headers().firstValue("Content-Type").get());
+        assertEquals(START, created.body());
+
+        assertEquals(START, get("/games/1").body());
+        assertEquals("[[1,3,3,3],[3,1,3,3],[3,5,3,3],[5,3,3,3]]", get("/games/1/moves").body());
+    }
+
+    @Test
+    @DisplayName("should play, undo and redo moves")
+    void shouldPlayUndoAndRedo() throws Exception {
+        post("/games", "");
+        HttpResponse<String> moved = post("/games/1/moves", " { \"to\" : [3,3], \"from\":[3,5]}");
+        assertEquals(200, moved.statusCode());
+        assertTrue(moved.body().contains("\"pegs\":31"));
+        assertTrue(moved.body().contains("\"oooo..o\""));
+
+        assertEquals(409, post("/games/1/moves", "{\"from\":[3,5],\"to\":[3,3]}").statusCode());
+        assertEquals(409, post("/games/1/redo", "").statusCode());
+        assertEquals(200, post("/games/1/undo", "").statusCode());
+        assertTrue(get("/games/1").body().contains("\"pegs\":32"));
+        assertEquals(409, post("/games/1/undo", "").statusCode());
+        assertTrue(post("/games/1/redo", "").body().contains("\"pegs\":31"));
+    }
+
+    @Test
+    @DisplayName("should answer bad requests with 4xx statuses")
+    void shouldRejectBadRequests() throws Exception {
+        post("/games", "");
+        assertEquals(404, get("/games/2").statusCode());
+        assertEquals(404, get("/games/abc/moves").statusCode());
+        assertEquals(404, get("/games/1/nothing").statusCode());
+        assertEquals(400, post("/games/1/moves", "{\"from\":[3,5]}").statusCode());
+        assertEquals(400, post("/games/1/moves", "3 5 3 3").statusCode());
+        assertEquals(400, post("/games/1/moves", "{\"from\":[3,5],\"to\":[3,3]} x").statusCode());
+        assertEquals(405, get("/games/1/undo").statusCode());
+        assertEquals("POST", get("/games").headers().firstValue("Allow").get());
+
+        assertEquals(204, send(request("/games/1").DELETE()).statusCode());
+        assertEquals(404, get("/games/1").statusCode());
+        assertEquals(404, send(request("/games/1").DELETE()).statusCode());
+    }
+
+    @Test
+    @DisplayName("should serve concurrent clients of the load generator without errors")
+    void shouldServeLoadGenerator() throws Exception {
+        LoadReport report = new LoadGenerator(base, 16).run(Duration.ofSeconds(1));
+
+        assertTrue(report.requests() > 100, report.toString());
+        assertEquals(0, report.errors(), report.toString());
+        assertTrue(report.p50().compareTo(report.p99()) <= 0);
+        assertTrue(report.p99().compareTo(report.max()) <= 0);
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return send(request(path).GET());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return send(request(path).POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,13 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+
+/**
+ * Answer for one position of a {@link BatchSolver} batch.
+ *
+ * @param index position of the board in the submitted collection
+ * @param board the board that was solved
+ * @param solvable whether some line of moves leaves a single peg
+ * @param nodes positions generated while answering
+ */
+public record BatchResult(int index, Board board, boolean solvable, long nodes) {}
@@ -0,0 +1,200 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Topology;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Answers "is this position solvable?" for many boards at once.
+ *
+ * <p>Positions taken from real games share most of their subtrees, so every search in the batch
+ * reads and writes one bounded {@link SolveCache} of alive and dead positions, and all of them run
+ * on one thread pool. A batch is scheduled fewest pegs first: small positions are cheap, and the
+ * outcomes they leave in the cache cut off the deeper searches started from larger ones.
+ *
+ * <p>The cache and pool outlive a batch, so later batches (and single {@link #isSolvable} calls)
+ * keep benefiting from earlier work. Boards may have at most 63 holes.
+ */
+@Log4j2
+public final class BatchSolver implements AutoCloseable {
+
+    private final ExecutorService pool;
+    private final SolveCache cache;
+    private final ConcurrentHashMap<Topology, Topology> topologies = new ConcurrentHashMap<>();
+
+    /**
+     * @param threads worker threads shared by all batches
+     * @param cacheCapacity maximum number of cached positions
+     */
+    public BatchSolver(int threads, int cacheCapacity) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be positive");
+        if (cacheCapacity < 1) throw new IllegalArgumentException("cache must not be empty");
+        this.pool = Executors.newFixedThreadPool(threads);
+        this.cache = new SolveCache(cacheCapacity);
+    }
+
+    /**
+     * Submits every board and returns their results in completion order. The iterator blocks until
+     * the next result is available.
+     */
+    public Iterator<BatchResult> solveAll(Collection<Board> batch) {
+        List<Board> boards = List.copyOf(Objects.requireNonNull(batch, "boards"));
+        List<Integer> order = new ArrayList<>(boards.size());
+        for (int i = 0; i < boards.size(); i++) order.add(i);
+        order.sort(Comparator.comparingInt(i -> boards.get(i).pegCount()));
+
+        CompletionService<BatchResult> completion = new ExecutorCompletionService<>(pool);
+        for (int i : order) {
+            Board board = boards.get(i);
+            completion.submit(() -> solve(i, board));
+        }
+        log.debug("Submitted a batch of {} positions", boards.size());
+
+        return new Iterator<>() {
+            private int remaining = boards.size();
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public BatchResult next() {
+                if (remaining == 0) throw new NoSuchElementException();
+                remaining--;
+                try {
+                    return completion.take().get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted while waiting for a result", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("solve failed", e.getCause());
+                }
+            }
+        };
+    }
+
+    /** Solves a single board on the calling thread, through the shared cache. */
+    public boolean isSolvable(Board board) {
+        return solve(0, Objects.requireNonNull(board, "board")).solvable();
+    }
+
+    /**
+     * Solves pegs encoded by {@code topology} on the calling thread, through the shared cache. A
+     * cached answer costs one canonicalisation and no allocation.
+     */
+    public boolean isSolvable(Topology topology, long pegs) {
+        Objects.requireNonNull(topology, "topology");
+        if (topology.size() >= Long.SIZE) {
+            throw new IllegalArgumentException("batch solving supports at most 63 holes");
+        }
+        if (Long.bitCount(pegs) == 1) return true;
+        int known = cache.get(topology.canonical(pegs));
+        if (known != SolveCache.UNKNOWN) return known == SolveCache.ALIVE;
+        return new Search(topology).solvable(pegs);
+    }
+
+    /** Cache lookups that found an answer, across all batches. */
+    public long cacheHits() {
+        return cache.hits();
+    }
+
+    private BatchResult solve(int index, Board board) {
+        Topology topology = topologies.computeIfAbsent(Topology.of(board), t -> t);
+        if (topology.size() >= Long.SIZE) {
+            throw new IllegalArgumentException("batch solving supports at most 63 holes");
+        }
+        Search search = new Search(topology);
+        boolean solvable = search.solvable(topology.encode(board));
+        return new BatchResult(index, board, solvable, search.nodes);
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * One depth-first solve. Dead positions go to both the shared cache and a private table, so a
+     * position evicted from the cache by other threads is still never searched twice by this one.
+     * When a win is found every position on the stack is alive and is published as such.
+     */
+    private final class Search {
+
+        private final Topology topology;
+        private final LongHashSet dead = new LongHashSet();
+        private final long[] stackPegs = new long[Long.SIZE];
+        private final int[] stackNext = new int[Long.SIZE];
+        private long nodes;
+
+        Search(Topology topology) {
+            this.topology = topology;
+        }
+
+        boolean solvable(long root) {
+            if (Long.bitCount(root) == 1) return true;
+            int known = cache.get(topology.canonical(root));
+            if (known != SolveCache.UNKNOWN) return known == SolveCache.ALIVE;
+
+            stackPegs[0] = root;
+            stackNext[0] = 0;
+            int depth = 1;
+            int jumps = topology.jumpCount();
+
+            while (depth > 0) {
+                int top = depth - 1;
+                long pegs = stackPegs[top];
+                int jump = stackNext[top];
+                while (jump < jumps && !topology.canJump(pegs, jump)) jump++;
+
+                if (jump == jumps) {
+                    long key = topology.canonical(pegs);
+                    dead.add(key);
+                    cache.put(key, false);
+                    depth--;
+                    continue;
+                }
+                stackNext[top] = jump + 1;
+
+                long child = topology.jump(pegs, jump);
+                nodes++;
+                if (Long.bitCount(child) == 1) {
+                    markAlive(depth);
+                    return true;
+                }
+
+                long key = topology.canonical(child);
+                int outcome = cache.get(key);
+                if (outcome == SolveCache.ALIVE) {
+                    markAlive(depth);
+                    return true;
+                }
+                if (outcome == SolveCache.DEAD || dead.contains(key)) continue;
+
+                stackPegs[depth] = child;
+                stackNext[depth] = 0;
+                depth++;
+            }
+            return false;
+        }
+
+        private void markAlive(int depth) {
+            for (int i = 0; i < depth; i++) {
+                cache.put(topology.canonical(stackPegs[i]), true);
+            }
+        }
+    }
+}
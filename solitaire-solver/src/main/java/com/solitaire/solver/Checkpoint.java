@@ -0,0 +1,199 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Position;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Frozen state of a {@link DepthFirstSearch}: the root, the explicit DFS stack, the position table
+ * and the counters. The table is a copy-on-write {@link LongHashSet.Snapshot}, so taking a
+ * checkpoint on the search thread costs no table copy; compaction to a dense key list happens on
+ * the writer thread, which releases the snapshot once written.
+ *
+ * <p>File layout (big-endian): magic, version, mode, rows, cols, one byte per cell of the root,
+ * nodes, table hits, wins, stack depth, {@code depth} pairs of (peg mask, next jump), key count,
+ * keys. The file is written and read through memory mappings of at most {@link #WINDOW_BYTES} each,
+ * since one mapping cannot exceed 2 GB.
+ */
+record Checkpoint(
+        SearchMode mode,
+        Board root,
+        long[] stackPegs,
+        int[] stackNext,
+        int depth,
+        LongHashSet.Snapshot table,
+        long nodes,
+        long tableHits,
+        long wins) {
+
+    private static final int MAGIC = 0x50534350; // "PSCP"
+    private static final int VERSION = 1;
+
+    static final int WINDOW_BYTES = 1 << 26;
+
+    void write(Path file) throws IOException {
+        write(file, WINDOW_BYTES);
+    }
+
+    void write(Path file, int windowBytes) throws IOException {
+        long keys = table.size();
+        long bytes =
+                4
+                        + 4
+                        + 1
+                        + 4
+                        + 4
+                        + (long) root.rows() * root.cols()
+                        + 3 * 8
+                        + 4
+                        + depth * 12L
+                        + 8
+                        + keys * 8;
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch =
+                FileChannel.open(
+                        tmp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+            Windows out = new Windows(ch, FileChannel.MapMode.READ_WRITE, bytes, windowBytes);
+            out.next(4 + 4 + 1).putInt(MAGIC).putInt(VERSION).put((byte) mode.ordinal());
+            out.next(4 + 4).putInt(root.rows()).putInt(root.cols());
+            for (int r = 0; r < root.rows(); r++) {
+                for (int c = 0; c < root.cols(); c++) {
+                    out.next(1).put((byte) root.cellAt(new Position(r, c)).ordinal());
+                }
+            }
+            out.next(3 * 8 + 4).putLong(nodes).putLong(tableHits).putLong(wins).putInt(depth);
+            for (int i = 0; i < depth; i++) {
+                out.next(12).putLong(stackPegs[i]).putInt(stackNext[i]);
+            }
+            out.next(8).putLong(keys);
+            long written = 0;
+            if (table.containsZero()) {
+                out.next(8).putLong(0);
+                written++;
+            }
+            long[] page = new long[LongHashSet.PAGE_SLOTS];
+            for (int p = 0; p < table.pages(); p++) {
+                int slots = table.readPage(p, page);
+                for (int i = 0; i < slots; i++) {
+                    if (page[i] == 0) continue;
+                    out.next(8).putLong(page[i]);
+                    written++;
+                }
+            }
+            if (written != keys) {
+                throw new IllegalStateException("snapshot of " + keys + " keys had " + written);
+            }
+            out.finish();
+        } finally {
+            table.release();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Checkpoint read(Path file) throws IOException {
+        return read(file, WINDOW_BYTES);
+    }
+
+    static Checkpoint read(Path file, int windowBytes) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            Windows in = new Windows(ch, FileChannel.MapMode.READ_ONLY, ch.size(), windowBytes);
+            if (in.next(4 + 4 + 1).getInt() != MAGIC) {
+                throw new IOException("not a search checkpoint: " + file);
+            }
+            ByteBuffer header = in.next(4 + 1);
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported checkpoint version " + version + ": " + file);
+            }
+            SearchMode mode = SearchMode.values()[header.get()];
+
+            int rows = in.next(4 + 4).getInt();
+            int cols = in.next(4).getInt();
+            Cell[][] cells = new Cell[rows][cols];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    cells[r][c] = Cell.values()[in.next(1).get()];
+                }
+            }
+
+            long nodes = in.next(3 * 8 + 4).getLong();
+            long tableHits = in.next(8).getLong();
+            long wins = in.next(8).getLong();
+
+            int depth = in.next(4).getInt();
+            long[] stackPegs = new long[Long.SIZE + 1];
+            int[] stackNext = new int[Long.SIZE + 1];
+            for (int i = 0; i < depth; i++) {
+                stackPegs[i] = in.next(12).getLong();
+                stackNext[i] = in.next(4).getInt();
+            }
+
+            int keys = Math.toIntExact(in.next(8).getLong());
+            long[] dense = new long[keys];
+            boolean containsZero = false;
+            for (int i = 0; i < keys; i++) {
+                long key = in.next(8).getLong();
+                if (key == 0) containsZero = true;
+                else dense[i] = key;
+            }
+            return new Checkpoint(
+                    mode,
+                    new Board(cells),
+                    stackPegs,
+                    stackNext,
+                    depth,
+                    LongHashSet.Snapshot.of(dense, containsZero),
+                    nodes,
+                    tableHits,
+                    wins);
+        }
+    }
+
+    /** Sequential access to a file through consecutive mappings of at most a window each. */
+    private static final class Windows {
+
+        private final FileChannel channel;
+        private final FileChannel.MapMode mode;
+        private final long end;
+        private final int windowBytes;
+        private MappedByteBuffer window;
+        private long windowStart;
+
+        Windows(FileChannel channel, FileChannel.MapMode mode, long end, int windowBytes) {
+            this.channel = channel;
+            this.mode = mode;
+            this.end = end;
+            this.windowBytes = windowBytes;
+        }
+
+        /** The current window, moved on first if fewer than {@code bytes} are left in it. */
+        ByteBuffer next(int bytes) throws IOException {
+            if (window != null && window.remaining() >= bytes) return window;
+            long at = window == null ? 0 : windowStart + window.position();
+            if (end - at < bytes) throw new EOFException("truncated search checkpoint");
+            finish();
+            window = channel.map(mode, at, Math.min(Math.max(windowBytes, bytes), end - at));
+            windowStart = at;
+            return window;
+        }
+
+        /** Forces a written window to disk. */
+        void finish() {
+            if (window != null && mode == FileChannel.MapMode.READ_WRITE) window.force();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.solitaire.solver;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Where and how often a long search persists its state.
+ *
+ * @param file checkpoint file, replaced atomically on every write
+ * @param interval minimum time between two periodic checkpoints
+ */
+public record CheckpointPolicy(Path file, Duration interval) {
+
+    public CheckpointPolicy {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(interval, "interval");
+        if (interval.isNegative()) throw new IllegalArgumentException("negative interval");
+    }
+}
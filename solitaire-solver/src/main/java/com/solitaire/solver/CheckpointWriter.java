@@ -0,0 +1,87 @@
+package com.solitaire.solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Writes checkpoints on a background thread so the search only pays for the in-memory snapshot. At
+ * most one write is in flight; a periodic checkpoint that comes due while the previous one is still
+ * being written is skipped rather than queued.
+ */
+@Log4j2
+final class CheckpointWriter implements AutoCloseable {
+
+    private final CheckpointPolicy policy;
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(
+                    r -> {
+                        Thread t = new Thread(r, "search-checkpoint");
+                        t.setDaemon(true);
+                        return t;
+                    });
+
+    private Future<?> inFlight;
+    private long lastWrite = System.nanoTime();
+
+    CheckpointWriter(CheckpointPolicy policy) {
+        this.policy = policy;
+    }
+
+    /** Takes and writes a checkpoint if the interval elapsed and no write is pending. */
+    void maybeWrite(Supplier<Checkpoint> snapshot) {
+        long now = System.nanoTime();
+        if (now - lastWrite < policy.interval().toNanos()) return;
+        if (inFlight != null && !inFlight.isDone()) return;
+
+        long start = System.nanoTime();
+        Checkpoint checkpoint = snapshot.get();
+        log.debug("Checkpoint snapshot took {} us", (System.nanoTime() - start) / 1_000);
+        lastWrite = now;
+        inFlight = executor.submit(() -> write(checkpoint));
+    }
+
+    /** Takes a checkpoint once no write is pending, writes it and waits until it is on disk. */
+    void writeNow(Supplier<Checkpoint> snapshot) {
+        awaitInFlight();
+        write(snapshot.get());
+        lastWrite = System.nanoTime();
+    }
+
+    private void write(Checkpoint checkpoint) {
+        try {
+            checkpoint.write(policy.file());
+            log.debug("Checkpoint written to {}", policy.file());
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot write checkpoint " + policy.file(), e);
+        }
+    }
+
+    private void awaitInFlight() {
+        if (inFlight == null) return;
+        try {
+            inFlight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Background checkpoint failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        awaitInFlight();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Depth-first search over peg masks with an explicit stack, so that a long run can be paused,
+ * checkpointed and resumed on another JVM.
+ *
+ * <p>Each stack frame holds a position and the index of the next jump to try from it. Positions are
+ * deduplicated up to symmetry through a table of canonical keys whose meaning depends on the {@link
+ * SearchMode}. The traversal order is fully determined by the root, the stack and the table, so
+ * resuming from a checkpoint produces the same result and counters as an uninterrupted run.
+ */
+@Log4j2
+public final class DepthFirstSearch implements AutoCloseable {
+
+    /** How many nodes pass between two checks of the checkpoint clock. */
+    private static final int POLL_MASK = 0xFFF;
+
+    private final SearchMode mode;
+    private final Board root;
+    private final Topology topology;
+
+    private final long[] stackPegs;
+    private final int[] stackNext;
+    private int depth;
+
+    private final LongHashSet table;
+    private long nodes;
+    private long tableHits;
+    private long wins;
+
+    private List<Move> solution;
+    private CheckpointWriter checkpoints;
+
+    private DepthFirstSearch(SearchMode mode, Board root) {
+        this(mode, root, new long[Long.SIZE + 1], new int[Long.SIZE + 1], 0, new LongHashSet());
+        long pegs = topology.encode(root);
+        stackPegs[0] = pegs;
+        depth = 1;
+        if (mode == SearchMode.ENUMERATE) {
+            table.add(topology.canonical(pegs));
+            if (Long.bitCount(pegs) == 1) wins++;
+        } else if (Long.bitCount(pegs) == 1) {
+            solution = List.of();
+            depth = 0;
+        }
+    }
+
+    private DepthFirstSearch(
+            SearchMode mode,
+            Board root,
+            long[] stackPegs,
+            int[] stackNext,
+            int depth,
+            LongHashSet table) {
+        this.mode = mode;
+        this.root = root;
+        this.topology = Topology.of(root);
+        this.stackPegs = stackPegs;
+        this.stackNext = stackNext;
+        this.depth = depth;
+        this.table = table;
+    }
+
+    /** Looks for a sequence of moves that leaves a single peg on the board. */
+    public static DepthFirstSearch solve(Board board) {
+        return new DepthFirstSearch(SearchMode.SOLVE, Objects.requireNonNull(board, "board"));
+    }
+
+    /** Visits every position reachable from the board, counting them up to symmetry. */
+    public static DepthFirstSearch enumerate(Board board) {
+        return new DepthFirstSearch(SearchMode.ENUMERATE, Objects.requireNonNull(board, "board"));
+    }
+
+    /** Restores a search from a checkpoint written by {@link #withCheckpoints}. */
+    public static DepthFirstSearch resume(Path checkpointFile) throws IOException {
+        Checkpoint cp = Checkpoint.read(checkpointFile);
+        DepthFirstSearch search =
+                new DepthFirstSearch(
+                        cp.mode(),
+                        cp.root(),
+                        cp.stackPegs(),
+                        cp.stackNext(),
+                        cp.depth(),
+                        LongHashSet.fromSnapshot(cp.table()));
+        search.nodes = cp.nodes();
+        search.tableHits = cp.tableHits();
+        search.wins = cp.wins();
+        log.debug(
+                "Resumed {} search at depth {} with {} table entries",
+                cp.mode(),
+                cp.depth(),
+                search.table.size());
+        return search;
+    }
+
+    /** Enables periodic checkpoints; a final one is also written whenever a run pauses. */
+    public DepthFirstSearch withCheckpoints(CheckpointPolicy policy) {
+        Objects.requireNonNull(policy, "policy");
+        if (checkpoints != null) checkpoints.close();
+        checkpoints = new CheckpointWriter(policy);
+        return this;
+    }
+
+    public SearchMode mode() {
+        return mode;
+    }
+
+    public Board root() {
+        return root;
+    }
+
+    /** Runs the search to completion. */
+    public SearchResult run() {
+        return run(Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs until the search completes or {@code maxNodes} more nodes have been generated. A paused
+     * search can be continued by calling {@code run} again, or from its last checkpoint.
+     */
+    public SearchResult run(long maxNodes) {
+        long limit = maxNodes >= Long.MAX_VALUE - nodes ? Long.MAX_VALUE : nodes + maxNodes;
+
+        while (depth > 0 && solution == null) {
+            if (nodes >= limit) {
+                if (checkpoints != null) checkpoints.writeNow(this::snapshot);
+                return result(false);
+            }
+            if ((nodes & POLL_MASK) == 0 && checkpoints != null) {
+                checkpoints.maybeWrite(this::snapshot);
+            }
+            step();
+        }
+        return result(true);
+    }
+
+    private void step() {
+        int top = depth - 1;
+        long pegs = stackPegs[top];
+        int jump = stackNext[top];
+        int jumps = topology.jumpCount();
+        while (jump < jumps && !topology.canJump(pegs, jump)) jump++;
+
+        if (jump == jumps) {
+            if (mode == SearchMode.SOLVE) table.add(topology.canonical(pegs));
+            depth--;
+            return;
+        }
+        stackNext[top] = jump + 1;
+
+        long child = topology.jump(pegs, jump);
+        nodes++;
+
+        if (mode == SearchMode.SOLVE) {
+            if (Long.bitCount(child) == 1) {
+                wins++;
+                solution = currentLine();
+                return;
+            }
+            if (table.contains(topology.canonical(child))) {
+                tableHits++;
+                return;
+            }
+        } else {
+            if (!table.add(topology.canonical(child))) {
+                tableHits++;
+                return;
+            }
+            if (Long.bitCount(child) == 1) wins++;
+        }
+
+        stackPegs[depth] = child;
+        stackNext[depth] = 0;
+        depth++;
+    }
+
+    /** The moves leading from the root through every frame's last tried jump. */
+    private List<Move> currentLine() {
+        List<Move> line = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            line.add(topology.move(stackNext[i] - 1));
+        }
+        return List.copyOf(line);
+    }
+
+    private Checkpoint snapshot() {
+        return new Checkpoint(
+                mode,
+                root,
+                stackPegs.clone(),
+                stackNext.clone(),
+                depth,
+                table.snapshot(),
+                nodes,
+                tableHits,
+                wins);
+    }
+
+    private SearchResult result(boolean complete) {
+        return new SearchResult(
+                complete,
+                Optional.ofNullable(solution),
+                new SearchStats(nodes, tableHits, table.size(), wins));
+    }
+
+    /** Waits for pending checkpoint writes and releases the writer thread. */
+    @Override
+    public void close() {
+        if (checkpoints != null) {
+            checkpoints.close();
+            checkpoints = null;
+        }
+    }
+}
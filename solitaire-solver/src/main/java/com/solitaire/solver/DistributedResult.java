@@ -0,0 +1,18 @@
+package com.solitaire.solver;
+
+import java.util.List;
+
+/**
+ * Totals of a distributed enumeration.
+ *
+ * @param layerSizes distinct positions (up to symmetry) after each number of moves, starting with
+ *     the root layer
+ * @param positions sum of all layer sizes
+ * @param wins single-peg positions reached
+ */
+public record DistributedResult(List<Long> layerSizes, long positions, long wins) {
+
+    public DistributedResult {
+        layerSizes = List.copyOf(layerSizes);
+    }
+}
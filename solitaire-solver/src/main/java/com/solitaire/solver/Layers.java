@@ -0,0 +1,38 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Topology;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+
+/** Breadth-first enumeration of the canonical positions reachable from a start, by move count. */
+@Log4j2
+final class Layers {
+
+    private Layers() {}
+
+    /**
+     * Sorted canonical keys of every position reachable in at most {@code maxMoves} moves, one
+     * array per move count. Every move removes a peg, so a position lives in exactly one layer.
+     */
+    static List<long[]> enumerate(Topology topology, long start, int maxMoves) {
+        List<long[]> layers = new ArrayList<>();
+        long[] layer = {topology.canonical(start)};
+        while (layer.length > 0) {
+            layers.add(layer);
+            if (layers.size() > maxMoves) break;
+            LongHashSet next = new LongHashSet(layer.length * 2);
+            for (long pegs : layer) {
+                for (int j = 0; j < topology.jumpCount(); j++) {
+                    if (topology.canJump(pegs, j))
+                        next.add(topology.canonical(topology.jump(pegs, j)));
+                }
+            }
+            layer = next.toArray();
+            Arrays.sort(layer);
+            log.debug("Layer {}: {} positions", layers.size(), layer.length);
+        }
+        return layers;
+    }
+}
@@ -0,0 +1,234 @@
+package com.solitaire.solver;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Open-addressing set of {@code long} keys used for transposition and dead-position tables.
+ *
+ * <p>Boxing every position into a {@code HashSet<Long>} costs around 50 bytes per entry; this table
+ * stores keys inline in a power-of-two {@code long[]} with linear probing. Zero marks a free slot,
+ * so the zero key is tracked separately.
+ */
+final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /** Slots per page of a {@link Snapshot}: 32 KiB, the most one write may have to copy. */
+    static final int PAGE_SLOTS = 1 << 12;
+
+    private long[] table;
+    private int size;
+    private boolean containsZero;
+    private Snapshot frozen;
+
+    LongHashSet() {
+        this(MIN_CAPACITY);
+    }
+
+    LongHashSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) capacity <<= 1;
+        this.table = new long[capacity];
+    }
+
+    /** Adds the key and returns true when it was not already present. */
+    boolean add(long key) {
+        if (key == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int mask = table.length - 1;
+        int i = mix(key) & mask;
+        while (table[i] != 0) {
+            if (table[i] == key) return false;
+            i = (i + 1) & mask;
+        }
+        if (frozen != null) preserve(i);
+        table[i] = key;
+        if (++size * 2 > table.length) grow();
+        return true;
+    }
+
+    boolean contains(long key) {
+        if (key == 0) return containsZero;
+        int mask = table.length - 1;
+        int i = mix(key) & mask;
+        while (table[i] != 0) {
+            if (table[i] == key) return true;
+            i = (i + 1) & mask;
+        }
+        return false;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        if (frozen != null) {
+            table = new long[table.length]; // the snapshot keeps the old slots
+            frozen = null;
+        }
+        Arrays.fill(table, 0);
+        size = 0;
+        containsZero = false;
+    }
+
+    /** Copies the keys into a new dense array, in table order. */
+    long[] toArray() {
+        long[] out = new long[size];
+        int n = 0;
+        if (containsZero) out[n++] = 0;
+        for (long key : table) {
+            if (key != 0) out[n++] = key;
+        }
+        return out;
+    }
+
+    /**
+     * Freezes the current contents for a reader on another thread, in time independent of the table
+     * size: the slots stay shared, and only a page the set is about to change before the reader got
+     * to it is copied, once. The previous snapshot must have been {@linkplain Snapshot#release()
+     * released}.
+     */
+    Snapshot snapshot() {
+        if (frozen != null && !frozen.released) {
+            throw new IllegalStateException("previous snapshot is still being read");
+        }
+        frozen = new Snapshot(table, size, containsZero);
+        return frozen;
+    }
+
+    /** Rebuilds a set from a {@link #snapshot()}, which it releases. */
+    static LongHashSet fromSnapshot(Snapshot snapshot) {
+        LongHashSet set = new LongHashSet(snapshot.size());
+        long[] page = new long[PAGE_SLOTS];
+        for (int p = 0; p < snapshot.pages(); p++) {
+            int slots = snapshot.readPage(p, page);
+            for (int i = 0; i < slots; i++) {
+                if (page[i] != 0) set.add(page[i]);
+            }
+        }
+        if (snapshot.containsZero()) set.add(0);
+        snapshot.release();
+        return set;
+    }
+
+    private void preserve(int slot) {
+        if (frozen.released) frozen = null;
+        else frozen.preserve(slot / PAGE_SLOTS);
+    }
+
+    private void grow() {
+        frozen = null; // the old slots are never written again, so the snapshot can keep them
+        long[] old = table;
+        table = new long[old.length << 1];
+        int mask = table.length - 1;
+        for (long key : old) {
+            if (key == 0) continue;
+            int i = mix(key) & mask;
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = key;
+        }
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * The keys of a set at one instant. Each page of slots is either read by the reader straight
+     * from the set's array, or copied by the set just before its first change; a page state,
+     * claimed by compare-and-set, decides which, so neither side ever waits longer than one page
+     * copy.
+     */
+    static final class Snapshot {
+
+        private static final int FREE = 0;
+        private static final int BUSY = 1;
+        private static final int COPIED = 2;
+        private static final int READ = 3;
+
+        private final long[] slots;
+        private final int size;
+        private final boolean containsZero;
+        private final long[][] copies;
+        private final AtomicIntegerArray state;
+        private volatile boolean released;
+
+        private Snapshot(long[] slots, int size, boolean containsZero) {
+            this.slots = slots;
+            this.size = size;
+            this.containsZero = containsZero;
+            int pages = (slots.length + PAGE_SLOTS - 1) / PAGE_SLOTS;
+            this.copies = new long[pages][];
+            this.state = new AtomicIntegerArray(pages);
+        }
+
+        /** A snapshot of keys no set will change, such as those read from a file. */
+        static Snapshot of(long[] keys, boolean containsZero) {
+            int size = containsZero ? 1 : 0;
+            for (long key : keys) {
+                if (key != 0) size++;
+            }
+            return new Snapshot(keys, size, containsZero);
+        }
+
+        /** Number of keys, the zero key included. */
+        int size() {
+            return size;
+        }
+
+        boolean containsZero() {
+            return containsZero;
+        }
+
+        int pages() {
+            return copies.length;
+        }
+
+        /**
+         * Copies page {@code p} as it was when the snapshot was taken into {@code out}, returning
+         * the number of slots; zero slots are free. Each page can be read once.
+         */
+        int readPage(int p, long[] out) {
+            int from = p * PAGE_SLOTS;
+            int length = Math.min(PAGE_SLOTS, slots.length - from);
+            if (state.compareAndSet(p, FREE, BUSY)) {
+                System.arraycopy(slots, from, out, 0, length);
+                state.set(p, READ);
+                return length;
+            }
+            while (state.get(p) == BUSY) Thread.onSpinWait();
+            if (state.get(p) != COPIED)
+                throw new IllegalStateException("page " + p + " read twice");
+            System.arraycopy(copies[p], 0, out, 0, length);
+            copies[p] = null;
+            state.set(p, READ);
+            return length;
+        }
+
+        /** Ends the snapshot: the set stops preserving pages for it. */
+        void release() {
+            released = true;
+        }
+
+        /** Called by the set's thread before it changes a slot of page {@code p}. */
+        private void preserve(int p) {
+            int s = state.get(p);
+            if (s == COPIED || s == READ) return;
+            if (state.compareAndSet(p, FREE, BUSY)) {
+                int from = p * PAGE_SLOTS;
+                copies[p] =
+                        Arrays.copyOfRange(slots, from, Math.min(from + PAGE_SLOTS, slots.length));
+                state.set(p, COPIED);
+                return;
+            }
+            while (state.get(p) == BUSY) Thread.onSpinWait(); // the reader is copying it out
+        }
+    }
+}
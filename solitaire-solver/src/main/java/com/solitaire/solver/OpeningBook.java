@@ -0,0 +1,236 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import com.solitaire.domain.factory.DomainFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Precomputed outcomes and winning moves for every position reachable in the first few moves from a
+ * start, so hints in the opening are a lookup instead of a search.
+ *
+ * <p>Positions are stored once per symmetry class: a sorted array of canonical keys followed by,
+ * for each key, a bitmask of the jumps (in the canonical orientation) that keep a single-peg finish
+ * reachable. A lookup binary-searches the memory-mapped keys and maps the mask back through the
+ * symmetry that took the board to its canonical key.
+ *
+ * <p>The book for the standard English start is generated during the build and shipped as a class
+ * path resource; {@link #standard()} maps it on first use.
+ */
+@Log4j2
+public final class OpeningBook {
+
+    static final int MAGIC = 0x50534f42; // "PSOB"
+    static final int VERSION = 1;
+
+    /** Moves from the standard start covered by the shipped book. */
+    public static final int STANDARD_DEPTH = 10;
+
+    static final String STANDARD_RESOURCE = "opening-book.bin";
+
+    private final Topology topology;
+    private final ByteBuffer buffer;
+    private final int depth;
+    private final int count;
+    private final int words;
+    private final int keysAt;
+    private final int masksAt;
+
+    private OpeningBook(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) throw new IOException("not an opening book");
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported opening book version " + buffer.getInt(4));
+        }
+        buffer.position(8);
+        this.topology = SolutionDag.readShape(buffer);
+        this.depth = buffer.getInt();
+        this.count = buffer.getInt();
+        this.words = maskWords(topology);
+        this.keysAt = buffer.position();
+        this.masksAt = keysAt + 8 * count;
+    }
+
+    /** The book shipped for {@link DomainFactory#buildDomain()}'s start position. */
+    public static OpeningBook standard() {
+        return Standard.BOOK;
+    }
+
+    /** Solves every position within {@code depth} moves of {@code start} and writes the book. */
+    public static void write(Board start, int depth, Path file) throws IOException {
+        new OpeningBookWriter(Objects.requireNonNull(start, "start"), depth).write(file);
+    }
+
+    /** Maps a file written by {@link #write}. */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OpeningBook(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public Topology topology() {
+        return topology;
+    }
+
+    /** Number of moves from the start covered by the book. */
+    public int depth() {
+        return depth;
+    }
+
+    /** Number of positions stored, up to symmetry. */
+    public int size() {
+        return count;
+    }
+
+    /** Whether the board can still be won, or empty when the position is not in the book. */
+    public Optional<Boolean> isSolvable(Board board) {
+        return lookup(board).map(moves -> !moves.isEmpty() || board.pegCount() == 1);
+    }
+
+    /**
+     * As {@link #isSolvable(Board)} for pegs encoded by {@link #topology()}; answers without
+     * building a board or a move list.
+     */
+    public Optional<Boolean> isSolvable(long pegs) {
+        int entry = find(topology.canonical(pegs));
+        if (entry < 0) return Optional.empty();
+        if (Long.bitCount(pegs) == 1) return Optional.of(true);
+        for (int w = 0; w < words; w++) {
+            if (buffer.getLong(masksAt + 8 * (entry * words + w)) != 0) return Optional.of(true);
+        }
+        return Optional.of(false);
+    }
+
+    /**
+     * The legal moves that keep a single-peg finish reachable, in {@link Topology} jump order, or
+     * empty when the position is not in the book. An empty list means the position is lost.
+     */
+    public Optional<List<Move>> winningMoves(Board board) {
+        return lookup(board);
+    }
+
+    /** A move on a winning line, when the position is in the book and can still be won. */
+    public Optional<Move> hint(Board board) {
+        return lookup(board).flatMap(moves -> moves.stream().findFirst());
+    }
+
+    private Optional<List<Move>> lookup(Board board) {
+        Objects.requireNonNull(board, "board");
+        if (board.rows() != topology.rows() || board.cols() != topology.cols()) {
+            return Optional.empty();
+        }
+        Topology shape = Topology.of(board);
+        if (!shape.equals(topology)) return Optional.empty();
+
+        long pegs = topology.encode(board);
+        int symmetry = topology.canonicalSymmetry(pegs);
+        int entry = find(topology.transform(pegs, symmetry));
+        if (entry < 0) return Optional.empty();
+
+        List<Move> moves = new ArrayList<>();
+        for (int j = 0; j < topology.jumpCount(); j++) {
+            if (!topology.canJump(pegs, j)) continue;
+            int canonicalJump = topology.transformJump(j, symmetry);
+            long word = buffer.getLong(masksAt + 8 * (entry * words + (canonicalJump >>> 6)));
+            if ((word & 1L << canonicalJump) != 0) moves.add(topology.move(j));
+        }
+        return Optional.of(moves);
+    }
+
+    private int find(long key) {
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long probe = buffer.getLong(keysAt + 8 * mid);
+            if (probe < key) lo = mid + 1;
+            else if (probe > key) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    static int maskWords(Topology topology) {
+        return (topology.jumpCount() + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    static long headerBytes(Topology topology) {
+        return 4 + 4 + 4 + 4 + (topology.rows() * topology.cols() + 7) / 8 + 4 + 4;
+    }
+
+    static boolean isAlive(long key, long[] masks, int entry, int words) {
+        if (Long.bitCount(key) == 1) return true;
+        for (int w = 0; w < words; w++) {
+            if (masks[entry * words + w] != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the standard book: {@code OpeningBook <file> [depth]}. An existing file of the same
+     * version and depth is kept, so incremental builds do not regenerate it.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: OpeningBook <file> [depth]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : STANDARD_DEPTH;
+        if (Files.exists(file)) {
+            try {
+                if (open(file).depth() == depth) {
+                    log.info("Opening book {} is up to date", file);
+                    return;
+                }
+            } catch (IOException e) {
+                log.info("Regenerating unreadable opening book {}", file);
+            }
+        }
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        write(DomainFactory.buildDomain().board(), depth, file);
+    }
+
+    /** Holder so the resource is only mapped when the standard book is first used. */
+    private static final class Standard {
+
+        static final OpeningBook BOOK = load();
+
+        private static OpeningBook load() {
+            URL url = OpeningBook.class.getResource(STANDARD_RESOURCE);
+            if (url == null) {
+                throw new IllegalStateException("opening book resource is missing");
+            }
+            try {
+                if ("file".equals(url.getProtocol())) return open(Path.of(url.toURI()));
+                // Inside a jar: mapping needs a real file, so copy the resource out once.
+                Path copy = Files.createTempFile("opening-book", ".bin");
+                copy.toFile().deleteOnExit();
+                try (InputStream in = url.openStream()) {
+                    Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return open(copy);
+            } catch (IOException e) {
+                throw new UncheckedIOException("cannot load the opening book", e);
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("cannot locate the opening book", e);
+            }
+        }
+    }
+}
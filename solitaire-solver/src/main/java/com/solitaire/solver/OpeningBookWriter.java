@@ -0,0 +1,175 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Topology;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Builds the file read by {@link OpeningBook}.
+ *
+ * <p>Positions are enumerated up to the book depth, then processed deepest layer first: a child one
+ * layer down is looked up in the layer already processed, and only children past the book depth are
+ * solved. Those share one depth-first search whose exact tables of alive and dead positions persist
+ * across the whole build, so every position past the book is proved at most once.
+ */
+@Log4j2
+final class OpeningBookWriter {
+
+    private final Topology topology;
+    private final long start;
+    private final int depth;
+    private final int words;
+
+    OpeningBookWriter(Board start, int depth) {
+        if (depth < 0) throw new IllegalArgumentException("depth must not be negative");
+        this.topology = Topology.of(start);
+        if (topology.size() >= Long.SIZE) {
+            throw new IllegalArgumentException("opening books support at most 63 holes");
+        }
+        this.start = topology.encode(start);
+        this.depth = depth;
+        this.words = OpeningBook.maskWords(topology);
+    }
+
+    void write(Path file) throws IOException {
+        List<long[]> layers = Layers.enumerate(topology, start, depth);
+        long[][] masks = new long[layers.size()][];
+        Search search = new Search();
+        for (int l = layers.size() - 1; l >= 0; l--) {
+            long[] layer = layers.get(l);
+            long[] below = l + 1 < layers.size() ? layers.get(l + 1) : null;
+            long[] belowMasks = l + 1 < masks.length ? masks[l + 1] : null;
+            masks[l] = new long[layer.length * words];
+            for (int i = 0; i < layer.length; i++) {
+                winningJumps(layer[i], below, belowMasks, search, masks[l], i);
+            }
+            log.info(
+                    "Opening book layer {}: {} positions, {} searched so far",
+                    l,
+                    layer.length,
+                    search.nodes);
+        }
+
+        int count = layers.stream().mapToInt(layer -> layer.length).sum();
+        long[] keys = new long[count];
+        int n = 0;
+        for (long[] layer : layers) {
+            System.arraycopy(layer, 0, keys, n, layer.length);
+            n += layer.length;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        long[] flatMasks = new long[count * words];
+        n = 0;
+        for (long[] layerMasks : masks) {
+            System.arraycopy(layerMasks, 0, flatMasks, n, layerMasks.length);
+            n += layerMasks.length;
+        }
+
+        long bytes = OpeningBook.headerBytes(topology) + 8L * count + 8L * words * count;
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch =
+                FileChannel.open(
+                        tmp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            out.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION);
+            SolutionDag.writeShape(out, topology);
+            out.putInt(depth).putInt(count);
+            for (int i : order) out.putLong(keys[i]);
+            for (int i : order) {
+                for (int w = 0; w < words; w++) out.putLong(flatMasks[i * words + w]);
+            }
+            out.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote {} opening positions ({} bytes) to {}", count, bytes, file);
+    }
+
+    /**
+     * Depth-first solve that never forgets an outcome. The opening sits above almost every position
+     * of the game, so a lossy cache keeps re-proving the same dead subtrees; exact tables bound the
+     * total work by the number of distinct positions.
+     */
+    private final class Search {
+
+        private final LongHashSet alive = new LongHashSet();
+        private final LongHashSet dead = new LongHashSet();
+        private final long[] stackPegs = new long[Long.SIZE];
+        private final int[] stackNext = new int[Long.SIZE];
+        private long nodes;
+
+        boolean solvable(long root) {
+            if (Long.bitCount(root) == 1) return true;
+            long rootKey = topology.canonical(root);
+            if (alive.contains(rootKey)) return true;
+            if (dead.contains(rootKey)) return false;
+
+            stackPegs[0] = root;
+            stackNext[0] = 0;
+            int depth = 1;
+            int jumps = topology.jumpCount();
+
+            while (depth > 0) {
+                int top = depth - 1;
+                long pegs = stackPegs[top];
+                int jump = stackNext[top];
+                while (jump < jumps && !topology.canJump(pegs, jump)) jump++;
+
+                if (jump == jumps) {
+                    dead.add(topology.canonical(pegs));
+                    depth--;
+                    continue;
+                }
+                stackNext[top] = jump + 1;
+
+                long child = topology.jump(pegs, jump);
+                nodes++;
+                long key = topology.canonical(child);
+                if (Long.bitCount(child) == 1 || alive.contains(key)) {
+                    for (int i = 0; i < depth; i++) alive.add(topology.canonical(stackPegs[i]));
+                    return true;
+                }
+                if (dead.contains(key)) continue;
+
+                stackPegs[depth] = child;
+                stackNext[depth] = 0;
+                depth++;
+            }
+            return false;
+        }
+    }
+
+    /** Fills the canonical-frame bitmask of the jumps from {@code pegs} that can still be won. */
+    private void winningJumps(
+            long pegs, long[] below, long[] belowMasks, Search search, long[] masks, int entry) {
+        for (int j = 0; j < topology.jumpCount(); j++) {
+            if (!topology.canJump(pegs, j)) continue;
+            long child = topology.jump(pegs, j);
+            boolean alive;
+            if (Long.bitCount(child) == 1) {
+                alive = true;
+            } else if (below != null) {
+                int c = Arrays.binarySearch(below, topology.canonical(child));
+                alive = OpeningBook.isAlive(below[c], belowMasks, c, words);
+            } else {
+                alive = search.solvable(child);
+            }
+            if (alive) masks[entry * words + (j >>> 6)] |= 1L << j;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Position;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Wire format shared by {@link SearchCoordinator} and {@link SearchWorker}. Every connection starts
+ * with a hello byte saying whether it is the coordinator's control link or a worker-to-worker data
+ * link; after that each message is a type byte followed by its fields.
+ */
+final class Protocol {
+
+    static final byte CONTROL_HELLO = 1;
+    static final byte PEER_HELLO = 2;
+
+    /** Coordinator to worker: worker id, worker count, peer addresses, root board. */
+    static final byte INIT = 10;
+
+    /** Coordinator to worker: expand the current frontier (layer number). */
+    static final byte EXPAND = 11;
+
+    static final byte SHUTDOWN = 12;
+
+    /** Worker to coordinator: peers connected, ready to expand. */
+    static final byte READY = 20;
+
+    /** Worker to coordinator: layer, positions expanded, next frontier size, wins in it. */
+    static final byte LAYER_DONE = 21;
+
+    /** Worker to worker: a batch of canonical keys owned by the receiver. */
+    static final byte BATCH = 30;
+
+    /** Worker to worker: the sender will not send more keys for this layer. */
+    static final byte END = 31;
+
+    /** Keys per batch: 32 KiB on the wire. */
+    static final int BATCH_SIZE = 4096;
+
+    /** Batches a worker buffers before its readers stop draining their sockets. */
+    static final int QUEUE_CAPACITY = 64;
+
+    private Protocol() {}
+
+    /** The worker that owns a canonical key. */
+    static int owner(long key, int workers) {
+        return Math.floorMod(LongHashSet.mix(key), workers);
+    }
+
+    static void writeBoard(DataOutputStream out, Board board) throws IOException {
+        out.writeInt(board.rows());
+        out.writeInt(board.cols());
+        for (int r = 0; r < board.rows(); r++) {
+            for (int c = 0; c < board.cols(); c++) {
+                out.writeByte(board.cellAt(new Position(r, c)).ordinal());
+            }
+        }
+    }
+
+    static Board readBoard(DataInputStream in) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        Cell[][] cells = new Cell[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                cells[r][c] = Cell.values()[in.readByte()];
+            }
+        }
+        return new Board(cells);
+    }
+}
@@ -0,0 +1,121 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Topology;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Drives a layered enumeration across {@link SearchWorker}s.
+ *
+ * <p>Every move removes exactly one peg, so positions split into layers by move count and no
+ * position can appear in two layers. The coordinator only keeps the layer totals: it tells every
+ * worker to expand the current layer, waits until all of them report that the next layer is fully
+ * merged, and repeats until a layer comes back empty. Positions themselves never pass through the
+ * coordinator.
+ */
+@Log4j2
+public final class SearchCoordinator {
+
+    private final List<InetSocketAddress> workers;
+
+    public SearchCoordinator(List<InetSocketAddress> workers) {
+        Objects.requireNonNull(workers, "workers");
+        if (workers.isEmpty()) throw new IllegalArgumentException("no workers");
+        this.workers = List.copyOf(workers);
+    }
+
+    /** Counts every position reachable from the board, up to symmetry. */
+    public DistributedResult enumerate(Board root) throws IOException {
+        Objects.requireNonNull(root, "root");
+        long rootPegs = Topology.of(root).encode(root);
+
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            DataInputStream[] in = new DataInputStream[workers.size()];
+            DataOutputStream[] out = new DataOutputStream[workers.size()];
+            for (int i = 0; i < workers.size(); i++) {
+                InetSocketAddress address = workers.get(i);
+                Socket socket = new Socket(address.getHostString(), address.getPort());
+                sockets.add(socket);
+                in[i] = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                out[i] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                out[i].writeByte(Protocol.CONTROL_HELLO);
+                writeInit(out[i], i, root);
+            }
+            for (DataInputStream w : in) expect(w, Protocol.READY);
+            log.info("{} search workers ready", workers.size());
+
+            List<Long> layerSizes = new ArrayList<>();
+            layerSizes.add(1L);
+            long positions = 1;
+            long wins = Long.bitCount(rootPegs) == 1 ? 1 : 0;
+
+            for (int layer = 0; ; layer++) {
+                for (DataOutputStream w : out) {
+                    w.writeByte(Protocol.EXPAND);
+                    w.writeInt(layer);
+                    w.flush();
+                }
+
+                long next = 0;
+                long expanded = 0;
+                for (DataInputStream w : in) {
+                    expect(w, Protocol.LAYER_DONE);
+                    int done = w.readInt();
+                    if (done != layer) {
+                        throw new IOException("worker finished layer " + done + ", not " + layer);
+                    }
+                    expanded += w.readLong();
+                    next += w.readLong();
+                    wins += w.readLong();
+                }
+                log.info(
+                        "Layer {}: expanded {} positions, next layer has {}",
+                        layer,
+                        expanded,
+                        next);
+
+                if (next == 0) break;
+                layerSizes.add(next);
+                positions += next;
+            }
+
+            for (DataOutputStream w : out) {
+                w.writeByte(Protocol.SHUTDOWN);
+                w.flush();
+            }
+            return new DistributedResult(layerSizes, positions, wins);
+        } finally {
+            for (Socket socket : sockets) socket.close();
+        }
+    }
+
+    private void writeInit(DataOutputStream out, int id, Board root) throws IOException {
+        out.writeByte(Protocol.INIT);
+        out.writeInt(id);
+        out.writeInt(workers.size());
+        for (InetSocketAddress address : workers) {
+            out.writeUTF(address.getHostString());
+            out.writeInt(address.getPort());
+        }
+        Protocol.writeBoard(out, root);
+        out.flush();
+    }
+
+    private static void expect(DataInputStream in, byte type) throws IOException {
+        byte actual = in.readByte();
+        if (actual != type) {
+            throw new IOException("expected message " + type + " but got " + actual);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.solitaire.solver;
+
+public enum SearchMode {
+    /** Stop at the first line that ends with a single peg; the table holds dead positions. */
+    SOLVE,
+    /** Visit every reachable position once; the table holds visited positions. */
+    ENUMERATE
+}
@@ -0,0 +1,14 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Move;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Outcome of a {@link DepthFirstSearch} run.
+ *
+ * @param complete false when the run stopped on its node budget and can be resumed
+ * @param solution the winning line found by a {@link SearchMode#SOLVE} search, if any
+ * @param stats counters accumulated since the search started, including resumed runs
+ */
+public record SearchResult(boolean complete, Optional<List<Move>> solution, SearchStats stats) {}
@@ -0,0 +1,11 @@
+package com.solitaire.solver;
+
+/**
+ * Counters of a search.
+ *
+ * @param nodes child positions generated
+ * @param tableHits children skipped because the table already knew them
+ * @param positions distinct positions (up to symmetry) held in the table
+ * @param wins single-peg positions reached
+ */
+public record SearchStats(long nodes, long tableHits, long positions, long wins) {}
@@ -0,0 +1,334 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Topology;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * One partition of a distributed layered search, normally running in its own JVM.
+ *
+ * <p>The worker owns every canonical key that {@link Protocol#owner} maps to its id. On each {@code
+ * EXPAND} it generates the children of its frontier and routes them in batches to their owners over
+ * direct worker-to-worker connections. Incoming batches go through a bounded queue to a single
+ * merge thread; when the queue is full the socket readers stop reading, so TCP flow control pushes
+ * back on senders instead of letting buffers grow.
+ */
+@Log4j2
+public final class SearchWorker implements AutoCloseable {
+
+    private static final long[] END_OF_LAYER = new long[0];
+
+    private final ServerSocket server;
+    private final CompletableFuture<DataInputStream> control = new CompletableFuture<>();
+    private final List<Socket> sockets = new ArrayList<>();
+    private final List<Thread> peerReaders = new ArrayList<>();
+
+    private final BlockingQueue<long[]> incoming =
+            new ArrayBlockingQueue<>(Protocol.QUEUE_CAPACITY);
+    private final SynchronousQueue<LongHashSet> completedLayers = new SynchronousQueue<>();
+
+    private volatile Socket controlSocket;
+    private volatile boolean closed;
+
+    private int id;
+    private volatile int workers;
+    private Topology topology;
+    private DataOutputStream[] peers;
+    private LongHashSet frontier = new LongHashSet();
+
+    /** Binds the worker; port 0 picks an ephemeral port. */
+    public SearchWorker(int port) throws IOException {
+        this.server = new ServerSocket(port);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    /** Serves one coordinator session, returning once it sends {@code SHUTDOWN}. */
+    public void run() throws IOException {
+        Thread acceptor = Thread.ofVirtual().name("worker-accept").start(this::acceptLoop);
+        Thread merger = Thread.ofPlatform().name("worker-merge").daemon().start(this::mergeLoop);
+        try {
+            var in = awaitControl();
+            var out =
+                    new DataOutputStream(new BufferedOutputStream(controlSocket.getOutputStream()));
+
+            while (true) {
+                byte type = in.readByte();
+                switch (type) {
+                    case Protocol.INIT -> init(in, out);
+                    case Protocol.EXPAND -> expand(in.readInt(), out);
+                    case Protocol.SHUTDOWN -> {
+                        log.debug("Worker {} shutting down", id);
+                        return;
+                    }
+                    default -> throw new IOException("unexpected control message " + type);
+                }
+            }
+        } finally {
+            close();
+            acceptor.interrupt();
+            merger.interrupt();
+        }
+    }
+
+    private void init(DataInputStream in, DataOutputStream out) throws IOException {
+        id = in.readInt();
+        workers = in.readInt();
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            addresses.add(new InetSocketAddress(in.readUTF(), in.readInt()));
+        }
+        Board root = Protocol.readBoard(in);
+        topology = Topology.of(root);
+
+        long key = topology.canonical(topology.encode(root));
+        if (Protocol.owner(key, workers) == id) frontier.add(key);
+
+        peers = new DataOutputStream[workers];
+        for (int i = 0; i < workers; i++) {
+            if (i == id) continue;
+            Socket peer = new Socket(addresses.get(i).getHostString(), addresses.get(i).getPort());
+            register(peer);
+            peers[i] =
+                    new DataOutputStream(new BufferedOutputStream(peer.getOutputStream(), 1 << 16));
+            peers[i].writeByte(Protocol.PEER_HELLO);
+            peers[i].writeInt(id);
+            peers[i].flush();
+        }
+        log.debug("Worker {}/{} connected to its peers", id, workers);
+
+        out.writeByte(Protocol.READY);
+        out.flush();
+    }
+
+    private void expand(int layer, DataOutputStream out) throws IOException {
+        long[] keys = frontier.toArray();
+        frontier = null;
+
+        long[][] batches = new long[workers][Protocol.BATCH_SIZE];
+        int[] fill = new int[workers];
+        int jumps = topology.jumpCount();
+
+        for (long pegs : keys) {
+            for (int j = 0; j < jumps; j++) {
+                if (!topology.canJump(pegs, j)) continue;
+                long child = topology.canonical(topology.jump(pegs, j));
+                int owner = Protocol.owner(child, workers);
+                batches[owner][fill[owner]++] = child;
+                if (fill[owner] == Protocol.BATCH_SIZE) {
+                    send(owner, layer, batches[owner], fill[owner]);
+                    fill[owner] = 0;
+                }
+            }
+        }
+        for (int w = 0; w < workers; w++) {
+            if (fill[w] > 0) send(w, layer, batches[w], fill[w]);
+            if (w != id) {
+                peers[w].writeByte(Protocol.END);
+                peers[w].writeInt(layer);
+                peers[w].flush();
+            }
+        }
+        enqueue(END_OF_LAYER);
+
+        try {
+            frontier = completedLayers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while merging layer " + layer, e);
+        }
+
+        long wins = 0;
+        for (long key : frontier.toArray()) {
+            if (Long.bitCount(key) == 1) wins++;
+        }
+        log.debug("Worker {} finished layer {}: {} -> {}", id, layer, keys.length, frontier.size());
+
+        out.writeByte(Protocol.LAYER_DONE);
+        out.writeInt(layer);
+        out.writeLong(keys.length);
+        out.writeLong(frontier.size());
+        out.writeLong(wins);
+        out.flush();
+    }
+
+    private void send(int owner, int layer, long[] batch, int count) throws IOException {
+        if (owner == id) {
+            enqueue(Arrays.copyOf(batch, count));
+            return;
+        }
+        DataOutputStream peer = peers[owner];
+        peer.writeByte(Protocol.BATCH);
+        peer.writeInt(layer);
+        peer.writeInt(count);
+        for (int i = 0; i < count; i++) peer.writeLong(batch[i]);
+    }
+
+    private void enqueue(long[] batch) throws IOException {
+        try {
+            incoming.put(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while queueing a batch", e);
+        }
+    }
+
+    /** Single writer of the next frontier; hands it over once every worker ended the layer. */
+    private void mergeLoop() {
+        LongHashSet next = new LongHashSet();
+        int ends = 0;
+        try {
+            while (true) {
+                long[] batch = incoming.take();
+                if (batch != END_OF_LAYER) {
+                    for (long key : batch) next.add(key);
+                    continue;
+                }
+                if (++ends == workers) {
+                    completedLayers.put(next);
+                    next = new LongHashSet();
+                    ends = 0;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        try {
+            while (!closed) {
+                Socket socket = server.accept();
+                register(socket);
+                var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                byte hello = in.readByte();
+                if (hello == Protocol.CONTROL_HELLO) {
+                    controlSocket = socket;
+                    control.complete(in);
+                } else if (hello == Protocol.PEER_HELLO) {
+                    int peer = in.readInt();
+                    startReader(
+                            Thread.ofVirtual()
+                                    .name("worker-peer-" + peer)
+                                    .unstarted(() -> readPeer(peer, in)));
+                } else {
+                    socket.close();
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                log.error("Worker accept loop failed", e);
+                control.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Feeds one peer's batches to the merge thread. A peer that has ended its layer may close its
+     * socket at any time, since it is shutting down, possibly before our own {@code SHUTDOWN} has
+     * arrived: end of stream there is a normal close, anywhere else a lost peer.
+     */
+    private void readPeer(int peer, DataInputStream in) {
+        boolean betweenLayers = true;
+        try {
+            while (!closed) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    if (!betweenLayers) throw e;
+                    log.debug("Worker {} saw peer {} close", id, peer);
+                    return;
+                }
+                in.readInt(); // layer, implied by the lock-step protocol
+                if (type == Protocol.END) {
+                    incoming.put(END_OF_LAYER);
+                    betweenLayers = true;
+                } else if (type == Protocol.BATCH) {
+                    betweenLayers = false;
+                    long[] batch = new long[in.readInt()];
+                    for (int i = 0; i < batch.length; i++) batch[i] = in.readLong();
+                    incoming.put(batch);
+                } else {
+                    throw new IOException("unexpected peer message " + type);
+                }
+            }
+        } catch (IOException e) {
+            if (closed) log.debug("Worker {} stopped reading peer {}", id, peer);
+            else log.error("Worker {} lost the connection to peer {}", id, peer, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private DataInputStream awaitControl() throws IOException {
+        try {
+            return control.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for the coordinator", e);
+        } catch (ExecutionException e) {
+            throw new IOException("no coordinator connection", e.getCause());
+        }
+    }
+
+    private synchronized void register(Socket socket) {
+        sockets.add(socket);
+    }
+
+    private synchronized void startReader(Thread reader) {
+        if (closed) return;
+        peerReaders.add(reader);
+        reader.start();
+    }
+
+    /** Closes every connection and waits for the peer readers to finish. */
+    @Override
+    public void close() throws IOException {
+        List<Thread> readers;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            server.close();
+            for (Socket socket : sockets) socket.close();
+            readers = List.copyOf(peerReaders);
+        }
+        for (Thread reader : readers) {
+            reader.interrupt();
+            try {
+                reader.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while closing worker " + id, e);
+            }
+        }
+    }
+
+    /** Starts a worker on the given port (default 7070) and serves a single search. */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        try (SearchWorker worker = new SearchWorker(port)) {
+            log.info("Search worker listening on port {}", worker.port());
+            worker.run();
+        }
+    }
+}
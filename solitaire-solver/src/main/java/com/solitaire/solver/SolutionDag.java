@@ -0,0 +1,196 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Every winning line from a start position, stored as a directed acyclic graph in a memory-mapped
+ * file.
+ *
+ * <p>Nodes are the canonical keys (see {@link Topology#canonical}) of the positions that are
+ * reachable from the start and can still end with a single peg; edges are the legal moves between
+ * them, one per distinct child up to symmetry. Symmetric positions share a node, and lines that
+ * transpose into the same position share everything after it, which is what keeps the file orders
+ * of magnitude smaller than a list of solutions.
+ *
+ * <p>File layout (big-endian): header (magic, version, rows, cols, shape bitmap, start key, node
+ * count, edge count, index slots), sorted node keys, edge offsets per node, edge targets, edge jump
+ * indices (one unsigned byte each), and an open-addressing hash index from key to node. The index
+ * makes membership and "is this move still on a winning line" queries O(1) while reading only a few
+ * pages.
+ */
+public final class SolutionDag {
+
+    static final int MAGIC = 0x50534447; // "PSDG"
+    static final int VERSION = 1;
+
+    private final Topology topology;
+    private final ByteBuffer buffer;
+    private final long startKey;
+    private final int nodes;
+    private final int edges;
+    private final int slots;
+
+    private final int keysAt;
+    private final int offsetsAt;
+    private final int targetsAt;
+    private final int jumpsAt;
+    private final int indexAt;
+
+    private SolutionDag(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) throw new IOException("not a solution DAG");
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("unsupported solution DAG version " + buffer.getInt(4));
+        }
+        buffer.position(8);
+        this.topology = readShape(buffer);
+        this.startKey = buffer.getLong();
+        this.nodes = buffer.getInt();
+        this.edges = buffer.getInt();
+        this.slots = buffer.getInt();
+
+        this.keysAt = buffer.position();
+        this.offsetsAt = keysAt + 8 * nodes;
+        this.targetsAt = offsetsAt + 4 * (nodes + 1);
+        this.jumpsAt = targetsAt + 4 * edges;
+        this.indexAt = jumpsAt + edges;
+    }
+
+    /** Enumerates the winning lines from {@code start} and writes them to {@code file}. */
+    public static void write(Board start, Path file) throws IOException {
+        new SolutionDagWriter(Objects.requireNonNull(start, "start")).write(file);
+    }
+
+    /** Maps a file written by {@link #write}; nothing beyond the header is read up front. */
+    public static SolutionDag open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new SolutionDag(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public Topology topology() {
+        return topology;
+    }
+
+    public int nodeCount() {
+        return nodes;
+    }
+
+    public int edgeCount() {
+        return edges;
+    }
+
+    /** Node of the start position, or -1 when the start cannot be won. */
+    public int startNode() {
+        return nodeOf(startKey);
+    }
+
+    /** True when a single peg can still be reached from the board (and it was reachable). */
+    public boolean isWinnable(Board board) {
+        return nodeOf(topology.canonical(topology.encode(board))) >= 0;
+    }
+
+    /** True when the move is legal on the board and keeps a single-peg finish reachable. */
+    public boolean isWinningMove(Board board, Move move) {
+        long pegs = topology.encode(board);
+        int jump = topology.jumpIndex(move);
+        if (jump < 0 || !topology.canJump(pegs, jump)) return false;
+        return nodeOf(topology.canonical(topology.jump(pegs, jump))) >= 0;
+    }
+
+    /** The legal moves on the board that keep a single-peg finish reachable. */
+    public List<Move> winningMoves(Board board) {
+        long pegs = topology.encode(board);
+        List<Move> moves = new ArrayList<>();
+        for (int j = 0; j < topology.jumpCount(); j++) {
+            if (topology.canJump(pegs, j)
+                    && nodeOf(topology.canonical(topology.jump(pegs, j))) >= 0) {
+                moves.add(topology.move(j));
+            }
+        }
+        return moves;
+    }
+
+    /** Canonical peg mask of a node. */
+    public long key(int node) {
+        return buffer.getLong(keysAt + 8 * node);
+    }
+
+    /** Node with the given canonical key, or -1. */
+    public int nodeOf(long canonicalKey) {
+        int i = slot(canonicalKey, slots);
+        while (true) {
+            int entry = buffer.getInt(indexAt + 4 * i);
+            if (entry == 0) return -1;
+            if (key(entry - 1) == canonicalKey) return entry - 1;
+            i = (i + 1) & (slots - 1);
+        }
+    }
+
+    /** Number of distinct winning moves out of a node. */
+    public int childCount(int node) {
+        return buffer.getInt(offsetsAt + 4 * (node + 1)) - buffer.getInt(offsetsAt + 4 * node);
+    }
+
+    /** Target node of the {@code i}-th edge out of a node. */
+    public int child(int node, int i) {
+        return buffer.getInt(targetsAt + 4 * (buffer.getInt(offsetsAt + 4 * node) + i));
+    }
+
+    /** Jump (see {@link Topology#move}) of the {@code i}-th edge, played on the node's key. */
+    public int childJump(int node, int i) {
+        return buffer.get(jumpsAt + buffer.getInt(offsetsAt + 4 * node) + i) & 0xFF;
+    }
+
+    static int indexCapacity(int nodes) {
+        int capacity = 16;
+        while (capacity < nodes * 2L) capacity <<= 1;
+        return capacity;
+    }
+
+    static int slot(long key, int slots) {
+        return LongHashSet.mix(key) & (slots - 1);
+    }
+
+    static long headerBytes(Topology topology) {
+        return 4 + 4 + 4 + 4 + (topology.rows() * topology.cols() + 7) / 8 + 8 + 4 + 4 + 4;
+    }
+
+    static void writeShape(ByteBuffer out, Topology topology) {
+        out.putInt(topology.rows()).putInt(topology.cols());
+        byte[] shape = new byte[(topology.rows() * topology.cols() + 7) / 8];
+        for (int r = 0; r < topology.rows(); r++) {
+            for (int c = 0; c < topology.cols(); c++) {
+                int cell = r * topology.cols() + c;
+                if (topology.indexOf(r, c) >= 0) shape[cell >> 3] |= (byte) (1 << (cell & 7));
+            }
+        }
+        out.put(shape);
+    }
+
+    static Topology readShape(ByteBuffer in) {
+        int rows = in.getInt();
+        int cols = in.getInt();
+        byte[] shape = new byte[(rows * cols + 7) / 8];
+        in.get(shape);
+        Cell[][] cells = new Cell[rows][cols];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int cell = r * cols + c;
+                cells[r][c] = (shape[cell >> 3] >> (cell & 7) & 1) != 0 ? Cell.EMPTY : Cell.INVALID;
+            }
+        }
+        return Topology.of(new Board(cells));
+    }
+}
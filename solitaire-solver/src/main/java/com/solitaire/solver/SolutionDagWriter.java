@@ -0,0 +1,154 @@
+package com.solitaire.solver;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Topology;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Builds the file read by {@link SolutionDag}.
+ *
+ * <p>The reachable positions are enumerated forward one layer (one move) at a time; since every
+ * move removes a peg, layers are disjoint. A backward pass then marks a position alive when it has
+ * a single peg or any child in the next layer is alive. Only alive positions become nodes.
+ */
+@Log4j2
+final class SolutionDagWriter {
+
+    /** Edges store their jump as one unsigned byte. */
+    private static final int MAX_JUMPS = 256;
+
+    private final Topology topology;
+    private final long start;
+
+    SolutionDagWriter(Board start) {
+        this.topology = Topology.of(start);
+        if (topology.jumpCount() > MAX_JUMPS) {
+            throw new IllegalArgumentException(
+                    "too many jumps for one byte per edge: " + topology.jumpCount());
+        }
+        this.start = topology.encode(start);
+    }
+
+    void write(Path file) throws IOException {
+        List<long[]> layers = Layers.enumerate(topology, start, Integer.MAX_VALUE);
+        long[] nodes = alive(layers);
+        log.info("Solution DAG has {} winnable positions", nodes.length);
+
+        int[] offsets = new int[nodes.length + 1];
+        int[] targets = new int[nodes.length * 4];
+        byte[] jumps = new byte[nodes.length * 4];
+        int edges = 0;
+        int[] seen = new int[topology.jumpCount()];
+        for (int n = 0; n < nodes.length; n++) {
+            offsets[n] = edges;
+            int children = 0;
+            for (int j = 0; j < topology.jumpCount(); j++) {
+                if (!topology.canJump(nodes[n], j)) continue;
+                int target =
+                        Arrays.binarySearch(nodes, topology.canonical(topology.jump(nodes[n], j)));
+                if (target < 0 || contains(seen, children, target)) continue;
+                seen[children++] = target;
+                if (edges == targets.length) {
+                    targets = Arrays.copyOf(targets, edges * 2);
+                    jumps = Arrays.copyOf(jumps, edges * 2);
+                }
+                targets[edges] = target;
+                jumps[edges] = (byte) j;
+                edges++;
+            }
+        }
+        offsets[nodes.length] = edges;
+
+        int slots = SolutionDag.indexCapacity(nodes.length);
+        int[] index = new int[slots];
+        for (int n = 0; n < nodes.length; n++) {
+            int i = SolutionDag.slot(nodes[n], slots);
+            while (index[i] != 0) i = (i + 1) & (slots - 1);
+            index[i] = n + 1;
+        }
+
+        long bytes =
+                SolutionDag.headerBytes(topology)
+                        + 8L * nodes.length
+                        + 4L * (nodes.length + 1)
+                        + 4L * edges
+                        + edges
+                        + 4L * slots;
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch =
+                FileChannel.open(
+                        tmp,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            out.putInt(SolutionDag.MAGIC).putInt(SolutionDag.VERSION);
+            SolutionDag.writeShape(out, topology);
+            out.putLong(topology.canonical(start));
+            out.putInt(nodes.length).putInt(edges).putInt(slots);
+            for (long key : nodes) out.putLong(key);
+            for (int offset : offsets) out.putInt(offset);
+            for (int e = 0; e < edges; e++) out.putInt(targets[e]);
+            out.put(jumps, 0, edges);
+            for (int slot : index) out.putInt(slot);
+            out.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote {} nodes and {} edges ({} bytes) to {}", nodes.length, edges, bytes, file);
+    }
+
+    /** Sorted keys of the positions from which a single peg can still be reached. */
+    private long[] alive(List<long[]> layers) {
+        long[] nextAlive = new long[0];
+        List<long[]> alive = new ArrayList<>();
+        for (int l = layers.size() - 1; l >= 0; l--) {
+            long[] layer = layers.get(l);
+            long[] keep = new long[layer.length];
+            int n = 0;
+            for (long pegs : layer) {
+                if (Long.bitCount(pegs) == 1 || hasAliveChild(pegs, nextAlive)) keep[n++] = pegs;
+            }
+            nextAlive = Arrays.copyOf(keep, n);
+            alive.add(nextAlive);
+            layers.set(l, null);
+        }
+
+        long[] nodes = new long[alive.stream().mapToInt(a -> a.length).sum()];
+        int n = 0;
+        for (long[] a : alive) {
+            System.arraycopy(a, 0, nodes, n, a.length);
+            n += a.length;
+        }
+        Arrays.sort(nodes);
+        return nodes;
+    }
+
+    private boolean hasAliveChild(long pegs, long[] nextAlive) {
+        for (int j = 0; j < topology.jumpCount(); j++) {
+            if (topology.canJump(pegs, j)
+                    && Arrays.binarySearch(nextAlive, topology.canonical(topology.jump(pegs, j)))
+                            >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.solitaire.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free cache of solved positions shared by concurrent searches.
+ *
+ * <p>Each slot packs a canonical key and its outcome into one {@code long} ({@code key << 1 |
+ * alive}), so a reader can never observe a key paired with another key's outcome. Slots are grouped
+ * in buckets of four; a full bucket overwrites one of its slots. Losing an entry only costs a
+ * re-search, which keeps the memory bound fixed no matter how many positions flow through. Keys
+ * must fit in 63 bits.
+ */
+final class SolveCache {
+
+    static final int UNKNOWN = 0;
+    static final int ALIVE = 1;
+    static final int DEAD = 2;
+
+    private static final int BUCKET = 4;
+
+    private final AtomicLongArray slots;
+    private final int bucketMask;
+    private final LongAdder hits = new LongAdder();
+
+    SolveCache(int capacity) {
+        int buckets = 1;
+        while (buckets * BUCKET < capacity) buckets <<= 1;
+        this.slots = new AtomicLongArray(buckets * BUCKET);
+        this.bucketMask = buckets - 1;
+    }
+
+    int get(long key) {
+        int base = (LongHashSet.mix(key) & bucketMask) * BUCKET;
+        for (int i = 0; i < BUCKET; i++) {
+            long entry = slots.get(base + i);
+            if (entry != 0 && entry >>> 1 == key) {
+                hits.increment();
+                return (entry & 1) != 0 ? ALIVE : DEAD;
+            }
+        }
+        return UNKNOWN;
+    }
+
+    void put(long key, boolean alive) {
+        long entry = key << 1 | (alive ? 1 : 0);
+        int base = (LongHashSet.mix(key) & bucketMask) * BUCKET;
+        for (int i = 0; i < BUCKET; i++) {
+            long current = slots.get(base + i);
+            if (current == 0 || current >>> 1 == key) {
+                if (slots.compareAndSet(base + i, current, entry)) return;
+            }
+        }
+        int victim = (int) (key >>> 7) & (BUCKET - 1);
+        slots.set(base + victim, entry);
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+}
@@ -0,0 +1,89 @@
+package com.solitaire.solver.sim;
+
+import java.util.Arrays;
+
+/**
+ * Outcomes of the games one policy played. Every fork-join leaf of a {@link SelfPlaySimulator}
+ * fills its own stats without synchronisation and they are merged on the way up.
+ */
+public final class PlayStats {
+
+    private final long[] finalPegs;
+    private final long[] lengths;
+    private long games;
+    private long moves;
+    private long pegs;
+
+    PlayStats(int holes) {
+        this.finalPegs = new long[holes + 1];
+        this.lengths = new long[holes + 1];
+    }
+
+    void add(int pegsLeft, int length) {
+        games++;
+        moves += length;
+        pegs += pegsLeft;
+        finalPegs[pegsLeft]++;
+        lengths[length]++;
+    }
+
+    PlayStats merge(PlayStats other) {
+        games += other.games;
+        moves += other.moves;
+        pegs += other.pegs;
+        for (int i = 0; i < finalPegs.length; i++) {
+            finalPegs[i] += other.finalPegs[i];
+            lengths[i] += other.lengths[i];
+        }
+        return this;
+    }
+
+    public long games() {
+        return games;
+    }
+
+    /** Games ending with a single peg. */
+    public long wins() {
+        return finalPegs.length > 1 ? finalPegs[1] : 0;
+    }
+
+    public double winRate() {
+        return games == 0 ? 0 : (double) wins() / games;
+    }
+
+    public double averagePegsLeft() {
+        return games == 0 ? 0 : (double) pegs / games;
+    }
+
+    public double averageLength() {
+        return games == 0 ? 0 : (double) moves / games;
+    }
+
+    /** Games per number of pegs left. */
+    public long[] finalPegCounts() {
+        return finalPegs.clone();
+    }
+
+    /** Games per number of moves played. */
+    public long[] lengthCounts() {
+        return lengths.clone();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "%d games, %.4f%% won, %.3f pegs left and %.3f moves on average; final pegs %s",
+                games,
+                100 * winRate(),
+                averagePegsLeft(),
+                averageLength(),
+                Arrays.toString(trimmed(finalPegs)));
+    }
+
+    /** Drops the trailing zeros, which are most of the array for the larger boards. */
+    private static long[] trimmed(long[] counts) {
+        int end = counts.length;
+        while (end > 0 && counts[end - 1] == 0) end--;
+        return Arrays.copyOf(counts, end);
+    }
+}
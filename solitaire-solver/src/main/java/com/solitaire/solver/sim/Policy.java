@@ -0,0 +1,24 @@
+package com.solitaire.solver.sim;
+
+import com.solitaire.domain.Topology;
+import java.util.SplittableRandom;
+
+/**
+ * Picks the next move of a simulated game. Policies are shared by all threads of a {@link
+ * SelfPlaySimulator}, so they must keep no state between calls; randomness comes from the calling
+ * thread's {@code random}.
+ *
+ * @see StandardPolicy
+ */
+@FunctionalInterface
+public interface Policy {
+
+    /**
+     * Chooses one of the legal jumps.
+     *
+     * @param pegs the position, as a peg mask of {@code topology}
+     * @param jumps the legal jumps of the position in {@code jumps[0..count)}, at least one
+     * @return one of those jumps
+     */
+    int choose(Topology topology, long pegs, int[] jumps, int count, SplittableRandom random);
+}
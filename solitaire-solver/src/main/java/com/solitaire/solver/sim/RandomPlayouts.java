@@ -0,0 +1,59 @@
+package com.solitaire.solver.sim;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.rules.Rules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * Reproducible random lines played through {@link Rules}, for test fixtures, benchmark inputs and
+ * tournament boards. Same seed, same line.
+ */
+public final class RandomPlayouts {
+
+    private RandomPlayouts() {}
+
+    /** Uniformly random legal moves from {@code start} until stuck or {@code maxMoves} played. */
+    public static List<Move> line(Board start, Rules rules, SplittableRandom random, int maxMoves) {
+        Objects.requireNonNull(start, "start");
+        Objects.requireNonNull(rules, "rules");
+        List<Move> moves = new ArrayList<>();
+        Board board = start;
+        List<Move> legal;
+        while (moves.size() < maxMoves && !(legal = rules.legalMoves(board)).isEmpty()) {
+            Move move = legal.get(random.nextInt(legal.size()));
+            moves.add(move);
+            board = board.applyUnchecked(move);
+        }
+        return moves;
+    }
+
+    /** A whole random game from {@code start}. */
+    public static List<Move> game(Board start, Rules rules, long seed) {
+        return line(start, rules, new SplittableRandom(seed), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Positions reached by playing between {@code minMoves} and {@code maxMoves} random moves from
+     * {@code start}, for boards of varying difficulty.
+     */
+    public static List<Board> positions(
+            Board start, Rules rules, int count, int minMoves, int maxMoves, long seed) {
+        if (minMoves < 0 || maxMoves < minMoves) {
+            throw new IllegalArgumentException("bad move range " + minMoves + ".." + maxMoves);
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Board> boards = new ArrayList<>(count);
+        while (boards.size() < count) {
+            Board board = start;
+            for (Move move : line(start, rules, random, random.nextInt(minMoves, maxMoves + 1))) {
+                board = board.applyUnchecked(move);
+            }
+            boards.add(board);
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,184 @@
+package com.solitaire.solver.sim;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import com.solitaire.domain.rules.Rules;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Plays many complete games from one start, each move chosen by a {@link Policy}, and collects
+ * their outcomes in {@link PlayStats}.
+ *
+ * <p>Games run on a {@link ForkJoinPool}: a run is split in halves down to batches of {@value
+ * #BATCH} games. Each batch plays on a {@code long} peg mask that it changes in place, with the
+ * masks of every jump precomputed, and draws from its own {@link SplittableRandom}, split off its
+ * parent's when the batch is created. Batches share nothing, and the same seed gives the same stats
+ * whatever the parallelism.
+ *
+ * <p>The peg masks bypass the rules engine for throughput. To load the engine itself, {@link
+ * #play(Board, Rules, Policy, long, long)} generates and applies every move through {@link Rules}
+ * and {@link Board} instead; policies see the same jumps in the same order, so a seed gives the
+ * same stats either way.
+ */
+@Log4j2
+public final class SelfPlaySimulator {
+
+    static final int BATCH = 1024;
+
+    private final ForkJoinPool pool;
+
+    public SelfPlaySimulator(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool");
+    }
+
+    /** A simulator on the common pool, which uses every core. */
+    public static SelfPlaySimulator onCommonPool() {
+        return new SelfPlaySimulator(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Plays {@code games} games from {@code start} with {@code policy}.
+     *
+     * @throws IllegalStateException if the policy chooses a jump that is not legal
+     */
+    public PlayStats play(Board start, Policy policy, long games, long seed) {
+        return run(start, null, policy, games, seed);
+    }
+
+    /**
+     * Plays {@code games} games from {@code start} with {@code policy}, every move generated by
+     * {@code rules} and applied to a {@link Board}: a realistic load on the rules engine, several
+     * times slower than {@link #play(Board, Policy, long, long)}.
+     *
+     * @throws IllegalStateException if the policy chooses a jump that is not legal
+     */
+    public PlayStats play(Board start, Rules rules, Policy policy, long games, long seed) {
+        return run(start, Objects.requireNonNull(rules, "rules"), policy, games, seed);
+    }
+
+    private PlayStats run(Board start, Rules rules, Policy policy, long games, long seed) {
+        Objects.requireNonNull(start, "start");
+        Objects.requireNonNull(policy, "policy");
+        if (games < 0) throw new IllegalArgumentException("negative game count " + games);
+        Topology topology = Topology.of(start);
+        Game game = new Game(topology, start, topology.encode(start), rules, policy);
+        long began = System.nanoTime();
+        PlayStats stats = pool.invoke(new Batch(game, games, new SplittableRandom(seed)));
+        log.debug(
+                "Played {} games with {} in {} ms",
+                games,
+                policy,
+                (System.nanoTime() - began) / 1_000_000);
+        return stats;
+    }
+
+    /** Plays {@code games} games with each policy, all from the same seed. */
+    public Map<Policy, PlayStats> compare(
+            Board start, List<? extends Policy> policies, long games, long seed) {
+        Map<Policy, PlayStats> results = new LinkedHashMap<>();
+        for (Policy policy : policies) results.put(policy, play(start, policy, games, seed));
+        return results;
+    }
+
+    /** What every batch of one run shares; immutable. Without rules, games play on masks. */
+    private record Game(Topology topology, Board board, long start, Rules rules, Policy policy) {}
+
+    private static final class Batch extends RecursiveTask<PlayStats> {
+
+        private final Game game;
+        private final long games;
+        private final SplittableRandom random;
+
+        Batch(Game game, long games, SplittableRandom random) {
+            this.game = game;
+            this.games = games;
+            this.random = random;
+        }
+
+        @Override
+        protected PlayStats compute() {
+            if (games <= BATCH) return game.rules() == null ? playAll() : playAllThroughRules();
+            Batch left = new Batch(game, games / 2, random.split());
+            Batch right = new Batch(game, games - games / 2, random);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+
+        private PlayStats playAll() {
+            Topology topology = game.topology();
+            int jumpCount = topology.jumpCount();
+            long[] jumpers = new long[jumpCount];
+            long[] targets = new long[jumpCount];
+            for (int j = 0; j < jumpCount; j++) {
+                jumpers[j] = 1L << topology.jumpFrom(j) | 1L << topology.jumpOver(j);
+                targets[j] = 1L << topology.jumpTo(j);
+            }
+            int[] legal = new int[jumpCount];
+            PlayStats stats = new PlayStats(topology.size());
+            for (long g = 0; g < games; g++) {
+                long pegs = game.start();
+                int length = 0;
+                while (true) {
+                    int count = 0;
+                    for (int j = 0; j < jumpCount; j++) {
+                        if ((pegs & jumpers[j]) == jumpers[j] && (pegs & targets[j]) == 0) {
+                            legal[count++] = j;
+                        }
+                    }
+                    if (count == 0) break;
+                    int jump = game.policy().choose(topology, pegs, legal, count, random);
+                    if (jump < 0 || jump >= jumpCount || !topology.canJump(pegs, jump)) {
+                        throw new IllegalStateException(
+                                game.policy() + " chose illegal jump " + jump);
+                    }
+                    pegs ^= jumpers[jump] | targets[jump];
+                    length++;
+                }
+                stats.add(Long.bitCount(pegs), length);
+            }
+            return stats;
+        }
+
+        private PlayStats playAllThroughRules() {
+            Topology topology = game.topology();
+            Rules rules = game.rules();
+            int[] legal = new int[topology.jumpCount()];
+            PlayStats stats = new PlayStats(topology.size());
+            for (long g = 0; g < games; g++) {
+                Board board = game.board();
+                long pegs = game.start();
+                int length = 0;
+                List<Move> moves;
+                while (!(moves = rules.legalMoves(board)).isEmpty()) {
+                    int count = 0;
+                    for (Move move : moves) legal[count++] = topology.jumpIndex(move);
+                    Arrays.sort(legal, 0, count);
+                    int jump = game.policy().choose(topology, pegs, legal, count, random);
+                    Move move = jump < 0 || jump >= legal.length ? null : topology.move(jump);
+                    if (move == null || !rules.isLegal(board, move)) {
+                        throw new IllegalStateException(
+                                game.policy() + " chose illegal jump " + jump);
+                    }
+                    board = board.applyUnchecked(move);
+                    pegs = topology.jump(pegs, jump);
+                    length++;
+                }
+                if (rules.status(board) == GameStatus.RUNNING) {
+                    throw new IllegalStateException("rules report a stuck game as running");
+                }
+                stats.add(board.pegCount(), length);
+            }
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.solitaire.solver.sim;
+
+import com.solitaire.domain.Position;
+import com.solitaire.domain.Topology;
+import java.util.SplittableRandom;
+
+/** The built-in policies; ties between equally good jumps are broken uniformly at random. */
+public enum StandardPolicy implements Policy {
+
+    /** Any legal jump, uniformly. */
+    UNIFORM_RANDOM {
+        @Override
+        public int choose(
+                Topology topology, long pegs, int[] jumps, int count, SplittableRandom random) {
+            return jumps[random.nextInt(count)];
+        }
+    },
+
+    /** The jump that leaves the most legal jumps behind it. */
+    GREEDY_MOBILITY {
+        @Override
+        public int choose(
+                Topology topology, long pegs, int[] jumps, int count, SplittableRandom random) {
+            int best = 0;
+            int ties = 0;
+            int chosen = jumps[0];
+            for (int k = 0; k < count; k++) {
+                long next = topology.jump(pegs, jumps[k]);
+                int mobility = 0;
+                for (int j = 0; j < topology.jumpCount(); j++) {
+                    if (topology.canJump(next, j)) mobility++;
+                }
+                if (mobility > best || k == 0) {
+                    best = mobility;
+                    ties = 1;
+                    chosen = jumps[k];
+                } else if (mobility == best && random.nextInt(++ties) == 0) {
+                    chosen = jumps[k];
+                }
+            }
+            return chosen;
+        }
+    },
+
+    /** The jump landing closest to the centre of the board. */
+    CENTER_FIRST {
+        @Override
+        public int choose(
+                Topology topology, long pegs, int[] jumps, int count, SplittableRandom random) {
+            int best = Integer.MAX_VALUE;
+            int ties = 0;
+            int chosen = jumps[0];
+            for (int k = 0; k < count; k++) {
+                Position to = topology.position(topology.jumpTo(jumps[k]));
+                // Doubled coordinates keep the centre of an even-sized board on the grid.
+                int dr = 2 * to.r() - (topology.rows() - 1);
+                int dc = 2 * to.c() - (topology.cols() - 1);
+                int distance = dr * dr + dc * dc;
+                if (distance < best) {
+                    best = distance;
+                    ties = 1;
+                    chosen = jumps[k];
+                } else if (distance == best && random.nextInt(++ties) == 0) {
+                    chosen = jumps[k];
+                }
+            }
+            return chosen;
+        }
+    }
+}
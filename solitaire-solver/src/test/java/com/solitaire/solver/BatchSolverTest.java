@@ -0,0 +1,72 @@
+package com.solitaire.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.rules.EnglishRules;
+import com.solitaire.solver.sim.RandomPlayouts;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class BatchSolverTest {
+
+    private static final Board ENGLISH = DomainFactory.buildDomain().board();
+
+    @Test
+    @DisplayName("should agree with independent searches on every position")
+    void shouldAgreeWithIndependentSearches() {
+        List<Board> boards = RandomPlayouts.positions(ENGLISH, new EnglishRules(), 24, 18, 26, 7);
+
+        try (BatchSolver solver = new BatchSolver(2, 1 << 16)) {
+            Iterator<BatchResult> results = solver.solveAll(boards);
+            Set<Integer> seen = new HashSet<>();
+            while (results.hasNext()) {
+                BatchResult result = results.next();
+                assertTrue(seen.add(result.index()), "duplicate result " + result.index());
+                assertEquals(boards.get(result.index()), result.board());
+
+                boolean expected =
+                        DepthFirstSearch.solve(result.board()).run().solution().isPresent();
+                assertEquals(expected, result.solvable(), "position " + result.index());
+            }
+            assertEquals(boards.size(), seen.size());
+        }
+    }
+
+    @Test
+    @DisplayName("should answer repeated positions from the shared cache")
+    void shouldReuseCacheAcrossBatches() {
+        List<Board> boards = RandomPlayouts.positions(ENGLISH, new EnglishRules(), 8, 20, 24, 7);
+
+        try (BatchSolver solver = new BatchSolver(1, 1 << 16)) {
+            solver.solveAll(boards).forEachRemaining(r -> {});
+            long hitsAfterFirst = solver.cacheHits();
+
+            List<BatchResult> second = new ArrayList<>();
+            solver.solveAll(boards).forEachRemaining(second::add);
+
+            assertTrue(solver.cacheHits() >= hitsAfterFirst + boards.size());
+            for (BatchResult result : second) {
+                assertEquals(0, result.nodes(), "position " + result.index() + " re-searched");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should solve single boards through the cache")
+    void shouldSolveSingleBoards() {
+        try (BatchSolver solver = new BatchSolver(1, 1024)) {
+            assertTrue(
+                    solver.isSolvable(new Board(new Cell[][] {{Cell.PEG, Cell.PEG, Cell.EMPTY}})));
+            assertFalse(
+                    solver.isSolvable(new Board(new Cell[][] {{Cell.PEG, Cell.EMPTY, Cell.PEG}})));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.solitaire.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.GameStatus;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.rules.EnglishRules;
+import com.solitaire.domain.rules.Rules;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class DepthFirstSearchTest {
+
+    private final Board english = DomainFactory.buildDomain().board();
+
+    @TempDir Path dir;
+
+    @Test
+    @DisplayName("should find a legal line that wins the English board")
+    void shouldSolveEnglishBoard() {
+        SearchResult result = DepthFirstSearch.solve(english).run();
+
+        assertTrue(result.complete());
+        List<Move> solution = result.solution().orElseThrow();
+        assertEquals(31, solution.size());
+
+        Rules rules = new EnglishRules();
+        Board board = english;
+        for (Move move : solution) {
+            assertTrue(rules.isLegal(board, move), "illegal move " + move);
+            board = board.applyUnchecked(move);
+        }
+        assertEquals(GameStatus.WON, rules.status(board));
+    }
+
+    @Test
+    @DisplayName("should report no solution for an unwinnable board")
+    void shouldReportNoSolution() {
+        Board board = new Board(new Cell[][] {{Cell.PEG, Cell.EMPTY, Cell.PEG}});
+
+        SearchResult result = DepthFirstSearch.solve(board).run();
+
+        assertTrue(result.complete());
+        assertTrue(result.solution().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should pause on its node budget and continue in process")
+    void shouldPauseAndContinue() {
+        SearchResult expected = DepthFirstSearch.enumerate(fullSquare()).run();
+
+        DepthFirstSearch search = DepthFirstSearch.enumerate(fullSquare());
+        SearchResult paused = search.run(10_000);
+        SearchResult resumed = search.run();
+
+        assertFalse(paused.complete());
+        assertEquals(10_000, paused.stats().nodes());
+        assertEquals(expected, resumed);
+    }
+
+    @Test
+    @DisplayName("should resume an enumeration from its checkpoint with identical counters")
+    void shouldResumeEnumerationFromCheckpoint() throws Exception {
+        Path file = dir.resolve("enumerate.ckpt");
+        SearchResult expected = DepthFirstSearch.enumerate(fullSquare()).run();
+
+        try (DepthFirstSearch search =
+                DepthFirstSearch.enumerate(fullSquare())
+                        .withCheckpoints(new CheckpointPolicy(file, Duration.ZERO))) {
+            assertFalse(search.run(250_000).complete());
+        }
+        Path copy = dir.resolve("windowed.ckpt");
+        Checkpoint.read(file, 4096).write(copy, 4096);
+        assertTrue(Files.size(copy) > 16 * 4096, "checkpoint should span many windows");
+        assertArrayEquals(Files.readAllBytes(file), Files.readAllBytes(copy));
+
+        try (DepthFirstSearch resumed = DepthFirstSearch.resume(file)) {
+            assertEquals(SearchMode.ENUMERATE, resumed.mode());
+            assertEquals(fullSquare(), resumed.root());
+            assertEquals(expected, resumed.run());
+        }
+    }
+
+    @Test
+    @DisplayName("should resume a solve from its checkpoint with the same solution")
+    void shouldResumeSolveFromCheckpoint() throws Exception {
+        Path file = dir.resolve("solve.ckpt");
+        SearchResult expected = DepthFirstSearch.solve(english).run();
+
+        try (DepthFirstSearch search =
+                DepthFirstSearch.solve(english)
+                        .withCheckpoints(new CheckpointPolicy(file, Duration.ofHours(1)))) {
+            assertFalse(search.run(5_000).complete());
+        }
+
+        try (DepthFirstSearch resumed = DepthFirstSearch.resume(file)) {
+            assertEquals(expected, resumed.run());
+        }
+    }
+
+    private static Board fullSquare() {
+        Cell[][] cells = new Cell[5][5];
+        for (Cell[] row : cells) Arrays.fill(row, Cell.PEG);
+        cells[2][2] = Cell.EMPTY;
+        return new Board(cells);
+    }
+}
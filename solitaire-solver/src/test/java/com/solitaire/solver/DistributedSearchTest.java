@@ -0,0 +1,80 @@
+package com.solitaire.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class DistributedSearchTest {
+
+    @Test
+    @DisplayName("should count the same positions as a single-JVM enumeration")
+    void shouldMatchLocalEnumeration() throws Exception {
+        Board board = squareWithHoleAt(1, 2);
+        SearchStats expected = DepthFirstSearch.enumerate(board).run().stats();
+
+        DistributedResult result = enumerateWithWorkers(board, 3);
+
+        assertEquals(expected.positions(), result.positions());
+        assertEquals(expected.wins(), result.wins());
+        assertEquals(board.pegCount(), result.layerSizes().size());
+        assertEquals(
+                result.positions(), result.layerSizes().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("should work with a single worker")
+    void shouldWorkWithSingleWorker() throws Exception {
+        Board board = new Board(new Cell[][] {{Cell.PEG, Cell.PEG, Cell.EMPTY, Cell.PEG}});
+
+        DistributedResult result = enumerateWithWorkers(board, 1);
+
+        assertEquals(List.of(1L, 1L, 1L), result.layerSizes());
+        assertEquals(1, result.wins());
+    }
+
+    private static DistributedResult enumerateWithWorkers(Board board, int count) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(count);
+        List<SearchWorker> workers = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                SearchWorker worker = new SearchWorker(0);
+                workers.add(worker);
+                addresses.add(new InetSocketAddress("localhost", worker.port()));
+                running.add(
+                        pool.submit(
+                                () -> {
+                                    worker.run();
+                                    return null;
+                                }));
+            }
+
+            DistributedResult result = new SearchCoordinator(addresses).enumerate(board);
+
+            for (Future<?> f : running) f.get(10, TimeUnit.SECONDS);
+            return result;
+        } finally {
+            for (SearchWorker worker : workers) worker.close();
+            pool.shutdownNow();
+        }
+    }
+
+    private static Board squareWithHoleAt(int r, int c) {
+        Cell[][] cells = new Cell[5][5];
+        for (Cell[] row : cells) Arrays.fill(row, Cell.PEG);
+        cells[r][c] = Cell.EMPTY;
+        return new Board(cells);
+    }
+}
@@ -0,0 +1,62 @@
+package com.solitaire.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class LongHashSetTest {
+
+    @Test
+    @DisplayName("should keep a snapshot's keys while the set changes and grows under the reader")
+    void shouldSnapshotWhileWriting() {
+        SplittableRandom random = new SplittableRandom(3);
+        LongHashSet set = new LongHashSet(1 << 16);
+        set.add(0);
+        for (int i = 0; i < 40_000; i++) set.add(random.nextLong());
+        long[] expected = set.toArray();
+        Arrays.sort(expected);
+
+        LongHashSet.Snapshot snapshot = set.snapshot();
+        CompletableFuture<long[]> read = CompletableFuture.supplyAsync(() -> keys(snapshot));
+        for (int i = 0; i < 200_000; i++) set.add(random.nextLong());
+        long[] actual = read.join();
+
+        assertArrayEquals(expected, actual);
+        assertEquals(240_001, set.size());
+        assertThrows(IllegalStateException.class, () -> snapshot.readPage(0, new long[1 << 12]));
+    }
+
+    @Test
+    @DisplayName("should refuse a new snapshot until the previous one is released")
+    void shouldReleaseSnapshots() {
+        LongHashSet set = new LongHashSet();
+        for (long key = 1; key <= 100; key++) set.add(key);
+        LongHashSet.Snapshot first = set.snapshot();
+        assertThrows(IllegalStateException.class, set::snapshot);
+
+        first.release();
+        set.add(101);
+        LongHashSet copy = LongHashSet.fromSnapshot(set.snapshot());
+        assertEquals(101, copy.size());
+        assertTrue(copy.contains(101));
+    }
+
+    private static long[] keys(LongHashSet.Snapshot snapshot) {
+        long[] keys = new long[snapshot.size()];
+        int n = 0;
+        if (snapshot.containsZero()) keys[n++] = 0;
+        long[] page = new long[LongHashSet.PAGE_SLOTS];
+        for (int p = 0; p < snapshot.pages(); p++) {
+            int slots = snapshot.readPage(p, page);
+            for (int i = 0; i < slots; i++) {
+                if (page[i] != 0) keys[n++] = page[i];
+            }
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+}
@@ -0,0 +1,94 @@
+package com.solitaire.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.rules.EnglishRules;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class OpeningBookTest {
+
+    private final EnglishRules rules = new EnglishRules();
+
+    @TempDir Path dir;
+
+    @Test
+    @DisplayName("should list exactly the winning moves for every position in the book")
+    void shouldAgreeWithSolver() throws Exception {
+        Board start = squareWithHoleAt(1, 2);
+        Path file = dir.resolve("square.book");
+        OpeningBook.write(start, 4, file);
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(4, book.depth());
+
+        Random random = new Random(11);
+        try (BatchSolver solver = new BatchSolver(1, 1 << 16)) {
+            for (int game = 0; game < 20; game++) {
+                Board board = start;
+                for (int move = 0; move <= 4; move++) {
+                    List<Move> legal = rules.legalMoves(board);
+                    List<Move> winning = book.winningMoves(board).orElseThrow();
+                    for (Move m : legal) {
+                        assertEquals(
+                                solver.isSolvable(board.applyUnchecked(m)),
+                                winning.contains(m),
+                                m.toString());
+                    }
+                    assertEquals(Optional.of(solver.isSolvable(board)), book.isSolvable(board));
+                    long pegs = book.topology().encode(board);
+                    assertEquals(book.isSolvable(board), book.isSolvable(pegs));
+                    assertEquals(
+                            solver.isSolvable(board), solver.isSolvable(book.topology(), pegs));
+                    if (legal.isEmpty()) break;
+                    board = board.applyUnchecked(legal.get(random.nextInt(legal.size())));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should not answer past its depth or for other boards")
+    void shouldMissOutsideTheBook() throws Exception {
+        Board start = squareWithHoleAt(1, 2);
+        Path file = dir.resolve("square.book");
+        OpeningBook.write(start, 1, file);
+        OpeningBook book = OpeningBook.open(file);
+
+        Board deep = start;
+        for (int i = 0; i < 3; i++) deep = deep.applyUnchecked(rules.legalMoves(deep).get(0));
+        assertTrue(book.winningMoves(deep).isEmpty());
+        assertTrue(book.hint(DomainFactory.buildDomain().board()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should ship a book that hints winning moves from the standard start")
+    void shouldHintFromStandardBook() {
+        OpeningBook book = OpeningBook.standard();
+        assertEquals(OpeningBook.STANDARD_DEPTH, book.depth());
+
+        Board board = DomainFactory.buildDomain().board();
+        for (int i = 0; i < 6; i++) {
+            Move hint = book.hint(board).orElseThrow();
+            assertTrue(rules.legalMoves(board).contains(hint));
+            board = board.applyUnchecked(hint);
+        }
+        assertTrue(DepthFirstSearch.solve(board).run().solution().isPresent());
+    }
+
+    private static Board squareWithHoleAt(int r, int c) {
+        Cell[][] cells = new Cell[5][5];
+        for (Cell[] row : cells) Arrays.fill(row, Cell.PEG);
+        cells[r][c] = Cell.EMPTY;
+        return new Board(cells);
+    }
+}
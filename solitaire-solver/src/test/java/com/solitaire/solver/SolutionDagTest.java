@@ -0,0 +1,130 @@
+package com.solitaire.solver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.Move;
+import com.solitaire.domain.Topology;
+import com.solitaire.domain.rules.EnglishRules;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+final class SolutionDagTest {
+
+    @TempDir Path dir;
+
+    @Test
+    @DisplayName("should mark exactly the moves that keep the game solvable")
+    void shouldAgreeWithSolverOnRandomLines() throws Exception {
+        Board start = squareWithHoleAt(1, 2);
+        Path file = dir.resolve("square.dag");
+        SolutionDag.write(start, file);
+        SolutionDag dag = SolutionDag.open(file);
+
+        assertTrue(dag.startNode() >= 0);
+        assertTrue(dag.isWinnable(start));
+
+        EnglishRules rules = new EnglishRules();
+        Random random = new Random(3);
+        try (BatchSolver solver = new BatchSolver(1, 1 << 16)) {
+            for (int game = 0; game < 20; game++) {
+                Board board = start;
+                List<Move> legal = rules.legalMoves(board);
+                while (!legal.isEmpty()) {
+                    for (Move move : legal) {
+                        boolean expected = solver.isSolvable(board.applyUnchecked(move));
+                        assertEquals(expected, dag.isWinningMove(board, move), move.toString());
+                        assertEquals(expected, dag.winningMoves(board).contains(move));
+                    }
+                    board = board.applyUnchecked(legal.get(random.nextInt(legal.size())));
+                    legal = rules.legalMoves(board);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should lead from the start to a single peg by following edges")
+    void shouldWalkToWin() throws Exception {
+        Path file = dir.resolve("square.dag");
+        SolutionDag.write(squareWithHoleAt(1, 2), file);
+        SolutionDag dag = SolutionDag.open(file);
+        Topology topology = dag.topology();
+
+        int node = dag.startNode();
+        while (dag.childCount(node) > 0) {
+            long pegs = dag.key(node);
+            int jump = dag.childJump(node, 0);
+            assertTrue(topology.canJump(pegs, jump));
+            int child = dag.child(node, 0);
+            assertEquals(topology.canonical(topology.jump(pegs, jump)), dag.key(child));
+            node = child;
+        }
+        assertEquals(1, Long.bitCount(dag.key(node)));
+    }
+
+    @Test
+    @DisplayName("should read back jump indices past 127 on shapes with many jumps")
+    void shouldKeepHighJumpIndices() throws Exception {
+        Cell[][] cells = new Cell[7][7];
+        for (Cell[] row : cells) Arrays.fill(row, Cell.EMPTY);
+        for (int r = 4; r < 7; r++) Arrays.fill(cells[r], 4, 7, Cell.PEG);
+        cells[6][6] = Cell.EMPTY;
+        cells[0][1] = Cell.INVALID; // no symmetry, so keys keep their pegs bottom right
+        Path file = dir.resolve("wide.dag");
+        SolutionDag.write(new Board(cells), file);
+        SolutionDag dag = SolutionDag.open(file);
+        Topology topology = dag.topology();
+        assertTrue(topology.jumpCount() > 127);
+
+        int highest = -1;
+        for (int node = 0; node < dag.nodeCount(); node++) {
+            for (int i = 0; i < dag.childCount(node); i++) {
+                int jump = dag.childJump(node, i);
+                assertTrue(topology.canJump(dag.key(node), jump), "jump " + jump);
+                assertEquals(
+                        topology.canonical(topology.jump(dag.key(node), jump)),
+                        dag.key(dag.child(node, i)));
+                highest = Math.max(highest, jump);
+            }
+        }
+        assertTrue(highest > 127, "no edge used a jump past 127");
+    }
+
+    @Test
+    @DisplayName("should store an unsolvable start as an empty graph")
+    void shouldWriteEmptyGraph() throws Exception {
+        Path file = dir.resolve("stuck.dag");
+        Board board = new Board(new Cell[][] {{Cell.PEG, Cell.EMPTY, Cell.PEG}});
+        SolutionDag.write(board, file);
+        SolutionDag dag = SolutionDag.open(file);
+
+        assertEquals(0, dag.nodeCount());
+        assertEquals(-1, dag.startNode());
+        assertFalse(dag.isWinnable(board));
+        assertTrue(dag.winningMoves(board).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should reject files that are not solution graphs")
+    void shouldRejectForeignFiles() throws Exception {
+        Path file = dir.resolve("junk.dag");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> SolutionDag.open(file));
+    }
+
+    private static Board squareWithHoleAt(int r, int c) {
+        Cell[][] cells = new Cell[5][5];
+        for (Cell[] row : cells) Arrays.fill(row, Cell.PEG);
+        cells[r][c] = Cell.EMPTY;
+        return new Board(cells);
+    }
+}
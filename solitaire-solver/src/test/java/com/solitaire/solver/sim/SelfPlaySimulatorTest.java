@@ -0,0 +1,106 @@
+package com.solitaire.solver.sim;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.solitaire.domain.Board;
+import com.solitaire.domain.Cell;
+import com.solitaire.domain.factory.DomainFactory;
+import com.solitaire.domain.rules.EnglishRules;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+final class SelfPlaySimulatorTest {
+
+    private static final Board ENGLISH = DomainFactory.buildDomain().board();
+
+    @Test
+    @DisplayName("should give the same stats for the same seed whatever the parallelism")
+    void shouldBeDeterministic() {
+        PlayStats one;
+        PlayStats four;
+        try (ForkJoinPool pool = new ForkJoinPool(1)) {
+            one = new SelfPlaySimulator(pool).play(ENGLISH, StandardPolicy.UNIFORM_RANDOM, 5000, 7);
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(4)) {
+            four =
+                    new SelfPlaySimulator(pool)
+                            .play(ENGLISH, StandardPolicy.UNIFORM_RANDOM, 5000, 7);
+        }
+        assertArrayEquals(one.finalPegCounts(), four.finalPegCounts());
+        assertArrayEquals(one.lengthCounts(), four.lengthCounts());
+
+        PlayStats other =
+                SelfPlaySimulator.onCommonPool()
+                        .play(ENGLISH, StandardPolicy.UNIFORM_RANDOM, 5000, 8);
+        assertFalse(Arrays.equals(one.finalPegCounts(), other.finalPegCounts()));
+    }
+
+    @Test
+    @DisplayName("should give the same stats through the rules engine as on peg masks")
+    void shouldMatchThroughRules() {
+        SelfPlaySimulator simulator = SelfPlaySimulator.onCommonPool();
+        for (StandardPolicy policy :
+                List.of(StandardPolicy.UNIFORM_RANDOM, StandardPolicy.CENTER_FIRST)) {
+            PlayStats masks = simulator.play(ENGLISH, policy, 2000, 5);
+            PlayStats rules = simulator.play(ENGLISH, new EnglishRules(), policy, 2000, 5);
+            assertArrayEquals(masks.finalPegCounts(), rules.finalPegCounts(), policy.name());
+            assertArrayEquals(masks.lengthCounts(), rules.lengthCounts(), policy.name());
+        }
+
+        Policy illegal = (topology, pegs, jumps, count, random) -> jumps[count - 1] + 1000;
+        assertThrows(
+                IllegalStateException.class,
+                () -> simulator.play(ENGLISH, new EnglishRules(), illegal, 10, 1));
+    }
+
+    @Test
+    @DisplayName("should count every game once, its length matching the pegs it removed")
+    void shouldKeepConsistentCounts() {
+        PlayStats stats =
+                SelfPlaySimulator.onCommonPool()
+                        .play(ENGLISH, StandardPolicy.CENTER_FIRST, 3000, 1);
+
+        assertEquals(3000, stats.games());
+        assertEquals(3000, Arrays.stream(stats.finalPegCounts()).sum());
+        long[] pegs = stats.finalPegCounts();
+        long[] lengths = stats.lengthCounts();
+        for (int p = 1; p <= 32; p++) assertEquals(pegs[p], lengths[32 - p], "pegs " + p);
+        assertEquals(32, stats.averagePegsLeft() + stats.averageLength(), 1e-9);
+        assertEquals(stats.wins(), pegs[1]);
+    }
+
+    @Test
+    @DisplayName("should play forced games out and compare policies on the same start")
+    void shouldComparePolicies() {
+        Board forced = new Board(new Cell[][] {{Cell.PEG, Cell.PEG, Cell.EMPTY}});
+        PlayStats won =
+                SelfPlaySimulator.onCommonPool()
+                        .play(forced, StandardPolicy.GREEDY_MOBILITY, 10, 1);
+        assertEquals(1.0, won.winRate());
+        assertEquals(1.0, won.averageLength());
+
+        Map<Policy, PlayStats> results =
+                SelfPlaySimulator.onCommonPool()
+                        .compare(ENGLISH, List.of(StandardPolicy.values()), 4000, 3);
+        assertEquals(List.of(StandardPolicy.values()), List.copyOf(results.keySet()));
+        assertTrue(
+                results.get(StandardPolicy.GREEDY_MOBILITY).averagePegsLeft()
+                        < results.get(StandardPolicy.UNIFORM_RANDOM).averagePegsLeft() - 1);
+    }
+
+    @Test
+    @DisplayName("should accept custom policies and reject illegal choices")
+    void shouldCheckCustomPolicies() {
+        Policy first = (topology, pegs, jumps, count, random) -> jumps[0];
+        assertEquals(10, SelfPlaySimulator.onCommonPool().play(ENGLISH, first, 10, 1).games());
+
+        Policy illegal = (topology, pegs, jumps, count, random) -> -1;
+        assertThrows(
+                IllegalStateException.class,
+                () -> SelfPlaySimulator.onCommonPool().play(ENGLISH, illegal, 10, 1));
+    }
+}